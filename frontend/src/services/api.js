@@ -77,6 +77,8 @@ export const ordersAPI = {
   getById: (id) => api.get(`/orders/${id}`),
   create: (orderData) => api.post('/orders', orderData),
   cancel: (id) => api.patch(`/orders/${id}/cancel`),
+  reserve: (reservationData) => api.post('/orders/reservations', reservationData),
+  releaseReservation: (id, customerId) => api.delete(`/orders/reservations/${id}`, { params: { customerId } }),
   
   // Admin endpoints
   getAll: (params = {}) => api.get('/orders', { params }),
@@ -8,26 +8,21 @@ import java.util.*;
  * Used for efficient searching in the Online Bookstore system
  * Time Complexity: O(log n) for search operations
  * Space Complexity: O(1) for iterative implementation
+ *
+ * All methods are stateless and safe to call concurrently. Comparison
+ * counts are reported per call through {@link SearchResult} by the
+ * *WithMetrics variants rather than through shared static state.
+ *
+ * Variants:
+ * - Generic (search, findFirst, findLast): Comparable or Comparator arrays
+ * - Primitive (search, lowerBound on long[]/double[]): branch-free loop
+ *   whose only data-dependent choice compiles to a conditional move
+ * - Eytzinger ({@link EytzingerIndex}): sorted keys re-laid out in BFS
+ *   order so the first levels of every search share the same cache lines
+ * - Batch (searchBatch): many ascending keys resolved in one galloping pass
  */
 public class BinarySearch {
     
-    private static int comparisons = 0;
-    
-    /**
-     * Reset comparison counter
-     */
-    private static void resetComparisons() {
-        comparisons = 0;
-    }
-    
-    /**
-     * Get number of comparisons made in last search
-     * @return Number of comparisons
-     */
-    public static int getComparisons() {
-        return comparisons;
-    }
-    
     /**
      * Standard binary search for exact match
      * Time Complexity: O(log n)
@@ -37,12 +32,21 @@ public class BinarySearch {
      * @return Index of target element, or -1 if not found
      */
     public static <T extends Comparable<T>> int search(T[] array, T target) {
-        resetComparisons();
-        
+        return searchWithMetrics(array, target).getIndex();
+    }
+    
+    /**
+     * Standard binary search reporting the comparisons made by this call
+     * @param array Sorted array to search
+     * @param target Target element to find
+     * @return Index of target element (or -1) and comparison count
+     */
+    public static <T extends Comparable<T>> SearchResult searchWithMetrics(T[] array, T target) {
         if (array == null || target == null) {
-            return -1;
+            return SearchResult.NOT_FOUND;
         }
         
+        int comparisons = 0;
         int left = 0;
         int right = array.length - 1;
         
@@ -53,7 +57,7 @@ public class BinarySearch {
             int comparison = array[mid].compareTo(target);
             
             if (comparison == 0) {
-                return mid; // Found target
+                return new SearchResult(mid, comparisons); // Found target
             } else if (comparison < 0) {
                 left = mid + 1; // Search right half
             } else {
@@ -61,7 +65,7 @@ public class BinarySearch {
             }
         }
         
-        return -1; // Target not found
+        return new SearchResult(-1, comparisons); // Target not found
     }
     
     /**
@@ -72,12 +76,22 @@ public class BinarySearch {
      * @return Index of target element, or -1 if not found
      */
     public static <T> int search(T[] array, T target, Comparator<T> comparator) {
-        resetComparisons();
-        
+        return searchWithMetrics(array, target, comparator).getIndex();
+    }
+    
+    /**
+     * Binary search with custom comparator reporting the comparisons made by this call
+     * @param array Sorted array to search
+     * @param target Target element to find
+     * @param comparator Custom comparator function
+     * @return Index of target element (or -1) and comparison count
+     */
+    public static <T> SearchResult searchWithMetrics(T[] array, T target, Comparator<T> comparator) {
         if (array == null || target == null || comparator == null) {
-            return -1;
+            return SearchResult.NOT_FOUND;
         }
         
+        int comparisons = 0;
         int left = 0;
         int right = array.length - 1;
         
@@ -88,7 +102,7 @@ public class BinarySearch {
             int comparison = comparator.compare(array[mid], target);
             
             if (comparison == 0) {
-                return mid;
+                return new SearchResult(mid, comparisons);
             } else if (comparison < 0) {
                 left = mid + 1;
             } else {
@@ -96,7 +110,7 @@ public class BinarySearch {
             }
         }
         
-        return -1;
+        return new SearchResult(-1, comparisons);
     }
     
     /**
@@ -106,12 +120,21 @@ public class BinarySearch {
      * @return Index of first occurrence, or -1 if not found
      */
     public static <T extends Comparable<T>> int findFirst(T[] array, T target) {
-        resetComparisons();
-        
+        return findFirstWithMetrics(array, target).getIndex();
+    }
+    
+    /**
+     * Find first occurrence of target (leftmost) reporting the comparisons made by this call
+     * @param array Sorted array to search
+     * @param target Target element to find
+     * @return Index of first occurrence (or -1) and comparison count
+     */
+    public static <T extends Comparable<T>> SearchResult findFirstWithMetrics(T[] array, T target) {
         if (array == null || target == null) {
-            return -1;
+            return SearchResult.NOT_FOUND;
         }
         
+        int comparisons = 0;
         int left = 0;
         int right = array.length - 1;
         int result = -1;
@@ -132,7 +155,7 @@ public class BinarySearch {
             }
         }
         
-        return result;
+        return new SearchResult(result, comparisons);
     }
     
     /**
@@ -142,12 +165,21 @@ public class BinarySearch {
      * @return Index of last occurrence, or -1 if not found
      */
     public static <T extends Comparable<T>> int findLast(T[] array, T target) {
-        resetComparisons();
-        
+        return findLastWithMetrics(array, target).getIndex();
+    }
+    
+    /**
+     * Find last occurrence of target (rightmost) reporting the comparisons made by this call
+     * @param array Sorted array to search
+     * @param target Target element to find
+     * @return Index of last occurrence (or -1) and comparison count
+     */
+    public static <T extends Comparable<T>> SearchResult findLastWithMetrics(T[] array, T target) {
         if (array == null || target == null) {
-            return -1;
+            return SearchResult.NOT_FOUND;
         }
         
+        int comparisons = 0;
         int left = 0;
         int right = array.length - 1;
         int result = -1;
@@ -168,7 +200,7 @@ public class BinarySearch {
             }
         }
         
-        return result;
+        return new SearchResult(result, comparisons);
     }
     
     /**
@@ -215,7 +247,6 @@ public class BinarySearch {
         
         while (left < right) {
             int mid = left + (right - left) / 2;
-            comparisons++;
             
             int comparison = array[mid].compareTo(target);
             
@@ -237,6 +268,206 @@ public class BinarySearch {
         return left;
     }
     
+    /**
+     * Exact-match search on a sorted long array
+     * Time Complexity: O(log n)
+     * Space Complexity: O(1)
+     * @param array Sorted array to search
+     * @param target Target value
+     * @return Index of the first occurrence of target, or -1 if not found
+     */
+    public static int search(long[] array, long target) {
+        if (array == null) {
+            return -1;
+        }
+        int index = lowerBound(array, target);
+        return index < array.length && array[index] == target ? index : -1;
+    }
+    
+    /**
+     * Exact-match search on a sorted double array.
+     * Uses {@link Double#compare} ordering, the same as {@link MergeSort#sort(double[])}.
+     * @param array Sorted array to search
+     * @param target Target value
+     * @return Index of the first occurrence of target, or -1 if not found
+     */
+    public static int search(double[] array, double target) {
+        if (array == null) {
+            return -1;
+        }
+        int index = lowerBound(array, target);
+        return index < array.length && Double.compare(array[index], target) == 0 ? index : -1;
+    }
+    
+    /**
+     * Branch-free lower bound: index of the first element >= target.
+     * The loop runs exactly ceil(log2 n) times regardless of the data, and the
+     * only data-dependent choice is a select the JIT turns into a conditional move.
+     * Time Complexity: O(log n)
+     * Space Complexity: O(1)
+     * @param array Sorted array
+     * @param target Target value
+     * @return Insertion index in [0, array.length]
+     */
+    public static int lowerBound(long[] array, long target) {
+        int length = array.length;
+        if (length == 0) {
+            return 0;
+        }
+        int base = 0;
+        while (length > 1) {
+            int half = length >>> 1;
+            base = array[base + half - 1] < target ? base + half : base;
+            length -= half;
+        }
+        return array[base] < target ? base + 1 : base;
+    }
+    
+    /**
+     * Branch-free lower bound on a sorted double array ({@link Double#compare} ordering)
+     * @param array Sorted array
+     * @param target Target value
+     * @return Insertion index in [0, array.length]
+     */
+    public static int lowerBound(double[] array, double target) {
+        int length = array.length;
+        if (length == 0) {
+            return 0;
+        }
+        int base = 0;
+        while (length > 1) {
+            int half = length >>> 1;
+            base = Double.compare(array[base + half - 1], target) < 0 ? base + half : base;
+            length -= half;
+        }
+        return Double.compare(array[base], target) < 0 ? base + 1 : base;
+    }
+    
+    /**
+     * Batch lookup of many keys in one pass over a sorted array.
+     * Each key is located by galloping forward from the previous key's
+     * position, so ascending keys cost O(m log(n/m)) comparisons in total
+     * instead of m independent O(log n) searches. A key smaller than its
+     * predecessor simply restarts the gallop from the beginning.
+     * @param array Sorted array to search
+     * @param keys Keys to look up, ideally in ascending order
+     * @return For each key, the index of its first occurrence or -1
+     */
+    public static int[] searchBatch(long[] array, long[] keys) {
+        int[] results = new int[keys.length];
+        int position = 0;
+        for (int k = 0; k < keys.length; k++) {
+            long key = keys[k];
+            if (k > 0 && key < keys[k - 1]) {
+                position = 0;
+            }
+            
+            // Gallop: find a window (position, bound] that contains the lower bound
+            int bound = position;
+            int step = 1;
+            while (bound < array.length && array[bound] < key) {
+                position = bound + 1;
+                bound += step;
+                step <<= 1;
+            }
+            
+            int left = position;
+            int right = Math.min(bound, array.length);
+            while (left < right) {
+                int mid = (left + right) >>> 1;
+                if (array[mid] < key) {
+                    left = mid + 1;
+                } else {
+                    right = mid;
+                }
+            }
+            position = left;
+            results[k] = left < array.length && array[left] == key ? left : -1;
+        }
+        return results;
+    }
+    
+    /**
+     * Batch lookup of many keys in one pass over a sorted double array
+     * ({@link Double#compare} ordering)
+     * @param array Sorted array to search
+     * @param keys Keys to look up, ideally in ascending order
+     * @return For each key, the index of its first occurrence or -1
+     */
+    public static int[] searchBatch(double[] array, double[] keys) {
+        int[] results = new int[keys.length];
+        int position = 0;
+        for (int k = 0; k < keys.length; k++) {
+            double key = keys[k];
+            if (k > 0 && Double.compare(key, keys[k - 1]) < 0) {
+                position = 0;
+            }
+            
+            int bound = position;
+            int step = 1;
+            while (bound < array.length && Double.compare(array[bound], key) < 0) {
+                position = bound + 1;
+                bound += step;
+                step <<= 1;
+            }
+            
+            int left = position;
+            int right = Math.min(bound, array.length);
+            while (left < right) {
+                int mid = (left + right) >>> 1;
+                if (Double.compare(array[mid], key) < 0) {
+                    left = mid + 1;
+                } else {
+                    right = mid;
+                }
+            }
+            position = left;
+            results[k] = left < array.length && Double.compare(array[left], key) == 0 ? left : -1;
+        }
+        return results;
+    }
+    
+    /**
+     * Batch lookup of many keys in one pass over a sorted array of objects,
+     * e.g. bulk ISBN checks against a sorted catalogue
+     * @param array Sorted array to search
+     * @param keys Keys to look up, ideally in ascending order
+     * @param comparator Ordering of the array
+     * @return For each key, the index of its first occurrence or -1
+     */
+    public static <T> int[] searchBatch(T[] array, T[] keys, Comparator<? super T> comparator) {
+        int[] results = new int[keys.length];
+        int position = 0;
+        for (int k = 0; k < keys.length; k++) {
+            T key = keys[k];
+            if (k > 0 && comparator.compare(key, keys[k - 1]) < 0) {
+                position = 0;
+            }
+            
+            int bound = position;
+            int step = 1;
+            while (bound < array.length && comparator.compare(array[bound], key) < 0) {
+                position = bound + 1;
+                bound += step;
+                step <<= 1;
+            }
+            
+            int left = position;
+            int right = Math.min(bound, array.length);
+            while (left < right) {
+                int mid = (left + right) >>> 1;
+                if (comparator.compare(array[mid], key) < 0) {
+                    left = mid + 1;
+                } else {
+                    right = mid;
+                }
+            }
+            position = left;
+            results[k] = left < array.length && comparator.compare(array[left], key) == 0 ? left : -1;
+        }
+        return results;
+    }
+    
     /**
      * Verify that array is sorted
      * @param array Array to check
@@ -285,4 +516,170 @@ public class BinarySearch {
         
         return info;
     }
-}
\ No newline at end of file
+    
+    /**
+     * Result of a single search call
+     */
+    public static final class SearchResult {
+        static final SearchResult NOT_FOUND = new SearchResult(-1, 0);
+        
+        private final int index;
+        private final int comparisons;
+        
+        public SearchResult(int index, int comparisons) {
+            this.index = index;
+            this.comparisons = comparisons;
+        }
+        
+        // Getters
+        public int getIndex() { return index; }
+        public int getComparisons() { return comparisons; }
+        public boolean isFound() { return index >= 0; }
+        
+        @Override
+        public String toString() {
+            return String.format("SearchResult{index=%d, comparisons=%d}", index, comparisons);
+        }
+    }
+    
+    /**
+     * Sorted keys stored in Eytzinger (BFS heap) order.
+     * Node k has children 2k and 2k+1, so the top levels of the implicit tree
+     * sit next to each other in memory and stay cached across searches, and
+     * each step's next node is known before the comparison resolves.
+     * Doubles are stored as order-preserving long bits so both key types
+     * share one comparison loop.
+     *
+     * Time Complexity: O(log n) search, O(n) build
+     * Space Complexity: O(n)
+     */
+    public static final class EytzingerIndex {
+        private final long[] tree;      // 1-based, tree[0] unused
+        private final int[] sortedIndex; // tree position -> index in the sorted input
+        private final boolean doubleKeys;
+        
+        private EytzingerIndex(long[] sorted, boolean doubleKeys) {
+            this.tree = new long[sorted.length + 1];
+            this.sortedIndex = new int[sorted.length + 1];
+            this.doubleKeys = doubleKeys;
+            build(sorted, 0, 1);
+        }
+        
+        /**
+         * Builds an index over sorted long keys
+         * @param sorted Keys in ascending order
+         * @return Index whose search results refer to positions in sorted
+         */
+        public static EytzingerIndex ofLongs(long[] sorted) {
+            return new EytzingerIndex(sorted, false);
+        }
+        
+        /**
+         * Builds an index over sorted double keys ({@link Double#compare} ordering)
+         * @param sorted Keys in ascending order
+         * @return Index whose search results refer to positions in sorted
+         */
+        public static EytzingerIndex ofDoubles(double[] sorted) {
+            long[] bits = new long[sorted.length];
+            for (int i = 0; i < sorted.length; i++) {
+                bits[i] = sortableBits(sorted[i]);
+            }
+            return new EytzingerIndex(bits, true);
+        }
+        
+        /**
+         * In-order walk of the implicit tree, filling nodes from the sorted input
+         * @return Next unread position of sorted
+         */
+        private int build(long[] sorted, int next, int node) {
+            if (node < tree.length) {
+                next = build(sorted, next, 2 * node);
+                tree[node] = sorted[next];
+                sortedIndex[node] = next++;
+                next = build(sorted, next, 2 * node + 1);
+            }
+            return next;
+        }
+        
+        /**
+         * Index in the sorted input of the first key >= target
+         * @param target Target value
+         * @return Insertion index in [0, size()]
+         */
+        public int lowerBound(long target) {
+            if (doubleKeys) {
+                throw new IllegalStateException("Index was built from double keys");
+            }
+            return lowerBoundBits(target);
+        }
+        
+        /**
+         * Index in the sorted input of the first key >= target
+         * @param target Target value
+         * @return Insertion index in [0, size()]
+         */
+        public int lowerBound(double target) {
+            if (!doubleKeys) {
+                throw new IllegalStateException("Index was built from long keys");
+            }
+            return lowerBoundBits(sortableBits(target));
+        }
+        
+        /**
+         * Exact-match search
+         * @param target Target value
+         * @return Index in the sorted input of the first occurrence, or -1
+         */
+        public int search(long target) {
+            if (doubleKeys) {
+                throw new IllegalStateException("Index was built from double keys");
+            }
+            int node = lowerBoundNode(target);
+            return node != 0 && tree[node] == target ? sortedIndex[node] : -1;
+        }
+        
+        /**
+         * Exact-match search
+         * @param target Target value
+         * @return Index in the sorted input of the first occurrence, or -1
+         */
+        public int search(double target) {
+            if (!doubleKeys) {
+                throw new IllegalStateException("Index was built from long keys");
+            }
+            long bits = sortableBits(target);
+            int node = lowerBoundNode(bits);
+            return node != 0 && tree[node] == bits ? sortedIndex[node] : -1;
+        }
+        
+        private int lowerBoundBits(long target) {
+            int node = lowerBoundNode(target);
+            return node == 0 ? size() : sortedIndex[node];
+        }
+        
+        /**
+         * Tree position of the first key >= target, or 0 when every key is smaller
+         */
+        private int lowerBoundNode(long target) {
+            int n = tree.length - 1;
+            int node = 1;
+            while (node <= n) {
+                node = 2 * node + (tree[node] < target ? 1 : 0);
+            }
+            // Undo the trailing right turns and the final left turn to reach the answer
+            return node >>> (Integer.numberOfTrailingZeros(~node) + 1);
+        }
+        
+        /**
+         * Number of keys in the index
+         */
+        public int size() {
+            return tree.length - 1;
+        }
+        
+        private static long sortableBits(double value) {
+            long bits = Double.doubleToLongBits(value);
+            return bits ^ ((bits >> 63) & Long.MAX_VALUE);
+        }
+    }
+}
@@ -0,0 +1,365 @@
+package com.bookstore.algorithms;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+
+/**
+ * Concurrent Hash Search Implementation
+ * Thread-safe counterpart of {@link HashSearch} for process-wide indexes
+ * (ISBN -> bookId, email -> customerId) shared by request threads.
+ *
+ * - Reads are lock-free: the table reference and bucket heads are read with
+ *   volatile semantics and chain links are immutable, so a reader always sees
+ *   a consistent chain without taking a lock
+ * - Writes lock one of a fixed number of stripes; a bucket always maps to the
+ *   same stripe because the table never shrinks below the stripe count
+ * - Resize takes every stripe (blocking writers only), builds a new table
+ *   and publishes it with one volatile write; readers keep using the old
+ *   table until then
+ *
+ * Time Complexity: O(1) average case, O(n) worst case
+ * Space Complexity: O(n)
+ */
+public class ConcurrentHashSearch<K, V> {
+    private static final int DEFAULT_CAPACITY = 64;
+    private static final double DEFAULT_LOAD_FACTOR = 0.75;
+    private static final int RESIZE_FACTOR = 2;
+    private static final int STRIPES = 64;
+    
+    private volatile AtomicReferenceArray<Node<K, V>> table;
+    private final ReentrantLock[] locks;
+    private final double loadFactor;
+    private final LongAdder size = new LongAdder();
+    private final LongAdder collisions = new LongAdder();
+    private volatile int resizeCount;
+    
+    /**
+     * Constructor with default parameters
+     */
+    public ConcurrentHashSearch() {
+        this(DEFAULT_CAPACITY, DEFAULT_LOAD_FACTOR);
+    }
+    
+    /**
+     * Constructor with custom capacity and load factor
+     * @param initialCapacity Initial capacity (rounded up to a power of two, at least the stripe count)
+     * @param loadFactor Load factor threshold for resizing
+     */
+    public ConcurrentHashSearch(int initialCapacity, double loadFactor) {
+        if (initialCapacity <= 0) {
+            throw new IllegalArgumentException("Initial capacity must be positive");
+        }
+        if (loadFactor <= 0 || loadFactor > 1) {
+            throw new IllegalArgumentException("Load factor must be between 0 and 1");
+        }
+        
+        this.loadFactor = loadFactor;
+        this.table = new AtomicReferenceArray<>(HashSearch.tableSizeFor(Math.max(initialCapacity, STRIPES)));
+        this.locks = new ReentrantLock[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+    
+    /**
+     * Insert key-value pair
+     * Time Complexity: O(1) average case, O(n) worst case
+     * @param key Key to insert
+     * @param value Value to associate with key
+     * @return Previous value if key existed, null otherwise
+     */
+    public V put(K key, V value) {
+        if (key == null || value == null) {
+            throw new IllegalArgumentException("Key and value cannot be null");
+        }
+        
+        int hash = HashSearch.mix(key.hashCode());
+        ReentrantLock lock = locks[hash & (STRIPES - 1)];
+        boolean grow;
+        lock.lock();
+        try {
+            AtomicReferenceArray<Node<K, V>> tab = table;
+            int index = hash & (tab.length() - 1);
+            Node<K, V> head = tab.get(index);
+            for (Node<K, V> node = head; node != null; node = node.next) {
+                if (node.hash == hash && node.key.equals(key)) {
+                    V oldValue = node.value;
+                    node.value = value;
+                    return oldValue;
+                }
+            }
+            
+            if (head != null) {
+                collisions.increment();
+            }
+            tab.set(index, new Node<>(hash, key, value, head));
+            size.increment();
+            grow = size.sum() > tab.length() * loadFactor;
+        } finally {
+            lock.unlock();
+        }
+        
+        if (grow) {
+            resize();
+        }
+        return null;
+    }
+    
+    /**
+     * Search for value by key without locking
+     * Time Complexity: O(1) average case, O(n) worst case
+     * @param key Key to search for
+     * @return Value associated with key, null if not found
+     */
+    public V get(K key) {
+        if (key == null) {
+            return null;
+        }
+        
+        int hash = HashSearch.mix(key.hashCode());
+        AtomicReferenceArray<Node<K, V>> tab = table;
+        for (Node<K, V> node = tab.get(hash & (tab.length() - 1)); node != null; node = node.next) {
+            if (node.hash == hash && node.key.equals(key)) {
+                return node.value;
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Check if key exists
+     * @param key Key to check
+     * @return true if key exists, false otherwise
+     */
+    public boolean containsKey(K key) {
+        return get(key) != null;
+    }
+    
+    /**
+     * Remove key-value pair. The nodes in front of the removed one are copied,
+     * so readers already walking the chain never see a broken link.
+     * Time Complexity: O(1) average case, O(n) worst case
+     * @param key Key to remove
+     * @return Value that was removed, null if key not found
+     */
+    public V remove(K key) {
+        if (key == null) {
+            return null;
+        }
+        
+        int hash = HashSearch.mix(key.hashCode());
+        ReentrantLock lock = locks[hash & (STRIPES - 1)];
+        lock.lock();
+        try {
+            AtomicReferenceArray<Node<K, V>> tab = table;
+            int index = hash & (tab.length() - 1);
+            Node<K, V> head = tab.get(index);
+            for (Node<K, V> node = head; node != null; node = node.next) {
+                if (node.hash == hash && node.key.equals(key)) {
+                    Node<K, V> rebuilt = node.next;
+                    for (Node<K, V> copy = head; copy != node; copy = copy.next) {
+                        rebuilt = new Node<>(copy.hash, copy.key, copy.value, rebuilt);
+                    }
+                    tab.set(index, rebuilt);
+                    size.decrement();
+                    return node.value;
+                }
+            }
+            return null;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Find all entries matching condition.
+     * Weakly consistent: reflects some state of each bucket during the scan.
+     * Time Complexity: O(n)
+     * @param condition Predicate to match
+     * @return Snapshot entries that matched
+     */
+    public List<HashSearch.Entry<K, V>> findAll(Predicate<HashSearch.Entry<K, V>> condition) {
+        List<HashSearch.Entry<K, V>> results = new ArrayList<>();
+        AtomicReferenceArray<Node<K, V>> tab = table;
+        for (int i = 0; i < tab.length(); i++) {
+            for (Node<K, V> node = tab.get(i); node != null; node = node.next) {
+                HashSearch.Entry<K, V> entry = new HashSearch.Entry<>(node.key, node.value);
+                if (condition.test(entry)) {
+                    results.add(entry);
+                }
+            }
+        }
+        return results;
+    }
+    
+    /**
+     * Get all keys (weakly consistent)
+     * Time Complexity: O(n)
+     * @return Set of keys
+     */
+    public Set<K> keySet() {
+        Set<K> keys = new HashSet<>();
+        AtomicReferenceArray<Node<K, V>> tab = table;
+        for (int i = 0; i < tab.length(); i++) {
+            for (Node<K, V> node = tab.get(i); node != null; node = node.next) {
+                keys.add(node.key);
+            }
+        }
+        return keys;
+    }
+    
+    /**
+     * Get all values (weakly consistent)
+     * Time Complexity: O(n)
+     * @return Collection of values
+     */
+    public Collection<V> values() {
+        List<V> values = new ArrayList<>();
+        AtomicReferenceArray<Node<K, V>> tab = table;
+        for (int i = 0; i < tab.length(); i++) {
+            for (Node<K, V> node = tab.get(i); node != null; node = node.next) {
+                values.add(node.value);
+            }
+        }
+        return values;
+    }
+    
+    /**
+     * Clear all entries
+     * Time Complexity: O(capacity)
+     */
+    public void clear() {
+        lockAll();
+        try {
+            table = new AtomicReferenceArray<>(table.length());
+            size.reset();
+            collisions.reset();
+        } finally {
+            unlockAll();
+        }
+    }
+    
+    /**
+     * Get current size
+     * @return Number of key-value pairs (exact when no writes are in flight)
+     */
+    public int size() {
+        return (int) size.sum();
+    }
+    
+    /**
+     * Check if empty
+     * @return true if empty, false otherwise
+     */
+    public boolean isEmpty() {
+        return size.sum() == 0;
+    }
+    
+    /**
+     * Get current capacity
+     * @return Current number of buckets
+     */
+    public int getCapacity() {
+        return table.length();
+    }
+    
+    /**
+     * Double the table under all stripe locks. Readers are not blocked;
+     * they switch to the new table once it is published.
+     * Time Complexity: O(n)
+     */
+    private void resize() {
+        lockAll();
+        try {
+            AtomicReferenceArray<Node<K, V>> oldTable = table;
+            if (size.sum() <= oldTable.length() * loadFactor) {
+                return; // Another writer already resized
+            }
+            
+            int capacity = oldTable.length() * RESIZE_FACTOR;
+            AtomicReferenceArray<Node<K, V>> newTable = new AtomicReferenceArray<>(capacity);
+            long newCollisions = 0;
+            for (int i = 0; i < oldTable.length(); i++) {
+                for (Node<K, V> node = oldTable.get(i); node != null; node = node.next) {
+                    int index = node.hash & (capacity - 1);
+                    Node<K, V> head = newTable.get(index);
+                    if (head != null) {
+                        newCollisions++;
+                    }
+                    newTable.set(index, new Node<>(node.hash, node.key, node.value, head));
+                }
+            }
+            
+            collisions.reset();
+            collisions.add(newCollisions);
+            resizeCount++;
+            table = newTable;
+        } finally {
+            unlockAll();
+        }
+    }
+    
+    private void lockAll() {
+        for (ReentrantLock lock : locks) {
+            lock.lock();
+        }
+    }
+    
+    private void unlockAll() {
+        for (ReentrantLock lock : locks) {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Get performance metrics (weakly consistent under concurrent writes)
+     * @return Performance information
+     */
+    public HashSearch.PerformanceMetrics getPerformanceMetrics() {
+        AtomicReferenceArray<Node<K, V>> tab = table;
+        int[] histogram = new int[8];
+        for (int i = 0; i < tab.length(); i++) {
+            int position = 0;
+            for (Node<K, V> node = tab.get(i); node != null; node = node.next) {
+                histogram = HashSearch.recordProbe(histogram, ++position);
+            }
+        }
+        int currentSize = size();
+        return new HashSearch.PerformanceMetrics(
+            "O(1) average, O(n) worst",
+            "O(n)",
+            (double) currentSize / tab.length(),
+            currentSize,
+            tab.length(),
+            (int) collisions.sum(),
+            resizeCount,
+            histogram
+        );
+    }
+    
+    /**
+     * Chain node; only the value is mutable
+     */
+    private static final class Node<K, V> {
+        final int hash;
+        final K key;
+        volatile V value;
+        final Node<K, V> next;
+        
+        Node(int hash, K key, V value, Node<K, V> next) {
+            this.hash = hash;
+            this.key = key;
+            this.value = value;
+            this.next = next;
+        }
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("ConcurrentHashSearch{size=%d, capacity=%d, collisions=%d}",
+                           size(), getCapacity(), collisions.sum());
+    }
+}
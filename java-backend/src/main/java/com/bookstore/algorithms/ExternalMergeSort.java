@@ -0,0 +1,460 @@
+package com.bookstore.algorithms;
+
+import java.io.*;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * External Merge Sort Implementation
+ *
+ * Sorts data sets that do not fit in the heap. The input is consumed as an
+ * iterator in chunks of runSize records; each chunk is sorted in memory with
+ * {@link MergeSort#sort(List, Comparator)} and spilled to a temp file as a
+ * sorted run. The runs are then memory-mapped and streamed through a k-way
+ * heap merge, so only one decoded record per run is held at a time.
+ *
+ * Run file format: a sequence of [int length][length bytes] frames, the
+ * payload being whatever the {@link RecordCodec} writes.
+ *
+ * Time Complexity: O(n log n) comparisons, two sequential passes over the data on disk
+ * Space Complexity: O(runSize) heap + O(n) temp disk space
+ *
+ * Characteristics:
+ * - Stable: equal records keep their input order (ties are broken by run index)
+ * - Bounded memory: independent of the total number of records
+ * - Output is an iterator; close it to unmap and delete the temp files
+ */
+public class ExternalMergeSort<T> {
+    
+    public static final int DEFAULT_RUN_SIZE = 100_000;
+    
+    /**
+     * Size of each memory-mapped window over a run file
+     */
+    private static final long MAP_WINDOW_BYTES = 64L * 1024 * 1024;
+    
+    /**
+     * Unsafe.invokeCleaner(ByteBuffer), bound to the Unsafe instance, or null
+     * when the JVM does not expose it (windows are then left to the GC)
+     */
+    private static final MethodHandle UNMAPPER = findUnmapper();
+    
+    private final RecordCodec<T> codec;
+    private final Comparator<? super T> comparator;
+    private final int runSize;
+    
+    private int runCount;
+    private long recordCount;
+    private long bytesSpilled;
+    
+    /**
+     * Constructor with default run size
+     * @param codec Binary encoding for records
+     * @param comparator Ordering to sort by
+     */
+    public ExternalMergeSort(RecordCodec<T> codec, Comparator<? super T> comparator) {
+        this(codec, comparator, DEFAULT_RUN_SIZE);
+    }
+    
+    /**
+     * Constructor with custom run size
+     * @param codec Binary encoding for records
+     * @param comparator Ordering to sort by
+     * @param runSize Maximum number of records held in memory while building a run
+     */
+    public ExternalMergeSort(RecordCodec<T> codec, Comparator<? super T> comparator, int runSize) {
+        if (codec == null || comparator == null) {
+            throw new IllegalArgumentException("Codec and comparator are required");
+        }
+        if (runSize <= 0) {
+            throw new IllegalArgumentException("Run size must be positive");
+        }
+        this.codec = codec;
+        this.comparator = comparator;
+        this.runSize = runSize;
+    }
+    
+    /**
+     * Sorts the input and returns the records in order.
+     * When the whole input fits in a single run nothing is written to disk.
+     * @param input Records to sort (consumed)
+     * @return Iterator over the sorted records; must be closed
+     * @throws IOException If a run cannot be written or mapped
+     */
+    public SortedIterator<T> sort(Iterator<T> input) throws IOException {
+        runCount = 0;
+        recordCount = 0;
+        bytesSpilled = 0;
+        
+        List<T> chunk = nextChunk(input);
+        if (!input.hasNext()) {
+            // Single run - no need to touch the disk
+            recordCount = chunk.size();
+            return new SortedIterator<>(MergeSort.sort(chunk, comparator).iterator(), null, Collections.emptyList());
+        }
+        
+        Path directory = Files.createTempDirectory("external-sort-");
+        List<Path> runFiles = new ArrayList<>();
+        try {
+            while (!chunk.isEmpty()) {
+                runFiles.add(writeRun(directory, MergeSort.sort(chunk, comparator)));
+                chunk = nextChunk(input);
+            }
+            return new SortedIterator<>(new RunMerger(runFiles), directory, runFiles);
+        } catch (IOException | RuntimeException e) {
+            deleteQuietly(directory, runFiles);
+            throw e;
+        }
+    }
+    
+    private List<T> nextChunk(Iterator<T> input) {
+        List<T> chunk = new ArrayList<>(Math.min(runSize, 1024));
+        while (chunk.size() < runSize && input.hasNext()) {
+            chunk.add(input.next());
+        }
+        recordCount += chunk.size();
+        return chunk;
+    }
+    
+    /**
+     * Writes a sorted chunk as a run file of length-prefixed frames
+     */
+    private Path writeRun(Path directory, List<T> sortedChunk) throws IOException {
+        Path runFile = directory.resolve("run-" + runCount + ".bin");
+        ByteArrayOutputStream frame = new ByteArrayOutputStream(256);
+        DataOutputStream frameOut = new DataOutputStream(frame);
+        
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(runFile), 1 << 16))) {
+            for (T record : sortedChunk) {
+                frame.reset();
+                codec.write(record, frameOut);
+                frameOut.flush();
+                out.writeInt(frame.size());
+                frame.writeTo(out);
+            }
+            bytesSpilled += out.size();
+        }
+        
+        runCount++;
+        return runFile;
+    }
+    
+    private static MethodHandle findUnmapper() {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            return MethodHandles.lookup()
+                .findVirtual(unsafeClass, "invokeCleaner", MethodType.methodType(void.class, ByteBuffer.class))
+                .bindTo(theUnsafe.get(null));
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+    
+    /**
+     * Releases a mapped window now instead of when it is garbage collected,
+     * so the mapping does not outlive the run file (and keep its disk space
+     * or, on Windows, block its deletion). The buffer must not be touched again.
+     */
+    private static void unmap(MappedByteBuffer buffer) {
+        if (buffer == null || UNMAPPER == null) {
+            return;
+        }
+        try {
+            UNMAPPER.invokeExact((ByteBuffer) buffer);
+        } catch (Throwable ignored) {
+            // Fall back to the GC releasing the mapping
+        }
+    }
+    
+    private static void deleteQuietly(Path directory, List<Path> runFiles) {
+        for (Path runFile : runFiles) {
+            try {
+                Files.deleteIfExists(runFile);
+            } catch (IOException ignored) {
+                // Best effort cleanup of temp files
+            }
+        }
+        if (directory != null) {
+            try {
+                Files.deleteIfExists(directory);
+            } catch (IOException ignored) {
+                // Best effort cleanup of temp files
+            }
+        }
+    }
+    
+    /**
+     * Number of runs spilled by the last sort
+     */
+    public int getRunCount() {
+        return runCount;
+    }
+    
+    /**
+     * Number of records consumed by the last sort
+     */
+    public long getRecordCount() {
+        return recordCount;
+    }
+    
+    /**
+     * Bytes written to temp files by the last sort
+     */
+    public long getBytesSpilled() {
+        return bytesSpilled;
+    }
+    
+    /**
+     * Binary encoding of a record inside a run file
+     */
+    public interface RecordCodec<T> {
+        /**
+         * Encodes a record
+         * @param record Record to encode
+         * @param out Destination
+         */
+        void write(T record, DataOutput out) throws IOException;
+        
+        /**
+         * Decodes a record. The buffer is a view of a mapped window that is
+         * released once the merge moves on, so copy out anything that is kept.
+         * @param in Buffer positioned at the start of the record, limited to its length
+         * @return Decoded record
+         */
+        T read(ByteBuffer in);
+    }
+    
+    /**
+     * K-way merge over memory-mapped run files using a min-heap of run cursors
+     */
+    private final class RunMerger implements Iterator<T>, Closeable {
+        private final PriorityQueue<RunCursor> heap;
+        private final List<RunCursor> cursors = new ArrayList<>();
+        
+        RunMerger(List<Path> runFiles) throws IOException {
+            heap = new PriorityQueue<>(Math.max(runFiles.size(), 1), (a, b) -> {
+                int comparison = comparator.compare(a.current, b.current);
+                return comparison != 0 ? comparison : Integer.compare(a.runIndex, b.runIndex);
+            });
+            try {
+                for (int i = 0; i < runFiles.size(); i++) {
+                    RunCursor cursor = new RunCursor(runFiles.get(i), i);
+                    cursors.add(cursor);
+                    if (cursor.advance()) {
+                        heap.add(cursor);
+                    }
+                }
+            } catch (IOException e) {
+                close();
+                throw e;
+            }
+        }
+        
+        @Override
+        public boolean hasNext() {
+            return !heap.isEmpty();
+        }
+        
+        @Override
+        public T next() {
+            RunCursor cursor = heap.poll();
+            if (cursor == null) {
+                throw new NoSuchElementException();
+            }
+            T record = cursor.current;
+            try {
+                if (cursor.advance()) {
+                    heap.add(cursor);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return record;
+        }
+        
+        @Override
+        public void close() {
+            for (RunCursor cursor : cursors) {
+                cursor.close();
+            }
+            heap.clear();
+        }
+    }
+    
+    /**
+     * Sequential reader over one run file through a sliding memory-mapped window
+     */
+    private final class RunCursor {
+        private final FileChannel channel;
+        private final long fileSize;
+        private final int runIndex;
+        private long windowStart;
+        private MappedByteBuffer window;
+        private T current;
+        
+        RunCursor(Path runFile, int runIndex) throws IOException {
+            this.channel = FileChannel.open(runFile, StandardOpenOption.READ);
+            this.runIndex = runIndex;
+            this.windowStart = 0;
+            try {
+                this.fileSize = channel.size();
+                this.window = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(fileSize, MAP_WINDOW_BYTES));
+            } catch (IOException | RuntimeException e) {
+                // The caller never sees this cursor, so it cannot close the channel
+                channel.close();
+                throw e;
+            }
+        }
+        
+        /**
+         * Decodes the next record into current
+         * @return false when the run is exhausted
+         */
+        boolean advance() throws IOException {
+            long position = windowStart + window.position();
+            if (position >= fileSize) {
+                current = null;
+                return false;
+            }
+            
+            if (window.remaining() < Integer.BYTES) {
+                remap(position, Integer.BYTES);
+            }
+            int length = window.getInt(window.position());
+            if (window.remaining() < Integer.BYTES + length) {
+                remap(position, Integer.BYTES + length);
+            }
+            
+            int start = window.position() + Integer.BYTES;
+            current = codec.read(window.slice(start, length));
+            window.position(start + length);
+            return true;
+        }
+        
+        private void remap(long position, int required) throws IOException {
+            windowStart = position;
+            long size = Math.min(fileSize - position, Math.max(MAP_WINDOW_BYTES, required));
+            MappedByteBuffer previous = window;
+            window = channel.map(FileChannel.MapMode.READ_ONLY, position, size);
+            unmap(previous);
+        }
+        
+        void close() {
+            unmap(window);
+            window = null;
+            current = null;
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+                // Nothing useful to do - the file is deleted afterwards
+            }
+        }
+    }
+    
+    /**
+     * Iterator over the sorted output. Closing it releases the run files.
+     */
+    public static final class SortedIterator<T> implements Iterator<T>, AutoCloseable {
+        private final Iterator<T> delegate;
+        private final Path directory;
+        private final List<Path> runFiles;
+        private boolean closed;
+        
+        SortedIterator(Iterator<T> delegate, Path directory, List<Path> runFiles) {
+            this.delegate = delegate;
+            this.directory = directory;
+            this.runFiles = runFiles;
+        }
+        
+        /**
+         * Exhausting the iterator closes it, so the run files go away even
+         * before an explicit close
+         */
+        @Override
+        public boolean hasNext() {
+            if (closed) {
+                return false;
+            }
+            if (!delegate.hasNext()) {
+                close();
+                return false;
+            }
+            return true;
+        }
+        
+        @Override
+        public T next() {
+            if (closed) {
+                throw new NoSuchElementException();
+            }
+            return delegate.next();
+        }
+        
+        /**
+         * Lazily transforms each record; closing the result closes this iterator
+         * @param mapper Transformation applied on next()
+         * @return Mapped iterator
+         */
+        public <R> SortedIterator<R> map(Function<? super T, ? extends R> mapper) {
+            SortedIterator<T> source = this;
+            return new SortedIterator<>(new MappedIterator<>(source, mapper), null, Collections.emptyList());
+        }
+        
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (delegate instanceof Closeable) {
+                try {
+                    ((Closeable) delegate).close();
+                } catch (IOException ignored) {
+                    // Run cursors swallow their own close errors
+                }
+            }
+            deleteQuietly(directory, runFiles);
+        }
+    }
+    
+    /**
+     * Iterator adapter used by {@link SortedIterator#map(Function)}
+     */
+    private static final class MappedIterator<T, R> implements Iterator<R>, Closeable {
+        private final SortedIterator<T> source;
+        private final Function<? super T, ? extends R> mapper;
+        
+        MappedIterator(SortedIterator<T> source, Function<? super T, ? extends R> mapper) {
+            this.source = source;
+            this.mapper = mapper;
+        }
+        
+        @Override
+        public boolean hasNext() {
+            return source.hasNext();
+        }
+        
+        @Override
+        public R next() {
+            return mapper.apply(source.next());
+        }
+        
+        @Override
+        public void close() {
+            source.close();
+        }
+    }
+}
@@ -0,0 +1,306 @@
+package com.bookstore.algorithms;
+
+import java.util.*;
+
+/**
+ * Fuzzy Search Algorithm Implementation
+ * Finds dictionary terms within a small Levenshtein distance of a query.
+ * Used for typo-tolerant author/title lookup in the Online Bookstore system
+ *
+ * The dictionary is a character trie stored in flat arrays (first child,
+ * next sibling, label, terminal count). A lookup walks the trie depth-first
+ * and keeps one row of the edit-distance matrix per depth, which simulates a
+ * Levenshtein automaton over the dictionary: a subtree is abandoned as soon
+ * as every cell of its row exceeds the allowed distance, and only the
+ * diagonal band of width 2 * maxDistance + 1 is computed per row.
+ *
+ * Time Complexity: O(L * (2d + 1) * visited nodes) per lookup,
+ *                  O(L) add/remove for a term of length L
+ * Space Complexity: O(total characters in the dictionary)
+ */
+public class FuzzySearch {
+    
+    /**
+     * Plain Levenshtein distance (insert, delete, substitute)
+     * Time Complexity: O(n * m)
+     * Space Complexity: O(min(n, m))
+     * @param a First string
+     * @param b Second string
+     * @return Edit distance
+     */
+    public static int levenshtein(String a, String b) {
+        if (a.length() < b.length()) {
+            String swap = a;
+            a = b;
+            b = swap;
+        }
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+    
+    /**
+     * Typical edit budget for a term: exact up to 2 characters,
+     * one edit up to 5, two beyond
+     * @param term Query term
+     * @return Maximum edit distance to allow
+     */
+    public static int autoDistance(String term) {
+        return term.length() <= 2 ? 0 : term.length() <= 5 ? 1 : 2;
+    }
+    
+    /**
+     * Term dictionary supporting fuzzy lookups
+     * Not thread-safe; the owner is expected to guard reads and writes.
+     */
+    public static class Index {
+        private static final int NONE = -1;
+        private static final int MAX_DISTANCE = 3;
+        
+        private int[] firstChild;
+        private int[] nextSibling;
+        private char[] labels;
+        private int[] terminalCount; // times the term ending at a node was added
+        private int nodeCount;
+        private int termCount;
+        private int maxTermLength;
+        
+        public Index() {
+            firstChild = new int[64];
+            nextSibling = new int[64];
+            labels = new char[64];
+            terminalCount = new int[64];
+            nodeCount = 1; // root
+            firstChild[0] = NONE;
+            nextSibling[0] = NONE;
+        }
+        
+        /**
+         * Add a term (terms are counted, so adding twice needs two removes)
+         * Time Complexity: O(L * alphabet) worst case
+         * @param term Term to add
+         */
+        public void add(String term) {
+            int node = 0;
+            for (int i = 0; i < term.length(); i++) {
+                int child = findChild(node, term.charAt(i));
+                if (child == NONE) {
+                    child = newNode(term.charAt(i));
+                    nextSibling[child] = firstChild[node];
+                    firstChild[node] = child;
+                }
+                node = child;
+            }
+            if (terminalCount[node]++ == 0) {
+                termCount++;
+                maxTermLength = Math.max(maxTermLength, term.length());
+            }
+        }
+        
+        /**
+         * Remove one occurrence of a term. Trie nodes are kept for reuse.
+         * @param term Term to remove
+         * @return true if the term was present
+         */
+        public boolean remove(String term) {
+            int node = 0;
+            for (int i = 0; i < term.length() && node != NONE; i++) {
+                node = findChild(node, term.charAt(i));
+            }
+            if (node == NONE || terminalCount[node] == 0) {
+                return false;
+            }
+            if (--terminalCount[node] == 0) {
+                termCount--;
+            }
+            return true;
+        }
+        
+        /**
+         * Check whether a term is present
+         * @param term Term to look up
+         * @return true if added more often than removed
+         */
+        public boolean contains(String term) {
+            int node = 0;
+            for (int i = 0; i < term.length() && node != NONE; i++) {
+                node = findChild(node, term.charAt(i));
+            }
+            return node != NONE && terminalCount[node] > 0;
+        }
+        
+        /**
+         * All terms within maxDistance edits of the query
+         * Time Complexity: O(L * (2d + 1) * visited nodes)
+         * @param query Query term
+         * @param maxDistance Maximum Levenshtein distance (0 to 3)
+         * @return Matches ordered by distance, then term
+         */
+        public List<Match> search(String query, int maxDistance) {
+            if (maxDistance < 0 || maxDistance > MAX_DISTANCE) {
+                throw new IllegalArgumentException("Distance must be between 0 and " + MAX_DISTANCE);
+            }
+            List<Match> matches = new ArrayList<>();
+            int m = query.length();
+            int depthLimit = Math.min(maxTermLength, m + maxDistance);
+            
+            // rows[depth][j] = distance between the first depth trie characters and query[0, j)
+            int[][] rows = new int[depthLimit + 1][m + 1];
+            for (int j = 0; j <= m; j++) {
+                rows[0][j] = j;
+            }
+            char[] path = new char[depthLimit];
+            
+            if (m <= maxDistance && terminalCount[0] > 0) {
+                matches.add(new Match("", m));
+            }
+            
+            // Explicit DFS stack of (node, depth)
+            int[] stackNodes = new int[64];
+            int[] stackDepths = new int[64];
+            int top = 0;
+            for (int child = depthLimit > 0 ? firstChild[0] : NONE; child != NONE; child = nextSibling[child]) {
+                if (top == stackNodes.length) {
+                    stackNodes = Arrays.copyOf(stackNodes, top * 2);
+                    stackDepths = Arrays.copyOf(stackDepths, top * 2);
+                }
+                stackNodes[top] = child;
+                stackDepths[top++] = 1;
+            }
+            
+            int limit = maxDistance + 1;
+            while (top > 0) {
+                int node = stackNodes[--top];
+                int depth = stackDepths[top];
+                char c = labels[node];
+                path[depth - 1] = c;
+                
+                int[] previous = rows[depth - 1];
+                int[] row = rows[depth];
+                int from = Math.max(1, depth - maxDistance);
+                int to = Math.min(m, depth + maxDistance);
+                row[0] = depth;
+                if (from > 1) {
+                    row[from - 1] = limit; // left edge of the band
+                }
+                int rowMin = row[0];
+                for (int j = from; j <= to; j++) {
+                    int cost = query.charAt(j - 1) == c ? 0 : 1;
+                    int value = Math.min(previous[j - 1] + cost, Math.min(row[j - 1], previous[j]) + 1);
+                    row[j] = Math.min(value, limit);
+                    rowMin = Math.min(rowMin, row[j]);
+                }
+                if (to < m) {
+                    row[to + 1] = limit; // right edge of the band, read by the next depth
+                }
+                
+                if (terminalCount[node] > 0 && to == m && row[m] <= maxDistance) {
+                    matches.add(new Match(new String(path, 0, depth), row[m]));
+                }
+                if (rowMin > maxDistance || depth == depthLimit) {
+                    continue;
+                }
+                for (int child = firstChild[node]; child != NONE; child = nextSibling[child]) {
+                    if (top == stackNodes.length) {
+                        stackNodes = Arrays.copyOf(stackNodes, top * 2);
+                        stackDepths = Arrays.copyOf(stackDepths, top * 2);
+                    }
+                    stackNodes[top] = child;
+                    stackDepths[top++] = depth + 1;
+                }
+            }
+            
+            matches.sort(Comparator.comparingInt(Match::getDistance).thenComparing(Match::getTerm));
+            return matches;
+        }
+        
+        /**
+         * Number of distinct terms currently present
+         */
+        public int size() {
+            return termCount;
+        }
+        
+        /**
+         * Number of allocated trie nodes, including ones left by removed terms
+         */
+        public int getNodeCount() {
+            return nodeCount;
+        }
+        
+        /**
+         * Remove all terms and release the trie
+         */
+        public void clear() {
+            firstChild = new int[64];
+            nextSibling = new int[64];
+            labels = new char[64];
+            terminalCount = new int[64];
+            nodeCount = 1;
+            firstChild[0] = NONE;
+            nextSibling[0] = NONE;
+            termCount = 0;
+            maxTermLength = 0;
+        }
+        
+        private int findChild(int node, char label) {
+            for (int child = firstChild[node]; child != NONE; child = nextSibling[child]) {
+                if (labels[child] == label) {
+                    return child;
+                }
+            }
+            return NONE;
+        }
+        
+        private int newNode(char label) {
+            if (nodeCount == labels.length) {
+                int capacity = labels.length * 2;
+                firstChild = Arrays.copyOf(firstChild, capacity);
+                nextSibling = Arrays.copyOf(nextSibling, capacity);
+                labels = Arrays.copyOf(labels, capacity);
+                terminalCount = Arrays.copyOf(terminalCount, capacity);
+            }
+            int node = nodeCount++;
+            labels[node] = label;
+            firstChild[node] = NONE;
+            nextSibling[node] = NONE;
+            terminalCount[node] = 0;
+            return node;
+        }
+    }
+    
+    /**
+     * Dictionary term found by a fuzzy lookup
+     */
+    public static class Match {
+        private final String term;
+        private final int distance;
+        
+        public Match(String term, int distance) {
+            this.term = term;
+            this.distance = distance;
+        }
+        
+        // Getters
+        public String getTerm() { return term; }
+        public int getDistance() { return distance; }
+        
+        @Override
+        public String toString() {
+            return String.format("Match{term='%s', distance=%d}", term, distance);
+        }
+    }
+}
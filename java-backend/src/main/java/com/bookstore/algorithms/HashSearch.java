@@ -8,19 +8,57 @@ import java.util.*;
  * Used for fast lookups in the Online Bookstore system
  * Time Complexity: O(1) average case, O(n) worst case
  * Space Complexity: O(n)
+ *
+ * Modes:
+ * - CHAINING: one linked Entry node per key, hashCode modulo capacity
+ * - OPEN_ADDRESSING: keys, values and hashes in parallel arrays of
+ *   power-of-two length, mixed hash, linear probing and backward-shift
+ *   deletion (no tombstones), so inserts allocate nothing and lookups
+ *   scan adjacent slots instead of chasing pointers
+ *
+ * Chaining tables can resize incrementally: on growth the old bucket array
+ * is kept alongside the new one and every put/get/remove migrates a few old
+ * buckets, so no single operation pays for rehashing the whole table.
+ * Lookups consult the new table first and then the not-yet-migrated old
+ * bucket.
+ *
+ * See {@link PrimitiveHashSearch} for String/long keyed tables with
+ * unboxed values.
  */
 public class HashSearch<K, V> {
     private static final int DEFAULT_CAPACITY = 16;
     private static final double DEFAULT_LOAD_FACTOR = 0.75;
     private static final int RESIZE_FACTOR = 2;
+    private static final int MIGRATION_BUCKETS_PER_OPERATION = 8;
     
+    /**
+     * Collision resolution strategy
+     */
+    public enum Mode {
+        CHAINING,
+        OPEN_ADDRESSING
+    }
+    
+    private final Mode mode;
     private Entry<K, V>[] buckets;
+    
+    // Open addressing storage: slot i is empty when slotKeys[i] == null
+    private Object[] slotKeys;
+    private Object[] slotValues;
+    private int[] slotHashes;
+    
     private int size;
     private int capacity;
     private double loadFactor;
     private int collisions;
     private int resizeCount;
     
+    // Incremental resize: old table being drained, null when no migration is in progress
+    private final boolean incrementalResize;
+    private Entry<K, V>[] oldBuckets;
+    private int migrationIndex;
+    private long maxResizePauseNanos;
+    
     /**
      * Constructor with default parameters
      */
@@ -28,23 +66,70 @@ public class HashSearch<K, V> {
         this(DEFAULT_CAPACITY, DEFAULT_LOAD_FACTOR);
     }
     
+    /**
+     * Constructor with default parameters and the given mode
+     * @param mode Collision resolution strategy
+     */
+    public HashSearch(Mode mode) {
+        this(DEFAULT_CAPACITY, DEFAULT_LOAD_FACTOR, mode);
+    }
+    
     /**
      * Constructor with custom capacity and load factor
      * @param initialCapacity Initial capacity of hash table
      * @param loadFactor Load factor threshold for resizing
      */
-    @SuppressWarnings("unchecked")
     public HashSearch(int initialCapacity, double loadFactor) {
+        this(initialCapacity, loadFactor, Mode.CHAINING);
+    }
+    
+    /**
+     * Constructor with custom capacity, load factor and mode
+     * @param initialCapacity Initial capacity of hash table (rounded up to a power of two for open addressing)
+     * @param loadFactor Load factor threshold for resizing (below 1 for open addressing)
+     * @param mode Collision resolution strategy
+     */
+    public HashSearch(int initialCapacity, double loadFactor, Mode mode) {
+        this(initialCapacity, loadFactor, mode, false);
+    }
+    
+    /**
+     * Constructor with custom capacity, load factor, mode and resize strategy
+     * @param initialCapacity Initial capacity of hash table (rounded up to a power of two for open addressing)
+     * @param loadFactor Load factor threshold for resizing (below 1 for open addressing)
+     * @param mode Collision resolution strategy
+     * @param incrementalResize Spread rehashing over subsequent operations (chaining only)
+     */
+    @SuppressWarnings("unchecked")
+    public HashSearch(int initialCapacity, double loadFactor, Mode mode, boolean incrementalResize) {
         if (initialCapacity <= 0) {
             throw new IllegalArgumentException("Initial capacity must be positive");
         }
         if (loadFactor <= 0 || loadFactor > 1) {
             throw new IllegalArgumentException("Load factor must be between 0 and 1");
         }
+        if (mode == null) {
+            throw new IllegalArgumentException("Mode cannot be null");
+        }
+        if (mode == Mode.OPEN_ADDRESSING && loadFactor >= 1) {
+            throw new IllegalArgumentException("Open addressing requires a load factor below 1");
+        }
+        if (mode == Mode.OPEN_ADDRESSING && incrementalResize) {
+            throw new IllegalArgumentException("Incremental resize is only supported with chaining");
+        }
         
-        this.capacity = initialCapacity;
+        this.mode = mode;
+        this.incrementalResize = incrementalResize;
         this.loadFactor = loadFactor;
-        this.buckets = new Entry[capacity];
+        if (mode == Mode.OPEN_ADDRESSING) {
+            this.capacity = tableSizeFor(initialCapacity);
+            this.slotKeys = new Object[capacity];
+            this.slotValues = new Object[capacity];
+            this.slotHashes = new int[capacity];
+        } else {
+            this.capacity = initialCapacity;
+            this.buckets = new Entry[capacity];
+        }
         this.size = 0;
         this.collisions = 0;
         this.resizeCount = 0;
@@ -61,12 +146,26 @@ public class HashSearch<K, V> {
         if (key == null) {
             throw new IllegalArgumentException("Key cannot be null");
         }
+        if (mode == Mode.OPEN_ADDRESSING) {
+            return probePut(key, value);
+        }
         
+        migrateStep();
         if (size >= capacity * loadFactor) {
             resize();
         }
         
-        int index = hash(key);
+        // A key not yet migrated is updated where it is
+        if (oldBuckets != null) {
+            Entry<K, V> pending = findInChain(oldBuckets[indexFor(key, oldBuckets.length)], key);
+            if (pending != null) {
+                V oldValue = pending.value;
+                pending.value = value;
+                return oldValue;
+            }
+        }
+        
+        int index = indexFor(key, capacity);
         Entry<K, V> entry = buckets[index];
         
         // Handle collision with chaining
@@ -102,22 +201,23 @@ public class HashSearch<K, V> {
      * @param key Key to search for
      * @return Value associated with key, null if not found
      */
+    @SuppressWarnings("unchecked")
     public V get(K key) {
         if (key == null) {
             return null;
         }
+        if (mode == Mode.OPEN_ADDRESSING) {
+            int slot = probeIndexOf(key);
+            return slot >= 0 ? (V) slotValues[slot] : null;
+        }
         
-        int index = hash(key);
-        Entry<K, V> entry = buckets[index];
-        
-        while (entry != null) {
-            if (entry.key.equals(key)) {
-                return entry.value;
-            }
-            entry = entry.next;
+        migrateStep();
+        Entry<K, V> entry = findInChain(buckets[indexFor(key, capacity)], key);
+        if (entry == null && oldBuckets != null) {
+            entry = findInChain(oldBuckets[indexFor(key, oldBuckets.length)], key);
         }
         
-        return null;
+        return entry != null ? entry.value : null;
     }
     
     /**
@@ -140,20 +240,39 @@ public class HashSearch<K, V> {
         if (key == null) {
             return null;
         }
+        if (mode == Mode.OPEN_ADDRESSING) {
+            return probeRemove(key);
+        }
         
-        int index = hash(key);
-        Entry<K, V> entry = buckets[index];
+        migrateStep();
+        Entry<K, V> removed = unlink(buckets, indexFor(key, capacity), key);
+        if (removed == null && oldBuckets != null) {
+            removed = unlink(oldBuckets, indexFor(key, oldBuckets.length), key);
+        }
+        if (removed == null) {
+            return null;
+        }
+        
+        size--;
+        return removed.value;
+    }
+    
+    /**
+     * Unlink the entry for key from one bucket chain
+     * @return The removed entry, or null if the chain does not hold key
+     */
+    private Entry<K, V> unlink(Entry<K, V>[] table, int index, K key) {
+        Entry<K, V> entry = table[index];
         Entry<K, V> prev = null;
         
         while (entry != null) {
             if (entry.key.equals(key)) {
                 if (prev == null) {
-                    buckets[index] = entry.next;
+                    table[index] = entry.next;
                 } else {
                     prev.next = entry.next;
                 }
-                size--;
-                return entry.value;
+                return entry;
             }
             prev = entry;
             entry = entry.next;
@@ -162,19 +281,40 @@ public class HashSearch<K, V> {
         return null;
     }
     
+    private Entry<K, V> findInChain(Entry<K, V> entry, K key) {
+        while (entry != null) {
+            if (entry.key.equals(key)) {
+                return entry;
+            }
+            entry = entry.next;
+        }
+        return null;
+    }
+    
     /**
      * Get all keys in hash table
      * Time Complexity: O(n)
      * @return Set of all keys
      */
+    @SuppressWarnings("unchecked")
     public Set<K> keySet() {
         Set<K> keys = new HashSet<>();
+        if (mode == Mode.OPEN_ADDRESSING) {
+            for (Object key : slotKeys) {
+                if (key != null) {
+                    keys.add((K) key);
+                }
+            }
+            return keys;
+        }
         
-        for (Entry<K, V> bucket : buckets) {
-            Entry<K, V> entry = bucket;
-            while (entry != null) {
-                keys.add(entry.key);
-                entry = entry.next;
+        for (Entry<K, V>[] table : chainTables()) {
+            for (Entry<K, V> bucket : table) {
+                Entry<K, V> entry = bucket;
+                while (entry != null) {
+                    keys.add(entry.key);
+                    entry = entry.next;
+                }
             }
         }
         
@@ -186,14 +326,25 @@ public class HashSearch<K, V> {
      * Time Complexity: O(n)
      * @return Collection of all values
      */
+    @SuppressWarnings("unchecked")
     public Collection<V> values() {
         List<V> values = new ArrayList<>();
+        if (mode == Mode.OPEN_ADDRESSING) {
+            for (int i = 0; i < capacity; i++) {
+                if (slotKeys[i] != null) {
+                    values.add((V) slotValues[i]);
+                }
+            }
+            return values;
+        }
         
-        for (Entry<K, V> bucket : buckets) {
-            Entry<K, V> entry = bucket;
-            while (entry != null) {
-                values.add(entry.value);
-                entry = entry.next;
+        for (Entry<K, V>[] table : chainTables()) {
+            for (Entry<K, V> bucket : table) {
+                Entry<K, V> entry = bucket;
+                while (entry != null) {
+                    values.add(entry.value);
+                    entry = entry.next;
+                }
             }
         }
         
@@ -201,19 +352,33 @@ public class HashSearch<K, V> {
     }
     
     /**
-     * Search with custom condition
+     * Search with custom condition.
+     * In open addressing mode the entries are snapshots; assigning their value does not update the table.
      * Time Complexity: O(n)
      * @param condition Predicate to match
      * @return First matching entry or null
      */
     public Entry<K, V> findFirst(java.util.function.Predicate<Entry<K, V>> condition) {
-        for (Entry<K, V> bucket : buckets) {
-            Entry<K, V> entry = bucket;
-            while (entry != null) {
-                if (condition.test(entry)) {
-                    return entry;
+        if (mode == Mode.OPEN_ADDRESSING) {
+            for (int i = 0; i < capacity; i++) {
+                if (slotKeys[i] != null) {
+                    Entry<K, V> entry = slotEntry(i);
+                    if (condition.test(entry)) {
+                        return entry;
+                    }
+                }
+            }
+            return null;
+        }
+        for (Entry<K, V>[] table : chainTables()) {
+            for (Entry<K, V> bucket : table) {
+                Entry<K, V> entry = bucket;
+                while (entry != null) {
+                    if (condition.test(entry)) {
+                        return entry;
+                    }
+                    entry = entry.next;
                 }
-                entry = entry.next;
             }
         }
         return null;
@@ -227,14 +392,27 @@ public class HashSearch<K, V> {
      */
     public List<Entry<K, V>> findAll(java.util.function.Predicate<Entry<K, V>> condition) {
         List<Entry<K, V>> results = new ArrayList<>();
+        if (mode == Mode.OPEN_ADDRESSING) {
+            for (int i = 0; i < capacity; i++) {
+                if (slotKeys[i] != null) {
+                    Entry<K, V> entry = slotEntry(i);
+                    if (condition.test(entry)) {
+                        results.add(entry);
+                    }
+                }
+            }
+            return results;
+        }
         
-        for (Entry<K, V> bucket : buckets) {
-            Entry<K, V> entry = bucket;
-            while (entry != null) {
-                if (condition.test(entry)) {
-                    results.add(entry);
+        for (Entry<K, V>[] table : chainTables()) {
+            for (Entry<K, V> bucket : table) {
+                Entry<K, V> entry = bucket;
+                while (entry != null) {
+                    if (condition.test(entry)) {
+                        results.add(entry);
+                    }
+                    entry = entry.next;
                 }
-                entry = entry.next;
             }
         }
         
@@ -246,7 +424,13 @@ public class HashSearch<K, V> {
      * Time Complexity: O(n)
      */
     public void clear() {
-        Arrays.fill(buckets, null);
+        if (mode == Mode.OPEN_ADDRESSING) {
+            Arrays.fill(slotKeys, null);
+            Arrays.fill(slotValues, null);
+        } else {
+            Arrays.fill(buckets, null);
+            oldBuckets = null;
+        }
         size = 0;
         collisions = 0;
     }
@@ -297,36 +481,313 @@ public class HashSearch<K, V> {
     }
     
     /**
-     * Hash function using built-in hashCode
+     * Get collision resolution mode
+     * @return Mode chosen at construction
+     */
+    public Mode getMode() {
+        return mode;
+    }
+    
+    /**
+     * Whether chaining resizes are spread over later operations
+     * @return Resize strategy chosen at construction
+     */
+    public boolean isIncrementalResize() {
+        return incrementalResize;
+    }
+    
+    /**
+     * Whether an incremental resize is still draining the old table
+     * @return true while old buckets remain to be migrated
+     */
+    public boolean isMigrating() {
+        return oldBuckets != null;
+    }
+    
+    /**
+     * Bucket index using built-in hashCode
      * @param key Key to hash
-     * @return Hash index
+     * @param length Table length
+     * @return Hash index in [0, length)
      */
-    private int hash(K key) {
-        return Math.abs(key.hashCode()) % capacity;
+    private int indexFor(K key, int length) {
+        return (key.hashCode() & 0x7FFFFFFF) % length;
     }
     
     /**
-     * Resize hash table when load factor exceeded
-     * Time Complexity: O(n)
+     * Chaining tables currently holding entries: the live table and,
+     * during an incremental resize, the old table being drained
+     */
+    @SuppressWarnings("unchecked")
+    private Entry<K, V>[][] chainTables() {
+        Entry<?, ?>[][] tables = oldBuckets != null
+            ? new Entry<?, ?>[][] { buckets, oldBuckets }
+            : new Entry<?, ?>[][] { buckets };
+        return (Entry<K, V>[][]) tables;
+    }
+    
+    /**
+     * Resize hash table when load factor exceeded. Stop-the-world resizes
+     * relink every node into the doubled table; incremental resizes only
+     * allocate it and leave the nodes to {@link #migrateStep()}.
+     * Time Complexity: O(n) stop-the-world, O(capacity) allocation incremental
      */
     @SuppressWarnings("unchecked")
     private void resize() {
-        Entry<K, V>[] oldBuckets = buckets;
+        long start = System.nanoTime();
+        if (oldBuckets != null) {
+            // Load factor reached again before the previous migration ended
+            migrateBuckets(oldBuckets.length);
+        }
         
+        Entry<K, V>[] previous = buckets;
         capacity *= RESIZE_FACTOR;
         buckets = new Entry[capacity];
-        size = 0;
         collisions = 0;
         resizeCount++;
         
-        // Rehash all entries
-        for (Entry<K, V> bucket : oldBuckets) {
-            Entry<K, V> entry = bucket;
+        if (incrementalResize) {
+            oldBuckets = previous;
+            migrationIndex = 0;
+        } else {
+            for (Entry<K, V> bucket : previous) {
+                Entry<K, V> entry = bucket;
+                while (entry != null) {
+                    Entry<K, V> next = entry.next;
+                    relink(entry);
+                    entry = next;
+                }
+            }
+        }
+        recordPause(System.nanoTime() - start);
+    }
+    
+    /**
+     * Move a bounded number of old buckets into the live table, if a
+     * migration is in progress
+     * Time Complexity: O(1) amortized
+     */
+    private void migrateStep() {
+        if (oldBuckets != null) {
+            long start = System.nanoTime();
+            migrateBuckets(MIGRATION_BUCKETS_PER_OPERATION);
+            recordPause(System.nanoTime() - start);
+        }
+    }
+    
+    private void migrateBuckets(int count) {
+        int end = Math.min(migrationIndex + count, oldBuckets.length);
+        for (; migrationIndex < end; migrationIndex++) {
+            Entry<K, V> entry = oldBuckets[migrationIndex];
+            oldBuckets[migrationIndex] = null;
             while (entry != null) {
-                put(entry.key, entry.value);
-                entry = entry.next;
+                Entry<K, V> next = entry.next;
+                relink(entry);
+                entry = next;
+            }
+        }
+        if (migrationIndex == oldBuckets.length) {
+            oldBuckets = null;
+        }
+    }
+    
+    /**
+     * Prepend an existing node to its bucket in the live table
+     */
+    private void relink(Entry<K, V> entry) {
+        int index = indexFor(entry.key, capacity);
+        if (buckets[index] != null) {
+            collisions++;
+        }
+        entry.next = buckets[index];
+        buckets[index] = entry;
+    }
+    
+    private void recordPause(long nanos) {
+        if (nanos > maxResizePauseNanos) {
+            maxResizePauseNanos = nanos;
+        }
+    }
+    
+    /**
+     * Open addressing insert with linear probing
+     * Time Complexity: O(1) expected
+     */
+    @SuppressWarnings("unchecked")
+    private V probePut(K key, V value) {
+        if (size >= capacity * loadFactor) {
+            resizeSlots();
+        }
+        
+        int hash = mix(key.hashCode());
+        int mask = capacity - 1;
+        int index = hash & mask;
+        while (slotKeys[index] != null) {
+            if (slotHashes[index] == hash && slotKeys[index].equals(key)) {
+                V oldValue = (V) slotValues[index];
+                slotValues[index] = value;
+                return oldValue;
+            }
+            index = (index + 1) & mask;
+        }
+        
+        if (index != (hash & mask)) {
+            collisions++;
+        }
+        slotKeys[index] = key;
+        slotValues[index] = value;
+        slotHashes[index] = hash;
+        size++;
+        return null;
+    }
+    
+    /**
+     * Slot holding the key, or -1
+     */
+    private int probeIndexOf(Object key) {
+        int hash = mix(key.hashCode());
+        int mask = capacity - 1;
+        int index = hash & mask;
+        while (slotKeys[index] != null) {
+            if (slotHashes[index] == hash && slotKeys[index].equals(key)) {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+        return -1;
+    }
+    
+    /**
+     * Open addressing delete. Instead of leaving a tombstone, later entries
+     * of the same probe run are shifted back into the hole, so lookups never
+     * have to skip deleted slots.
+     */
+    @SuppressWarnings("unchecked")
+    private V probeRemove(K key) {
+        int hole = probeIndexOf(key);
+        if (hole < 0) {
+            return null;
+        }
+        V oldValue = (V) slotValues[hole];
+        
+        int mask = capacity - 1;
+        int index = hole;
+        while (true) {
+            index = (index + 1) & mask;
+            if (slotKeys[index] == null) {
+                break;
+            }
+            int home = slotHashes[index] & mask;
+            // Move the entry back unless its home lies cyclically in (hole, index]
+            boolean reachable = hole <= index 
+                ? hole < home && home <= index 
+                : hole < home || home <= index;
+            if (!reachable) {
+                slotKeys[hole] = slotKeys[index];
+                slotValues[hole] = slotValues[index];
+                slotHashes[hole] = slotHashes[index];
+                hole = index;
             }
         }
+        slotKeys[hole] = null;
+        slotValues[hole] = null;
+        size--;
+        return oldValue;
+    }
+    
+    /**
+     * Double the slot arrays and re-place every entry
+     * Time Complexity: O(n)
+     */
+    private void resizeSlots() {
+        long start = System.nanoTime();
+        Object[] oldKeys = slotKeys;
+        Object[] oldValues = slotValues;
+        int[] oldHashes = slotHashes;
+        
+        capacity *= RESIZE_FACTOR;
+        slotKeys = new Object[capacity];
+        slotValues = new Object[capacity];
+        slotHashes = new int[capacity];
+        collisions = 0;
+        resizeCount++;
+        
+        int mask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != null) {
+                int index = oldHashes[i] & mask;
+                if (slotKeys[index] != null) {
+                    collisions++;
+                    do {
+                        index = (index + 1) & mask;
+                    } while (slotKeys[index] != null);
+                }
+                slotKeys[index] = oldKeys[i];
+                slotValues[index] = oldValues[i];
+                slotHashes[index] = oldHashes[i];
+            }
+        }
+        recordPause(System.nanoTime() - start);
+    }
+    
+    @SuppressWarnings("unchecked")
+    private Entry<K, V> slotEntry(int index) {
+        return new Entry<>((K) slotKeys[index], (V) slotValues[index]);
+    }
+    
+    /**
+     * Spread hashCode bits so that power-of-two masking depends on all of them
+     * (MurmurHash3 32-bit finalizer)
+     * @param hashCode Raw hash code
+     * @return Mixed hash
+     */
+    static int mix(int hashCode) {
+        int h = hashCode;
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        return h ^ (h >>> 16);
+    }
+    
+    /**
+     * Mixed 32-bit hash of a long key (MurmurHash3 64-bit finalizer)
+     * @param key Key to hash
+     * @return Mixed hash
+     */
+    static int mix(long key) {
+        long h = key;
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+    
+    /**
+     * Smallest power of two >= the requested capacity
+     */
+    static int tableSizeFor(int requested) {
+        int size = Integer.highestOneBit(Math.max(requested, 2) - 1) << 1;
+        if (size <= 0) {
+            throw new IllegalArgumentException("Capacity too large: " + requested);
+        }
+        return size;
+    }
+    
+    /**
+     * Add one key's probe length to a histogram, growing it as needed
+     * @param histogram histogram[i] = keys found after i + 1 probes
+     * @param probeLength Probes needed to reach the key (1 = home slot)
+     * @return The histogram, possibly reallocated
+     */
+    static int[] recordProbe(int[] histogram, int probeLength) {
+        if (probeLength > histogram.length) {
+            histogram = Arrays.copyOf(histogram, Math.max(probeLength, histogram.length * 2));
+        }
+        histogram[probeLength - 1]++;
+        return histogram;
     }
     
     /**
@@ -335,41 +796,48 @@ public class HashSearch<K, V> {
      */
     public PerformanceMetrics getPerformanceMetrics() {
         return new PerformanceMetrics(
-            "O(1) average, O(n) worst",
+            mode == Mode.OPEN_ADDRESSING ? "O(1) expected, O(n) worst" : "O(1) average, O(n) worst",
             "O(n)",
             getCurrentLoadFactor(),
             size,
             capacity,
             collisions,
             resizeCount,
-            calculateAverageChainLength()
+            calculateProbeLengthHistogram(),
+            oldBuckets != null,
+            oldBuckets != null ? (double) migrationIndex / oldBuckets.length : 1.0,
+            maxResizePauseNanos
         );
     }
     
     /**
-     * Calculate average chain length for collision analysis
-     * @return Average chain length
+     * Distribution of the number of probes a successful lookup needs:
+     * the 1-based position in the chain, or the distance from the home
+     * slot plus one for open addressing
+     * @return histogram[i] = number of keys found after i + 1 probes
      */
-    private double calculateAverageChainLength() {
-        if (size == 0) return 0.0;
+    private int[] calculateProbeLengthHistogram() {
+        int[] histogram = new int[8];
         
-        int totalChainLength = 0;
-        int nonEmptyBuckets = 0;
-        
-        for (Entry<K, V> bucket : buckets) {
-            if (bucket != null) {
-                nonEmptyBuckets++;
-                int chainLength = 0;
-                Entry<K, V> entry = bucket;
-                while (entry != null) {
-                    chainLength++;
-                    entry = entry.next;
+        if (mode == Mode.OPEN_ADDRESSING) {
+            int mask = capacity - 1;
+            for (int i = 0; i < capacity; i++) {
+                if (slotKeys[i] != null) {
+                    histogram = recordProbe(histogram, ((i - (slotHashes[i] & mask)) & mask) + 1);
+                }
+            }
+        } else {
+            for (Entry<K, V>[] table : chainTables()) {
+                for (Entry<K, V> bucket : table) {
+                    int position = 0;
+                    for (Entry<K, V> entry = bucket; entry != null; entry = entry.next) {
+                        histogram = recordProbe(histogram, ++position);
+                    }
                 }
-                totalChainLength += chainLength;
             }
         }
         
-        return nonEmptyBuckets > 0 ? (double) totalChainLength / nonEmptyBuckets : 0.0;
+        return histogram;
     }
     
     /**
@@ -417,11 +885,34 @@ public class HashSearch<K, V> {
         private final int capacity;
         private final int collisions;
         private final int resizeCount;
-        private final double averageChainLength;
+        private final int[] probeLengthHistogram;
+        private final double averageProbeLength;
+        private final int maxProbeLength;
+        private final boolean migrating;
+        private final double migrationProgress;
+        private final long maxResizePauseNanos;
         
+        /**
+         * Metrics for a table that does not track resize pauses
+         * @param probeLengthHistogram histogram[i] = number of keys found after i + 1 probes
+         */
         public PerformanceMetrics(String timeComplexity, String spaceComplexity, 
                                 double loadFactor, int size, int capacity, 
-                                int collisions, int resizeCount, double averageChainLength) {
+                                int collisions, int resizeCount, int[] probeLengthHistogram) {
+            this(timeComplexity, spaceComplexity, loadFactor, size, capacity, 
+                 collisions, resizeCount, probeLengthHistogram, false, 1.0, 0);
+        }
+        
+        /**
+         * @param probeLengthHistogram histogram[i] = number of keys found after i + 1 probes
+         * @param migrating Whether an incremental resize is in progress
+         * @param migrationProgress Fraction of old buckets migrated (1.0 when not migrating)
+         * @param maxResizePauseNanos Longest time a single operation spent resizing or migrating
+         */
+        public PerformanceMetrics(String timeComplexity, String spaceComplexity, 
+                                double loadFactor, int size, int capacity, 
+                                int collisions, int resizeCount, int[] probeLengthHistogram,
+                                boolean migrating, double migrationProgress, long maxResizePauseNanos) {
             this.timeComplexity = timeComplexity;
             this.spaceComplexity = spaceComplexity;
             this.loadFactor = loadFactor;
@@ -429,7 +920,23 @@ public class HashSearch<K, V> {
             this.capacity = capacity;
             this.collisions = collisions;
             this.resizeCount = resizeCount;
-            this.averageChainLength = averageChainLength;
+            
+            int max = 0;
+            long keys = 0;
+            long probes = 0;
+            for (int i = 0; i < probeLengthHistogram.length; i++) {
+                if (probeLengthHistogram[i] > 0) {
+                    max = i + 1;
+                    keys += probeLengthHistogram[i];
+                    probes += (long) probeLengthHistogram[i] * (i + 1);
+                }
+            }
+            this.probeLengthHistogram = Arrays.copyOf(probeLengthHistogram, max);
+            this.averageProbeLength = keys > 0 ? (double) probes / keys : 0.0;
+            this.maxProbeLength = max;
+            this.migrating = migrating;
+            this.migrationProgress = migrationProgress;
+            this.maxResizePauseNanos = maxResizePauseNanos;
         }
         
         // Getters
@@ -440,15 +947,24 @@ public class HashSearch<K, V> {
         public int getCapacity() { return capacity; }
         public int getCollisions() { return collisions; }
         public int getResizeCount() { return resizeCount; }
-        public double getAverageChainLength() { return averageChainLength; }
+        public int[] getProbeLengthHistogram() { return probeLengthHistogram.clone(); }
+        public double getAverageProbeLength() { return averageProbeLength; }
+        public int getMaxProbeLength() { return maxProbeLength; }
+        public boolean isMigrating() { return migrating; }
+        public double getMigrationProgress() { return migrationProgress; }
+        public long getMaxResizePauseNanos() { return maxResizePauseNanos; }
         
         @Override
         public String toString() {
             return String.format("PerformanceMetrics{timeComplexity='%s', spaceComplexity='%s', " +
                                "loadFactor=%.2f, size=%d, capacity=%d, collisions=%d, " +
-                               "resizeCount=%d, averageChainLength=%.2f}",
+                               "resizeCount=%d, averageProbeLength=%.2f, maxProbeLength=%d, " +
+                               "probeLengthHistogram=%s, migrating=%s, migrationProgress=%.2f, " +
+                               "maxResizePauseNanos=%d}",
                                timeComplexity, spaceComplexity, loadFactor, size, capacity, 
-                               collisions, resizeCount, averageChainLength);
+                               collisions, resizeCount, averageProbeLength, maxProbeLength,
+                               Arrays.toString(probeLengthHistogram), migrating, migrationProgress,
+                               maxResizePauseNanos);
         }
     }
     
@@ -459,14 +975,14 @@ public class HashSearch<K, V> {
     public static AlgorithmInfo getAlgorithmInfo() {
         return new AlgorithmInfo(
             "Hash Search",
-            "Hash Table with Chaining",
+            "Hash Table with Chaining or Open Addressing (linear probing)",
             "O(1) average, O(n) worst case",
             "O(n)",
             Arrays.asList(
                 "Very fast average case lookups",
                 "Constant time insertion and deletion",
                 "Flexible key types",
-                "Dynamic resizing",
+                "Dynamic resizing, optionally incremental",
                 "Good cache locality"
             ),
             Arrays.asList(
@@ -521,7 +1037,7 @@ public class HashSearch<K, V> {
     
     @Override
     public String toString() {
-        return String.format("HashSearch{size=%d, capacity=%d, loadFactor=%.2f, collisions=%d}",
-                           size, capacity, getCurrentLoadFactor(), collisions);
+        return String.format("HashSearch{mode=%s, size=%d, capacity=%d, loadFactor=%.2f, collisions=%d}",
+                           mode, size, capacity, getCurrentLoadFactor(), collisions);
     }
 }
\ No newline at end of file
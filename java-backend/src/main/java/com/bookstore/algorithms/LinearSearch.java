@@ -1,6 +1,8 @@
 package com.bookstore.algorithms;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 import java.util.function.Predicate;
 
 /**
@@ -9,9 +11,19 @@ import java.util.function.Predicate;
  * Used for flexible searching in the Online Bookstore system
  * Time Complexity: O(n) for all operations
  * Space Complexity: O(1) for basic search, O(k) for multiple results
+ *
+ * Bulk scans over large inputs have allocation-free variants:
+ * - long[]/double[] equality and range scans build a match mask 64 elements
+ *   per word with branch-free inner loops the JIT can unroll and vectorize
+ * - parallel predicate scans split the input into 64-aligned chunks on the
+ *   common fork/join pool; each chunk fills its own mask words, so merging
+ *   is just summing the per-chunk match counts
+ * Results come back as a {@link BitSet} or an exact-size int[] of indices.
  */
 public class LinearSearch {
     
+    private static final int PARALLEL_CHUNK_WORDS = 256; // 16384 elements per fork/join leaf
+    
     /**
      * Basic linear search for exact match
      * Time Complexity: O(n)
@@ -338,6 +350,334 @@ public class LinearSearch {
         return true;
     }
     
+    /**
+     * Find all positions holding target in a primitive array
+     * Time Complexity: O(n)
+     * Space Complexity: O(n/64 + k)
+     * @param array Array to search in
+     * @param target Target value
+     * @return Ascending indices of matches
+     */
+    public static int[] findAll(long[] array, long target) {
+        return findAllInRange(array, target, target);
+    }
+    
+    /**
+     * Find all positions holding target, using == semantics (NaN never matches, -0.0 matches 0.0)
+     * Time Complexity: O(n)
+     * Space Complexity: O(n/64 + k)
+     * @param array Array to search in
+     * @param target Target value
+     * @return Ascending indices of matches
+     */
+    public static int[] findAll(double[] array, double target) {
+        return findAllInRange(array, target, target);
+    }
+    
+    /**
+     * Find all positions whose value lies in [min, max]
+     * Time Complexity: O(n)
+     * Space Complexity: O(n/64 + k)
+     * @param array Array to search in
+     * @param min Lower bound (inclusive)
+     * @param max Upper bound (inclusive)
+     * @return Ascending indices of matches
+     */
+    public static int[] findAllInRange(long[] array, long min, long max) {
+        if (array == null) {
+            return new int[0];
+        }
+        long[] words = new long[wordCount(array.length)];
+        int matches = fillRangeWords(array, min, max, words, 0, words.length);
+        return toIndices(words, matches);
+    }
+    
+    /**
+     * Find all positions whose value lies in [min, max]; NaN never matches
+     * Time Complexity: O(n)
+     * Space Complexity: O(n/64 + k)
+     * @param array Array to search in
+     * @param min Lower bound (inclusive)
+     * @param max Upper bound (inclusive)
+     * @return Ascending indices of matches
+     */
+    public static int[] findAllInRange(double[] array, double min, double max) {
+        if (array == null) {
+            return new int[0];
+        }
+        long[] words = new long[wordCount(array.length)];
+        int matches = fillRangeWords(array, min, max, words, 0, words.length);
+        return toIndices(words, matches);
+    }
+    
+    /**
+     * Mask of positions whose value lies in [min, max]
+     * Time Complexity: O(n)
+     * Space Complexity: O(n/64)
+     * @param array Array to search in
+     * @param min Lower bound (inclusive)
+     * @param max Upper bound (inclusive)
+     * @return Bit i set when array[i] matches
+     */
+    public static BitSet matchRange(long[] array, long min, long max) {
+        if (array == null) {
+            return new BitSet();
+        }
+        long[] words = new long[wordCount(array.length)];
+        fillRangeWords(array, min, max, words, 0, words.length);
+        return BitSet.valueOf(words);
+    }
+    
+    /**
+     * Mask of positions whose value lies in [min, max]; NaN never matches
+     * Time Complexity: O(n)
+     * Space Complexity: O(n/64)
+     * @param array Array to search in
+     * @param min Lower bound (inclusive)
+     * @param max Upper bound (inclusive)
+     * @return Bit i set when array[i] matches
+     */
+    public static BitSet matchRange(double[] array, double min, double max) {
+        if (array == null) {
+            return new BitSet();
+        }
+        long[] words = new long[wordCount(array.length)];
+        fillRangeWords(array, min, max, words, 0, words.length);
+        return BitSet.valueOf(words);
+    }
+    
+    /**
+     * Count values in [min, max] without materializing matches
+     * Time Complexity: O(n)
+     * Space Complexity: O(1)
+     * @param array Array to search in
+     * @param min Lower bound (inclusive)
+     * @param max Upper bound (inclusive)
+     * @return Number of matching elements
+     */
+    public static int countInRange(long[] array, long min, long max) {
+        if (array == null || min > max) {
+            return 0;
+        }
+        long span = max - min;
+        int count = 0;
+        for (long value : array) {
+            count += Long.compareUnsigned(value - min, span) <= 0 ? 1 : 0;
+        }
+        return count;
+    }
+    
+    /**
+     * Count values in [min, max] without materializing matches; NaN never matches
+     * Time Complexity: O(n)
+     * Space Complexity: O(1)
+     * @param array Array to search in
+     * @param min Lower bound (inclusive)
+     * @param max Upper bound (inclusive)
+     * @return Number of matching elements
+     */
+    public static int countInRange(double[] array, double min, double max) {
+        if (array == null) {
+            return 0;
+        }
+        int count = 0;
+        for (double value : array) {
+            count += (value >= min & value <= max) ? 1 : 0;
+        }
+        return count;
+    }
+    
+    /**
+     * Find all elements matching predicate, scanning chunks in parallel.
+     * The predicate is called from several threads and must be thread-safe.
+     * Time Complexity: O(n / p) with p worker threads
+     * Space Complexity: O(n/64 + k)
+     * @param array Array to search in
+     * @param predicate Condition to match (null elements never match)
+     * @return Ascending indices of matches
+     */
+    public static <T> int[] parallelFindAllWithCondition(T[] array, Predicate<? super T> predicate) {
+        if (array == null || predicate == null) {
+            return new int[0];
+        }
+        long[] words = new long[wordCount(array.length)];
+        int matches = ForkJoinPool.commonPool().invoke(new PredicateScanTask<>(array, predicate, words, 0, words.length));
+        return toIndices(words, matches);
+    }
+    
+    /**
+     * Find all list elements matching predicate, scanning chunks in parallel.
+     * Lists without random access are copied to an array first.
+     * Time Complexity: O(n / p) with p worker threads
+     * Space Complexity: O(n/64 + k)
+     * @param list List to search in
+     * @param predicate Condition to match (null elements never match)
+     * @return Ascending indices of matches
+     */
+    public static <T> int[] parallelFindAllWithCondition(List<T> list, Predicate<? super T> predicate) {
+        if (list == null || predicate == null) {
+            return new int[0];
+        }
+        return parallelFindAllWithCondition(list.toArray(), element -> predicate.test(castElement(element)));
+    }
+    
+    /**
+     * Mask of elements matching predicate, scanning chunks in parallel
+     * Time Complexity: O(n / p) with p worker threads
+     * Space Complexity: O(n/64)
+     * @param array Array to search in
+     * @param predicate Condition to match (null elements never match)
+     * @return Bit i set when array[i] matches
+     */
+    public static <T> BitSet parallelMatchWithCondition(T[] array, Predicate<? super T> predicate) {
+        if (array == null || predicate == null) {
+            return new BitSet();
+        }
+        long[] words = new long[wordCount(array.length)];
+        ForkJoinPool.commonPool().invoke(new PredicateScanTask<>(array, predicate, words, 0, words.length));
+        return BitSet.valueOf(words);
+    }
+    
+    /**
+     * Count elements matching predicate, scanning chunks in parallel
+     * Time Complexity: O(n / p) with p worker threads
+     * Space Complexity: O(n/64)
+     * @param array Array to search in
+     * @param predicate Condition to match (null elements never match)
+     * @return Number of matching elements
+     */
+    public static <T> int parallelCountWithCondition(T[] array, Predicate<? super T> predicate) {
+        if (array == null || predicate == null) {
+            return 0;
+        }
+        long[] words = new long[wordCount(array.length)];
+        return ForkJoinPool.commonPool().invoke(new PredicateScanTask<>(array, predicate, words, 0, words.length));
+    }
+    
+    /**
+     * Expand a mask into ascending indices
+     * Time Complexity: O(n/64 + k)
+     * @param mask Match mask
+     * @return Indices of set bits
+     */
+    public static int[] toIndices(BitSet mask) {
+        return toIndices(mask.toLongArray(), mask.cardinality());
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static <T> T castElement(Object element) {
+        return (T) element;
+    }
+    
+    private static int wordCount(int length) {
+        return (length + 63) >>> 6;
+    }
+    
+    private static int[] toIndices(long[] words, int matches) {
+        int[] indices = new int[matches];
+        int count = 0;
+        for (int w = 0; w < words.length; w++) {
+            long word = words[w];
+            while (word != 0) {
+                indices[count++] = (w << 6) + Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+            }
+        }
+        return indices;
+    }
+    
+    /**
+     * Fill mask words [fromWord, toWord) for a range scan.
+     * v lies in [min, max] exactly when v - min, read as unsigned, is at most
+     * max - min, which turns the two comparisons into one without branches.
+     * @return Number of matches in the filled words
+     */
+    private static int fillRangeWords(long[] array, long min, long max, long[] words, int fromWord, int toWord) {
+        if (min > max) {
+            return 0;
+        }
+        long span = max - min;
+        int matches = 0;
+        for (int w = fromWord; w < toWord; w++) {
+            int base = w << 6;
+            int end = Math.min(base + 64, array.length);
+            long word = 0;
+            for (int i = base; i < end; i++) {
+                long hit = Long.compareUnsigned(array[i] - min, span) <= 0 ? 1L : 0L;
+                word |= hit << (i - base);
+            }
+            words[w] = word;
+            matches += Long.bitCount(word);
+        }
+        return matches;
+    }
+    
+    private static int fillRangeWords(double[] array, double min, double max, long[] words, int fromWord, int toWord) {
+        int matches = 0;
+        for (int w = fromWord; w < toWord; w++) {
+            int base = w << 6;
+            int end = Math.min(base + 64, array.length);
+            long word = 0;
+            for (int i = base; i < end; i++) {
+                double value = array[i];
+                long hit = (value >= min & value <= max) ? 1L : 0L;
+                word |= hit << (i - base);
+            }
+            words[w] = word;
+            matches += Long.bitCount(word);
+        }
+        return matches;
+    }
+    
+    /**
+     * Fork/join predicate scan over mask words [fromWord, toWord).
+     * Chunks are word-aligned, so every task writes disjoint words and the
+     * only merge step is adding the two halves' match counts.
+     */
+    private static final class PredicateScanTask<T> extends RecursiveTask<Integer> {
+        private static final long serialVersionUID = 1L;
+        
+        private final T[] array;
+        private final Predicate<? super T> predicate;
+        private final long[] words;
+        private final int fromWord;
+        private final int toWord;
+        
+        PredicateScanTask(T[] array, Predicate<? super T> predicate, long[] words, int fromWord, int toWord) {
+            this.array = array;
+            this.predicate = predicate;
+            this.words = words;
+            this.fromWord = fromWord;
+            this.toWord = toWord;
+        }
+        
+        @Override
+        protected Integer compute() {
+            if (toWord - fromWord <= PARALLEL_CHUNK_WORDS) {
+                int matches = 0;
+                for (int w = fromWord; w < toWord; w++) {
+                    int base = w << 6;
+                    int end = Math.min(base + 64, array.length);
+                    long word = 0;
+                    for (int i = base; i < end; i++) {
+                        if (array[i] != null && predicate.test(array[i])) {
+                            word |= 1L << (i - base);
+                        }
+                    }
+                    words[w] = word;
+                    matches += Long.bitCount(word);
+                }
+                return matches;
+            }
+            
+            int mid = (fromWord + toWord) >>> 1;
+            PredicateScanTask<T> left = new PredicateScanTask<>(array, predicate, words, fromWord, mid);
+            left.fork();
+            int rightMatches = new PredicateScanTask<>(array, predicate, words, mid, toWord).compute();
+            return left.join() + rightMatches;
+        }
+    }
+    
     /**
      * Get algorithm information
      * @return Algorithm details
@@ -353,7 +693,8 @@ public class LinearSearch {
                 "Simple implementation",
                 "Flexible with custom predicates",
                 "No preprocessing required",
-                "Stable for equal elements"
+                "Stable for equal elements",
+                "Mask-based primitive scans and parallel predicate scans for large inputs"
             ),
             Arrays.asList(
                 "Slow for large datasets",
@@ -1,6 +1,10 @@
 package com.bookstore.algorithms;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Function;
 
 /**
  * Merge Sort Algorithm Implementation
@@ -16,6 +20,18 @@ import java.util.*;
  * - Not in-place: Requires additional memory
  * - Consistent performance: Always O(n log n)
  * - Good for large datasets
+ * 
+ * Engines:
+ * - List engine (sort, sortStrings): boxed values, top-down recursion
+ * - Primitive engine (sort(int[]), sort(long[]), sort(double[])): in-place,
+ *   allocation-free with a reusable scratch buffer, natural-run detection
+ *   and an insertion-sort cutoff for small runs
+ * - Radix engine (sortStrings with StringSortMode.RADIX): case-folds each
+ *   string once into a byte collation key, then stable MSD radix sort
+ * - Object engine (sort with comparator, sortByKeys): stable sort of domain
+ *   objects, with packed primitive sort keys for multi-field orders
+ * - Parallel engine (parallelSort, parallelSortStrings): fork/join split
+ *   with parallel merges, stable and identical to the sequential result
  */
 public class MergeSort {
     
@@ -108,6 +124,171 @@ public class MergeSort {
         return mergeSortStringsRecursive(new ArrayList<>(data));
     }
     
+    /**
+     * Sorts strings (case-insensitive) with the selected engine
+     * @param data List of strings to sort
+     * @param mode MERGE for the comparison merge sort, RADIX for the collation-key radix sort
+     * @return New sorted list, identical for both modes
+     */
+    public static List<String> sortStrings(List<String> data, StringSortMode mode) {
+        return mode == StringSortMode.RADIX ? radixSortStrings(data) : sortStrings(data);
+    }
+    
+    /**
+     * String sort engines
+     */
+    public enum StringSortMode {
+        /** Merge sort calling compareToIgnoreCase on every comparison */
+        MERGE,
+        /** Case-fold once into byte keys, then stable MSD radix sort */
+        RADIX
+    }
+    
+    /**
+     * Case-insensitive string sort on precomputed collation keys.
+     * 
+     * Each string is case-folded exactly once (the same per-character folding
+     * compareToIgnoreCase applies) and encoded into a byte array whose unsigned
+     * lexicographic order equals the folded UTF-16 order: one byte per char when
+     * every folded char fits in Latin-1, otherwise two big-endian bytes per char.
+     * Positions are then sorted with a stable MSD radix sort over those
+     * keys, so the result is identical to {@link #sortStrings(List)}.
+     * 
+     * Time Complexity: O(n * w) where w is the average distinguishing prefix length
+     * Space Complexity: O(n + total key bytes)
+     * @param data List of strings to sort
+     * @return New sorted list
+     */
+    public static List<String> radixSortStrings(List<String> data) {
+        if (data == null || data.size() <= 1) {
+            return new ArrayList<>(data != null ? data : Collections.emptyList());
+        }
+        
+        int n = data.size();
+        String[] folded = new String[n];
+        boolean wide = false;
+        for (int i = 0; i < n; i++) {
+            folded[i] = foldCase(data.get(i));
+            for (int c = 0; c < folded[i].length() && !wide; c++) {
+                wide = folded[i].charAt(c) > 0xFF;
+            }
+        }
+        
+        byte[][] keys = new byte[n][];
+        for (int i = 0; i < n; i++) {
+            keys[i] = encodeCollationKey(folded[i], wide);
+        }
+        
+        int[] positions = new int[n];
+        for (int i = 0; i < n; i++) {
+            positions[i] = i;
+        }
+        radixSort(positions, new int[n], keys, 0, n, 0);
+        
+        List<String> result = new ArrayList<>(n);
+        for (int position : positions) {
+            result.add(data.get(position));
+        }
+        return result;
+    }
+    
+    /**
+     * Buckets at or below this size are finished with insertion sort
+     */
+    private static final int RADIX_CUTOFF = 16;
+    
+    private static final int RADIX = 256;
+    
+    private static byte[] encodeCollationKey(String folded, boolean wide) {
+        int length = folded.length();
+        byte[] key = new byte[wide ? length * 2 : length];
+        for (int i = 0; i < length; i++) {
+            char c = folded.charAt(i);
+            if (wide) {
+                key[2 * i] = (byte) (c >>> 8);
+                key[2 * i + 1] = (byte) c;
+            } else {
+                key[i] = (byte) c;
+            }
+        }
+        return key;
+    }
+    
+    /**
+     * Unsigned key byte at depth d, or -1 past the end of the key
+     */
+    private static int keyByte(byte[] key, int d) {
+        return d < key.length ? key[d] & 0xFF : -1;
+    }
+    
+    /**
+     * Stable MSD radix sort of positions[lo, hi) by keys, starting at byte d.
+     * Distribution goes through aux in input order, which keeps equal keys stable.
+     * A bucket that holds the whole range (common prefix) advances the depth
+     * in a loop instead of recursing, so long shared prefixes cannot overflow the stack.
+     */
+    private static void radixSort(int[] positions, int[] aux, byte[][] keys, int lo, int hi, int d) {
+        while (true) {
+            if (hi - lo <= RADIX_CUTOFF) {
+                insertionSortKeys(positions, keys, lo, hi, d);
+                return;
+            }
+            
+            int[] count = new int[RADIX + 2];
+            for (int i = lo; i < hi; i++) {
+                count[keyByte(keys[positions[i]], d) + 2]++;
+            }
+            
+            int first = keyByte(keys[positions[lo]], d);
+            if (count[first + 2] == hi - lo) {
+                if (first == -1) {
+                    return; // Every key ended - all equal
+                }
+                d++;
+                continue;
+            }
+            
+            for (int r = 0; r < RADIX + 1; r++) {
+                count[r + 1] += count[r];
+            }
+            for (int i = lo; i < hi; i++) {
+                aux[count[keyByte(keys[positions[i]], d) + 1]++] = positions[i];
+            }
+            System.arraycopy(aux, 0, positions, lo, hi - lo);
+            
+            // count[r] now marks the start of bucket r (the ended keys come first)
+            for (int r = 0; r < RADIX; r++) {
+                if (count[r + 1] - count[r] > 1) {
+                    radixSort(positions, aux, keys, lo + count[r], lo + count[r + 1], d + 1);
+                }
+            }
+            return;
+        }
+    }
+    
+    private static void insertionSortKeys(int[] positions, byte[][] keys, int lo, int hi, int d) {
+        for (int i = lo + 1; i < hi; i++) {
+            int value = positions[i];
+            int j = i;
+            while (j > lo && compareKeys(keys[value], keys[positions[j - 1]], d) < 0) {
+                positions[j] = positions[j - 1];
+                j--;
+            }
+            positions[j] = value;
+        }
+    }
+    
+    private static int compareKeys(byte[] a, byte[] b, int d) {
+        int length = Math.min(a.length, b.length);
+        for (int i = d; i < length; i++) {
+            int comparison = (a[i] & 0xFF) - (b[i] & 0xFF);
+            if (comparison != 0) {
+                return comparison;
+            }
+        }
+        return a.length - b.length;
+    }
+    
     /**
      * Recursive merge sort implementation for strings
      * @param data List to sort
@@ -160,4 +341,994 @@ public class MergeSort {
         
         return result;
     }
+    
+    /**
+     * Stable sort of arbitrary objects with a custom comparator
+     * @param data List to sort
+     * @param comparator Ordering to sort by
+     * @return New sorted list
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> List<T> sort(List<T> data, Comparator<? super T> comparator) {
+        if (data == null || data.size() <= 1) {
+            return new ArrayList<>(data != null ? data : Collections.emptyList());
+        }
+        
+        T[] values = (T[]) data.toArray();
+        sortRange(values, (T[]) new Object[values.length], 0, values.length, comparator);
+        return new ArrayList<>(Arrays.asList(values));
+    }
+    
+    /**
+     * Stable multi-key sort of domain objects (e.g. genre -> year -> price).
+     * 
+     * Decorate-sort-undecorate: every extractor runs exactly once per element,
+     * each key is turned into a dense primitive rank, and the ranks plus the
+     * original position are packed into one long per element, which is then
+     * sorted with the primitive engine. No getter or comparator calls happen
+     * during the O(n log n) phase. When the packed ranks do not fit in 63 bits
+     * the element positions are sorted against the precomputed rank columns.
+     * 
+     * Null keys sort first in ascending order and last in descending order,
+     * the same way MongoDB orders missing fields.
+     * 
+     * Time Complexity: O(k * n log n) for k keys
+     * Space Complexity: O(k * n)
+     * @param data List to sort
+     * @param keys Sort keys, most significant first
+     * @return New sorted list
+     */
+    public static <T> List<T> sortByKeys(List<T> data, List<SortKey<T>> keys) {
+        if (data == null || data.size() <= 1 || keys == null || keys.isEmpty()) {
+            return new ArrayList<>(data != null ? data : Collections.emptyList());
+        }
+        
+        int n = data.size();
+        int[][] ranks = new int[keys.size()][];
+        int[] rankBits = new int[keys.size()];
+        int totalBits = 32 - Integer.numberOfLeadingZeros(n - 1);
+        
+        for (int k = 0; k < keys.size(); k++) {
+            ranks[k] = keys.get(k).computeRanks(data);
+            int maxRank = 0;
+            for (int rank : ranks[k]) {
+                maxRank = Math.max(maxRank, rank);
+            }
+            rankBits[k] = 32 - Integer.numberOfLeadingZeros(maxRank);
+            totalBits += rankBits[k];
+        }
+        
+        int[] order = new int[n];
+        if (totalBits <= 63) {
+            int indexBits = 32 - Integer.numberOfLeadingZeros(n - 1);
+            long[] packed = new long[n];
+            for (int i = 0; i < n; i++) {
+                long key = 0;
+                for (int k = 0; k < ranks.length; k++) {
+                    key = (key << rankBits[k]) | ranks[k][i];
+                }
+                packed[i] = (key << indexBits) | i;
+            }
+            
+            sort(packed);
+            
+            long indexMask = (1L << indexBits) - 1;
+            for (int i = 0; i < n; i++) {
+                order[i] = (int) (packed[i] & indexMask);
+            }
+        } else {
+            Integer[] positions = new Integer[n];
+            for (int i = 0; i < n; i++) {
+                positions[i] = i;
+            }
+            sortRange(positions, new Integer[n], 0, n, (a, b) -> {
+                for (int[] column : ranks) {
+                    int comparison = Integer.compare(column[a], column[b]);
+                    if (comparison != 0) {
+                        return comparison;
+                    }
+                }
+                return 0;
+            });
+            for (int i = 0; i < n; i++) {
+                order[i] = positions[i];
+            }
+        }
+        
+        List<T> result = new ArrayList<>(n);
+        for (int index : order) {
+            result.add(data.get(index));
+        }
+        return result;
+    }
+    
+    /**
+     * Sort by a request-style sort spec, resolving field names against the given keys.
+     * sortBy is a comma-separated list of fields (e.g. "genre,year,-price");
+     * a leading '-' flips that field relative to sortDir. Unknown fields are ignored.
+     * Time Complexity: O(k * n log n) for k resolved keys
+     * @param data List to sort
+     * @param sortBy Comma-separated field names
+     * @param sortDir "asc" or "desc"
+     * @param available Ascending sort keys by field name
+     * @return New sorted list, or data itself when no field resolves
+     */
+    public static <T> List<T> sortBySpec(List<T> data, String sortBy, String sortDir,
+                                         Map<String, SortKey<T>> available) {
+        List<SortKey<T>> keys = new ArrayList<>();
+        boolean descending = "desc".equalsIgnoreCase(sortDir);
+        
+        for (String field : sortBy.split(",")) {
+            String name = field.trim();
+            boolean flipped = name.startsWith("-");
+            SortKey<T> key = available.get(flipped ? name.substring(1) : name);
+            if (key != null) {
+                keys.add(descending != flipped ? key.reversed() : key);
+            }
+        }
+        
+        return keys.isEmpty() ? data : sortByKeys(data, keys);
+    }
+    
+    /**
+     * A sort key for {@link #sortByKeys(List, List)}: a field extractor plus direction.
+     * Text keys compare case-insensitively, like {@link #sortStrings(List)}.
+     */
+    public static final class SortKey<T> {
+        private final Function<? super T, ? extends Number> numberExtractor;
+        private final Function<? super T, String> textExtractor;
+        private final boolean descending;
+        
+        private SortKey(Function<? super T, ? extends Number> numberExtractor,
+                        Function<? super T, String> textExtractor, boolean descending) {
+            this.numberExtractor = numberExtractor;
+            this.textExtractor = textExtractor;
+            this.descending = descending;
+        }
+        
+        /**
+         * Numeric key (Integer, Long, Double, ...). Null values are allowed.
+         */
+        public static <T> SortKey<T> numeric(Function<? super T, ? extends Number> extractor) {
+            return new SortKey<>(Objects.requireNonNull(extractor), null, false);
+        }
+        
+        /**
+         * Case-insensitive text key. Null values are allowed.
+         */
+        public static <T> SortKey<T> text(Function<? super T, String> extractor) {
+            return new SortKey<>(null, Objects.requireNonNull(extractor), false);
+        }
+        
+        /**
+         * Same key with the opposite direction
+         */
+        public SortKey<T> reversed() {
+            return new SortKey<>(numberExtractor, textExtractor, !descending);
+        }
+        
+        public boolean isDescending() {
+            return descending;
+        }
+        
+        /**
+         * Extracts the key once per element and converts it to a dense rank:
+         * 0 for null, 1..d for the d distinct values in ascending order.
+         * Descending keys are flipped so that smaller ranks still sort first.
+         */
+        int[] computeRanks(List<T> data) {
+            int[] ranks = numberExtractor != null ? numericRanks(data) : textRanks(data);
+            
+            if (descending) {
+                int maxRank = 0;
+                for (int rank : ranks) {
+                    maxRank = Math.max(maxRank, rank);
+                }
+                for (int i = 0; i < ranks.length; i++) {
+                    ranks[i] = maxRank - ranks[i];
+                }
+            }
+            return ranks;
+        }
+        
+        private int[] numericRanks(List<T> data) {
+            int n = data.size();
+            Number[] extracted = new Number[n];
+            boolean fractional = false;
+            for (int i = 0; i < n; i++) {
+                Number value = numberExtractor.apply(data.get(i));
+                extracted[i] = value;
+                if (value instanceof Double || value instanceof Float) {
+                    fractional = true;
+                }
+            }
+            
+            // Order-preserving long encoding, so integral and fractional keys share one path
+            long[] encoded = new long[n];
+            long[] distinct = new long[n];
+            int distinctCount = 0;
+            for (int i = 0; i < n; i++) {
+                if (extracted[i] != null) {
+                    encoded[i] = fractional ? sortableBits(extracted[i].doubleValue()) : extracted[i].longValue();
+                    distinct[distinctCount++] = encoded[i];
+                }
+            }
+            
+            long[] values = Arrays.copyOf(distinct, distinctCount);
+            sort(values, distinct);
+            int unique = dedupe(values);
+            
+            int[] ranks = new int[n];
+            for (int i = 0; i < n; i++) {
+                if (extracted[i] != null) {
+                    ranks[i] = Arrays.binarySearch(values, 0, unique, encoded[i]) + 1;
+                }
+            }
+            return ranks;
+        }
+        
+        private int[] textRanks(List<T> data) {
+            int n = data.size();
+            String[] folded = new String[n];
+            for (int i = 0; i < n; i++) {
+                folded[i] = foldCase(textExtractor.apply(data.get(i)));
+            }
+            
+            Map<String, Integer> rankByValue = new HashMap<>();
+            for (String value : folded) {
+                if (value != null) {
+                    rankByValue.putIfAbsent(value, 0);
+                }
+            }
+            String[] values = rankByValue.keySet().toArray(new String[0]);
+            Arrays.sort(values);
+            for (int i = 0; i < values.length; i++) {
+                rankByValue.put(values[i], i + 1);
+            }
+            
+            int[] ranks = new int[n];
+            for (int i = 0; i < n; i++) {
+                if (folded[i] != null) {
+                    ranks[i] = rankByValue.get(folded[i]);
+                }
+            }
+            return ranks;
+        }
+    }
+    
+    /**
+     * Maps a double to a long with the same ordering as Double.compare
+     */
+    private static long sortableBits(double value) {
+        long bits = Double.doubleToLongBits(value);
+        return bits ^ ((bits >> 63) & Long.MAX_VALUE);
+    }
+    
+    /**
+     * Removes adjacent duplicates from a sorted array in place
+     * @return Number of unique values at the front of the array
+     */
+    private static int dedupe(long[] sorted) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int unique = 1;
+        for (int i = 1; i < sorted.length; i++) {
+            if (sorted[i] != sorted[unique - 1]) {
+                sorted[unique++] = sorted[i];
+            }
+        }
+        return unique;
+    }
+    
+    /**
+     * Case-folds a string the same way String.compareToIgnoreCase compares characters,
+     * so comparing folded strings with compareTo gives the case-insensitive order
+     */
+    static String foldCase(String value) {
+        if (value == null) {
+            return null;
+        }
+        char[] chars = value.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = Character.toLowerCase(Character.toUpperCase(chars[i]));
+        }
+        return new String(chars);
+    }
+    
+    /**
+     * Default sub-range size below which parallel tasks sort sequentially
+     */
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 8192;
+    
+    /**
+     * Largest worker count a parallel sort gets its own pool for
+     */
+    public static final int MAX_PARALLELISM = 64;
+    
+    // One pool per parallelism level, created on first use and shared by every call
+    private static final Map<Integer, ForkJoinPool> POOLS = new ConcurrentHashMap<>();
+    
+    /**
+     * Sorts integers on a fork/join pool with the default split threshold.
+     * Produces exactly the same list as {@link #sort(List)}.
+     * @param data List of integers to sort
+     * @param parallelism Number of worker threads, at most MAX_PARALLELISM (0 or less uses the common pool)
+     * @return New sorted list
+     */
+    public static List<Integer> parallelSort(List<Integer> data, int parallelism) {
+        return parallelSort(data, parallelism, DEFAULT_PARALLEL_THRESHOLD);
+    }
+    
+    /**
+     * Sorts integers on a fork/join pool.
+     * Produces exactly the same list as {@link #sort(List)}.
+     * @param data List of integers to sort
+     * @param parallelism Number of worker threads, at most MAX_PARALLELISM (0 or less uses the common pool)
+     * @param threshold Sub-range size below which tasks sort sequentially
+     * @return New sorted list
+     */
+    public static List<Integer> parallelSort(List<Integer> data, int parallelism, int threshold) {
+        return parallelSort(data, Comparator.<Integer>naturalOrder(), parallelism, threshold);
+    }
+    
+    /**
+     * Sorts strings (case-insensitive) on a fork/join pool.
+     * Produces exactly the same list as {@link #sortStrings(List)}.
+     * @param data List of strings to sort
+     * @param parallelism Number of worker threads, at most MAX_PARALLELISM (0 or less uses the common pool)
+     * @param threshold Sub-range size below which tasks sort sequentially
+     * @return New sorted list
+     */
+    public static List<String> parallelSortStrings(List<String> data, int parallelism, int threshold) {
+        return parallelSort(data, String.CASE_INSENSITIVE_ORDER, parallelism, threshold);
+    }
+    
+    /**
+     * Stable parallel merge sort with a custom comparator.
+     * Halves are sorted recursively as fork/join tasks until they fall below
+     * the threshold, and the merges themselves are split in parallel by
+     * binary-searching the split point of the larger run in the smaller one.
+     * Time Complexity: O(n log n) work, O(log^3 n) span
+     * Space Complexity: O(n)
+     * @param data List to sort
+     * @param comparator Ordering to sort by
+     * @param parallelism Number of worker threads, at most MAX_PARALLELISM (0 or less uses the common pool)
+     * @param threshold Sub-range size below which tasks sort sequentially
+     * @return New sorted list
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> List<T> parallelSort(List<T> data, Comparator<? super T> comparator, 
+                                           int parallelism, int threshold) {
+        if (data == null || data.size() <= 1) {
+            return new ArrayList<>(data != null ? data : Collections.emptyList());
+        }
+        
+        T[] values = (T[]) data.toArray();
+        T[] scratch = (T[]) new Object[values.length];
+        int cutoff = Math.max(threshold, MIN_RUN);
+        
+        ForkJoinPool pool = parallelism > 0
+            ? POOLS.computeIfAbsent(Math.min(parallelism, MAX_PARALLELISM), ForkJoinPool::new)
+            : ForkJoinPool.commonPool();
+        pool.invoke(new ParallelSortTask<>(values, scratch, 0, values.length, false, comparator, cutoff));
+        
+        return new ArrayList<>(Arrays.asList(values));
+    }
+    
+    /**
+     * Sorts data[lo, hi) with a sequential top-down merge sort, using
+     * scratch[lo, hi) as the merge buffer. Stable.
+     */
+    private static <T> void sortRange(T[] data, T[] scratch, int lo, int hi, Comparator<? super T> comparator) {
+        if (hi - lo <= MIN_RUN) {
+            for (int i = lo + 1; i < hi; i++) {
+                T value = data[i];
+                int j = i;
+                while (j > lo && comparator.compare(value, data[j - 1]) < 0) {
+                    data[j] = data[j - 1];
+                    j--;
+                }
+                data[j] = value;
+            }
+            return;
+        }
+        
+        int mid = (lo + hi) >>> 1;
+        sortRange(data, scratch, lo, mid, comparator);
+        sortRange(data, scratch, mid, hi, comparator);
+        
+        // Halves already in order - nothing to merge
+        if (comparator.compare(data[mid - 1], data[mid]) <= 0) {
+            return;
+        }
+        
+        System.arraycopy(data, lo, scratch, lo, hi - lo);
+        mergeRange(scratch, lo, mid, mid, hi, data, lo, comparator);
+    }
+    
+    /**
+     * Merges src[lo1, hi1) and src[lo2, hi2) into dst starting at dstLo, taking the left element on ties
+     */
+    private static <T> void mergeRange(T[] src, int lo1, int hi1, int lo2, int hi2, 
+                                       T[] dst, int dstLo, Comparator<? super T> comparator) {
+        int i = lo1, j = lo2, k = dstLo;
+        while (i < hi1 && j < hi2) {
+            dst[k++] = comparator.compare(src[j], src[i]) < 0 ? src[j++] : src[i++];
+        }
+        if (i < hi1) {
+            System.arraycopy(src, i, dst, k, hi1 - i);
+        } else if (j < hi2) {
+            System.arraycopy(src, j, dst, k, hi2 - j);
+        }
+    }
+    
+    /**
+     * Fork/join task that sorts data[lo, hi). Input is always read from data;
+     * the sorted result ends up in data or, when resultInScratch is set, in
+     * scratch. Children target the opposite array so every merge reads from
+     * one array and writes into the other without extra copies.
+     */
+    private static final class ParallelSortTask<T> extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        
+        private final T[] data;
+        private final T[] scratch;
+        private final int lo;
+        private final int hi;
+        private final boolean resultInScratch;
+        private final Comparator<? super T> comparator;
+        private final int threshold;
+        
+        ParallelSortTask(T[] data, T[] scratch, int lo, int hi, boolean resultInScratch,
+                         Comparator<? super T> comparator, int threshold) {
+            this.data = data;
+            this.scratch = scratch;
+            this.lo = lo;
+            this.hi = hi;
+            this.resultInScratch = resultInScratch;
+            this.comparator = comparator;
+            this.threshold = threshold;
+        }
+        
+        @Override
+        protected void compute() {
+            if (hi - lo <= threshold) {
+                sortRange(data, scratch, lo, hi, comparator);
+                if (resultInScratch) {
+                    System.arraycopy(data, lo, scratch, lo, hi - lo);
+                }
+                return;
+            }
+            
+            int mid = (lo + hi) >>> 1;
+            invokeAll(
+                new ParallelSortTask<>(data, scratch, lo, mid, !resultInScratch, comparator, threshold),
+                new ParallelSortTask<>(data, scratch, mid, hi, !resultInScratch, comparator, threshold)
+            );
+            
+            T[] src = resultInScratch ? data : scratch;
+            T[] dst = resultInScratch ? scratch : data;
+            new ParallelMergeTask<>(src, lo, mid, mid, hi, dst, lo, comparator, threshold).compute();
+        }
+    }
+    
+    /**
+     * Fork/join task that stably merges src[lo1, hi1) and src[lo2, hi2) into dst at dstLo.
+     * The larger run is split at its midpoint and the matching split point of the
+     * other run is found by binary search, giving two independent merges.
+     */
+    private static final class ParallelMergeTask<T> extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        
+        private final T[] src;
+        private final int lo1;
+        private final int hi1;
+        private final int lo2;
+        private final int hi2;
+        private final T[] dst;
+        private final int dstLo;
+        private final Comparator<? super T> comparator;
+        private final int threshold;
+        
+        ParallelMergeTask(T[] src, int lo1, int hi1, int lo2, int hi2, T[] dst, int dstLo,
+                          Comparator<? super T> comparator, int threshold) {
+            this.src = src;
+            this.lo1 = lo1;
+            this.hi1 = hi1;
+            this.lo2 = lo2;
+            this.hi2 = hi2;
+            this.dst = dst;
+            this.dstLo = dstLo;
+            this.comparator = comparator;
+            this.threshold = threshold;
+        }
+        
+        @Override
+        protected void compute() {
+            int leftSize = hi1 - lo1;
+            int rightSize = hi2 - lo2;
+            if (leftSize + rightSize <= threshold || leftSize == 0 || rightSize == 0) {
+                mergeRange(src, lo1, hi1, lo2, hi2, dst, dstLo, comparator);
+                return;
+            }
+            
+            int split1;
+            int split2;
+            if (leftSize >= rightSize) {
+                // Right elements equal to the pivot must stay behind it: lower bound
+                split1 = (lo1 + hi1) >>> 1;
+                split2 = lowerBound(src, lo2, hi2, src[split1], comparator);
+            } else {
+                // Left elements equal to the pivot must stay ahead of it: upper bound
+                split2 = (lo2 + hi2) >>> 1;
+                split1 = upperBound(src, lo1, hi1, src[split2], comparator);
+            }
+            
+            int dstSplit = dstLo + (split1 - lo1) + (split2 - lo2);
+            invokeAll(
+                new ParallelMergeTask<>(src, lo1, split1, lo2, split2, dst, dstLo, comparator, threshold),
+                new ParallelMergeTask<>(src, split1, hi1, split2, hi2, dst, dstSplit, comparator, threshold)
+            );
+        }
+    }
+    
+    /**
+     * First index in [lo, hi) whose element is not less than key
+     */
+    private static <T> int lowerBound(T[] array, int lo, int hi, T key, Comparator<? super T> comparator) {
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (comparator.compare(array[mid], key) < 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+    
+    /**
+     * First index in [lo, hi) whose element is greater than key
+     */
+    private static <T> int upperBound(T[] array, int lo, int hi, T key, Comparator<? super T> comparator) {
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (comparator.compare(array[mid], key) <= 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+    
+    /**
+     * Primitive merge sort engine (int[], long[], double[]).
+     * Bottom-up natural merge sort: existing ascending runs are detected,
+     * runs shorter than this are extended with insertion sort, and runs are
+     * then merged pairwise, ping-ponging between the data and one scratch buffer.
+     * No boxing, no subList views and no per-merge allocation.
+     */
+    private static final int MIN_RUN = 32;
+    
+    /**
+     * Sorts an array of ints in place using the primitive merge sort engine.
+     * Allocates one scratch buffer of the same length; use
+     * {@link #sort(int[], int[])} to reuse a buffer across calls.
+     * @param data Array to sort
+     */
+    public static void sort(int[] data) {
+        if (data == null || data.length <= 1) {
+            return;
+        }
+        sort(data, new int[data.length]);
+    }
+    
+    /**
+     * Sorts an array of ints in place reusing a caller-supplied scratch buffer.
+     * Nothing is allocated, so repeated column sorts produce no garbage.
+     * @param data Array to sort
+     * @param scratch Scratch buffer, at least as long as data
+     */
+    public static void sort(int[] data, int[] scratch) {
+        if (data == null || data.length <= 1) {
+            return;
+        }
+        if (scratch == null || scratch.length < data.length) {
+            throw new IllegalArgumentException("Scratch buffer must be at least as long as the data");
+        }
+        
+        int n = data.length;
+        prepareRuns(data, n);
+        
+        int[] src = data;
+        int[] dst = scratch;
+        while (true) {
+            int mid = ascendingRunEnd(src, 0, n);
+            if (mid == n) {
+                break; // Single run left - fully sorted
+            }
+            
+            // One pass: merge neighbouring runs pairwise from src into dst
+            int lo = 0;
+            while (true) {
+                int hi = mid == n ? n : ascendingRunEnd(src, mid, n);
+                mergeRuns(src, lo, mid, hi, dst);
+                lo = hi;
+                if (lo >= n) {
+                    break;
+                }
+                mid = ascendingRunEnd(src, lo, n);
+            }
+            
+            int[] tmp = src;
+            src = dst;
+            dst = tmp;
+        }
+        
+        if (src != data) {
+            System.arraycopy(src, 0, data, 0, n);
+        }
+    }
+    
+    /**
+     * Normalizes the input into sorted runs of at least MIN_RUN elements.
+     * Strictly descending runs are reversed (keeps the sort stable).
+     * @param data Array to prepare
+     * @param n Number of elements
+     */
+    private static void prepareRuns(int[] data, int n) {
+        int lo = 0;
+        while (lo < n) {
+            int hi = lo + 1;
+            if (hi < n && data[hi] < data[lo]) {
+                hi++;
+                while (hi < n && data[hi] < data[hi - 1]) {
+                    hi++;
+                }
+                reverse(data, lo, hi);
+            } else {
+                while (hi < n && data[hi] >= data[hi - 1]) {
+                    hi++;
+                }
+            }
+            
+            int forcedEnd = Math.min(lo + MIN_RUN, n);
+            if (hi < forcedEnd) {
+                insertionSort(data, lo, hi, forcedEnd);
+                hi = forcedEnd;
+            }
+            lo = hi;
+        }
+    }
+    
+    /**
+     * Finds the end (exclusive) of the non-descending run starting at lo
+     */
+    private static int ascendingRunEnd(int[] data, int lo, int n) {
+        int i = lo + 1;
+        while (i < n && data[i] >= data[i - 1]) {
+            i++;
+        }
+        return i;
+    }
+    
+    /**
+     * Extends the sorted prefix [lo, sortedEnd) to cover [lo, hi)
+     */
+    private static void insertionSort(int[] data, int lo, int sortedEnd, int hi) {
+        for (int i = sortedEnd; i < hi; i++) {
+            int value = data[i];
+            int j = i;
+            while (j > lo && value < data[j - 1]) {
+                data[j] = data[j - 1];
+                j--;
+            }
+            data[j] = value;
+        }
+    }
+    
+    /**
+     * Merges src[lo, mid) and src[mid, hi) into dst[lo, hi), taking the left element on ties
+     */
+    private static void mergeRuns(int[] src, int lo, int mid, int hi, int[] dst) {
+        int i = lo, j = mid, k = lo;
+        while (i < mid && j < hi) {
+            dst[k++] = src[j] < src[i] ? src[j++] : src[i++];
+        }
+        if (i < mid) {
+            System.arraycopy(src, i, dst, k, mid - i);
+        } else if (j < hi) {
+            System.arraycopy(src, j, dst, k, hi - j);
+        }
+    }
+    
+    private static void reverse(int[] data, int lo, int hi) {
+        for (int i = lo, j = hi - 1; i < j; i++, j--) {
+            int tmp = data[i];
+            data[i] = data[j];
+            data[j] = tmp;
+        }
+    }
+    
+    /**
+     * Sorts an array of longs in place using the primitive merge sort engine.
+     * Allocates one scratch buffer of the same length; use
+     * {@link #sort(long[], long[])} to reuse a buffer across calls.
+     * @param data Array to sort
+     */
+    public static void sort(long[] data) {
+        if (data == null || data.length <= 1) {
+            return;
+        }
+        sort(data, new long[data.length]);
+    }
+    
+    /**
+     * Sorts an array of longs in place reusing a caller-supplied scratch buffer.
+     * Nothing is allocated, so repeated column sorts produce no garbage.
+     * @param data Array to sort
+     * @param scratch Scratch buffer, at least as long as data
+     */
+    public static void sort(long[] data, long[] scratch) {
+        if (data == null || data.length <= 1) {
+            return;
+        }
+        if (scratch == null || scratch.length < data.length) {
+            throw new IllegalArgumentException("Scratch buffer must be at least as long as the data");
+        }
+        
+        int n = data.length;
+        prepareRuns(data, n);
+        
+        long[] src = data;
+        long[] dst = scratch;
+        while (true) {
+            int mid = ascendingRunEnd(src, 0, n);
+            if (mid == n) {
+                break; // Single run left - fully sorted
+            }
+            
+            // One pass: merge neighbouring runs pairwise from src into dst
+            int lo = 0;
+            while (true) {
+                int hi = mid == n ? n : ascendingRunEnd(src, mid, n);
+                mergeRuns(src, lo, mid, hi, dst);
+                lo = hi;
+                if (lo >= n) {
+                    break;
+                }
+                mid = ascendingRunEnd(src, lo, n);
+            }
+            
+            long[] tmp = src;
+            src = dst;
+            dst = tmp;
+        }
+        
+        if (src != data) {
+            System.arraycopy(src, 0, data, 0, n);
+        }
+    }
+    
+    /**
+     * Normalizes the input into sorted runs of at least MIN_RUN elements.
+     * Strictly descending runs are reversed (keeps the sort stable).
+     * @param data Array to prepare
+     * @param n Number of elements
+     */
+    private static void prepareRuns(long[] data, int n) {
+        int lo = 0;
+        while (lo < n) {
+            int hi = lo + 1;
+            if (hi < n && data[hi] < data[lo]) {
+                hi++;
+                while (hi < n && data[hi] < data[hi - 1]) {
+                    hi++;
+                }
+                reverse(data, lo, hi);
+            } else {
+                while (hi < n && data[hi] >= data[hi - 1]) {
+                    hi++;
+                }
+            }
+            
+            int forcedEnd = Math.min(lo + MIN_RUN, n);
+            if (hi < forcedEnd) {
+                insertionSort(data, lo, hi, forcedEnd);
+                hi = forcedEnd;
+            }
+            lo = hi;
+        }
+    }
+    
+    /**
+     * Finds the end (exclusive) of the non-descending run starting at lo
+     */
+    private static int ascendingRunEnd(long[] data, int lo, int n) {
+        int i = lo + 1;
+        while (i < n && data[i] >= data[i - 1]) {
+            i++;
+        }
+        return i;
+    }
+    
+    /**
+     * Extends the sorted prefix [lo, sortedEnd) to cover [lo, hi)
+     */
+    private static void insertionSort(long[] data, int lo, int sortedEnd, int hi) {
+        for (int i = sortedEnd; i < hi; i++) {
+            long value = data[i];
+            int j = i;
+            while (j > lo && value < data[j - 1]) {
+                data[j] = data[j - 1];
+                j--;
+            }
+            data[j] = value;
+        }
+    }
+    
+    /**
+     * Merges src[lo, mid) and src[mid, hi) into dst[lo, hi), taking the left element on ties
+     */
+    private static void mergeRuns(long[] src, int lo, int mid, int hi, long[] dst) {
+        int i = lo, j = mid, k = lo;
+        while (i < mid && j < hi) {
+            dst[k++] = src[j] < src[i] ? src[j++] : src[i++];
+        }
+        if (i < mid) {
+            System.arraycopy(src, i, dst, k, mid - i);
+        } else if (j < hi) {
+            System.arraycopy(src, j, dst, k, hi - j);
+        }
+    }
+    
+    private static void reverse(long[] data, int lo, int hi) {
+        for (int i = lo, j = hi - 1; i < j; i++, j--) {
+            long tmp = data[i];
+            data[i] = data[j];
+            data[j] = tmp;
+        }
+    }
+    
+    /**
+     * Sorts an array of doubles in place using the primitive merge sort engine.
+     * Allocates one scratch buffer of the same length; use
+     * {@link #sort(double[], double[])} to reuse a buffer across calls.
+     * @param data Array to sort
+     */
+    public static void sort(double[] data) {
+        if (data == null || data.length <= 1) {
+            return;
+        }
+        sort(data, new double[data.length]);
+    }
+    
+    /**
+     * Sorts an array of doubles in place reusing a caller-supplied scratch buffer.
+     * Nothing is allocated, so repeated column sorts produce no garbage.
+     * @param data Array to sort
+     * @param scratch Scratch buffer, at least as long as data
+     */
+    public static void sort(double[] data, double[] scratch) {
+        if (data == null || data.length <= 1) {
+            return;
+        }
+        if (scratch == null || scratch.length < data.length) {
+            throw new IllegalArgumentException("Scratch buffer must be at least as long as the data");
+        }
+        
+        int n = data.length;
+        prepareRuns(data, n);
+        
+        double[] src = data;
+        double[] dst = scratch;
+        while (true) {
+            int mid = ascendingRunEnd(src, 0, n);
+            if (mid == n) {
+                break; // Single run left - fully sorted
+            }
+            
+            // One pass: merge neighbouring runs pairwise from src into dst
+            int lo = 0;
+            while (true) {
+                int hi = mid == n ? n : ascendingRunEnd(src, mid, n);
+                mergeRuns(src, lo, mid, hi, dst);
+                lo = hi;
+                if (lo >= n) {
+                    break;
+                }
+                mid = ascendingRunEnd(src, lo, n);
+            }
+            
+            double[] tmp = src;
+            src = dst;
+            dst = tmp;
+        }
+        
+        if (src != data) {
+            System.arraycopy(src, 0, data, 0, n);
+        }
+    }
+    
+    /**
+     * Normalizes the input into sorted runs of at least MIN_RUN elements.
+     * Strictly descending runs are reversed (keeps the sort stable).
+     * @param data Array to prepare
+     * @param n Number of elements
+     */
+    private static void prepareRuns(double[] data, int n) {
+        int lo = 0;
+        while (lo < n) {
+            int hi = lo + 1;
+            if (hi < n && Double.compare(data[hi], data[lo]) < 0) {
+                hi++;
+                while (hi < n && Double.compare(data[hi], data[hi - 1]) < 0) {
+                    hi++;
+                }
+                reverse(data, lo, hi);
+            } else {
+                while (hi < n && Double.compare(data[hi], data[hi - 1]) >= 0) {
+                    hi++;
+                }
+            }
+            
+            int forcedEnd = Math.min(lo + MIN_RUN, n);
+            if (hi < forcedEnd) {
+                insertionSort(data, lo, hi, forcedEnd);
+                hi = forcedEnd;
+            }
+            lo = hi;
+        }
+    }
+    
+    /**
+     * Finds the end (exclusive) of the non-descending run starting at lo
+     */
+    private static int ascendingRunEnd(double[] data, int lo, int n) {
+        int i = lo + 1;
+        while (i < n && Double.compare(data[i], data[i - 1]) >= 0) {
+            i++;
+        }
+        return i;
+    }
+    
+    /**
+     * Extends the sorted prefix [lo, sortedEnd) to cover [lo, hi)
+     */
+    private static void insertionSort(double[] data, int lo, int sortedEnd, int hi) {
+        for (int i = sortedEnd; i < hi; i++) {
+            double value = data[i];
+            int j = i;
+            while (j > lo && Double.compare(value, data[j - 1]) < 0) {
+                data[j] = data[j - 1];
+                j--;
+            }
+            data[j] = value;
+        }
+    }
+    
+    /**
+     * Merges src[lo, mid) and src[mid, hi) into dst[lo, hi), taking the left element on ties
+     */
+    private static void mergeRuns(double[] src, int lo, int mid, int hi, double[] dst) {
+        int i = lo, j = mid, k = lo;
+        while (i < mid && j < hi) {
+            dst[k++] = Double.compare(src[j], src[i]) < 0 ? src[j++] : src[i++];
+        }
+        if (i < mid) {
+            System.arraycopy(src, i, dst, k, mid - i);
+        } else if (j < hi) {
+            System.arraycopy(src, j, dst, k, hi - j);
+        }
+    }
+    
+    private static void reverse(double[] data, int lo, int hi) {
+        for (int i = lo, j = hi - 1; i < j; i++, j--) {
+            double tmp = data[i];
+            data[i] = data[j];
+            data[j] = tmp;
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,620 @@
+package com.bookstore.algorithms;
+
+import java.util.Arrays;
+
+/**
+ * Primitive-Specialized Hash Search Implementations
+ * Open addressing hash tables for the key/value shapes used by lookup
+ * indexes (ISBN -> row, id -> row, id -> counter). Keys and values live in
+ * parallel arrays, so there is no Entry node and no boxing per mapping.
+ *
+ * Shared design (see {@link HashSearch.Mode#OPEN_ADDRESSING}):
+ * - Power-of-two tables indexed by a mixed hash
+ * - Linear probing for lookups and inserts
+ * - Backward-shift deletion, so there are never tombstones to skip
+ * - long tables use 0 as the empty-slot marker; the key 0 itself is kept
+ *   in a dedicated side slot
+ *
+ * Time Complexity: O(1) expected for get/put/remove
+ * Space Complexity: O(capacity)
+ */
+public final class PrimitiveHashSearch {
+    
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final double LOAD_FACTOR = 0.75;
+    
+    private PrimitiveHashSearch() {
+    }
+    
+    /**
+     * String -> int table, e.g. ISBN -> row index
+     */
+    public static final class StringToInt {
+        private String[] keys;
+        private int[] values;
+        private int size;
+        private int collisions;
+        private int resizeCount;
+        
+        /**
+         * Constructor with default capacity
+         */
+        public StringToInt() {
+            this(DEFAULT_CAPACITY);
+        }
+        
+        /**
+         * Constructor sized for an expected number of keys
+         * @param expectedSize Number of keys to hold without resizing
+         */
+        public StringToInt(int expectedSize) {
+            int capacity = HashSearch.tableSizeFor((int) Math.ceil(Math.max(expectedSize, 1) / LOAD_FACTOR));
+            this.keys = new String[capacity];
+            this.values = new int[capacity];
+        }
+        
+        /**
+         * Insert or replace a mapping
+         * @param key Key (not null)
+         * @param value Value
+         * @return true if the key was new
+         */
+        public boolean put(String key, int value) {
+            if (key == null) {
+                throw new IllegalArgumentException("Key cannot be null");
+            }
+            if (size >= keys.length * LOAD_FACTOR) {
+                resize();
+            }
+            
+            int mask = keys.length - 1;
+            int home = HashSearch.mix(key.hashCode()) & mask;
+            int index = home;
+            while (keys[index] != null) {
+                if (keys[index].equals(key)) {
+                    values[index] = value;
+                    return false;
+                }
+                index = (index + 1) & mask;
+            }
+            
+            if (index != home) {
+                collisions++;
+            }
+            keys[index] = key;
+            values[index] = value;
+            size++;
+            return true;
+        }
+        
+        /**
+         * Look up a key
+         * @param key Key to find
+         * @param defaultValue Returned when the key is absent
+         * @return Mapped value or defaultValue
+         */
+        public int getOrDefault(String key, int defaultValue) {
+            int index = indexOf(key);
+            return index >= 0 ? values[index] : defaultValue;
+        }
+        
+        /**
+         * Check if key exists
+         * @param key Key to check
+         * @return true if present
+         */
+        public boolean containsKey(String key) {
+            return indexOf(key) >= 0;
+        }
+        
+        /**
+         * Remove a mapping
+         * @param key Key to remove
+         * @return true if the key was present
+         */
+        public boolean remove(String key) {
+            int hole = indexOf(key);
+            if (hole < 0) {
+                return false;
+            }
+            
+            int mask = keys.length - 1;
+            int index = hole;
+            while (true) {
+                index = (index + 1) & mask;
+                if (keys[index] == null) {
+                    break;
+                }
+                int home = HashSearch.mix(keys[index].hashCode()) & mask;
+                if (!inCyclicRange(home, hole, index)) {
+                    keys[hole] = keys[index];
+                    values[hole] = values[index];
+                    hole = index;
+                }
+            }
+            keys[hole] = null;
+            size--;
+            return true;
+        }
+        
+        private int indexOf(String key) {
+            if (key == null) {
+                return -1;
+            }
+            int mask = keys.length - 1;
+            int index = HashSearch.mix(key.hashCode()) & mask;
+            while (keys[index] != null) {
+                if (keys[index].equals(key)) {
+                    return index;
+                }
+                index = (index + 1) & mask;
+            }
+            return -1;
+        }
+        
+        private void resize() {
+            String[] oldKeys = keys;
+            int[] oldValues = values;
+            keys = new String[oldKeys.length * 2];
+            values = new int[oldKeys.length * 2];
+            size = 0;
+            collisions = 0;
+            resizeCount++;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != null) {
+                    put(oldKeys[i], oldValues[i]);
+                }
+            }
+        }
+        
+        /**
+         * Remove all mappings
+         */
+        public void clear() {
+            Arrays.fill(keys, null);
+            size = 0;
+            collisions = 0;
+        }
+        
+        public int size() {
+            return size;
+        }
+        
+        public int getCapacity() {
+            return keys.length;
+        }
+        
+        /**
+         * Get performance metrics including the probe length distribution
+         * @return Performance information
+         */
+        public HashSearch.PerformanceMetrics getPerformanceMetrics() {
+            int mask = keys.length - 1;
+            int[] histogram = new int[8];
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] != null) {
+                    int home = HashSearch.mix(keys[i].hashCode()) & mask;
+                    histogram = HashSearch.recordProbe(histogram, ((i - home) & mask) + 1);
+                }
+            }
+            return new HashSearch.PerformanceMetrics("O(1) expected, O(n) worst", "O(n)",
+                (double) size / keys.length, size, keys.length, collisions, resizeCount, histogram);
+        }
+    }
+    
+    /**
+     * long -> int table, e.g. numeric id -> row index
+     */
+    public static final class LongToInt {
+        private long[] keys;
+        private int[] values;
+        private boolean hasZeroKey;
+        private int zeroValue;
+        private int size;
+        private int collisions;
+        private int resizeCount;
+        
+        /**
+         * Constructor with default capacity
+         */
+        public LongToInt() {
+            this(DEFAULT_CAPACITY);
+        }
+        
+        /**
+         * Constructor sized for an expected number of keys
+         * @param expectedSize Number of keys to hold without resizing
+         */
+        public LongToInt(int expectedSize) {
+            int capacity = HashSearch.tableSizeFor((int) Math.ceil(Math.max(expectedSize, 1) / LOAD_FACTOR));
+            this.keys = new long[capacity];
+            this.values = new int[capacity];
+        }
+        
+        /**
+         * Insert or replace a mapping
+         * @param key Key
+         * @param value Value
+         * @return true if the key was new
+         */
+        public boolean put(long key, int value) {
+            if (key == 0) {
+                boolean added = !hasZeroKey;
+                hasZeroKey = true;
+                zeroValue = value;
+                if (added) {
+                    size++;
+                }
+                return added;
+            }
+            if (size >= keys.length * LOAD_FACTOR) {
+                resize();
+            }
+            
+            int mask = keys.length - 1;
+            int home = HashSearch.mix(key) & mask;
+            int index = home;
+            while (keys[index] != 0) {
+                if (keys[index] == key) {
+                    values[index] = value;
+                    return false;
+                }
+                index = (index + 1) & mask;
+            }
+            
+            if (index != home) {
+                collisions++;
+            }
+            keys[index] = key;
+            values[index] = value;
+            size++;
+            return true;
+        }
+        
+        /**
+         * Look up a key
+         * @param key Key to find
+         * @param defaultValue Returned when the key is absent
+         * @return Mapped value or defaultValue
+         */
+        public int getOrDefault(long key, int defaultValue) {
+            if (key == 0) {
+                return hasZeroKey ? zeroValue : defaultValue;
+            }
+            int index = indexOf(key);
+            return index >= 0 ? values[index] : defaultValue;
+        }
+        
+        /**
+         * Check if key exists
+         * @param key Key to check
+         * @return true if present
+         */
+        public boolean containsKey(long key) {
+            return key == 0 ? hasZeroKey : indexOf(key) >= 0;
+        }
+        
+        /**
+         * Remove a mapping
+         * @param key Key to remove
+         * @return true if the key was present
+         */
+        public boolean remove(long key) {
+            if (key == 0) {
+                boolean removed = hasZeroKey;
+                if (removed) {
+                    hasZeroKey = false;
+                    size--;
+                }
+                return removed;
+            }
+            int hole = indexOf(key);
+            if (hole < 0) {
+                return false;
+            }
+            
+            int mask = keys.length - 1;
+            int index = hole;
+            while (true) {
+                index = (index + 1) & mask;
+                if (keys[index] == 0) {
+                    break;
+                }
+                int home = HashSearch.mix(keys[index]) & mask;
+                if (!inCyclicRange(home, hole, index)) {
+                    keys[hole] = keys[index];
+                    values[hole] = values[index];
+                    hole = index;
+                }
+            }
+            keys[hole] = 0;
+            size--;
+            return true;
+        }
+        
+        private int indexOf(long key) {
+            int mask = keys.length - 1;
+            int index = HashSearch.mix(key) & mask;
+            while (keys[index] != 0) {
+                if (keys[index] == key) {
+                    return index;
+                }
+                index = (index + 1) & mask;
+            }
+            return -1;
+        }
+        
+        private void resize() {
+            long[] oldKeys = keys;
+            int[] oldValues = values;
+            keys = new long[oldKeys.length * 2];
+            values = new int[oldKeys.length * 2];
+            size = hasZeroKey ? 1 : 0;
+            collisions = 0;
+            resizeCount++;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != 0) {
+                    put(oldKeys[i], oldValues[i]);
+                }
+            }
+        }
+        
+        /**
+         * Remove all mappings
+         */
+        public void clear() {
+            Arrays.fill(keys, 0L);
+            hasZeroKey = false;
+            size = 0;
+            collisions = 0;
+        }
+        
+        public int size() {
+            return size;
+        }
+        
+        public int getCapacity() {
+            return keys.length;
+        }
+        
+        /**
+         * Get performance metrics including the probe length distribution
+         * @return Performance information
+         */
+        public HashSearch.PerformanceMetrics getPerformanceMetrics() {
+            return longKeyMetrics(keys, hasZeroKey, size, collisions, resizeCount);
+        }
+    }
+    
+    /**
+     * long -> long table, e.g. numeric id -> counter or timestamp
+     */
+    public static final class LongToLong {
+        private long[] keys;
+        private long[] values;
+        private boolean hasZeroKey;
+        private long zeroValue;
+        private int size;
+        private int collisions;
+        private int resizeCount;
+        
+        /**
+         * Constructor with default capacity
+         */
+        public LongToLong() {
+            this(DEFAULT_CAPACITY);
+        }
+        
+        /**
+         * Constructor sized for an expected number of keys
+         * @param expectedSize Number of keys to hold without resizing
+         */
+        public LongToLong(int expectedSize) {
+            int capacity = HashSearch.tableSizeFor((int) Math.ceil(Math.max(expectedSize, 1) / LOAD_FACTOR));
+            this.keys = new long[capacity];
+            this.values = new long[capacity];
+        }
+        
+        /**
+         * Insert or replace a mapping
+         * @param key Key
+         * @param value Value
+         * @return true if the key was new
+         */
+        public boolean put(long key, long value) {
+            if (key == 0) {
+                boolean added = !hasZeroKey;
+                hasZeroKey = true;
+                zeroValue = value;
+                if (added) {
+                    size++;
+                }
+                return added;
+            }
+            if (size >= keys.length * LOAD_FACTOR) {
+                resize();
+            }
+            
+            int mask = keys.length - 1;
+            int home = HashSearch.mix(key) & mask;
+            int index = home;
+            while (keys[index] != 0) {
+                if (keys[index] == key) {
+                    values[index] = value;
+                    return false;
+                }
+                index = (index + 1) & mask;
+            }
+            
+            if (index != home) {
+                collisions++;
+            }
+            keys[index] = key;
+            values[index] = value;
+            size++;
+            return true;
+        }
+        
+        /**
+         * Add delta to the value of key, inserting it with delta if absent
+         * @param key Key
+         * @param delta Amount to add
+         * @return New value
+         */
+        public long addTo(long key, long delta) {
+            if (key == 0) {
+                long updated = (hasZeroKey ? zeroValue : 0) + delta;
+                put(0, updated);
+                return updated;
+            }
+            int index = indexOf(key);
+            if (index >= 0) {
+                values[index] += delta;
+                return values[index];
+            }
+            put(key, delta);
+            return delta;
+        }
+        
+        /**
+         * Look up a key
+         * @param key Key to find
+         * @param defaultValue Returned when the key is absent
+         * @return Mapped value or defaultValue
+         */
+        public long getOrDefault(long key, long defaultValue) {
+            if (key == 0) {
+                return hasZeroKey ? zeroValue : defaultValue;
+            }
+            int index = indexOf(key);
+            return index >= 0 ? values[index] : defaultValue;
+        }
+        
+        /**
+         * Check if key exists
+         * @param key Key to check
+         * @return true if present
+         */
+        public boolean containsKey(long key) {
+            return key == 0 ? hasZeroKey : indexOf(key) >= 0;
+        }
+        
+        /**
+         * Remove a mapping
+         * @param key Key to remove
+         * @return true if the key was present
+         */
+        public boolean remove(long key) {
+            if (key == 0) {
+                boolean removed = hasZeroKey;
+                if (removed) {
+                    hasZeroKey = false;
+                    size--;
+                }
+                return removed;
+            }
+            int hole = indexOf(key);
+            if (hole < 0) {
+                return false;
+            }
+            
+            int mask = keys.length - 1;
+            int index = hole;
+            while (true) {
+                index = (index + 1) & mask;
+                if (keys[index] == 0) {
+                    break;
+                }
+                int home = HashSearch.mix(keys[index]) & mask;
+                if (!inCyclicRange(home, hole, index)) {
+                    keys[hole] = keys[index];
+                    values[hole] = values[index];
+                    hole = index;
+                }
+            }
+            keys[hole] = 0;
+            size--;
+            return true;
+        }
+        
+        private int indexOf(long key) {
+            int mask = keys.length - 1;
+            int index = HashSearch.mix(key) & mask;
+            while (keys[index] != 0) {
+                if (keys[index] == key) {
+                    return index;
+                }
+                index = (index + 1) & mask;
+            }
+            return -1;
+        }
+        
+        private void resize() {
+            long[] oldKeys = keys;
+            long[] oldValues = values;
+            keys = new long[oldKeys.length * 2];
+            values = new long[oldKeys.length * 2];
+            size = hasZeroKey ? 1 : 0;
+            collisions = 0;
+            resizeCount++;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != 0) {
+                    put(oldKeys[i], oldValues[i]);
+                }
+            }
+        }
+        
+        /**
+         * Remove all mappings
+         */
+        public void clear() {
+            Arrays.fill(keys, 0L);
+            hasZeroKey = false;
+            size = 0;
+            collisions = 0;
+        }
+        
+        public int size() {
+            return size;
+        }
+        
+        public int getCapacity() {
+            return keys.length;
+        }
+        
+        /**
+         * Get performance metrics including the probe length distribution
+         * @return Performance information
+         */
+        public HashSearch.PerformanceMetrics getPerformanceMetrics() {
+            return longKeyMetrics(keys, hasZeroKey, size, collisions, resizeCount);
+        }
+    }
+    
+    /**
+     * Whether home lies cyclically in (hole, index], i.e. the entry at index
+     * would become unreachable if it were moved back into hole
+     */
+    private static boolean inCyclicRange(int home, int hole, int index) {
+        return hole <= index
+            ? hole < home && home <= index
+            : hole < home || home <= index;
+    }
+    
+    private static HashSearch.PerformanceMetrics longKeyMetrics(long[] keys, boolean hasZeroKey,
+                                                                int size, int collisions, int resizeCount) {
+        int mask = keys.length - 1;
+        int[] histogram = new int[8];
+        if (hasZeroKey) {
+            histogram = HashSearch.recordProbe(histogram, 1);
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0) {
+                int home = HashSearch.mix(keys[i]) & mask;
+                histogram = HashSearch.recordProbe(histogram, ((i - home) & mask) + 1);
+            }
+        }
+        return new HashSearch.PerformanceMetrics("O(1) expected, O(n) worst", "O(n)",
+            (double) size / keys.length, size, keys.length, collisions, resizeCount, histogram);
+    }
+}
@@ -0,0 +1,118 @@
+package com.bookstore.config;
+
+import com.bookstore.model.Book;
+import com.bookstore.model.BookReview;
+import com.bookstore.model.StockShard;
+import com.bookstore.model.Customer;
+import com.bookstore.model.Order;
+import com.bookstore.model.Reservation;
+import com.bookstore.repository.BookRepositoryImpl;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.TextIndexDefinition;
+
+/**
+ * Creates the indexes the book search queries rely on.
+ * Automatic index creation from @Indexed is off by default, so the text
+ * index and the isbn index used by prefix lookups are ensured explicitly,
+ * along with (sort field, _id) indexes for the default keyset page orders
+ * and the book_reviews indexes. Runs before other startup listeners, so the
+ * review migration already has the unique (bookId, userId) index.
+ */
+@Configuration
+public class MongoIndexConfig {
+    
+    @Autowired
+    private MongoTemplate mongoTemplate;
+    
+    @EventListener(ApplicationReadyEvent.class)
+    @org.springframework.core.annotation.Order(Ordered.HIGHEST_PRECEDENCE)
+    public void ensureBookSearchIndexes() {
+        IndexOperations indexOps = mongoTemplate.indexOps(Book.class);
+        
+        // Books carry a display "language" field ("English"), which $text would
+        // otherwise read as the stemming language; point the override elsewhere
+        TextIndexDefinition textIndex = new TextIndexDefinition.TextIndexDefinitionBuilder()
+            .named(BookRepositoryImpl.TEXT_INDEX_NAME)
+            .onField("title", 10F)
+            .onField("author", 6F)
+            .onField("genre", 4F)
+            .onField("tags", 3F)
+            .onField("description", 1F)
+            .withDefaultLanguage("english")
+            .withLanguageOverride("textLanguage")
+            .build();
+        
+        try {
+            indexOps.ensureIndex(textIndex);
+        } catch (Exception e) {
+            System.err.println("Failed to create book text index: " + e.getMessage());
+        }
+        try {
+            indexOps.ensureIndex(new Index().on("isbn", Sort.Direction.ASC).unique());
+        } catch (Exception e) {
+            System.err.println("Failed to create book isbn index: " + e.getMessage());
+        }
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    @org.springframework.core.annotation.Order(Ordered.HIGHEST_PRECEDENCE)
+    public void ensureReviewIndexes() {
+        IndexOperations indexOps = mongoTemplate.indexOps(BookReview.class);
+        try {
+            indexOps.ensureIndex(new Index().named("book_user")
+                .on("bookId", Sort.Direction.ASC).on("userId", Sort.Direction.ASC).unique());
+            indexOps.ensureIndex(new Index().named("book_date")
+                .on("bookId", Sort.Direction.ASC).on("date", Sort.Direction.DESC));
+        } catch (Exception e) {
+            System.err.println("Failed to create book review indexes: " + e.getMessage());
+        }
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    @org.springframework.core.annotation.Order(Ordered.HIGHEST_PRECEDENCE)
+    public void ensureStockShardIndexes() {
+        try {
+            mongoTemplate.indexOps(StockShard.class).ensureIndex(new Index().on("bookId", Sort.Direction.ASC));
+        } catch (Exception e) {
+            System.err.println("Failed to create stock shard indexes: " + e.getMessage());
+        }
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    @org.springframework.core.annotation.Order(Ordered.HIGHEST_PRECEDENCE)
+    public void ensureReservationIndexes() {
+        try {
+            mongoTemplate.indexOps(Reservation.class).ensureIndex(new Index().on("status", Sort.Direction.ASC));
+            mongoTemplate.indexOps(Reservation.class).ensureIndex(new Index().on("customerId", Sort.Direction.ASC));
+            mongoTemplate.indexOps(Order.class).ensureIndex(new Index().on("reservationId", Sort.Direction.ASC).sparse());
+        } catch (Exception e) {
+            System.err.println("Failed to create reservation indexes: " + e.getMessage());
+        }
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    @org.springframework.core.annotation.Order(Ordered.HIGHEST_PRECEDENCE)
+    public void ensurePaginationIndexes() {
+        ensureKeysetIndex(Book.class, "title");
+        ensureKeysetIndex(Order.class, "orderDate");
+        ensureKeysetIndex(Customer.class, "registrationDate");
+    }
+    
+    // Serves both directions, since the tie-break on _id follows the sort direction
+    private void ensureKeysetIndex(Class<?> type, String field) {
+        try {
+            mongoTemplate.indexOps(type).ensureIndex(
+                new Index().on(field, Sort.Direction.ASC).on("_id", Sort.Direction.ASC));
+        } catch (Exception e) {
+            System.err.println("Failed to create " + field + " pagination index: " + e.getMessage());
+        }
+    }
+}
@@ -3,7 +3,11 @@ package com.bookstore.controller;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.HttpStatus;
+import com.bookstore.algorithms.BinarySearch;
+import com.bookstore.algorithms.HashSearch;
 import com.bookstore.algorithms.MergeSort;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
 import java.util.*;
 
 @RestController
@@ -82,12 +86,15 @@ public class AlgorithmsController {
             // Sort data for binary search
             Collections.sort(data);
             
+            String[] sortedArray = data.toArray(new String[0]);
             long startTime = System.nanoTime();
-            int index = binarySearchImplementation(data, target.trim());
+            BinarySearch.SearchResult result = BinarySearch.searchWithMetrics(
+                sortedArray, target.trim(), String.CASE_INSENSITIVE_ORDER);
             long endTime = System.nanoTime();
             
+            int index = result.getIndex();
             double executionTime = (endTime - startTime) / 1000.0;
-            int comparisons = (int) Math.ceil(Math.log(data.size()) / Math.log(2));
+            int comparisons = result.getComparisons();
             
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
@@ -110,6 +117,62 @@ public class AlgorithmsController {
         }
     }
 
+    // Batch Binary Search
+    @PostMapping("/search/binary/batch")
+    public ResponseEntity<Map<String, Object>> binarySearchBatch(@RequestBody Map<String, Object> request) {
+        try {
+            @SuppressWarnings("unchecked")
+            List<String> targets = (List<String>) request.get("targets");
+            @SuppressWarnings("unchecked")
+            List<String> data = request.containsKey("data") ? 
+                (List<String>) request.get("data") : new ArrayList<>(sampleBooks);
+            
+            if (targets == null || targets.isEmpty()) {
+                return ResponseEntity.badRequest().body(Map.of(
+                    "success", false,
+                    "message", "Targets are required"
+                ));
+            }
+            
+            // Sort both sides so every target is found in a single forward pass
+            String[] sortedArray = MergeSort.sortStrings(data).toArray(new String[0]);
+            String[] sortedTargets = MergeSort.sortStrings(targets).toArray(new String[0]);
+            
+            long startTime = System.nanoTime();
+            int[] indexes = BinarySearch.searchBatch(sortedArray, sortedTargets, String.CASE_INSENSITIVE_ORDER);
+            long endTime = System.nanoTime();
+            
+            List<Map<String, Object>> matches = new ArrayList<>();
+            int found = 0;
+            for (int i = 0; i < sortedTargets.length; i++) {
+                matches.add(Map.of(
+                    "target", sortedTargets[i],
+                    "found", indexes[i] != -1,
+                    "index", indexes[i]
+                ));
+                if (indexes[i] != -1) {
+                    found++;
+                }
+            }
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("algorithm", "Batch Binary Search");
+            response.put("results", matches);
+            response.put("foundCount", found);
+            response.put("executionTime", (endTime - startTime) / 1000.0 + " microseconds");
+            response.put("timeComplexity", "O(m log(n/m))");
+            response.put("dataSize", sortedArray.length);
+            response.put("sortedData", Arrays.asList(sortedArray));
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of(
+                "success", false,
+                "message", "Error performing batch binary search: " + e.getMessage()
+            ));
+        }
+    }
+
     // Hash Search
     @PostMapping("/search/hash")
     public ResponseEntity<Map<String, Object>> hashSearch(@RequestBody Map<String, Object> request) {
@@ -126,30 +189,44 @@ public class AlgorithmsController {
                 ));
             }
             
-            // Create hash map for O(1) lookup
-            Map<String, Integer> hashMap = new HashMap<>();
+            HashSearch.Mode mode = "open-addressing".equalsIgnoreCase(String.valueOf(request.get("mode"))) ?
+                HashSearch.Mode.OPEN_ADDRESSING : HashSearch.Mode.CHAINING;
+            boolean incremental = mode == HashSearch.Mode.CHAINING && 
+                Boolean.parseBoolean(String.valueOf(request.get("incrementalResize")));
+            
+            // Build hash table for O(1) lookup
+            HashSearch<String, Integer> hashTable = new HashSearch<>(16, 0.75, mode, incremental);
             for (int i = 0; i < data.size(); i++) {
-                hashMap.put(data.get(i), i);
+                hashTable.put(data.get(i), i);
             }
             
             long startTime = System.nanoTime();
-            Integer index = hashMap.get(target.trim());
+            Integer index = hashTable.get(target.trim());
             long endTime = System.nanoTime();
             
             double executionTime = (endTime - startTime) / 1000.0;
+            HashSearch.PerformanceMetrics metrics = hashTable.getPerformanceMetrics();
             
-            return ResponseEntity.ok(Map.of(
-                "success", true,
-                "algorithm", "Hash Search",
-                "target", target.trim(),
-                "found", index != null,
-                "index", index != null ? index : -1,
-                "executionTime", executionTime + " microseconds",
-                "comparisons", 1, // Hash lookup is O(1)
-                "timeComplexity", "O(1) average, O(n) worst case",
-                "spaceComplexity", "O(n)",
-                "dataSize", data.size()
-            ));
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("algorithm", "Hash Search");
+            response.put("mode", mode == HashSearch.Mode.OPEN_ADDRESSING ? "open-addressing" : "chaining");
+            response.put("target", target.trim());
+            response.put("found", index != null);
+            response.put("index", index != null ? index : -1);
+            response.put("executionTime", executionTime + " microseconds");
+            response.put("comparisons", 1); // Hash lookup is O(1)
+            response.put("timeComplexity", "O(1) average, O(n) worst case");
+            response.put("spaceComplexity", "O(n)");
+            response.put("dataSize", data.size());
+            response.put("averageProbeLength", metrics.getAverageProbeLength());
+            response.put("maxProbeLength", metrics.getMaxProbeLength());
+            response.put("probeLengthHistogram", metrics.getProbeLengthHistogram());
+            response.put("incrementalResize", incremental);
+            response.put("migrating", metrics.isMigrating());
+            response.put("migrationProgress", metrics.getMigrationProgress());
+            response.put("maxResizePauseNanos", metrics.getMaxResizePauseNanos());
+            return ResponseEntity.ok(response);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of(
                 "success", false,
@@ -165,28 +242,76 @@ public class AlgorithmsController {
     public ResponseEntity<Map<String, Object>> mergeSort(@RequestBody Map<String, Object> request) {
         try {
             @SuppressWarnings("unchecked")
-            List<Integer> data = request.containsKey("data") ? 
-                (List<Integer>) request.get("data") : new ArrayList<>(sampleNumbers);
-            
-            List<Integer> originalData = new ArrayList<>(data);
-            
-            long startTime = System.nanoTime();
-            List<Integer> sortedData = MergeSort.sort(data);
-            long endTime = System.nanoTime();
+            List<Number> data = request.containsKey("data") ? 
+                (List<Number>) request.get("data") : new ArrayList<>(sampleNumbers);
+            String engine = request.containsKey("engine") ? 
+                String.valueOf(request.get("engine")) : "list";
+            
+            List<Number> originalData = new ArrayList<>(data);
+            List<? extends Number> sortedData;
+            long allocatedBefore;
+            long allocatedAfter;
+            long startTime;
+            long endTime;
+            
+            if ("primitive".equalsIgnoreCase(engine)) {
+                boolean fractional = data.stream().anyMatch(value -> value instanceof Double || value instanceof Float);
+                boolean wide = data.stream().anyMatch(value -> value instanceof Long);
+                
+                if (fractional) {
+                    double[] values = data.stream().mapToDouble(Number::doubleValue).toArray();
+                    allocatedBefore = currentThreadAllocatedBytes();
+                    startTime = System.nanoTime();
+                    MergeSort.sort(values);
+                    endTime = System.nanoTime();
+                    allocatedAfter = currentThreadAllocatedBytes();
+                    sortedData = Arrays.stream(values).boxed().toList();
+                } else if (wide) {
+                    long[] values = data.stream().mapToLong(Number::longValue).toArray();
+                    allocatedBefore = currentThreadAllocatedBytes();
+                    startTime = System.nanoTime();
+                    MergeSort.sort(values);
+                    endTime = System.nanoTime();
+                    allocatedAfter = currentThreadAllocatedBytes();
+                    sortedData = Arrays.stream(values).boxed().toList();
+                } else {
+                    int[] values = data.stream().mapToInt(Number::intValue).toArray();
+                    allocatedBefore = currentThreadAllocatedBytes();
+                    startTime = System.nanoTime();
+                    MergeSort.sort(values);
+                    endTime = System.nanoTime();
+                    allocatedAfter = currentThreadAllocatedBytes();
+                    sortedData = Arrays.stream(values).boxed().toList();
+                }
+            } else {
+                List<Integer> values = new ArrayList<>();
+                for (Number value : data) {
+                    values.add(value.intValue());
+                }
+                allocatedBefore = currentThreadAllocatedBytes();
+                startTime = System.nanoTime();
+                sortedData = MergeSort.sort(values);
+                endTime = System.nanoTime();
+                allocatedAfter = currentThreadAllocatedBytes();
+            }
             
             double executionTime = (endTime - startTime) / 1000.0;
             
-            return ResponseEntity.ok(Map.of(
-                "success", true,
-                "algorithm", "Merge Sort",
-                "originalData", originalData,
-                "sortedData", sortedData,
-                "executionTime", executionTime + " microseconds",
-                "timeComplexity", "O(n log n)",
-                "spaceComplexity", "O(n)",
-                "dataSize", data.size(),
-                "comparisons", MergeSort.estimateComparisons(data.size())
-            ));
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("algorithm", "Merge Sort");
+            response.put("engine", "primitive".equalsIgnoreCase(engine) ? "primitive" : "list");
+            response.put("originalData", originalData);
+            response.put("sortedData", sortedData);
+            response.put("executionTime", executionTime + " microseconds");
+            response.put("executionTimeNs", endTime - startTime);
+            response.put("allocatedBytes", allocatedBefore >= 0 && allocatedAfter >= 0 ? 
+                allocatedAfter - allocatedBefore : -1);
+            response.put("timeComplexity", "O(n log n)");
+            response.put("spaceComplexity", "O(n)");
+            response.put("dataSize", data.size());
+            response.put("comparisons", MergeSort.estimateComparisons(data.size()));
+            return ResponseEntity.ok(response);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of(
                 "success", false,
@@ -195,6 +320,38 @@ public class AlgorithmsController {
         }
     }
 
+    // String Sort (merge or collation-key radix)
+    @PostMapping("/sort/strings")
+    public ResponseEntity<Map<String, Object>> sortStrings(@RequestBody Map<String, Object> request) {
+        try {
+            @SuppressWarnings("unchecked")
+            List<String> data = request.containsKey("data") ?
+                (List<String>) request.get("data") : sampleBooks;
+            MergeSort.StringSortMode mode = "radix".equalsIgnoreCase(String.valueOf(request.get("mode"))) ?
+                MergeSort.StringSortMode.RADIX : MergeSort.StringSortMode.MERGE;
+            
+            long startTime = System.nanoTime();
+            List<String> sortedData = MergeSort.sortStrings(data, mode);
+            long endTime = System.nanoTime();
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("algorithm", mode == MergeSort.StringSortMode.RADIX ? "MSD Radix Sort" : "Merge Sort");
+            response.put("mode", mode.name().toLowerCase());
+            response.put("sortedData", sortedData);
+            response.put("executionTime", (endTime - startTime) / 1000.0 + " microseconds");
+            response.put("executionTimeNs", endTime - startTime);
+            response.put("timeComplexity", mode == MergeSort.StringSortMode.RADIX ? "O(total key bytes)" : "O(n log n)");
+            response.put("dataSize", data.size());
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of(
+                "success", false,
+                "message", "Error performing string sort: " + e.getMessage()
+            ));
+        }
+    }
+            
     // Performance Comparison
     @PostMapping("/compare/search")
     public ResponseEntity<Map<String, Object>> compareSearchAlgorithms(@RequestBody Map<String, Object> request) {
@@ -228,15 +385,17 @@ public class AlgorithmsController {
             // Binary Search (requires sorted data)
             List<String> sortedData = new ArrayList<>(data);
             Collections.sort(sortedData);
+            String[] sortedArray = sortedData.toArray(new String[0]);
             startTime = System.nanoTime();
-            int binaryIndex = binarySearchImplementation(sortedData, target.trim());
+            BinarySearch.SearchResult binaryResult = BinarySearch.searchWithMetrics(
+                sortedArray, target.trim(), String.CASE_INSENSITIVE_ORDER);
             long binaryTime = System.nanoTime() - startTime;
             
             results.put("binarySearch", Map.of(
-                "found", binaryIndex != -1,
-                "index", binaryIndex,
+                "found", binaryResult.isFound(),
+                "index", binaryResult.getIndex(),
                 "executionTime", binaryTime / 1000.0 + " microseconds",
-                "comparisons", (int) Math.ceil(Math.log(data.size()) / Math.log(2))
+                "comparisons", binaryResult.getComparisons()
             ));
             
             // Hash Search
@@ -284,9 +443,22 @@ public class AlgorithmsController {
     @PostMapping("/sort/performance")
     public ResponseEntity<Map<String, Object>> analyzeSortPerformance(@RequestBody Map<String, Object> request) {
         try {
-            @SuppressWarnings("unchecked")
-            List<Integer> data = request.containsKey("data") ? 
-                (List<Integer>) request.get("data") : new ArrayList<>(sampleNumbers);
+            boolean generated = !request.containsKey("data") && request.containsKey("size");
+            List<Integer> data;
+            if (generated) {
+                // Synthetic data set for measuring multi-core speedup
+                int size = Math.max(0, Math.min(((Number) request.get("size")).intValue(), 5_000_000));
+                Random random = new Random(42);
+                data = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    data.add(random.nextInt(Math.max(size, 1)));
+                }
+            } else {
+                @SuppressWarnings("unchecked")
+                List<Integer> requestData = request.containsKey("data") ? 
+                    (List<Integer>) request.get("data") : new ArrayList<>(sampleNumbers);
+                data = requestData;
+            }
             
             // Merge Sort Performance Analysis
             long startTime = System.nanoTime();
@@ -295,9 +467,11 @@ public class AlgorithmsController {
             
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
-            response.put("originalData", data);
+            if (!generated) {
+                response.put("originalData", data);
+                response.put("sortedData", mergeSortData);
+            }
             response.put("dataSize", data.size());
-            response.put("sortedData", mergeSortData);
             response.put("executionTime", mergeSortTime / 1000.0 + " microseconds");
             response.put("timeComplexity", "O(n log n)");
             response.put("spaceComplexity", "O(n)");
@@ -306,6 +480,39 @@ public class AlgorithmsController {
             response.put("stable", true);
             response.put("inPlace", false);
             
+            // Parallel Merge Sort - one run per requested parallelism level
+            if (request.containsKey("parallelism")) {
+                Object parallelismParam = request.get("parallelism");
+                List<Integer> levels = new ArrayList<>();
+                if (parallelismParam instanceof List) {
+                    for (Object level : (List<?>) parallelismParam) {
+                        levels.add(Math.min(((Number) level).intValue(), MergeSort.MAX_PARALLELISM));
+                    }
+                } else {
+                    levels.add(Math.min(((Number) parallelismParam).intValue(), MergeSort.MAX_PARALLELISM));
+                }
+                int threshold = request.containsKey("threshold") ? 
+                    ((Number) request.get("threshold")).intValue() : MergeSort.DEFAULT_PARALLEL_THRESHOLD;
+                
+                List<Map<String, Object>> parallelResults = new ArrayList<>();
+                for (int level : levels) {
+                    startTime = System.nanoTime();
+                    List<Integer> parallelData = MergeSort.parallelSort(data, level, threshold);
+                    long parallelTime = System.nanoTime() - startTime;
+                    
+                    Map<String, Object> result = new HashMap<>();
+                    result.put("parallelism", level);
+                    result.put("executionTime", parallelTime / 1000.0 + " microseconds");
+                    result.put("speedup", String.format("%.2fx", (double) mergeSortTime / Math.max(parallelTime, 1)));
+                    result.put("identicalToSequential", parallelData.equals(mergeSortData));
+                    parallelResults.add(result);
+                }
+                
+                response.put("threshold", threshold);
+                response.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+                response.put("parallelResults", parallelResults);
+            }
+            
             return ResponseEntity.ok(response);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of(
@@ -388,20 +595,15 @@ public class AlgorithmsController {
         return -1;
     }
 
-    private int binarySearchImplementation(List<String> sortedData, String target) {
-        int left = 0;
-        int right = sortedData.size() - 1;
-        
-        while (left <= right) {
-            int mid = left + (right - left) / 2;
-            int comparison = sortedData.get(mid).compareToIgnoreCase(target);
-            
-            if (comparison == 0) {
-                return mid;
-            } else if (comparison < 0) {
-                left = mid + 1;
-            } else {
-                right = mid - 1;
+    /**
+     * Bytes allocated so far by the current thread, or -1 if the JVM cannot report it
+     */
+    private long currentThreadAllocatedBytes() {
+        ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        if (threadBean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean allocationBean = (com.sun.management.ThreadMXBean) threadBean;
+            if (allocationBean.isThreadAllocatedMemorySupported() && allocationBean.isThreadAllocatedMemoryEnabled()) {
+                return allocationBean.getThreadAllocatedBytes(Thread.currentThread().getId());
             }
         }
         return -1;
@@ -1,6 +1,8 @@
 package com.bookstore.controller;
 
 import com.bookstore.model.Book;
+import com.bookstore.model.BookReview;
+import com.bookstore.repository.KeysetPagination;
 import com.bookstore.service.BookService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
@@ -13,6 +15,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/books")
@@ -34,14 +37,22 @@ public class BookController {
             @RequestParam(required = false) Double maxPrice,
             @RequestParam(required = false) Double minRating,
             @RequestParam(required = false) Double maxRating,
-            @RequestParam(defaultValue = "false") boolean inStock) {
+            @RequestParam(required = false) Integer minYear,
+            @RequestParam(required = false) Integer maxYear,
+            @RequestParam(required = false) Integer minPages,
+            @RequestParam(required = false) Integer maxPages,
+            @RequestParam(defaultValue = "false") boolean inStock,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean estimateTotal,
+            @RequestParam(required = false) String fields) {
         
         try {
+            Set<String> projection = bookService.resolveListFields(fields);
             if (search != null && !search.trim().isEmpty()) {
                 if (page != null && size != null) {
                     Page<Book> books = bookService.searchBooks(search.trim(), page, size);
                     Map<String, Object> response = new HashMap<>();
-                    response.put("books", books.getContent());
+                    response.put("books", bookService.toListView(books.getContent(), projection));
                     response.put("totalPages", books.getTotalPages());
                     response.put("totalElements", books.getTotalElements());
                     response.put("currentPage", page);
@@ -50,7 +61,7 @@ public class BookController {
                 } else {
                     // Use non-paginated search - need to implement this in service
                     List<Book> searchBooks = bookService.searchBooksNoPagination(search.trim());
-                    return ResponseEntity.ok(Map.of("books", searchBooks));
+                    return ResponseEntity.ok(Map.of("books", bookService.toListView(searchBooks, projection)));
                 }
             }
             
@@ -64,13 +75,30 @@ public class BookController {
                 books = bookService.getBooksByPriceRange(minPrice, maxPrice);
             } else if (minRating != null && maxRating != null) {
                 books = bookService.getBooksByRatingRange(minRating, maxRating);
+            } else if (minYear != null && maxYear != null) {
+                books = bookService.getBooksByYearRange(minYear, maxYear);
+            } else if (minPages != null && maxPages != null) {
+                books = bookService.getBooksByPagesRange(minPages, maxPages);
             } else if (inStock) {
                 books = bookService.getInStockBooks();
             } else {
-                if (page != null && size != null) {
-                    Page<Book> bookPage = bookService.getAllBooks(page, size, sortBy, sortDir);
+                if (cursor != null) {
+                    // Keyset mode: an empty cursor requests the first page
+                    KeysetPagination.CursorPage<Book> bookPage = bookService.getAllBooks(
+                        cursor, size != null ? size : 20, sortBy, sortDir, estimateTotal, projection);
+                    Map<String, Object> response = new HashMap<>();
+                    response.put("books", bookService.toListView(bookPage.getContent(), projection));
+                    response.put("nextCursor", bookPage.getNextCursor());
+                    response.put("hasNext", bookPage.hasNext());
+                    response.put("size", bookPage.getContent().size());
+                    if (estimateTotal) {
+                        response.put("estimatedTotal", bookPage.getEstimatedTotal());
+                    }
+                    return ResponseEntity.ok(response);
+                } else if (page != null && size != null) {
+                    Page<Book> bookPage = bookService.getAllBooks(page, size, sortBy, sortDir, projection);
                     Map<String, Object> response = new HashMap<>();
-                    response.put("books", bookPage.getContent());
+                    response.put("books", bookService.toListView(bookPage.getContent(), projection));
                     response.put("totalPages", bookPage.getTotalPages());
                     response.put("totalElements", bookPage.getTotalElements());
                     response.put("currentPage", page);
@@ -78,14 +106,18 @@ public class BookController {
                     return ResponseEntity.ok(response);
                 } else {
                     // Use non-paginated version
-                    books = bookService.getAllBooks();
-                    return ResponseEntity.ok(Map.of("books", books));
+                    books = bookService.getAllBooks(projection);
+                    return ResponseEntity.ok(Map.of("books", bookService.toListView(books, projection)));
                 }
             }
             
-            // Return filtered books
-            return ResponseEntity.ok(Map.of("books", books));
+            // Return filtered books, ordered in memory by the requested fields
+            books = bookService.sortBooks(books, sortBy, sortDir);
+            return ResponseEntity.ok(Map.of("books", bookService.toListView(books, projection)));
             
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "Invalid request: " + e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Failed to fetch books: " + e.getMessage()));
@@ -126,11 +158,12 @@ public class BookController {
     public ResponseEntity<Object> searchBooks(
             @RequestParam String q,
             @RequestParam(required = false) Integer page,
-            @RequestParam(required = false) Integer size) {
+            @RequestParam(required = false) Integer size,
+            @RequestParam(defaultValue = "false") boolean fuzzy) {
         
         try {
             if (page != null && size != null) {
-                Page<Book> books = bookService.searchBooks(q, page, size);
+                Page<Book> books = bookService.searchBooks(q, page, size, fuzzy);
                 Map<String, Object> response = new HashMap<>();
                 response.put("books", books.getContent());
                 response.put("totalPages", books.getTotalPages());
@@ -138,12 +171,14 @@ public class BookController {
                 response.put("currentPage", page);
                 response.put("size", size);
                 response.put("query", q);
+                response.put("fuzzy", fuzzy);
                 return ResponseEntity.ok(response);
             } else {
-                List<Book> books = bookService.searchBooksNoPagination(q);
+                List<Book> books = bookService.searchBooksNoPagination(q, fuzzy);
                 Map<String, Object> response = new HashMap<>();
                 response.put("books", books);
                 response.put("query", q);
+                response.put("fuzzy", fuzzy);
                 return ResponseEntity.ok(response);
             }
         } catch (Exception e) {
@@ -255,6 +290,29 @@ public class BookController {
         }
     }
 
+    @GetMapping("/facets")
+    public ResponseEntity<Object> getFacets(
+            @RequestParam(required = false) String q,
+            @RequestParam(defaultValue = "false") boolean fuzzy,
+            @RequestParam(defaultValue = "20") int limit) {
+        try {
+            return ResponseEntity.ok(bookService.getFacets(q, fuzzy, limit));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to fetch facets: " + e.getMessage()));
+        }
+    }
+
+    @GetMapping("/facet-index")
+    public ResponseEntity<Object> getFacetIndexStats() {
+        try {
+            return ResponseEntity.ok(bookService.getFacetIndexStats());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to fetch facet index stats: " + e.getMessage()));
+        }
+    }
+
     @GetMapping("/statistics")
     public ResponseEntity<Object> getBookStatistics() {
         try {
@@ -266,6 +324,51 @@ public class BookController {
         }
     }
 
+    @GetMapping("/column-index")
+    public ResponseEntity<Object> getColumnIndexStats() {
+        try {
+            return ResponseEntity.ok(bookService.getColumnIndexStats());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to fetch column index stats: " + e.getMessage()));
+        }
+    }
+
+    @GetMapping("/suggest")
+    public ResponseEntity<Object> suggestBooks(
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = "8") int limit) {
+        try {
+            Map<String, Object> response = new HashMap<>();
+            response.put("prefix", prefix);
+            response.put("suggestions", bookService.suggestBooks(prefix, limit));
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to fetch suggestions: " + e.getMessage()));
+        }
+    }
+
+    @GetMapping("/search/explain")
+    public ResponseEntity<Object> explainSearch(@RequestParam String q) {
+        try {
+            return ResponseEntity.ok(bookService.explainRepositorySearch(q));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to explain search: " + e.getMessage()));
+        }
+    }
+
+    @GetMapping("/search-index")
+    public ResponseEntity<Object> getSearchIndexStats() {
+        try {
+            return ResponseEntity.ok(bookService.getSearchIndexStats());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to fetch search index stats: " + e.getMessage()));
+        }
+    }
+
     @PostMapping
     public ResponseEntity<Object> createBook(@Valid @RequestBody Book book) {
         try {
@@ -286,6 +389,9 @@ public class BookController {
             } else {
                 return ResponseEntity.notFound().build();
             }
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "Invalid request: " + e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Failed to update book: " + e.getMessage()));
@@ -330,6 +436,26 @@ public class BookController {
         }
     }
 
+    @GetMapping("/{id}/reviews")
+    public ResponseEntity<Object> getReviews(
+            @PathVariable String id,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        try {
+            Page<BookReview> reviews = bookService.getReviews(id, page, size);
+            Map<String, Object> response = new HashMap<>();
+            response.put("reviews", reviews.getContent());
+            response.put("totalPages", reviews.getTotalPages());
+            response.put("totalElements", reviews.getTotalElements());
+            response.put("currentPage", page);
+            response.put("size", size);
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to fetch reviews: " + e.getMessage()));
+        }
+    }
+
     @PutMapping("/{id}/stock")
     public ResponseEntity<Object> updateStock(
             @PathVariable String id,
@@ -349,6 +475,28 @@ public class BookController {
         }
     }
 
+    /**
+     * Shard a hot book's stock across several counter documents (0 turns sharding off)
+     */
+    @PutMapping("/{id}/stock/shards")
+    public ResponseEntity<Object> updateStockShards(
+            @PathVariable String id,
+            @RequestParam int shards) {
+        
+        try {
+            Map<String, Object> response = bookService.updateStockShards(id, shards);
+            
+            if ((Boolean) response.get("success")) {
+                return ResponseEntity.ok(response);
+            } else {
+                return ResponseEntity.badRequest().body(response);
+            }
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to update stock shards: " + e.getMessage()));
+        }
+    }
+
     // Request DTOs
     public static class ReviewRequest {
         private Double rating;
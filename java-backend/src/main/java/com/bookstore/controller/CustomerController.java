@@ -2,6 +2,7 @@ package com.bookstore.controller;
 
 import com.bookstore.model.Customer;
 import com.bookstore.model.Order;
+import com.bookstore.repository.KeysetPagination;
 import com.bookstore.service.CustomerService;
 import com.bookstore.service.OrderService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -15,9 +16,11 @@ import org.springframework.web.bind.annotation.*;
 
 import jakarta.validation.Valid;
 import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/customers")
@@ -58,13 +61,30 @@ public class CustomerController {
             @RequestParam(required = false) Integer page,
             @RequestParam(required = false) Integer size,
             @RequestParam(defaultValue = "registrationDate") String sortBy,
-            @RequestParam(defaultValue = "desc") String sortDirection) {
+            @RequestParam(defaultValue = "desc") String sortDirection,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean estimateTotal,
+            @RequestParam(required = false) String fields) {
         try {
-            if (page != null && size != null) {
-                Page<Customer> customers = customerService.getAllCustomers(page, size, sortBy, sortDirection);
+            Set<String> projection = customerService.resolveListFields(fields);
+            if (cursor != null) {
+                // Keyset mode: an empty cursor requests the first page
+                KeysetPagination.CursorPage<Customer> customers = customerService.getAllCustomers(
+                    cursor, size != null ? size : 20, sortBy, sortDirection, estimateTotal, projection);
+                Map<String, Object> response = new HashMap<>();
+                response.put("success", true);
+                response.put("customers", customerService.toListView(customers.getContent(), projection));
+                response.put("nextCursor", customers.getNextCursor());
+                response.put("hasNext", customers.hasNext());
+                if (estimateTotal) {
+                    response.put("estimatedTotal", customers.getEstimatedTotal());
+                }
+                return ResponseEntity.ok(response);
+            } else if (page != null && size != null) {
+                Page<Customer> customers = customerService.getAllCustomers(page, size, sortBy, sortDirection, projection);
                 return ResponseEntity.ok(Map.of(
                     "success", true,
-                    "customers", customers.getContent(),
+                    "customers", customerService.toListView(customers.getContent(), projection),
                     "totalElements", customers.getTotalElements(),
                     "totalPages", customers.getTotalPages(),
                     "currentPage", customers.getNumber(),
@@ -72,12 +92,17 @@ public class CustomerController {
                     "hasPrevious", customers.hasPrevious()
                 ));
             } else {
-                List<Customer> customers = customerService.getAllCustomers();
+                List<Customer> customers = customerService.getAllCustomers(projection);
                 return ResponseEntity.ok(Map.of(
                     "success", true,
-                    "customers", customers
+                    "customers", customerService.toListView(customers, projection)
                 ));
             }
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                "success", false,
+                "message", e.getMessage()
+            ));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of(
                 "success", false,
@@ -472,6 +497,25 @@ public class CustomerController {
         }
     }
 
+    /**
+     * Hit/miss counters of the membership priority cache used by order creation
+     */
+    @GetMapping("/priority-cache/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> getPriorityCacheStats() {
+        try {
+            return ResponseEntity.ok(Map.of(
+                "success", true,
+                "statistics", customerService.getPriorityCacheStats()
+            ));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of(
+                "success", false,
+                "message", "Error retrieving priority cache statistics: " + e.getMessage()
+            ));
+        }
+    }
+
     /**
      * Get orders for a specific customer
      */
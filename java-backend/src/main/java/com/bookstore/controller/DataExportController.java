@@ -1,15 +1,23 @@
 package com.bookstore.controller;
 
+import com.bookstore.algorithms.ExternalMergeSort;
+import com.bookstore.model.Order;
 import com.bookstore.service.DataExportService;
+import com.bookstore.service.OrderService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/export")
@@ -18,6 +26,9 @@ public class DataExportController {
     @Autowired
     private DataExportService dataExportService;
 
+    @Autowired
+    private OrderService orderService;
+
     /**
      * Export comprehensive analytics and performance data in JSON format
      * @return JSON export of all project requirements and analysis
@@ -62,6 +73,57 @@ public class DataExportController {
         }
     }
 
+    /**
+     * Export all orders as CSV sorted by orderDate or total.
+     * Uses the external merge sort, so the export works for collections larger than the heap.
+     * @param sortBy orderDate or total
+     * @param sortDir asc or desc
+     * @param runSize Orders held in memory per sorted run, between
+     *        OrderService.MIN_SORT_RUN_SIZE and MAX_SORT_RUN_SIZE
+     * @return Streamed CSV
+     */
+    @GetMapping("/orders/sorted")
+    public ResponseEntity<?> exportSortedOrders(
+            @RequestParam(defaultValue = "orderDate") String sortBy,
+            @RequestParam(defaultValue = "desc") String sortDir,
+            @RequestParam(defaultValue = "" + ExternalMergeSort.DEFAULT_RUN_SIZE) int runSize) {
+        // Validate up front: once streaming starts the 200 status is already committed
+        try {
+            OrderService.validateSortedStream(sortBy, runSize);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(Map.of("error", e.getMessage()));
+        }
+        
+        StreamingResponseBody body = outputStream -> {
+            try (ExternalMergeSort.SortedIterator<Order> orders = orderService.streamOrdersSorted(sortBy, sortDir, runSize)) {
+                BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+                writer.write("orderNumber,customerId,orderDate,status,paymentStatus,total\n");
+                while (orders.hasNext()) {
+                    Order order = orders.next();
+                    writer.write(String.join(",",
+                        String.valueOf(order.getOrderNumber()),
+                        String.valueOf(order.getCustomerId()),
+                        String.valueOf(order.getOrderDate()),
+                        String.valueOf(order.getStatus()),
+                        String.valueOf(order.getPaymentStatus()),
+                        String.valueOf(order.getTotal())));
+                    writer.write("\n");
+                }
+                writer.flush();
+            }
+        };
+        
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType("text/csv"));
+        headers.set("Content-Disposition", 
+            "attachment; filename=\"orders_by_" + sortBy + "_" + 
+            LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss")) + ".csv\"");
+        
+        return new ResponseEntity<>(body, headers, HttpStatus.OK);
+    }
+
     /**
      * Get export metadata and available formats
      * @return Information about available export options
@@ -74,6 +136,7 @@ public class DataExportController {
                 "\"endpoints\": {" +
                     "\"comprehensive\": \"/api/export/comprehensive\"," +
                     "\"csv\": \"/api/export/comprehensive/csv\"," +
+                    "\"sortedOrders\": \"/api/export/orders/sorted\"," +
                     "\"info\": \"/api/export/info\"" +
                 "}," +
                 "\"description\": \"Data export service for Online Bookstore analytics and performance data\"," +
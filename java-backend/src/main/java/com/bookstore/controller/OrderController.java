@@ -1,7 +1,11 @@
 package com.bookstore.controller;
 
 import com.bookstore.model.Order;
+import com.bookstore.model.Reservation;
+import com.bookstore.repository.KeysetPagination;
+import com.bookstore.service.OrderIntakeService;
 import com.bookstore.service.OrderService;
+import com.bookstore.service.ReservationService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.http.HttpStatus;
@@ -11,9 +15,12 @@ import org.springframework.web.bind.annotation.*;
 import jakarta.validation.Valid;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/orders")
@@ -22,11 +29,24 @@ public class OrderController {
     @Autowired
     private OrderService orderService;
 
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private OrderIntakeService orderIntakeService;
+
     /**
-     * Create a new order
+     * Create a new order. With async=true the order is only validated and
+     * queued; the response is 202 with the order number, and the result can
+     * be followed at /orders/intake/{orderNumber}.
      */
     @PostMapping
-    public ResponseEntity<Object> createOrder(@Valid @RequestBody Order order) {
+    public ResponseEntity<Object> createOrder(
+            @Valid @RequestBody Order order,
+            @RequestParam(defaultValue = "false") boolean async) {
+        if (async) {
+            return queueOrder(order);
+        }
         try {
             Order createdOrder = orderService.createOrder(order);
             return ResponseEntity.status(HttpStatus.CREATED).body(Map.of(
@@ -43,6 +63,183 @@ public class OrderController {
         }
     }
 
+    private ResponseEntity<Object> queueOrder(Order order) {
+        try {
+            Order queued = orderIntakeService.submit(order);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(Map.of(
+                "success", true,
+                "message", "Order queued",
+                "orderNumber", queued.getOrderNumber(),
+                "trackingNumber", queued.getTrackingNumber(),
+                "priority", queued.getPriority(),
+                "status", OrderIntakeService.QUEUED
+            ));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                "success", false,
+                "message", e.getMessage()
+            ));
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of(
+                "success", false,
+                "message", e.getMessage()
+            ));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of(
+                "success", false,
+                "message", "Failed to queue order",
+                "error", e.getMessage()
+            ));
+        }
+    }
+
+    /**
+     * Asynchronous intake statistics: queue depth, batch sizes and end-to-end latency
+     */
+    @GetMapping("/intake/status")
+    public ResponseEntity<Object> getIntakeStatus() {
+        try {
+            return ResponseEntity.ok(Map.of(
+                "success", true,
+                "data", orderIntakeService.getStats()
+            ));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of(
+                "success", false,
+                "message", "Failed to get intake status",
+                "error", e.getMessage()
+            ));
+        }
+    }
+
+    /**
+     * Outcome of an order queued with async=true
+     */
+    @GetMapping("/intake/{orderNumber}")
+    public ResponseEntity<Object> getIntakeOutcome(@PathVariable String orderNumber) {
+        try {
+            Optional<OrderIntakeService.Outcome> outcome = orderIntakeService.getOutcome(orderNumber);
+            if (outcome.isPresent()) {
+                return ResponseEntity.ok(Map.of(
+                    "success", true,
+                    "data", outcome.get()
+                ));
+            } else {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of(
+                    "success", false,
+                    "message", "No queued order with number: " + orderNumber
+                ));
+            }
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of(
+                "success", false,
+                "message", "Failed to get intake outcome",
+                "error", e.getMessage()
+            ));
+        }
+    }
+
+    /**
+     * Hold stock for a cart until the order is placed (pass the returned id as
+     * the order's reservationId) or the TTL runs out
+     */
+    @PostMapping("/reservations")
+    public ResponseEntity<Object> createReservation(@RequestBody ReservationRequest request) {
+        try {
+            Reservation reservation = reservationService.reserve(
+                request.getCustomerId(), request.getItems(), request.getTtlSeconds());
+            return ResponseEntity.status(HttpStatus.CREATED).body(Map.of(
+                "success", true,
+                "message", "Stock reserved",
+                "reservation", reservation
+            ));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of(
+                "success", false,
+                "message", e.getMessage()
+            ));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of(
+                "success", false,
+                "message", "Failed to reserve stock",
+                "error", e.getMessage()
+            ));
+        }
+    }
+
+    /**
+     * Reservation ledger statistics
+     */
+    @GetMapping("/reservations/stats")
+    public ResponseEntity<Object> getReservationStats() {
+        try {
+            return ResponseEntity.ok(Map.of(
+                "success", true,
+                "data", reservationService.getStats()
+            ));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of(
+                "success", false,
+                "message", "Failed to get reservation statistics",
+                "error", e.getMessage()
+            ));
+        }
+    }
+
+    /**
+     * Get a reservation, open or settled
+     */
+    @GetMapping("/reservations/{id}")
+    public ResponseEntity<Object> getReservation(@PathVariable String id) {
+        try {
+            Reservation reservation = reservationService.getReservation(id);
+            if (reservation == null) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of(
+                    "success", false,
+                    "message", "Reservation not found"
+                ));
+            }
+            return ResponseEntity.ok(Map.of(
+                "success", true,
+                "reservation", reservation
+            ));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of(
+                "success", false,
+                "message", "Failed to retrieve reservation",
+                "error", e.getMessage()
+            ));
+        }
+    }
+
+    /**
+     * Release a reservation's stock before it expires
+     */
+    @DeleteMapping("/reservations/{id}")
+    public ResponseEntity<Object> releaseReservation(
+            @PathVariable String id,
+            @RequestParam String customerId) {
+        try {
+            Reservation reservation = reservationService.release(id, customerId);
+            return ResponseEntity.ok(Map.of(
+                "success", true,
+                "message", "Reservation released",
+                "reservation", reservation
+            ));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of(
+                "success", false,
+                "message", e.getMessage()
+            ));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of(
+                "success", false,
+                "message", "Failed to release reservation",
+                "error", e.getMessage()
+            ));
+        }
+    }
+
     /**
      * Get all orders with pagination and filtering
      */
@@ -54,14 +251,18 @@ public class OrderController {
             @RequestParam(defaultValue = "desc") String sortDir,
             @RequestParam(required = false) String status,
             @RequestParam(required = false) String customerId,
-            @RequestParam(required = false) String search) {
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean estimateTotal,
+            @RequestParam(required = false) String fields) {
         
         try {
+            Set<String> projection = orderService.resolveListFields(fields);
             if (customerId != null && !customerId.trim().isEmpty()) {
                 Page<Order> orders = orderService.getOrdersByCustomerId(customerId.trim(), page, size);
                 return ResponseEntity.ok(Map.of(
                     "success", true,
-                    "orders", orders.getContent(),
+                    "orders", orderService.toListView(orders.getContent(), projection),
                     "totalPages", orders.getTotalPages(),
                     "totalElements", orders.getTotalElements(),
                     "currentPage", page,
@@ -71,40 +272,61 @@ public class OrderController {
             
             if (status != null && !status.trim().isEmpty()) {
                 List<Order> orders = orderService.getOrdersByStatus(status.trim());
+                orders = orderService.sortOrders(orders, sortBy, sortDir);
                 return ResponseEntity.ok(Map.of(
                     "success", true,
-                    "orders", orders,
+                    "orders", orderService.toListView(orders, projection),
                     "totalElements", orders.size()
                 ));
             }
             
             if (search != null && !search.trim().isEmpty()) {
                 List<Order> orders = orderService.searchOrders(search.trim());
+                orders = orderService.sortOrders(orders, sortBy, sortDir);
                 return ResponseEntity.ok(Map.of(
                     "success", true,
-                    "orders", orders,
+                    "orders", orderService.toListView(orders, projection),
                     "totalElements", orders.size()
                 ));
             }
             
-            if (page != null && size != null) {
-                Page<Order> orders = orderService.getAllOrders(page, size, sortBy, sortDir);
+            if (cursor != null) {
+                // Keyset mode: an empty cursor requests the first page
+                KeysetPagination.CursorPage<Order> orders = orderService.getAllOrders(
+                    cursor, size != null ? size : 20, sortBy, sortDir, estimateTotal, projection);
+                Map<String, Object> response = new HashMap<>();
+                response.put("success", true);
+                response.put("orders", orderService.toListView(orders.getContent(), projection));
+                response.put("nextCursor", orders.getNextCursor());
+                response.put("hasNext", orders.hasNext());
+                response.put("size", orders.getContent().size());
+                if (estimateTotal) {
+                    response.put("estimatedTotal", orders.getEstimatedTotal());
+                }
+                return ResponseEntity.ok(response);
+            } else if (page != null && size != null) {
+                Page<Order> orders = orderService.getAllOrders(page, size, sortBy, sortDir, projection);
                 return ResponseEntity.ok(Map.of(
                     "success", true,
-                    "orders", orders.getContent(),
+                    "orders", orderService.toListView(orders.getContent(), projection),
                     "totalPages", orders.getTotalPages(),
                     "totalElements", orders.getTotalElements(),
                     "currentPage", page,
                     "size", size
                 ));
             } else {
-                List<Order> orders = orderService.getAllOrders();
+                List<Order> orders = orderService.getAllOrders(projection);
                 return ResponseEntity.ok(Map.of(
                     "success", true,
-                    "orders", orders,
+                    "orders", orderService.toListView(orders, projection),
                     "totalElements", orders.size()
                 ));
             }
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                "success", false,
+                "message", e.getMessage()
+            ));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of(
                 "success", false,
@@ -498,4 +720,21 @@ public class OrderController {
             ));
         }
     }
-}
\ No newline at end of file
+
+    // Request DTOs
+    public static class ReservationRequest {
+        private String customerId;
+        private List<Order.OrderItem> items;
+        private Integer ttlSeconds;
+
+        // Getters and setters
+        public String getCustomerId() { return customerId; }
+        public void setCustomerId(String customerId) { this.customerId = customerId; }
+        
+        public List<Order.OrderItem> getItems() { return items; }
+        public void setItems(List<Order.OrderItem> items) { this.items = items; }
+        
+        public Integer getTtlSeconds() { return ttlSeconds; }
+        public void setTtlSeconds(Integer ttlSeconds) { this.ttlSeconds = ttlSeconds; }
+    }
+}
@@ -3,6 +3,14 @@ package com.bookstore.controller;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.HttpStatus;
+import com.bookstore.service.BookService;
+import com.bookstore.service.CustomerService;
+import com.bookstore.service.OrderService;
+import com.bookstore.repository.StockUpdates;
+import com.bookstore.utils.HashContentionBenchmark;
+import com.bookstore.utils.StockContentionBenchmark;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
 import java.util.*;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
@@ -15,6 +23,21 @@ public class PerformanceController {
     private List<Map<String, Object>> performanceMetrics = new ArrayList<>();
     private Map<String, Object> systemMetrics = new HashMap<>();
     
+    @Autowired
+    private BookService bookService;
+    
+    @Autowired
+    private OrderService orderService;
+    
+    @Autowired
+    private CustomerService customerService;
+    
+    @Autowired
+    private MongoTemplate mongoTemplate;
+    
+    @Autowired
+    private StockUpdates stockUpdates;
+    
     // Initialize with some sample data
     public PerformanceController() {
         initializeSampleMetrics();
@@ -243,6 +266,142 @@ public class PerformanceController {
         }
     }
 
+    @PostMapping("/hash/contention")
+    public ResponseEntity<Map<String, Object>> runHashContentionBenchmark(@RequestBody(required = false) Map<String, Object> request) {
+        try {
+            Map<String, Object> params = request != null ? request : Map.of();
+            int threads = Math.min(((Number) params.getOrDefault("threads", Runtime.getRuntime().availableProcessors())).intValue(), 64);
+            int keyCount = Math.min(((Number) params.getOrDefault("keyCount", 100_000)).intValue(), 1_000_000);
+            int opsPerThread = Math.min(((Number) params.getOrDefault("opsPerThread", 1_000_000)).intValue(), 5_000_000);
+            double writeRatio = ((Number) params.getOrDefault("writeRatio", 0.1)).doubleValue();
+            
+            HashContentionBenchmark benchmark = new HashContentionBenchmark(threads, keyCount, opsPerThread, writeRatio);
+            return ResponseEntity.ok(Map.of(
+                "success", true,
+                "benchmark", benchmark.run()
+            ));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                "success", false,
+                "message", e.getMessage()
+            ));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of(
+                "success", false,
+                "message", "Error running hash contention benchmark: " + e.getMessage()
+            ));
+        }
+    }
+
+    /**
+     * Orders per second and lost updates when concurrent orders take stock from the
+     * same few books, read-modify-write versus conditional bulk $inc
+     */
+    @PostMapping("/stock/contention")
+    public ResponseEntity<Map<String, Object>> runStockContentionBenchmark(@RequestBody(required = false) Map<String, Object> request) {
+        try {
+            Map<String, Object> params = request != null ? request : Map.of();
+            int threads = Math.min(((Number) params.getOrDefault("threads", 16)).intValue(), 64);
+            int ordersPerThread = Math.min(((Number) params.getOrDefault("ordersPerThread", 200)).intValue(), 10_000);
+            int books = Math.min(((Number) params.getOrDefault("books", 5)).intValue(), 1_000);
+            int itemsPerOrder = Math.min(((Number) params.getOrDefault("itemsPerOrder", 3)).intValue(), 50);
+            int initialStock = ((Number) params.getOrDefault("initialStock", 1_000_000)).intValue();
+            
+            StockContentionBenchmark benchmark = new StockContentionBenchmark(
+                mongoTemplate, stockUpdates, threads, ordersPerThread, books, itemsPerOrder, initialStock);
+            return ResponseEntity.ok(Map.of(
+                "success", true,
+                "benchmark", benchmark.run()
+            ));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                "success", false,
+                "message", e.getMessage()
+            ));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of(
+                "success", false,
+                "message", "Error running stock contention benchmark: " + e.getMessage()
+            ));
+        }
+    }
+
+    /**
+     * Checkout throughput on a single hot book as its stock is split over more shards
+     */
+    @PostMapping("/stock/shards")
+    public ResponseEntity<Map<String, Object>> runStockShardBenchmark(@RequestBody(required = false) Map<String, Object> request) {
+        try {
+            Map<String, Object> params = request != null ? request : Map.of();
+            int threads = Math.min(((Number) params.getOrDefault("threads", 32)).intValue(), 64);
+            int ordersPerThread = Math.min(((Number) params.getOrDefault("ordersPerThread", 200)).intValue(), 10_000);
+            int initialStock = ((Number) params.getOrDefault("initialStock", 1_000_000)).intValue();
+            List<Integer> shardCounts = new ArrayList<>();
+            for (Object shards : (List<?>) params.getOrDefault("shardCounts", List.of(1, 2, 4, 8, 16))) {
+                shardCounts.add(((Number) shards).intValue());
+            }
+            
+            StockContentionBenchmark benchmark = new StockContentionBenchmark(
+                mongoTemplate, stockUpdates, threads, ordersPerThread, 1, 1, initialStock);
+            return ResponseEntity.ok(Map.of(
+                "success", true,
+                "benchmark", benchmark.runShardScaling(shardCounts)
+            ));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                "success", false,
+                "message", e.getMessage()
+            ));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of(
+                "success", false,
+                "message", "Error running stock shard benchmark: " + e.getMessage()
+            ));
+        }
+    }
+
+    /**
+     * Payload of one list page with whole documents versus a fieldset
+     * (the list default when fields is absent)
+     */
+    @GetMapping("/projection")
+    public ResponseEntity<Map<String, Object>> measureProjection(
+            @RequestParam(defaultValue = "books") String collection,
+            @RequestParam(defaultValue = "100") int size,
+            @RequestParam(required = false) String fields) {
+        try {
+            int rows = Math.min(size, 10_000);
+            Map<String, Object> measurement;
+            switch (collection) {
+                case "books":
+                    measurement = bookService.measureListProjection(fields, rows);
+                    break;
+                case "orders":
+                    measurement = orderService.measureListProjection(fields, rows);
+                    break;
+                case "customers":
+                    measurement = customerService.measureListProjection(fields, rows);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Collection must be books, orders or customers");
+            }
+            return ResponseEntity.ok(Map.of(
+                "success", true,
+                "measurement", measurement
+            ));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                "success", false,
+                "message", e.getMessage()
+            ));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of(
+                "success", false,
+                "message", "Error measuring projection: " + e.getMessage()
+            ));
+        }
+    }
+
     // Helper methods
     private void initializeSampleMetrics() {
         performanceMetrics.clear();
@@ -0,0 +1,348 @@
+package com.bookstore.datastructures;
+
+import com.bookstore.algorithms.FuzzySearch;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Inverted Index Implementation
+ * Full-text index over documents identified by small non-negative integer ids.
+ * Each document has a few named text fields; every field is tokenized into
+ * lowercase alphanumeric terms and each term keeps a posting list of
+ * (document id, weighted term frequency) sorted by document id.
+ *
+ * Queries are conjunctive: every query term must occur in some field of a
+ * matching document. The last query term also matches as a prefix (unless
+ * the query ends with a separator), so partially typed words still find
+ * results. Fuzzy queries additionally let each term match dictionary terms
+ * within {@link FuzzySearch#autoDistance} edits, scored down by distance.
+ * Matches are ranked with BM25, using per-field weights to combine
+ * term frequencies and document lengths (BM25F style).
+ * Not thread-safe; the owner is expected to guard reads and writes.
+ *
+ * Time Complexity: O(sum of matching posting lengths) per query,
+ *                  O(t log n) index/remove for a document with t distinct terms
+ * Space Complexity: O(total terms indexed)
+ */
+public class InvertedIndex {
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    
+    private final Map<String, Double> fieldWeights;
+    private final TreeMap<String, Postings> dictionary = new TreeMap<>();
+    private final FuzzySearch.Index fuzzyTerms = new FuzzySearch.Index();
+    private final List<String[]> documentTerms = new ArrayList<>(); // null = no document with that id
+    private float[] documentLengths = new float[16];
+    private int documentCount;
+    private double totalLength;
+    private long postingCount;
+    
+    /**
+     * @param fieldWeights Weight per field name; fields not listed are ignored when indexing
+     */
+    public InvertedIndex(Map<String, Double> fieldWeights) {
+        if (fieldWeights == null || fieldWeights.isEmpty()) {
+            throw new IllegalArgumentException("At least one field weight is required");
+        }
+        this.fieldWeights = new LinkedHashMap<>(fieldWeights);
+    }
+    
+    /**
+     * Index a document, replacing any previous version with the same id
+     * Time Complexity: O(t log n) for t distinct terms
+     * @param documentId Non-negative document id
+     * @param fields Field name to text
+     */
+    public void index(int documentId, Map<String, String> fields) {
+        if (documentId < 0) {
+            throw new IllegalArgumentException("Document id must be non-negative");
+        }
+        remove(documentId);
+        
+        Map<String, Float> frequencies = new LinkedHashMap<>();
+        float length = 0;
+        for (Map.Entry<String, Double> field : fieldWeights.entrySet()) {
+            String text = fields.get(field.getKey());
+            if (text == null) {
+                continue;
+            }
+            float weight = field.getValue().floatValue();
+            for (String term : tokenize(text)) {
+                frequencies.merge(term, weight, Float::sum);
+                length += weight;
+            }
+        }
+        
+        while (documentTerms.size() <= documentId) {
+            documentTerms.add(null);
+        }
+        if (documentId >= documentLengths.length) {
+            documentLengths = Arrays.copyOf(documentLengths, Math.max(documentId + 1, documentLengths.length * 2));
+        }
+        
+        documentTerms.set(documentId, frequencies.keySet().toArray(new String[0]));
+        documentLengths[documentId] = length;
+        documentCount++;
+        totalLength += length;
+        for (Map.Entry<String, Float> entry : frequencies.entrySet()) {
+            dictionary.computeIfAbsent(entry.getKey(), term -> {
+                fuzzyTerms.add(term);
+                return new Postings();
+            }).add(documentId, entry.getValue());
+            postingCount++;
+        }
+    }
+    
+    /**
+     * Remove a document from every posting list
+     * Time Complexity: O(t log n) for t distinct terms
+     * @param documentId Document id
+     * @return true if the document was indexed
+     */
+    public boolean remove(int documentId) {
+        if (documentId < 0 || documentId >= documentTerms.size() || documentTerms.get(documentId) == null) {
+            return false;
+        }
+        for (String term : documentTerms.get(documentId)) {
+            Postings postings = dictionary.get(term);
+            postings.remove(documentId);
+            postingCount--;
+            if (postings.size == 0) {
+                dictionary.remove(term);
+                fuzzyTerms.remove(term);
+            }
+        }
+        documentTerms.set(documentId, null);
+        documentCount--;
+        totalLength -= documentLengths[documentId];
+        documentLengths[documentId] = 0;
+        return true;
+    }
+    
+    /**
+     * Documents containing every query term, best BM25 score first
+     * Time Complexity: O(m + r log r) for m scanned postings and r results
+     * @param query Free-text query
+     * @param limit Maximum number of hits to return
+     * @return Ranked hits, empty if the query has no terms
+     */
+    public List<SearchHit> search(String query, int limit) {
+        return search(query, limit, false);
+    }
+    
+    /**
+     * Documents matching every query term, best BM25 score first.
+     * With fuzzy matching a term also matches dictionary terms within a few
+     * edits; their contribution is divided by (1 + distance) so exact
+     * matches still rank first.
+     * Time Complexity: O(f + m + r log r) for fuzzy dictionary walk f,
+     *                  m scanned postings and r results
+     * @param query Free-text query
+     * @param limit Maximum number of hits to return
+     * @param fuzzy Whether to tolerate typos
+     * @return Ranked hits, empty if the query has no terms
+     */
+    public List<SearchHit> search(String query, int limit, boolean fuzzy) {
+        List<SearchHit> hits = new ArrayList<>();
+        List<String> terms = new ArrayList<>(new LinkedHashSet<>(tokenize(query)));
+        if (terms.isEmpty() || documentCount == 0 || limit <= 0) {
+            return hits;
+        }
+        boolean prefixLast = Character.isLetterOrDigit(query.charAt(query.length() - 1));
+        
+        // One group of posting lists (with score weights) per query term;
+        // prefix and fuzzy matching may expand a term to several
+        List<Map<Postings, Float>> groups = new ArrayList<>();
+        for (int i = 0; i < terms.size(); i++) {
+            String term = terms.get(i);
+            Map<Postings, Float> group = new HashMap<>();
+            if (prefixLast && i == terms.size() - 1) {
+                for (Postings postings : prefixRange(term).values()) {
+                    group.put(postings, 1f);
+                }
+            } else if (dictionary.containsKey(term)) {
+                group.put(dictionary.get(term), 1f);
+            }
+            if (fuzzy) {
+                for (FuzzySearch.Match match : fuzzyTerms.search(term, FuzzySearch.autoDistance(term))) {
+                    group.merge(dictionary.get(match.getTerm()), 1f / (1 + match.getDistance()), Math::max);
+                }
+            }
+            if (group.isEmpty()) {
+                return hits;
+            }
+            groups.add(group);
+        }
+        
+        // matched[d] = number of groups document d has matched so far
+        int[] matched = new int[documentTerms.size()];
+        float[] scores = new float[documentTerms.size()];
+        List<Integer> candidates = new ArrayList<>();
+        double averageLength = totalLength / documentCount;
+        for (int g = 0; g < groups.size(); g++) {
+            for (Map.Entry<Postings, Float> weighted : groups.get(g).entrySet()) {
+                Postings postings = weighted.getKey();
+                double idf = weighted.getValue() * Math.log(1 + (documentCount - postings.size + 0.5) / (postings.size + 0.5));
+                for (int p = 0; p < postings.size; p++) {
+                    int doc = postings.documents[p];
+                    if (matched[doc] < g) {
+                        continue;
+                    }
+                    if (g == 0 && matched[doc] == 0) {
+                        candidates.add(doc);
+                    }
+                    matched[doc] = g + 1;
+                    double tf = postings.frequencies[p];
+                    double norm = K1 * (1 - B + B * documentLengths[doc] / averageLength);
+                    scores[doc] += (float) (idf * tf * (K1 + 1) / (tf + norm));
+                }
+            }
+        }
+        
+        for (int doc : candidates) {
+            if (matched[doc] == groups.size()) {
+                hits.add(new SearchHit(doc, scores[doc]));
+            }
+        }
+        hits.sort((a, b) -> a.score != b.score ? Float.compare(b.score, a.score) : Integer.compare(a.documentId, b.documentId));
+        return hits.size() > limit ? new ArrayList<>(hits.subList(0, limit)) : hits;
+    }
+    
+    private NavigableMap<String, Postings> prefixRange(String prefix) {
+        return dictionary.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+    }
+    
+    /**
+     * Split text into lowercase runs of letters and digits
+     * Time Complexity: O(length)
+     * @param text Text to tokenize
+     * @return Terms in order of appearance
+     */
+    public static List<String> tokenize(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null) {
+            return terms;
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean inTerm = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (inTerm && start < 0) {
+                start = i;
+            } else if (!inTerm && start >= 0) {
+                terms.add(lower.substring(start, i));
+                start = -1;
+            }
+        }
+        return terms;
+    }
+    
+    /**
+     * Remove all documents
+     * Time Complexity: O(1)
+     */
+    public void clear() {
+        dictionary.clear();
+        fuzzyTerms.clear();
+        documentTerms.clear();
+        documentLengths = new float[16];
+        documentCount = 0;
+        totalLength = 0;
+        postingCount = 0;
+    }
+    
+    /**
+     * Get number of indexed documents
+     * @return Document count
+     */
+    public int getDocumentCount() {
+        return documentCount;
+    }
+    
+    /**
+     * Get number of distinct terms
+     * @return Dictionary size
+     */
+    public int getTermCount() {
+        return dictionary.size();
+    }
+    
+    /**
+     * Get total number of postings across all terms
+     * @return Posting count
+     */
+    public long getPostingCount() {
+        return postingCount;
+    }
+    
+    /**
+     * Get average weighted document length
+     * @return Average length, 0 if empty
+     */
+    public double getAverageDocumentLength() {
+        return documentCount > 0 ? totalLength / documentCount : 0.0;
+    }
+    
+    /**
+     * Posting list sorted by document id
+     */
+    private static final class Postings {
+        int[] documents = new int[4];
+        float[] frequencies = new float[4];
+        int size;
+        
+        void add(int document, float frequency) {
+            if (size == documents.length) {
+                documents = Arrays.copyOf(documents, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            int position = size > 0 && documents[size - 1] < document
+                ? size
+                : -Arrays.binarySearch(documents, 0, size, document) - 1;
+            System.arraycopy(documents, position, documents, position + 1, size - position);
+            System.arraycopy(frequencies, position, frequencies, position + 1, size - position);
+            documents[position] = document;
+            frequencies[position] = frequency;
+            size++;
+        }
+        
+        void remove(int document) {
+            int position = Arrays.binarySearch(documents, 0, size, document);
+            if (position >= 0) {
+                System.arraycopy(documents, position + 1, documents, position, size - position - 1);
+                System.arraycopy(frequencies, position + 1, frequencies, position, size - position - 1);
+                size--;
+            }
+        }
+    }
+    
+    /**
+     * Ranked search result
+     */
+    public static class SearchHit {
+        private final int documentId;
+        private final float score;
+        
+        public SearchHit(int documentId, float score) {
+            this.documentId = documentId;
+            this.score = score;
+        }
+        
+        public int getDocumentId() { return documentId; }
+        public float getScore() { return score; }
+        
+        @Override
+        public String toString() {
+            return String.format("SearchHit{documentId=%d, score=%.4f}", documentId, score);
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package com.bookstore.datastructures;
+
+import java.util.Arrays;
+
+/**
+ * Sorted Column Index Implementation
+ * Keeps one numeric column of a table as a sorted value array with a parallel
+ * row-id array, so range predicates are answered with two insertion-point
+ * searches followed by a contiguous copy of the matching row ids.
+ * Integer columns (year, pages) are stored exactly as doubles.
+ * Not thread-safe; the owner is expected to guard reads and writes.
+ *
+ * Time Complexity: O(log n + k) range queries, O(n) insert/remove (array shift)
+ * Space Complexity: O(n)
+ */
+public class SortedColumnIndex {
+    private double[] values;
+    private int[] rows;
+    private int size;
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final int GROWTH_FACTOR = 2;
+    
+    /**
+     * Constructor with default capacity
+     */
+    public SortedColumnIndex() {
+        this(DEFAULT_CAPACITY);
+    }
+    
+    /**
+     * Constructor with specified initial capacity
+     * @param initialCapacity Initial capacity
+     */
+    public SortedColumnIndex(int initialCapacity) {
+        if (initialCapacity <= 0) {
+            throw new IllegalArgumentException("Initial capacity must be positive");
+        }
+        this.values = new double[initialCapacity];
+        this.rows = new int[initialCapacity];
+        this.size = 0;
+    }
+    
+    /**
+     * Replace the contents with an unsorted batch of (value, row) pairs
+     * Time Complexity: O(n log n)
+     * @param newValues Column values (must not contain NaN)
+     * @param newRows Row ids, parallel to newValues
+     * @param count Number of pairs to load
+     */
+    public void load(double[] newValues, int[] newRows, int count) {
+        int capacity = Math.max(DEFAULT_CAPACITY, count);
+        double[] sortedValues = new double[capacity];
+        int[] sortedRows = new int[capacity];
+        for (int i = 0; i < count; i++) {
+            if (Double.isNaN(newValues[i])) {
+                throw new IllegalArgumentException("NaN cannot be indexed");
+            }
+            sortedValues[i] = newValues[i];
+            sortedRows[i] = newRows[i];
+        }
+        sortPairs(sortedValues, sortedRows, count);
+        
+        values = sortedValues;
+        rows = sortedRows;
+        size = count;
+    }
+    
+    /**
+     * Stable bottom-up merge sort of the first count values, moving each row
+     * id along with its value so no boxed permutation is needed
+     * Time Complexity: O(n log n)
+     * Space Complexity: O(n) scratch
+     */
+    private static void sortPairs(double[] values, int[] rows, int count) {
+        double[] srcValues = values;
+        int[] srcRows = rows;
+        double[] dstValues = new double[count];
+        int[] dstRows = new int[count];
+        for (int width = 1; width < count; width *= 2) {
+            for (int lo = 0; lo < count; lo += 2 * width) {
+                int mid = Math.min(lo + width, count);
+                int hi = Math.min(lo + 2 * width, count);
+                int i = lo, j = mid, k = lo;
+                while (i < mid && j < hi) {
+                    // Take the left element on ties to keep equal values in load order
+                    if (srcValues[j] < srcValues[i]) {
+                        dstValues[k] = srcValues[j];
+                        dstRows[k++] = srcRows[j++];
+                    } else {
+                        dstValues[k] = srcValues[i];
+                        dstRows[k++] = srcRows[i++];
+                    }
+                }
+                System.arraycopy(srcValues, i, dstValues, k, mid - i);
+                System.arraycopy(srcRows, i, dstRows, k, mid - i);
+                k += mid - i;
+                System.arraycopy(srcValues, j, dstValues, k, hi - j);
+                System.arraycopy(srcRows, j, dstRows, k, hi - j);
+            }
+            double[] valueSwap = srcValues;
+            srcValues = dstValues;
+            dstValues = valueSwap;
+            int[] rowSwap = srcRows;
+            srcRows = dstRows;
+            dstRows = rowSwap;
+        }
+        if (srcValues != values) {
+            System.arraycopy(srcValues, 0, values, 0, count);
+            System.arraycopy(srcRows, 0, rows, 0, count);
+        }
+    }
+    
+    /**
+     * Add a row to the index, after any rows with an equal value
+     * Time Complexity: O(log n) search + O(n) shift
+     * @param value Column value (must not be NaN)
+     * @param row Row id
+     */
+    public void insert(double value, int row) {
+        if (Double.isNaN(value)) {
+            throw new IllegalArgumentException("NaN cannot be indexed");
+        }
+        if (size == values.length) {
+            int newCapacity = values.length * GROWTH_FACTOR;
+            values = Arrays.copyOf(values, newCapacity);
+            rows = Arrays.copyOf(rows, newCapacity);
+        }
+        
+        int position = insertionPoint(value, false);
+        System.arraycopy(values, position, values, position + 1, size - position);
+        System.arraycopy(rows, position, rows, position + 1, size - position);
+        values[position] = value;
+        rows[position] = row;
+        size++;
+    }
+    
+    /**
+     * Remove a row that was indexed under the given value
+     * Time Complexity: O(log n + d) search (d = rows sharing the value) + O(n) shift
+     * @param value Value the row was indexed under
+     * @param row Row id
+     * @return true if the row was found and removed
+     */
+    public boolean remove(double value, int row) {
+        for (int i = insertionPoint(value, true); i < size && values[i] == value; i++) {
+            if (rows[i] == row) {
+                System.arraycopy(values, i + 1, values, i, size - i - 1);
+                System.arraycopy(rows, i + 1, rows, i, size - i - 1);
+                size--;
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Rows whose value lies strictly between min and max
+     * Time Complexity: O(log n + k) where k is the number of results
+     * @param min Lower bound (exclusive)
+     * @param max Upper bound (exclusive)
+     * @return Row ids in ascending value order
+     */
+    public int[] rowsBetween(double min, double max) {
+        int start = insertionPoint(min, false);
+        int end = insertionPoint(max, true);
+        return start < end ? Arrays.copyOfRange(rows, start, end) : new int[0];
+    }
+    
+    /**
+     * Rows whose value lies between min and max, both inclusive
+     * Time Complexity: O(log n + k) where k is the number of results
+     * @param min Lower bound (inclusive)
+     * @param max Upper bound (inclusive)
+     * @return Row ids in ascending value order
+     */
+    public int[] rowsInRange(double min, double max) {
+        int start = insertionPoint(min, true);
+        int end = insertionPoint(max, false);
+        return start < end ? Arrays.copyOfRange(rows, start, end) : new int[0];
+    }
+    
+    /**
+     * Find insertion point for a value
+     * @param target Target value
+     * @param leftmost True for leftmost insertion, false for rightmost
+     * @return Insertion index in [0, size]
+     */
+    private int insertionPoint(double target, boolean leftmost) {
+        int left = 0;
+        int right = size;
+        
+        while (left < right) {
+            int mid = (left + right) >>> 1;
+            if (values[mid] < target || (!leftmost && values[mid] == target)) {
+                left = mid + 1;
+            } else {
+                right = mid;
+            }
+        }
+        
+        return left;
+    }
+    
+    /**
+     * Remove all rows
+     * Time Complexity: O(1)
+     */
+    public void clear() {
+        size = 0;
+    }
+    
+    /**
+     * Get number of indexed rows
+     * Time Complexity: O(1)
+     * @return Number of rows
+     */
+    public int size() {
+        return size;
+    }
+    
+    /**
+     * Smallest indexed value
+     * @return Minimum value, or NaN if empty
+     */
+    public double min() {
+        return size > 0 ? values[0] : Double.NaN;
+    }
+    
+    /**
+     * Largest indexed value
+     * @return Maximum value, or NaN if empty
+     */
+    public double max() {
+        return size > 0 ? values[size - 1] : Double.NaN;
+    }
+}
@@ -0,0 +1,404 @@
+package com.bookstore.datastructures;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Suggestion Trie Implementation
+ * Prefix trie for typeahead. Every node caches the k best-scoring entries
+ * reachable below it, so a lookup walks the prefix and returns that cache
+ * without visiting the subtree.
+ *
+ * Each entry is indexed under its normalized text (lowercase, single spaces)
+ * and under every suffix that starts at a later word, so "potter" also
+ * completes "Harry Potter". Keys are cut at MAX_KEY_LENGTH characters to
+ * bound the trie depth; longer prefixes are matched against the cut key and
+ * then filtered on the full text.
+ *
+ * Children are stored as parallel sorted char/node arrays rather than maps.
+ * Not thread-safe; the owner is expected to guard reads and writes.
+ *
+ * Time Complexity: O(p + k) suggest for prefix length p,
+ *                  O(w * L * k * c) put/remove for w words, key length L, c children per node
+ * Space Complexity: O(total key characters * k)
+ */
+public class SuggestionTrie {
+    private static final int MAX_KEY_LENGTH = 40;
+    private static final Entry[] NO_ENTRIES = new Entry[0];
+    
+    private final int k;
+    private final Node root = new Node();
+    private final Map<String, Entry> entries = new HashMap<>();
+    
+    /**
+     * @param k Number of completions cached per node (maximum suggest limit)
+     */
+    public SuggestionTrie(int k) {
+        if (k <= 0) {
+            throw new IllegalArgumentException("k must be positive");
+        }
+        this.k = k;
+    }
+    
+    /**
+     * Add or replace an entry
+     * @param id Unique entry id
+     * @param text Display text to complete
+     * @param score Ranking score, higher first
+     */
+    public void put(String id, String text, double score) {
+        if (id == null || text == null) {
+            throw new IllegalArgumentException("Id and text cannot be null");
+        }
+        Entry existing = entries.get(id);
+        if (existing != null) {
+            if (existing.text.equals(text) && existing.score == score) {
+                return;
+            }
+            remove(id);
+        }
+        
+        String normalized = normalize(text);
+        if (normalized.isEmpty()) {
+            return;
+        }
+        Entry entry = new Entry(id, text, normalized, score, keysFor(normalized));
+        entries.put(id, entry);
+        for (String key : entry.keys) {
+            Node node = root;
+            node.offer(entry, k);
+            for (int i = 0; i < key.length(); i++) {
+                node = node.childOrCreate(key.charAt(i));
+                node.offer(entry, k);
+            }
+            node.terminal = append(node.terminal, entry);
+        }
+    }
+    
+    /**
+     * Remove an entry; nodes that cached it recompute their top-k from their children
+     * @param id Entry id
+     * @return true if the entry existed
+     */
+    public boolean remove(String id) {
+        Entry entry = entries.remove(id);
+        if (entry == null) {
+            return false;
+        }
+        for (String key : entry.keys) {
+            Node[] path = new Node[key.length() + 1];
+            path[0] = root;
+            for (int i = 0; i < key.length(); i++) {
+                path[i + 1] = path[i].child(key.charAt(i));
+            }
+            Node leaf = path[key.length()];
+            leaf.terminal = without(leaf.terminal, entry);
+            
+            // Bottom-up, so every node rebuilds from already-fixed children
+            for (int depth = key.length(); depth >= 0; depth--) {
+                Node node = path[depth];
+                if (node.caches(entry)) {
+                    node.recompute(k);
+                }
+                if (depth > 0 && node.isEmpty()) {
+                    path[depth - 1].removeChild(key.charAt(depth - 1));
+                }
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Best completions of a prefix
+     * Time Complexity: O(p + limit)
+     * @param prefix Typed prefix (case and repeated spaces ignored)
+     * @param limit Maximum suggestions, at most k
+     * @return Suggestions, best score first
+     */
+    public List<Suggestion> suggest(String prefix, int limit) {
+        List<Suggestion> suggestions = new ArrayList<>();
+        String normalized = normalize(prefix);
+        if (normalized.isEmpty() || limit <= 0) {
+            return suggestions;
+        }
+        
+        Node node = root;
+        for (int i = 0; i < Math.min(normalized.length(), MAX_KEY_LENGTH) && node != null; i++) {
+            node = node.child(normalized.charAt(i));
+        }
+        if (node == null) {
+            return suggestions;
+        }
+        
+        boolean filter = normalized.length() > MAX_KEY_LENGTH;
+        for (int i = 0; i < node.top.length && suggestions.size() < limit; i++) {
+            Entry entry = node.top[i];
+            if (!filter || matchesWordStart(entry.normalized, normalized)) {
+                suggestions.add(new Suggestion(entry.id, entry.text, entry.score));
+            }
+        }
+        return suggestions;
+    }
+    
+    /**
+     * Display text of an entry
+     * @param id Entry id
+     * @return Text, or null if absent
+     */
+    public String getText(String id) {
+        Entry entry = entries.get(id);
+        return entry != null ? entry.text : null;
+    }
+    
+    /**
+     * Number of entries
+     */
+    public int size() {
+        return entries.size();
+    }
+    
+    /**
+     * Number of trie nodes, including the root
+     * Time Complexity: O(nodes)
+     */
+    public int nodeCount() {
+        return root.count();
+    }
+    
+    /**
+     * Remove all entries
+     */
+    public void clear() {
+        entries.clear();
+        root.labels = new char[0];
+        root.children = new Node[0];
+        root.top = NO_ENTRIES;
+        root.terminal = NO_ENTRIES;
+    }
+    
+    /**
+     * Lowercase and collapse runs of non-alphanumeric characters into one space
+     */
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder builder = new StringBuilder(text.length());
+        boolean pendingSpace = false;
+        for (char c : text.toLowerCase(Locale.ROOT).toCharArray()) {
+            if (Character.isLetterOrDigit(c)) {
+                if (pendingSpace && builder.length() > 0) {
+                    builder.append(' ');
+                }
+                builder.append(c);
+                pendingSpace = false;
+            } else {
+                pendingSpace = true;
+            }
+        }
+        return builder.toString();
+    }
+    
+    private static String[] keysFor(String normalized) {
+        List<String> keys = new ArrayList<>();
+        for (int start = 0; start < normalized.length(); start++) {
+            if (start == 0 || normalized.charAt(start - 1) == ' ') {
+                String key = normalized.substring(start, Math.min(normalized.length(), start + MAX_KEY_LENGTH));
+                if (!keys.contains(key)) {
+                    keys.add(key);
+                }
+            }
+        }
+        return keys.toArray(new String[0]);
+    }
+    
+    private static boolean matchesWordStart(String normalized, String prefix) {
+        for (int start = normalized.indexOf(prefix); start >= 0; start = normalized.indexOf(prefix, start + 1)) {
+            if (start == 0 || normalized.charAt(start - 1) == ' ') {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private static Entry[] append(Entry[] array, Entry entry) {
+        for (Entry existing : array) {
+            if (existing == entry) {
+                return array;
+            }
+        }
+        Entry[] grown = Arrays.copyOf(array, array.length + 1);
+        grown[array.length] = entry;
+        return grown;
+    }
+    
+    private static Entry[] without(Entry[] array, Entry entry) {
+        for (int i = 0; i < array.length; i++) {
+            if (array[i] == entry) {
+                Entry[] shrunk = new Entry[array.length - 1];
+                System.arraycopy(array, 0, shrunk, 0, i);
+                System.arraycopy(array, i + 1, shrunk, i, array.length - i - 1);
+                return shrunk;
+            }
+        }
+        return array;
+    }
+    
+    /**
+     * Best first: higher score, then alphabetical text, then id
+     */
+    private static int rank(Entry a, Entry b) {
+        if (a.score != b.score) {
+            return Double.compare(b.score, a.score);
+        }
+        int byText = a.normalized.compareTo(b.normalized);
+        return byText != 0 ? byText : a.id.compareTo(b.id);
+    }
+    
+    private static final class Entry {
+        final String id;
+        final String text;
+        final String normalized;
+        final double score;
+        final String[] keys;
+        
+        Entry(String id, String text, String normalized, double score, String[] keys) {
+            this.id = id;
+            this.text = text;
+            this.normalized = normalized;
+            this.score = score;
+            this.keys = keys;
+        }
+    }
+    
+    private static final class Node {
+        char[] labels = new char[0];
+        Node[] children = new Node[0];
+        Entry[] top = NO_ENTRIES;      // best k entries in this subtree, best first
+        Entry[] terminal = NO_ENTRIES; // entries with a key ending here
+        
+        Node child(char label) {
+            int position = Arrays.binarySearch(labels, label);
+            return position >= 0 ? children[position] : null;
+        }
+        
+        Node childOrCreate(char label) {
+            int position = Arrays.binarySearch(labels, label);
+            if (position >= 0) {
+                return children[position];
+            }
+            int insert = -position - 1;
+            Node node = new Node();
+            char[] newLabels = new char[labels.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(labels, 0, newLabels, 0, insert);
+            System.arraycopy(children, 0, newChildren, 0, insert);
+            newLabels[insert] = label;
+            newChildren[insert] = node;
+            System.arraycopy(labels, insert, newLabels, insert + 1, labels.length - insert);
+            System.arraycopy(children, insert, newChildren, insert + 1, children.length - insert);
+            labels = newLabels;
+            children = newChildren;
+            return node;
+        }
+        
+        void removeChild(char label) {
+            int position = Arrays.binarySearch(labels, label);
+            if (position >= 0) {
+                char[] newLabels = new char[labels.length - 1];
+                Node[] newChildren = new Node[children.length - 1];
+                System.arraycopy(labels, 0, newLabels, 0, position);
+                System.arraycopy(children, 0, newChildren, 0, position);
+                System.arraycopy(labels, position + 1, newLabels, position, labels.length - position - 1);
+                System.arraycopy(children, position + 1, newChildren, position, children.length - position - 1);
+                labels = newLabels;
+                children = newChildren;
+            }
+        }
+        
+        boolean isEmpty() {
+            return labels.length == 0 && terminal.length == 0;
+        }
+        
+        boolean caches(Entry entry) {
+            for (Entry cached : top) {
+                if (cached == entry) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        
+        /**
+         * Insert entry into the cached top-k if it ranks high enough
+         */
+        void offer(Entry entry, int k) {
+            if (caches(entry)) {
+                return;
+            }
+            int position = top.length;
+            while (position > 0 && rank(entry, top[position - 1]) < 0) {
+                position--;
+            }
+            if (position >= k) {
+                return;
+            }
+            Entry[] updated = new Entry[Math.min(top.length + 1, k)];
+            System.arraycopy(top, 0, updated, 0, position);
+            updated[position] = entry;
+            System.arraycopy(top, position, updated, position + 1, updated.length - position - 1);
+            top = updated;
+        }
+        
+        /**
+         * Rebuild the cached top-k from own terminal entries and the children's caches
+         */
+        void recompute(int k) {
+            top = NO_ENTRIES;
+            for (Entry entry : terminal) {
+                offer(entry, k);
+            }
+            for (Node child : children) {
+                for (Entry entry : child.top) {
+                    offer(entry, k);
+                }
+            }
+        }
+        
+        int count() {
+            int total = 1;
+            for (Node child : children) {
+                total += child.count();
+            }
+            return total;
+        }
+    }
+    
+    /**
+     * Completion returned by suggest
+     */
+    public static class Suggestion {
+        private final String id;
+        private final String text;
+        private final double score;
+        
+        public Suggestion(String id, String text, double score) {
+            this.id = id;
+            this.text = text;
+            this.score = score;
+        }
+        
+        public String getId() { return id; }
+        public String getText() { return text; }
+        public double getScore() { return score; }
+        
+        @Override
+        public String toString() {
+            return String.format("Suggestion{id='%s', text='%s', score=%.2f}", id, text, score);
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.bookstore.datastructures;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hashed Timer Wheel Implementation
+ * Tracks many deadlines with O(1) schedule and cancel, for expiring
+ * short-lived holds without a per-item timer or database poll.
+ *
+ * Time is cut into ticks of tickMillis; a timer lands in slot
+ * (deadline tick % slots) of a fixed ring, each slot a doubly linked list.
+ * Advancing the wheel visits one slot per elapsed tick and fires the timers
+ * whose deadline tick has passed; timers more than one revolution away
+ * simply stay in their slot until a later visit. Deadlines are rounded up
+ * to the next tick, so a timer never fires early and at most one tick late.
+ * Not thread-safe; the owner is expected to guard all calls.
+ *
+ * Time Complexity: O(1) schedule/cancel,
+ *                  O(ticks + visited timers) per advance
+ * Space Complexity: O(slots + timers)
+ */
+public class TimerWheel<T> {
+    private final Timeout<T>[] slots; // head of each slot's list
+    private final long tickMillis;
+    private final long startMillis;
+    private long currentTick; // last tick whose slot has been processed
+    private int size;
+    
+    /**
+     * @param slotCount Number of slots; one revolution spans slotCount * tickMillis
+     * @param tickMillis Resolution in milliseconds
+     * @param startMillis Time of tick 0, usually System.currentTimeMillis()
+     */
+    @SuppressWarnings("unchecked")
+    public TimerWheel(int slotCount, long tickMillis, long startMillis) {
+        if (slotCount <= 0 || tickMillis <= 0) {
+            throw new IllegalArgumentException("Slot count and tick must be positive");
+        }
+        this.slots = (Timeout<T>[]) new Timeout<?>[slotCount];
+        this.tickMillis = tickMillis;
+        this.startMillis = startMillis;
+    }
+    
+    /**
+     * Schedule an item to fire at a deadline
+     * Time Complexity: O(1)
+     * @param item Item returned by advance once the deadline passes
+     * @param deadlineMillis Absolute deadline; past deadlines fire on the next tick
+     * @return Handle for cancel
+     */
+    public Timeout<T> schedule(T item, long deadlineMillis) {
+        long tick = Math.max(Math.floorDiv(deadlineMillis - startMillis + tickMillis - 1, tickMillis), currentTick + 1);
+        Timeout<T> timeout = new Timeout<>(item, tick);
+        int slot = slotOf(tick);
+        timeout.next = slots[slot];
+        if (slots[slot] != null) {
+            slots[slot].prev = timeout;
+        }
+        slots[slot] = timeout;
+        size++;
+        return timeout;
+    }
+    
+    /**
+     * Remove a timer before it fires
+     * Time Complexity: O(1)
+     * @param timeout Handle from schedule
+     * @return true if the timer was pending
+     */
+    public boolean cancel(Timeout<T> timeout) {
+        if (timeout == null || !timeout.pending) {
+            return false;
+        }
+        unlink(timeout);
+        return true;
+    }
+    
+    /**
+     * Fire every timer whose deadline is at or before now
+     * Time Complexity: O(ticks elapsed + timers in the visited slots)
+     * @param nowMillis Current time
+     * @return Items of the fired timers, earliest tick first
+     */
+    public List<T> advance(long nowMillis) {
+        List<T> fired = new ArrayList<>();
+        long target = Math.floorDiv(nowMillis - startMillis, tickMillis);
+        // Past one revolution every slot has been visited; jump ahead without losing timers
+        if (target - currentTick > slots.length) {
+            currentTick = target - slots.length;
+        }
+        while (currentTick < target) {
+            currentTick++;
+            Timeout<T> timeout = slots[slotOf(currentTick)];
+            while (timeout != null) {
+                Timeout<T> next = timeout.next;
+                if (timeout.deadlineTick <= currentTick) {
+                    unlink(timeout);
+                    fired.add(timeout.item);
+                }
+                timeout = next;
+            }
+        }
+        return fired;
+    }
+    
+    private void unlink(Timeout<T> timeout) {
+        if (timeout.prev != null) {
+            timeout.prev.next = timeout.next;
+        } else {
+            slots[slotOf(timeout.deadlineTick)] = timeout.next;
+        }
+        if (timeout.next != null) {
+            timeout.next.prev = timeout.prev;
+        }
+        timeout.prev = null;
+        timeout.next = null;
+        timeout.pending = false;
+        size--;
+    }
+    
+    private int slotOf(long tick) {
+        return (int) Math.floorMod(tick, (long) slots.length);
+    }
+    
+    /**
+     * Get number of pending timers
+     * @return Timer count
+     */
+    public int size() {
+        return size;
+    }
+    
+    /**
+     * Get number of slots
+     * @return Slot count
+     */
+    public int getSlotCount() {
+        return slots.length;
+    }
+    
+    /**
+     * Get tick resolution
+     * @return Milliseconds per tick
+     */
+    public long getTickMillis() {
+        return tickMillis;
+    }
+    
+    /**
+     * Pending timer handle
+     */
+    public static final class Timeout<T> {
+        private final T item;
+        private final long deadlineTick;
+        private Timeout<T> prev;
+        private Timeout<T> next;
+        private boolean pending = true;
+        
+        private Timeout(T item, long deadlineTick) {
+            this.item = item;
+            this.deadlineTick = deadlineTick;
+        }
+        
+        public T getItem() { return item; }
+        public boolean isPending() { return pending; }
+    }
+}
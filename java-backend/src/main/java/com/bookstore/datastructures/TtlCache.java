@@ -0,0 +1,138 @@
+package com.bookstore.datastructures;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Bounded TTL Cache Implementation
+ * Least-recently-used map whose entries expire a fixed time after they were
+ * loaded, for small lookups that are read far more often than they change.
+ *
+ * Values are loaded outside the lock, so a slow load never blocks hits on
+ * other keys. A load that overlaps an invalidate is returned to its caller
+ * but not cached, so an invalidate issued after a write is never undone by a
+ * load that read the old value. Thread-safe.
+ *
+ * Time Complexity: O(1) get/invalidate, plus the loader on a miss
+ * Space Complexity: O(capacity)
+ */
+public class TtlCache<K, V> {
+    private final int capacity;
+    private final long ttlMillis;
+    private final LinkedHashMap<K, Entry<V>> entries;
+    private long invalidations; // bumped by every invalidate; loads started before it are not cached
+    private long hits;
+    private long misses;
+    private long expirations;
+    private long evictions;
+    
+    private static final class Entry<V> {
+        final V value;
+        final long expiresAt;
+        
+        Entry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+    
+    /**
+     * @param capacity Maximum number of entries; the least recently used goes first
+     * @param ttlMillis How long a loaded value stays valid
+     */
+    public TtlCache(int capacity, long ttlMillis) {
+        if (capacity <= 0 || ttlMillis <= 0) {
+            throw new IllegalArgumentException("Capacity and TTL must be positive");
+        }
+        this.capacity = capacity;
+        this.ttlMillis = ttlMillis;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() > TtlCache.this.capacity) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+    
+    /**
+     * Get a cached value, loading and caching it on a miss or after expiry
+     * Time Complexity: O(1) on a hit
+     * @param key Key to look up
+     * @param loader Computes the value on a miss; null results are not cached
+     * @return Cached or freshly loaded value
+     */
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        long stamp;
+        synchronized (this) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null) {
+                if (entry.expiresAt > System.currentTimeMillis()) {
+                    hits++;
+                    return entry.value;
+                }
+                entries.remove(key);
+                expirations++;
+            }
+            misses++;
+            stamp = invalidations;
+        }
+        
+        V value = loader.apply(key);
+        if (value != null) {
+            synchronized (this) {
+                if (stamp == invalidations) {
+                    entries.put(key, new Entry<>(value, System.currentTimeMillis() + ttlMillis));
+                }
+            }
+        }
+        return value;
+    }
+    
+    /**
+     * Drop a key so the next get loads it again
+     * Time Complexity: O(1)
+     * @param key Key whose value changed
+     */
+    public synchronized void invalidate(K key) {
+        invalidations++;
+        entries.remove(key);
+    }
+    
+    /**
+     * Drop every entry
+     * Time Complexity: O(n)
+     */
+    public synchronized void clear() {
+        invalidations++;
+        entries.clear();
+    }
+    
+    /**
+     * Get number of cached entries, including expired ones not yet looked up
+     * @return Entry count
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+    
+    public int getCapacity() { return capacity; }
+    public long getTtlMillis() { return ttlMillis; }
+    public synchronized long getHits() { return hits; }
+    public synchronized long getMisses() { return misses; }
+    public synchronized long getExpirations() { return expirations; }
+    public synchronized long getEvictions() { return evictions; }
+    
+    /**
+     * Get share of lookups served from the cache
+     * @return Hit ratio between 0 and 1, or 0 before the first lookup
+     */
+    public synchronized double getHitRatio() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0.0 : (double) hits / lookups;
+    }
+}
@@ -6,6 +6,7 @@ import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.index.Indexed;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.validation.constraints.*;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -61,16 +62,28 @@ public class Book {
     @Min(value = 0, message = "Stock quantity must be non-negative")
     private Integer stockQuantity = 0;
     
+    // Tokens of stock decrements still in flight, see StockUpdates
+    @JsonIgnore
+    private List<String> stockHolds;
+    
+    // Number of stock_shards documents holding this book's stock, null when not sharded.
+    // While sharded, stockQuantity and inStock here are only refreshed on reads and sell-outs.
+    private Integer stockShards;
+    
     private List<String> tags = new ArrayList<>();
     
     private String coverImage;
     
+    // Most recent reviews only (at most RECENT_REVIEWS); the full history is in book_reviews
     private List<Review> reviews = new ArrayList<>();
     
     private Double averageRating = 0.0;
     
     private Integer totalReviews = 0;
     
+    // Running sum of all review ratings; null until the book's reviews are counted this way
+    private Integer ratingSum;
+    
     private Integer totalSales = 0;
     
     private Double totalRevenue = 0.0;
@@ -93,6 +106,8 @@ public class Book {
     @LastModifiedDate
     private LocalDateTime updatedAt;
     
+    public static final int RECENT_REVIEWS = 10;
+    
     // Nested Review class
     public static class Review {
         private String userId;
@@ -236,6 +251,15 @@ public class Book {
     public Integer getTotalReviews() { return totalReviews; }
     public void setTotalReviews(Integer totalReviews) { this.totalReviews = totalReviews; }
     
+    public Integer getRatingSum() { return ratingSum; }
+    public void setRatingSum(Integer ratingSum) { this.ratingSum = ratingSum; }
+    
+    public List<String> getStockHolds() { return stockHolds; }
+    public void setStockHolds(List<String> stockHolds) { this.stockHolds = stockHolds; }
+    
+    public Integer getStockShards() { return stockShards; }
+    public void setStockShards(Integer stockShards) { this.stockShards = stockShards; }
+    
     public Integer getTotalSales() { return totalSales; }
     public void setTotalSales(Integer totalSales) { this.totalSales = totalSales; }
     
@@ -267,17 +291,6 @@ public class Book {
     public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
     
     // Business methods
-    public void updateRating() {
-        if (reviews != null && !reviews.isEmpty()) {
-            double sum = reviews.stream().mapToDouble(Review::getRating).sum();
-            this.averageRating = sum / reviews.size();
-            this.totalReviews = reviews.size();
-        } else {
-            this.averageRating = 0.0;
-            this.totalReviews = 0;
-        }
-    }
-    
     public void incrementSales(Integer quantity, Double revenue) {
         this.totalSales = (this.totalSales != null ? this.totalSales : 0) + quantity;
         this.totalRevenue = (this.totalRevenue != null ? this.totalRevenue : 0.0) + revenue;
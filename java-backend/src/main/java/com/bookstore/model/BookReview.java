@@ -0,0 +1,74 @@
+package com.bookstore.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import jakarta.validation.constraints.*;
+import java.time.LocalDateTime;
+
+/**
+ * One review of a book. The full history lives here, one document per
+ * (book, reviewer); the book itself only embeds its most recent reviews.
+ */
+@Document(collection = "book_reviews")
+@CompoundIndexes({
+    @CompoundIndex(name = "book_user", def = "{'bookId': 1, 'userId': 1}", unique = true),
+    @CompoundIndex(name = "book_date", def = "{'bookId': 1, 'date': -1}")
+})
+public class BookReview {
+    
+    @Id
+    private String id;
+    
+    @NotBlank(message = "Book ID is required")
+    private String bookId;
+    
+    @NotBlank(message = "User ID is required")
+    private String userId;
+    
+    private String userName;
+    
+    @Min(value = 1, message = "Rating must be between 1 and 5")
+    @Max(value = 5, message = "Rating must be between 1 and 5")
+    private Integer rating;
+    
+    private String comment;
+    
+    private LocalDateTime date = LocalDateTime.now();
+    
+    // Constructors
+    public BookReview() {}
+    
+    public BookReview(String bookId, Book.Review review) {
+        this.bookId = bookId;
+        this.userId = review.getUserId();
+        this.userName = review.getUserName();
+        this.rating = review.getRating();
+        this.comment = review.getComment();
+        this.date = review.getDate();
+    }
+    
+    // Getters and setters
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+    
+    public String getBookId() { return bookId; }
+    public void setBookId(String bookId) { this.bookId = bookId; }
+    
+    public String getUserId() { return userId; }
+    public void setUserId(String userId) { this.userId = userId; }
+    
+    public String getUserName() { return userName; }
+    public void setUserName(String userName) { this.userName = userName; }
+    
+    public Integer getRating() { return rating; }
+    public void setRating(Integer rating) { this.rating = rating; }
+    
+    public String getComment() { return comment; }
+    public void setComment(String comment) { this.comment = comment; }
+    
+    public LocalDateTime getDate() { return date; }
+    public void setDate(LocalDateTime date) { this.date = date; }
+}
@@ -79,6 +79,10 @@ public class Order {
     @Min(value = 1, message = "Priority must be at least 1")
     @Max(value = 4, message = "Priority must be at most 4")
     private Integer priority = 1; // Default to lowest priority (Bronze)
+    
+    // Stock reservation this order was placed from, if any
+    @Indexed(sparse = true)
+    private String reservationId;
 
     // Nested classes
     public static class OrderItem {
@@ -372,4 +376,7 @@ public class Order {
     
     public Integer getPriority() { return priority; }
     public void setPriority(Integer priority) { this.priority = priority; }
+    
+    public String getReservationId() { return reservationId; }
+    public void setReservationId(String reservationId) { this.reservationId = reservationId; }
 }
\ No newline at end of file
@@ -0,0 +1,80 @@
+package com.bookstore.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Stock held for a cart until the order is placed or the hold expires.
+ * Items carry the title, author, ISBN and price as they were when the
+ * stock was taken, so the order can be built without reading the books.
+ */
+@Document(collection = "reservations")
+public class Reservation {
+    
+    public static final String HELD = "Held";
+    public static final String CONFIRMED = "Confirmed";
+    public static final String RELEASED = "Released";
+    public static final String EXPIRED = "Expired";
+    
+    @Id
+    private String id;
+    
+    @Indexed
+    private String customerId;
+    
+    private List<Order.OrderItem> items = new ArrayList<>();
+    
+    @Indexed
+    private String status = HELD;
+    
+    private String orderId;
+    
+    private LocalDateTime createdAt;
+    
+    private LocalDateTime expiresAt;
+    
+    private LocalDateTime updatedAt;
+    
+    // Constructors
+    public Reservation() {}
+    
+    public Reservation(String id, String customerId, List<Order.OrderItem> items,
+                       LocalDateTime createdAt, LocalDateTime expiresAt) {
+        this.id = id;
+        this.customerId = customerId;
+        this.items = items;
+        this.createdAt = createdAt;
+        this.expiresAt = expiresAt;
+        this.updatedAt = createdAt;
+    }
+    
+    // Getters and setters
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+    
+    public String getCustomerId() { return customerId; }
+    public void setCustomerId(String customerId) { this.customerId = customerId; }
+    
+    public List<Order.OrderItem> getItems() { return items; }
+    public void setItems(List<Order.OrderItem> items) { this.items = items; }
+    
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+    
+    public String getOrderId() { return orderId; }
+    public void setOrderId(String orderId) { this.orderId = orderId; }
+    
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    
+    public LocalDateTime getExpiresAt() { return expiresAt; }
+    public void setExpiresAt(LocalDateTime expiresAt) { this.expiresAt = expiresAt; }
+    
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
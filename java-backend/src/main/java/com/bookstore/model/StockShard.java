@@ -0,0 +1,52 @@
+package com.bookstore.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * One slice of a hot book's stock. A sharded book keeps its stock spread
+ * over several of these documents so concurrent decrements contend on
+ * different documents instead of all locking the book.
+ */
+@Document(collection = "stock_shards")
+public class StockShard {
+    
+    // bookId + ":" + shard, so a shard is addressed without a lookup
+    @Id
+    private String id;
+    
+    @Indexed
+    private String bookId;
+    
+    private Integer shard;
+    
+    private Integer quantity = 0;
+    
+    // Constructors
+    public StockShard() {}
+    
+    public StockShard(String bookId, int shard, int quantity) {
+        this.id = id(bookId, shard);
+        this.bookId = bookId;
+        this.shard = shard;
+        this.quantity = quantity;
+    }
+    
+    public static String id(String bookId, int shard) {
+        return bookId + ":" + shard;
+    }
+    
+    // Getters and setters
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+    
+    public String getBookId() { return bookId; }
+    public void setBookId(String bookId) { this.bookId = bookId; }
+    
+    public Integer getShard() { return shard; }
+    public void setShard(Integer shard) { this.shard = shard; }
+    
+    public Integer getQuantity() { return quantity; }
+    public void setQuantity(Integer quantity) { this.quantity = quantity; }
+}
@@ -10,7 +10,7 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface BookRepository extends MongoRepository<Book, String> {
+public interface BookRepository extends MongoRepository<Book, String>, BookRepositoryCustom {
     
     // Find book by ISBN
     Optional<Book> findByIsbn(String isbn);
@@ -48,6 +48,9 @@ public interface BookRepository extends MongoRepository<Book, String> {
     // Find books by year range
     List<Book> findByYearBetween(Integer startYear, Integer endYear);
     
+    // Find books by page count range
+    List<Book> findByPagesBetween(Integer minPages, Integer maxPages);
+    
     // Find books by publisher
     @Query("{'publisher': {$regex: ?0, $options: 'i'}}")
     List<Book> findByPublisherContainingIgnoreCase(String publisher);
@@ -69,14 +72,6 @@ public interface BookRepository extends MongoRepository<Book, String> {
     // Find books by condition
     List<Book> findByCondition(String condition);
     
-    // Search books by multiple criteria (title, author, genre, or ISBN)
-    @Query("{ $or: [ {'title': {$regex: ?0, $options: 'i'}}, {'author': {$regex: ?0, $options: 'i'}}, {'genre': {$regex: ?0, $options: 'i'}}, {'isbn': {$regex: ?0, $options: 'i'}} ] }")
-    List<Book> searchBooks(String searchTerm);
-    
-    // Advanced search with pagination (includes ISBN)
-    @Query("{ $or: [ {'title': {$regex: ?0, $options: 'i'}}, {'author': {$regex: ?0, $options: 'i'}}, {'genre': {$regex: ?0, $options: 'i'}}, {'isbn': {$regex: ?0, $options: 'i'}}, {'tags': {$regex: ?0, $options: 'i'}} ] }")
-    Page<Book> searchBooksWithPagination(String searchTerm, Pageable pageable);
-    
     // Find top-rated books
     List<Book> findTop10ByOrderByRatingDesc();
     
@@ -145,33 +140,9 @@ public interface BookRepository extends MongoRepository<Book, String> {
     // Find books by price range with pagination
     Page<Book> findByPriceBetween(Double minPrice, Double maxPrice, Pageable pageable);
     
-    // Get distinct genres
-    @Query(value = "{}", fields = "{'genre': 1}")
-    List<String> findDistinctGenres();
-    
-    // Get distinct authors
-    @Query(value = "{}", fields = "{'author': 1}")
-    List<String> findDistinctAuthors();
-    
-    // Get distinct publishers
-    @Query(value = "{}", fields = "{'publisher': 1}")
-    List<String> findDistinctPublishers();
-    
-    // Get distinct languages
-    @Query(value = "{}", fields = "{'language': 1}")
-    List<String> findDistinctLanguages();
-    
     // Count books out of stock
     long countByInStockFalse();
     
-    // Count books by genre (aggregation)
-    @Query(value = "{}", count = true)
-    List<Object> countBooksByGenre();
-    
-    // Count books by author (aggregation)
-    @Query(value = "{}", count = true)
-    List<Object> countBooksByAuthor();
-    
     // Find best selling books (ordered by totalSales descending)
     @Query(value = "{}", sort = "{ 'totalSales': -1 }")
     List<Book> findBestSellingBooks(Pageable pageable);
@@ -187,6 +158,9 @@ public interface BookRepository extends MongoRepository<Book, String> {
     @Query("{ 'stockQuantity': { $lte: ?0 } }")
     List<Book> findLowStockBooks(int threshold);
     
+    // Find books whose stock is sharded
+    List<Book> findByStockShardsNotNull();
+    
     // Search by title or author (case insensitive)
     @Query("{ $or: [ { 'title': { $regex: ?0, $options: 'i' } }, { 'author': { $regex: ?1, $options: 'i' } } ] }")
     List<Book> findByTitleContainingIgnoreCaseOrAuthorContainingIgnoreCase(String title, String author);
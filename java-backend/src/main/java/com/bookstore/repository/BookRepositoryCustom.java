@@ -0,0 +1,45 @@
+package com.bookstore.repository;
+
+import com.bookstore.model.Book;
+import org.bson.Document;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Book queries that need MongoTemplate rather than derived or @Query methods
+ */
+public interface BookRepositoryCustom {
+    
+    // Full-text search over the weighted text index, best textScore first
+    List<Book> searchByText(String searchTerm);
+    
+    // Full-text search with pagination, best textScore first
+    Page<Book> searchByText(String searchTerm, Pageable pageable);
+    
+    // Query plan of the search a term would run
+    Document explainSearch(String searchTerm);
+    
+    // Distinct non-empty values of a field, sorted
+    List<String> findDistinctValues(String field);
+    
+    // Books per value of a field as {value, count}, most frequent first
+    List<Document> countByField(String field, int limit);
+    
+    // One {_id: {field: value, ...}, ids: [...]} document per distinct combination of the fields
+    List<Document> groupIdsByFields(List<String> fields);
+    
+    // Atomically append a review and bump the rating counters; empty if the book does not exist
+    Optional<Book> appendReview(String bookId, Book.Review review);
+    
+    // $set the non-null catalog fields of details; stock and review fields are never written. Empty if the book does not exist
+    Optional<Book> updateDetails(String bookId, Book details);
+    
+    // Move embedded reviews of books without a ratingSum into book_reviews; returns the updated books
+    List<Book> migrateEmbeddedReviews();
+    
+    // Migrate one book's embedded reviews unless already done; false if the book does not exist
+    boolean migrateEmbeddedReviews(String bookId);
+}
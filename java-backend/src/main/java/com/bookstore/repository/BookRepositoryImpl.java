@@ -0,0 +1,286 @@
+package com.bookstore.repository;
+
+import com.bookstore.model.Book;
+import com.bookstore.model.BookReview;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+import org.springframework.data.mongodb.core.query.TextQuery;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.stream.Stream;
+import java.util.regex.Pattern;
+
+/**
+ * Search queries for {@link BookRepository}.
+ *
+ * Free text goes through $text on the weighted "book_text" index, sorted by
+ * textScore; the unanchored case-insensitive $regex $or it replaces could not
+ * use any index. Terms that look like ISBN fragments (digits, hyphens, X)
+ * carry no words for $text to match, so they use an anchored,
+ * case-sensitive prefix regex instead, which MongoDB answers from the isbn
+ * index as a bounded range scan.
+ *
+ * Facet queries group server-side instead of projecting every document
+ * back to the application.
+ *
+ * Reviews are appended with a single $push/$inc update rather than a
+ * read-modify-save of the whole book, so concurrent reviews cannot
+ * overwrite each other and the cost does not grow with the review count.
+ */
+public class BookRepositoryImpl implements BookRepositoryCustom {
+    
+    public static final String TEXT_INDEX_NAME = "book_text";
+    
+    private static final int DUPLICATE_KEY = 11000;
+    
+    private static final Pattern ISBN_FRAGMENT = Pattern.compile("[0-9Xx-]*[0-9][0-9Xx-]*");
+    
+    @Autowired
+    private MongoTemplate mongoTemplate;
+    
+    /**
+     * Whether a search term should be treated as an ISBN prefix
+     */
+    public static boolean isIsbnFragment(String searchTerm) {
+        return searchTerm != null && ISBN_FRAGMENT.matcher(searchTerm.trim()).matches();
+    }
+    
+    @Override
+    public List<Book> searchByText(String searchTerm) {
+        return mongoTemplate.find(buildSearchQuery(searchTerm), Book.class);
+    }
+    
+    @Override
+    public Page<Book> searchByText(String searchTerm, Pageable pageable) {
+        Query query = buildSearchQuery(searchTerm).with(pageable);
+        List<Book> books = mongoTemplate.find(query, Book.class);
+        return PageableExecutionUtils.getPage(books, pageable,
+            () -> mongoTemplate.count(Query.of(query).limit(-1).skip(-1), Book.class));
+    }
+    
+    @Override
+    public Document explainSearch(String searchTerm) {
+        Query query = buildSearchQuery(searchTerm);
+        return mongoTemplate.getCollection(mongoTemplate.getCollectionName(Book.class))
+            .find(query.getQueryObject())
+            .projection(query.getFieldsObject())
+            .sort(query.getSortObject())
+            .explain();
+    }
+    
+    @Override
+    public List<String> findDistinctValues(String field) {
+        List<String> values = mongoTemplate.findDistinct(
+            new Query(Criteria.where(field).nin(null, "")), field, Book.class, String.class);
+        Collections.sort(values);
+        return values;
+    }
+    
+    @Override
+    public List<Document> countByField(String field, int limit) {
+        Aggregation aggregation = Aggregation.newAggregation(
+            Aggregation.match(Criteria.where(field).nin(null, "")),
+            Aggregation.group(field).count().as("count"),
+            Aggregation.sort(Sort.by(Sort.Direction.DESC, "count").and(Sort.by("_id"))),
+            Aggregation.limit(limit),
+            Aggregation.project("count").and("_id").as("value").andExclude("_id"));
+        return mongoTemplate.aggregate(aggregation, Book.class, Document.class).getMappedResults();
+    }
+    
+    @Override
+    public List<Document> groupIdsByFields(List<String> fields) {
+        Aggregation aggregation = Aggregation.newAggregation(
+            Aggregation.group(fields.toArray(new String[0])).push("_id").as("ids"))
+            .withOptions(AggregationOptions.builder().allowDiskUse(true).build());
+        return mongoTemplate.aggregate(aggregation, Book.class, Document.class).getMappedResults();
+    }
+    
+    /**
+     * Partial update instead of findById + save: only the supplied fields are
+     * $set, so concurrent $push/$inc writes to reviews, ratingSum,
+     * totalReviews and averageRating are never overwritten from a stale read.
+     * Stock is not a detail: it goes through {@link StockUpdates#set}.
+     */
+    @Override
+    public Optional<Book> updateDetails(String bookId, Book details) {
+        Update update = new Update().set("updatedAt", LocalDateTime.now());
+        setIfPresent(update, "title", details.getTitle());
+        setIfPresent(update, "author", details.getAuthor());
+        setIfPresent(update, "isbn", details.getIsbn());
+        setIfPresent(update, "genre", details.getGenre());
+        setIfPresent(update, "price", details.getPrice());
+        setIfPresent(update, "description", details.getDescription());
+        setIfPresent(update, "year", details.getYear());
+        setIfPresent(update, "publisher", details.getPublisher());
+        setIfPresent(update, "pages", details.getPages());
+        setIfPresent(update, "language", details.getLanguage());
+        setIfPresent(update, "tags", details.getTags());
+        setIfPresent(update, "coverImage", details.getCoverImage());
+        setIfPresent(update, "format", details.getFormat());
+        setIfPresent(update, "condition", details.getCondition());
+        setIfPresent(update, "weight", details.getWeight());
+        setIfPresent(update, "dimensions", details.getDimensions());
+        
+        return Optional.ofNullable(mongoTemplate.findAndModify(Query.query(Criteria.where("id").is(bookId)),
+            update, FindAndModifyOptions.options().returnNew(true), Book.class));
+    }
+    
+    private static void setIfPresent(Update update, String field, Object value) {
+        if (value != null) {
+            update.set(field, value);
+        }
+    }
+    
+    /**
+     * $push the review onto the embedded recent list (trimmed to the last
+     * RECENT_REVIEWS) and $inc ratingSum and totalReviews in one update.
+     * averageRating is then derived from the returned sums with a second
+     * update that only applies while totalReviews is unchanged; if another
+     * review got in between, its own follow-up writes the newer average.
+     * A book whose reviews predate ratingSum is migrated first, so the
+     * running sum starts from its existing reviews rather than zero.
+     */
+    @Override
+    public Optional<Book> appendReview(String bookId, Book.Review review) {
+        Update append = new Update()
+            .push("reviews").slice(-Book.RECENT_REVIEWS).each(review)
+            .inc("ratingSum", review.getRating())
+            .inc("totalReviews", 1)
+            .set("updatedAt", LocalDateTime.now());
+        Query counted = Query.query(Criteria.where("id").is(bookId).and("ratingSum").exists(true));
+        FindAndModifyOptions returnNew = FindAndModifyOptions.options().returnNew(true);
+        
+        Book book = mongoTemplate.findAndModify(counted, append, returnNew, Book.class);
+        if (book == null) {
+            Book unmigrated = mongoTemplate.findOne(
+                Query.query(Criteria.where("id").is(bookId).and("ratingSum").exists(false)), Book.class);
+            if (unmigrated == null) {
+                return Optional.empty();
+            }
+            migrate(unmigrated);
+            book = mongoTemplate.findAndModify(counted, append, returnNew, Book.class);
+            if (book == null) {
+                return Optional.empty();
+            }
+        }
+        
+        double average = (double) book.getRatingSum() / book.getTotalReviews();
+        mongoTemplate.updateFirst(
+            Query.query(Criteria.where("id").is(bookId).and("totalReviews").is(book.getTotalReviews())),
+            Update.update("averageRating", average), Book.class);
+        book.setAverageRating(average);
+        return Optional.of(book);
+    }
+    
+    @Override
+    public List<Book> migrateEmbeddedReviews() {
+        List<Book> migrated = new ArrayList<>();
+        Query unmigrated = Query.query(Criteria.where("ratingSum").exists(false));
+        try (Stream<Book> books = mongoTemplate.stream(unmigrated, Book.class)) {
+            books.forEach(book -> {
+                migrate(book);
+                migrated.add(book);
+            });
+        }
+        return migrated;
+    }
+    
+    @Override
+    public boolean migrateEmbeddedReviews(String bookId) {
+        Query book = Query.query(Criteria.where("id").is(bookId));
+        book.fields().include("ratingSum").include("reviews");
+        Book found = mongoTemplate.findOne(book, Book.class);
+        if (found == null) {
+            return false;
+        }
+        if (found.getRatingSum() == null) {
+            migrate(found);
+        }
+        return true;
+    }
+    
+    /**
+     * Copy a book's embedded reviews into book_reviews, set its running sums
+     * and trim the embedded list to the most recent reviews
+     */
+    private void migrate(Book book) {
+        List<Book.Review> reviews = new ArrayList<>(book.getReviews() != null ? book.getReviews() : List.of());
+        reviews.removeIf(review -> review.getUserId() == null || review.getRating() == null);
+        if (!reviews.isEmpty()) {
+            BulkOperations inserts = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, BookReview.class);
+            for (Book.Review review : reviews) {
+                inserts.insert(new BookReview(book.getId(), review));
+            }
+            try {
+                inserts.execute();
+            } catch (BulkOperationException e) {
+                // Duplicates were copied by an earlier, interrupted run; anything else is a real failure
+                if (e.getErrors().stream().anyMatch(error -> error.getCode() != DUPLICATE_KEY)) {
+                    throw e;
+                }
+            }
+        }
+        
+        int sum = reviews.stream().mapToInt(Book.Review::getRating).sum();
+        reviews.sort(Comparator.comparing(Book.Review::getDate, Comparator.nullsFirst(Comparator.naturalOrder())));
+        List<Book.Review> recent = new ArrayList<>(
+            reviews.subList(Math.max(0, reviews.size() - Book.RECENT_REVIEWS), reviews.size()));
+        double average = reviews.isEmpty() ? 0.0 : (double) sum / reviews.size();
+        
+        // Only while still unmigrated, so a concurrent migration is not applied twice
+        mongoTemplate.updateFirst(
+            Query.query(Criteria.where("id").is(book.getId()).and("ratingSum").exists(false)),
+            new Update()
+                .set("ratingSum", sum)
+                .set("totalReviews", reviews.size())
+                .set("averageRating", average)
+                .set("reviews", recent),
+            Book.class);
+        book.setRatingSum(sum);
+        book.setTotalReviews(reviews.size());
+        book.setAverageRating(average);
+        book.setReviews(recent);
+    }
+    
+    private Query buildSearchQuery(String searchTerm) {
+        if (isIsbnFragment(searchTerm)) {
+            return isbnPrefixQuery(searchTerm);
+        }
+        return TextQuery.queryText(TextCriteria.forDefaultLanguage().matching(searchTerm))
+            .sortByScore();
+    }
+    
+    /**
+     * Anchored prefix on the stored ISBN. The fragment only contains digits,
+     * hyphens and X, none of which need escaping, so the pattern stays a
+     * plain prefix that the planner can turn into index bounds.
+     */
+    private Query isbnPrefixQuery(String prefix) {
+        String fragment = prefix.trim().toUpperCase(Locale.ROOT);
+        if (!isIsbnFragment(fragment)) {
+            throw new IllegalArgumentException("Not an ISBN fragment: " + prefix);
+        }
+        return new Query(Criteria.where("isbn").regex("^" + fragment))
+            .with(Sort.by("isbn"));
+    }
+}
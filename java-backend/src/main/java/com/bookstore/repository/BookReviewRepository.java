@@ -0,0 +1,17 @@
+package com.bookstore.repository;
+
+import com.bookstore.model.BookReview;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface BookReviewRepository extends MongoRepository<BookReview, String> {
+    
+    // Reviews of a book, newest first (served by the bookId + date index)
+    Page<BookReview> findByBookIdOrderByDateDesc(String bookId, Pageable pageable);
+    
+    // Remove a book's reviews
+    void deleteByBookId(String bookId);
+}
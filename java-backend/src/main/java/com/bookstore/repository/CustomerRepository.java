@@ -15,6 +15,10 @@ public interface CustomerRepository extends MongoRepository<Customer, String> {
     // Find customer by email
     Optional<Customer> findByEmail(String email);
     
+    // Load only the membership level, for order priority
+    @Query(value = "{ '_id': ?0 }", fields = "{ 'membershipLevel': 1 }")
+    Optional<Customer> findMembershipLevelById(String id);
+    
     // Check if email exists
     boolean existsByEmail(String email);
     
@@ -0,0 +1,173 @@
+package com.bookstore.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mapping.PersistentPropertyAccessor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Sparse fieldsets for list endpoints.
+ *
+ * A fieldset is a set of entity property names. It is pushed down to MongoDB
+ * as a field projection, so unselected fields are neither sent over the wire
+ * nor decoded, and each row is then rendered as a map holding only those
+ * properties, so Jackson skips the defaults the entity fills in for
+ * unloaded fields. A null fieldset means whole documents.
+ */
+@Component
+public class FieldProjection {
+    
+    public static final String ALL_FIELDS = "all";
+    
+    // Never exposed through a fieldset, whatever the caller asks for
+    private static final Set<String> HIDDEN = Set.of("password", "stockHolds");
+    
+    @Autowired
+    private MongoTemplate mongoTemplate;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    /**
+     * Parse a fields= parameter
+     * @param type Mapped entity class
+     * @param fields Comma-separated property names, "all", or null/blank for the defaults
+     * @param defaults Fieldset used when none is given
+     * @return Property names including the id, or null for whole documents
+     */
+    public Set<String> resolve(Class<?> type, String fields, Collection<String> defaults) {
+        if (fields != null && fields.trim().equalsIgnoreCase(ALL_FIELDS)) {
+            return null;
+        }
+        MongoPersistentEntity<?> entity = mongoTemplate.getConverter().getMappingContext().getRequiredPersistentEntity(type);
+        Set<String> resolved = new LinkedHashSet<>();
+        resolved.add(entity.getRequiredIdProperty().getName());
+        Collection<String> names = fields == null || fields.isBlank() ? defaults : List.of(fields.split(","));
+        for (String name : names) {
+            String property = name.trim();
+            if (property.isEmpty()) {
+                continue;
+            }
+            if (entity.getPersistentProperty(property) == null || HIDDEN.contains(property)) {
+                throw new IllegalArgumentException("Unknown field: " + property);
+            }
+            resolved.add(property);
+        }
+        return resolved;
+    }
+    
+    /**
+     * Restrict a query to a fieldset
+     * @param query Query to modify
+     * @param fields Property names, or null to leave the query unchanged
+     * @return The same query
+     */
+    public Query apply(Query query, Set<String> fields) {
+        if (fields != null) {
+            query.fields().include(fields.toArray(new String[0]));
+        }
+        return query;
+    }
+    
+    /**
+     * Offset page of projected entities
+     */
+    public <T> Page<T> findPage(Class<T> type, Pageable pageable, Set<String> fields) {
+        Query query = apply(new Query().with(pageable), fields);
+        List<T> rows = mongoTemplate.find(query, type);
+        return PageableExecutionUtils.getPage(rows, pageable,
+            () -> mongoTemplate.count(new Query(), type));
+    }
+    
+    /**
+     * Every document of a collection, projected
+     */
+    public <T> List<T> findAll(Class<T> type, Set<String> fields) {
+        return mongoTemplate.find(apply(new Query(), fields), type);
+    }
+    
+    /**
+     * Render rows for a response
+     * Time Complexity: O(rows * fields)
+     * @param type Mapped entity class
+     * @param rows Entities, loaded whole or projected
+     * @param fields Property names, or null to return the entities unchanged
+     * @return One map per row with only the selected properties, or the rows
+     */
+    public <T> List<?> toView(Class<T> type, List<T> rows, Set<String> fields) {
+        if (fields == null) {
+            return rows;
+        }
+        MongoPersistentEntity<?> entity = mongoTemplate.getConverter().getMappingContext().getRequiredPersistentEntity(type);
+        List<MongoPersistentProperty> properties = new ArrayList<>(fields.size());
+        for (String field : fields) {
+            properties.add(entity.getRequiredPersistentProperty(field));
+        }
+        List<Map<String, Object>> views = new ArrayList<>(rows.size());
+        for (T row : rows) {
+            PersistentPropertyAccessor<T> accessor = entity.getPropertyAccessor(row);
+            Map<String, Object> view = new LinkedHashMap<>();
+            for (MongoPersistentProperty property : properties) {
+                view.put(property.getName(), accessor.getProperty(property));
+            }
+            views.add(view);
+        }
+        return views;
+    }
+    
+    /**
+     * Compare fetching and encoding one page whole against the projected fieldset
+     * @param type Mapped entity class
+     * @param fields Fieldset to compare against whole documents
+     * @param size Rows to fetch
+     * @return JSON bytes and fetch/encode milliseconds for both, plus the byte reduction
+     */
+    public <T> Map<String, Object> measure(Class<T> type, Set<String> fields, int size) throws Exception {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Size must be positive");
+        }
+        Map<String, Object> full = measureOnce(type, null, size);
+        Map<String, Object> projected = measureOnce(type, fields, size);
+        
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("collection", mongoTemplate.getCollectionName(type));
+        result.put("rows", full.get("rows"));
+        result.put("fields", fields != null ? fields : ALL_FIELDS);
+        result.put("full", full);
+        result.put("projected", projected);
+        long fullBytes = (long) full.get("jsonBytes");
+        long projectedBytes = (long) projected.get("jsonBytes");
+        result.put("byteReduction", fullBytes > 0 ? 1.0 - (double) projectedBytes / fullBytes : 0.0);
+        return result;
+    }
+    
+    private <T> Map<String, Object> measureOnce(Class<T> type, Set<String> fields, int size) throws Exception {
+        long start = System.nanoTime();
+        List<T> rows = mongoTemplate.find(apply(new Query().limit(size), fields), type);
+        long fetched = System.nanoTime();
+        byte[] json = objectMapper.writeValueAsBytes(toView(type, rows, fields));
+        long encoded = System.nanoTime();
+        
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("rows", rows.size());
+        metrics.put("jsonBytes", (long) json.length);
+        metrics.put("fetchMs", (fetched - start) / 1_000_000.0);
+        metrics.put("encodeMs", (encoded - fetched) / 1_000_000.0);
+        return metrics;
+    }
+}
@@ -0,0 +1,171 @@
+package com.bookstore.repository;
+
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mapping.PersistentPropertyAccessor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Keyset (cursor) pagination for any mapped collection.
+ *
+ * Pages are ordered by (sort field, _id) and each page is fetched with a
+ * range predicate that starts right after the last row of the previous
+ * page, so the server walks an index from the cursor position instead of
+ * skipping over every earlier document. The continuation token is opaque
+ * to clients: base64url of the last row's sort value and id (as extended
+ * JSON, which keeps dates and numbers typed) together with the sort it was
+ * issued for. Page size + 1 rows are read to know whether a next page
+ * exists, so no count query is needed; an estimated total from collection
+ * metadata is available on request.
+ *
+ * Missing and null sort values order before everything else ascending and
+ * after everything else descending, matching MongoDB's sort order.
+ *
+ * Time Complexity: O(log n + size) per page with an index on (sort field, _id)
+ */
+@Component
+public class KeysetPagination {
+    
+    @Autowired
+    private MongoTemplate mongoTemplate;
+    
+    /**
+     * Fetch the page that follows a cursor
+     * @param type Mapped entity class
+     * @param sortBy Entity property to order by
+     * @param direction Sort direction, applied to the _id tie-break as well
+     * @param cursor Token from the previous page, or null/blank for the first page
+     * @param size Page size
+     * @param estimateTotal Whether to include the estimated collection size
+     * @param fields Properties to load, or null for whole documents; the sort field is always loaded
+     * @return Page content and the cursor of the next page
+     */
+    public <T> CursorPage<T> findPage(Class<T> type, String sortBy, Sort.Direction direction,
+                                      String cursor, int size, boolean estimateTotal, Set<String> fields) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Page size must be positive");
+        }
+        MongoConverter converter = mongoTemplate.getConverter();
+        MongoPersistentEntity<?> entity = converter.getMappingContext().getRequiredPersistentEntity(type);
+        MongoPersistentProperty idProperty = entity.getRequiredIdProperty();
+        MongoPersistentProperty sortProperty = entity.getPersistentProperty(sortBy);
+        if (sortProperty == null) {
+            throw new IllegalArgumentException("Unknown sort field: " + sortBy);
+        }
+        boolean sortById = sortProperty.isIdProperty();
+        boolean ascending = direction.isAscending();
+        
+        Query query = new Query();
+        if (cursor != null && !cursor.isBlank()) {
+            Document position = decode(cursor);
+            if (!sortBy.equals(position.getString("s")) || ascending != position.getBoolean("a")) {
+                throw new IllegalArgumentException("Cursor was issued for a different sort");
+            }
+            query.addCriteria(sortById
+                ? after(idProperty.getName(), position.get("id"), ascending)
+                : after(sortBy, position.get("v"), idProperty.getName(), position.get("id"), ascending));
+        }
+        Sort sort = sortById
+            ? Sort.by(direction, idProperty.getName())
+            : Sort.by(direction, sortBy).and(Sort.by(direction, idProperty.getName()));
+        query.with(sort).limit(size + 1);
+        if (fields != null) {
+            query.fields().include(fields.toArray(new String[0])).include(sortBy);
+        }
+        
+        List<T> rows = mongoTemplate.find(query, type);
+        boolean hasNext = rows.size() > size;
+        List<T> content = hasNext ? new ArrayList<>(rows.subList(0, size)) : rows;
+        
+        String nextCursor = null;
+        if (hasNext) {
+            PersistentPropertyAccessor<T> accessor = entity.getPropertyAccessor(content.get(size - 1));
+            // Stored types (ObjectId, Date), since range operators on _id are not id-converted by the query mapper
+            Document position = new Document("s", sortBy)
+                .append("a", ascending)
+                .append("id", converter.convertId(accessor.getProperty(idProperty), idProperty.getFieldType()));
+            if (!sortById) {
+                position.append("v", converter.convertToMongoType(accessor.getProperty(sortProperty)));
+            }
+            nextCursor = encode(position);
+        }
+        Long estimatedTotal = estimateTotal ? mongoTemplate.estimatedCount(type) : null;
+        return new CursorPage<>(content, nextCursor, estimatedTotal);
+    }
+    
+    /**
+     * Rows strictly after (value, id) in (field, _id) order
+     */
+    private static Criteria after(String field, Object value, String idField, Object id, boolean ascending) {
+        if (value == null) {
+            return ascending
+                ? new Criteria().orOperator(
+                    Criteria.where(field).is(null).and(idField).gt(id),
+                    Criteria.where(field).ne(null))
+                : Criteria.where(field).is(null).and(idField).lt(id);
+        }
+        return ascending
+            ? new Criteria().orOperator(
+                Criteria.where(field).gt(value),
+                Criteria.where(field).is(value).and(idField).gt(id))
+            : new Criteria().orOperator(
+                Criteria.where(field).lt(value),
+                Criteria.where(field).is(value).and(idField).lt(id),
+                Criteria.where(field).is(null));
+    }
+    
+    private static Criteria after(String idField, Object id, boolean ascending) {
+        return ascending ? Criteria.where(idField).gt(id) : Criteria.where(idField).lt(id);
+    }
+    
+    private static String encode(Document position) {
+        return Base64.getUrlEncoder().withoutPadding()
+            .encodeToString(position.toJson().getBytes(StandardCharsets.UTF_8));
+    }
+    
+    private static Document decode(String cursor) {
+        try {
+            Document position = Document.parse(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+            if (!position.containsKey("s") || !position.containsKey("a") || !position.containsKey("id")) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return position;
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+    
+    /**
+     * One page of a keyset scan
+     */
+    public static class CursorPage<T> {
+        private final List<T> content;
+        private final String nextCursor;
+        private final Long estimatedTotal;
+        
+        public CursorPage(List<T> content, String nextCursor, Long estimatedTotal) {
+            this.content = content;
+            this.nextCursor = nextCursor;
+            this.estimatedTotal = estimatedTotal;
+        }
+        
+        // Getters
+        public List<T> getContent() { return content; }
+        public String getNextCursor() { return nextCursor; }
+        public boolean hasNext() { return nextCursor != null; }
+        public Long getEstimatedTotal() { return estimatedTotal; }
+    }
+}
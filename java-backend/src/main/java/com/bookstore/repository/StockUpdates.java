@@ -0,0 +1,463 @@
+package com.bookstore.repository;
+
+import com.bookstore.model.Book;
+import com.bookstore.model.StockShard;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Atomic stock changes for books.
+ *
+ * Every change is a single server-side update instead of a findById/save
+ * round trip, so concurrent checkouts cannot overwrite each other's
+ * decrements. Taking stock for an order sends one conditional $inc per book
+ * (matching only while stockQuantity >= quantity) in a single unordered bulk
+ * write. Each decrement also pushes a per-call hold token onto the book, so
+ * when some books fall short the decrements that did apply can be found and
+ * reverted exactly; once the outcome is settled the token is pulled again.
+ *
+ * Round trips per order: 2 for any number of books (bulk decrement, then
+ * token cleanup), 3 when stock is short (plus the read that finds the
+ * applied holds).
+ *
+ * Hot books can be switched to sharded inventory: their stock is split over
+ * N {@link StockShard} documents and each decrement goes to a random shard,
+ * moving on to the next when that one cannot cover the quantity, so
+ * concurrent checkouts spread over N documents instead of queueing on one.
+ * The book's own stockQuantity and inStock are then derived from the shards
+ * when read (see {@link #deriveStock}) and only written back when the book
+ * sells out or is restocked.
+ *
+ * Whether a book is sharded, and into how many shards, is read from its
+ * stockShards field on every call rather than remembered in memory, so all
+ * application instances agree. Plain decrements only match books without
+ * stockShards; a sharded book therefore shows up among the misses of the
+ * bulk write and is taken from its shards after the read that classifies
+ * the misses, costing one extra round trip per order that contains one.
+ */
+@Component
+public class StockUpdates {
+    
+    public static final int MAX_SHARDS = 64;
+    
+    private static final String STOCK = "stockQuantity";
+    private static final String IN_STOCK = "inStock";
+    private static final String HOLDS = "stockHolds";
+    private static final String SHARDS = "stockShards";
+    
+    @Autowired
+    private MongoTemplate mongoTemplate;
+    
+    /**
+     * Decrement stock for several books, all or nothing
+     * @param quantities Book id to quantity to take, every quantity positive
+     * @return Book id to available stock for each book that fell short (0 if missing);
+     *         empty if every decrement was applied
+     */
+    public Map<String, Integer> take(Map<String, Integer> quantities) {
+        return take(quantities, mongoTemplate.getCollectionName(Book.class));
+    }
+    
+    /**
+     * Same as {@link #take(Map)} against another collection of book documents,
+     * which is never sharded
+     */
+    public Map<String, Integer> take(Map<String, Integer> quantities, String collection) {
+        validate(quantities);
+        if (quantities.isEmpty()) {
+            return Map.of();
+        }
+        String hold = UUID.randomUUID().toString();
+        LocalDateTime now = LocalDateTime.now();
+        
+        BulkOperations decrements = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Book.class, collection);
+        for (Map.Entry<String, Integer> entry : quantities.entrySet()) {
+            // Sharded books keep their stock in the shards; never decrement the book itself
+            decrements.updateOne(
+                Query.query(Criteria.where("id").is(entry.getKey()).and(STOCK).gte(entry.getValue()).and(SHARDS).is(null)),
+                new Update().inc(STOCK, -entry.getValue()).push(HOLDS, hold).set("updatedAt", now));
+        }
+        int applied = decrements.execute().getMatchedCount();
+        if (applied == quantities.size()) {
+            settle(quantities.keySet(), hold, collection);
+            return Map.of();
+        }
+        
+        // Find out which decrements applied; each miss is either short of stock or sharded
+        boolean catalog = collection.equals(mongoTemplate.getCollectionName(Book.class));
+        Query affected = Query.query(Criteria.where("id").in(quantities.keySet()));
+        affected.fields().include(STOCK).include(HOLDS).include(SHARDS);
+        Set<String> held = new HashSet<>();
+        Map<String, Integer> shardCounts = new LinkedHashMap<>();
+        Map<String, Integer> available = new LinkedHashMap<>();
+        for (Book book : mongoTemplate.find(affected, Book.class, collection)) {
+            List<String> holds = book.getStockHolds();
+            if (holds != null && holds.contains(hold)) {
+                held.add(book.getId());
+            } else if (catalog && book.getStockShards() != null) {
+                shardCounts.put(book.getId(), book.getStockShards());
+            } else {
+                available.put(book.getId(), book.getStockQuantity() != null ? book.getStockQuantity() : 0);
+            }
+        }
+        Map<String, Integer> shortfalls = new LinkedHashMap<>();
+        for (String id : quantities.keySet()) {
+            if (!held.contains(id) && !shardCounts.containsKey(id)) {
+                shortfalls.put(id, available.getOrDefault(id, 0));
+            }
+        }
+        
+        if (shortfalls.isEmpty()) {
+            String shardCollection = mongoTemplate.getCollectionName(StockShard.class);
+            Map<String, Integer> takenFromShards = new LinkedHashMap<>();
+            for (Map.Entry<String, Integer> entry : shardCounts.entrySet()) {
+                String bookId = entry.getKey();
+                if (!takeFromShards(bookId, quantities.get(bookId), entry.getValue(), shardCollection)) {
+                    int stock = shardedStock(List.of(bookId)).getOrDefault(bookId, 0);
+                    if (stock == 0) {
+                        mongoTemplate.updateFirst(
+                            Query.query(Criteria.where("id").is(bookId).and(IN_STOCK).is(true)),
+                            Update.update(IN_STOCK, false).set(STOCK, 0), Book.class);
+                    }
+                    shortfalls.put(bookId, stock);
+                    break;
+                }
+                takenFromShards.put(bookId, quantities.get(bookId));
+            }
+            if (shortfalls.isEmpty()) {
+                settle(held, hold, collection);
+                return shortfalls;
+            }
+            releaseToShards(takenFromShards, shardCounts);
+        }
+        
+        // Put back the decrements that did apply
+        BulkOperations compensation = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Book.class, collection);
+        for (String id : held) {
+            compensation.updateOne(
+                Query.query(Criteria.where("id").is(id).and(HOLDS).is(hold)),
+                new Update().inc(STOCK, quantities.get(id)).pull(HOLDS, hold).set(IN_STOCK, true));
+        }
+        if (!held.isEmpty()) {
+            compensation.execute();
+        }
+        return shortfalls;
+    }
+    
+    /**
+     * Drop the hold token and flag books that ran out
+     */
+    private void settle(Collection<String> bookIds, String hold, String collection) {
+        if (bookIds.isEmpty()) {
+            return;
+        }
+        BulkOperations settle = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Book.class, collection);
+        settle.updateMulti(
+            Query.query(Criteria.where("id").in(bookIds).and(HOLDS).is(hold)),
+            new Update().pull(HOLDS, hold));
+        settle.updateMulti(
+            Query.query(Criteria.where("id").in(bookIds).and(STOCK).lte(0).and(IN_STOCK).is(true)),
+            Update.update(IN_STOCK, false));
+        settle.execute();
+    }
+    
+    /**
+     * Take stock from a sharded book: a conditional $inc on a random shard,
+     * then on each following shard in turn. When no single shard can cover
+     * the quantity it is gathered from several and given back if the
+     * shards together still fall short.
+     * Time Complexity: O(1) round trips while the chosen shard has stock, O(shards) otherwise
+     * @param bookId Book id
+     * @param quantity Quantity to take, positive
+     * @param shards Number of shards of the book
+     * @param collection Collection holding the shard documents
+     * @return true if the whole quantity was taken
+     */
+    public boolean takeFromShards(String bookId, int quantity, int shards, String collection) {
+        int start = ThreadLocalRandom.current().nextInt(shards);
+        for (int i = 0; i < shards; i++) {
+            String id = StockShard.id(bookId, (start + i) % shards);
+            UpdateResult result = mongoTemplate.updateFirst(
+                Query.query(Criteria.where("id").is(id).and("quantity").gte(quantity)),
+                new Update().inc("quantity", -quantity), StockShard.class, collection);
+            if (result.getMatchedCount() > 0) {
+                return true;
+            }
+        }
+        
+        Map<String, Integer> taken = new LinkedHashMap<>();
+        int remaining = quantity;
+        for (int i = 0; i < shards && remaining > 0; i++) {
+            String id = StockShard.id(bookId, (start + i) % shards);
+            StockShard shard = mongoTemplate.findById(id, StockShard.class, collection);
+            if (shard == null || shard.getQuantity() <= 0) {
+                continue;
+            }
+            int amount = Math.min(shard.getQuantity(), remaining);
+            UpdateResult result = mongoTemplate.updateFirst(
+                Query.query(Criteria.where("id").is(id).and("quantity").gte(amount)),
+                new Update().inc("quantity", -amount), StockShard.class, collection);
+            if (result.getMatchedCount() > 0) {
+                taken.put(id, amount);
+                remaining -= amount;
+            }
+        }
+        if (remaining > 0) {
+            for (Map.Entry<String, Integer> entry : taken.entrySet()) {
+                mongoTemplate.updateFirst(Query.query(Criteria.where("id").is(entry.getKey())),
+                    new Update().inc("quantity", entry.getValue()), StockShard.class, collection);
+            }
+            return false;
+        }
+        return true;
+    }
+    
+    /**
+     * Increment stock for several books, e.g. when an order is cancelled
+     * @param quantities Book id to quantity to put back, every quantity positive
+     */
+    public void release(Map<String, Integer> quantities) {
+        release(quantities, mongoTemplate.getCollectionName(Book.class));
+    }
+    
+    /**
+     * Same as {@link #release(Map)} against another collection of book documents,
+     * which is never sharded
+     */
+    public void release(Map<String, Integer> quantities, String collection) {
+        validate(quantities);
+        if (quantities.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        BulkOperations increments = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Book.class, collection);
+        for (Map.Entry<String, Integer> entry : quantities.entrySet()) {
+            increments.updateOne(
+                Query.query(Criteria.where("id").is(entry.getKey()).and(SHARDS).is(null)),
+                new Update().inc(STOCK, entry.getValue()).set(IN_STOCK, true).set("updatedAt", now));
+        }
+        int applied = increments.execute().getMatchedCount();
+        if (applied == quantities.size() || !collection.equals(mongoTemplate.getCollectionName(Book.class))) {
+            return;
+        }
+        
+        // The misses are sharded (or deleted) books
+        Query sharded = Query.query(Criteria.where("id").in(quantities.keySet()).and(SHARDS).ne(null));
+        sharded.fields().include(SHARDS);
+        Map<String, Integer> shardCounts = new LinkedHashMap<>();
+        Map<String, Integer> toShards = new LinkedHashMap<>();
+        for (Book book : mongoTemplate.find(sharded, Book.class)) {
+            shardCounts.put(book.getId(), book.getStockShards());
+            toShards.put(book.getId(), quantities.get(book.getId()));
+        }
+        releaseToShards(toShards, shardCounts);
+    }
+    
+    /**
+     * Put stock back on a random shard of each book; when that shard is gone
+     * (the book is being unsharded or resharded) it goes onto the book itself,
+     * where shard() sweeps it into the new shards and unshard() keeps it
+     */
+    private void releaseToShards(Map<String, Integer> quantities, Map<String, Integer> shardCounts) {
+        for (Map.Entry<String, Integer> entry : quantities.entrySet()) {
+            Integer shards = shardCounts.get(entry.getKey());
+            UpdateResult result = shards == null ? null : mongoTemplate.updateFirst(
+                Query.query(Criteria.where("id").is(StockShard.id(entry.getKey(), ThreadLocalRandom.current().nextInt(shards)))),
+                new Update().inc("quantity", entry.getValue()), StockShard.class);
+            if (result != null && result.getMatchedCount() > 0) {
+                mongoTemplate.updateFirst(
+                    Query.query(Criteria.where("id").is(entry.getKey()).and(IN_STOCK).is(false)),
+                    Update.update(IN_STOCK, true), Book.class);
+            } else {
+                mongoTemplate.updateFirst(Query.query(Criteria.where("id").is(entry.getKey())),
+                    new Update().inc(STOCK, entry.getValue()).set(IN_STOCK, true), Book.class);
+            }
+        }
+    }
+    
+    /**
+     * Overwrite a book's stock level; a sharded book's stock is spread evenly over its shards
+     * @param bookId Book id
+     * @param quantity New stock quantity, non-negative
+     * @return The updated book, or empty if it does not exist
+     */
+    public Optional<Book> set(String bookId, int quantity) {
+        if (quantity < 0) {
+            throw new IllegalArgumentException("Stock quantity must be non-negative");
+        }
+        Update update = new Update()
+            .set(STOCK, quantity)
+            .set(IN_STOCK, quantity > 0)
+            .set("updatedAt", LocalDateTime.now());
+        Book book = mongoTemplate.findAndModify(
+            Query.query(Criteria.where("id").is(bookId)), update,
+            FindAndModifyOptions.options().returnNew(true), Book.class);
+        if (book != null && book.getStockShards() != null) {
+            writeShards(bookId, quantity, book.getStockShards());
+        }
+        return Optional.ofNullable(book);
+    }
+    
+    /**
+     * Switch a book to sharded inventory, or change its shard count.
+     * While the switch is in progress (a few round trips) orders for the book are rejected.
+     * Releases that find no shard meanwhile land on the book's stockQuantity,
+     * which is zeroed together with setting the flag and swept into a shard
+     * once the new shards exist, so no released stock is lost.
+     * @param bookId Book id
+     * @param shards Number of shards, 1 to MAX_SHARDS
+     * @return The book with its current stock, or empty if it does not exist
+     */
+    public Optional<Book> shard(String bookId, int shards) {
+        if (shards < 1 || shards > MAX_SHARDS) {
+            throw new IllegalArgumentException("Shard count must be between 1 and " + MAX_SHARDS);
+        }
+        // Set the flag first: from then on plain decrements no longer match the book
+        Book previous = mongoTemplate.findAndModify(Query.query(Criteria.where("id").is(bookId)),
+            Update.update(SHARDS, shards).set(STOCK, 0), Book.class);
+        if (previous == null) {
+            return Optional.empty();
+        }
+        // A sharded book's own copy is stale; its stock is in the shards
+        int stock = previous.getStockShards() != null
+            ? collectShards(bookId)
+            : previous.getStockQuantity() != null ? previous.getStockQuantity() : 0;
+        writeShards(bookId, stock, shards);
+        
+        // Sweep releases that fell back onto the book while no shard existed
+        Book swept = mongoTemplate.findAndModify(Query.query(Criteria.where("id").is(bookId).and(STOCK).gt(0)),
+            Update.update(STOCK, 0), Book.class);
+        if (swept != null) {
+            mongoTemplate.updateFirst(Query.query(Criteria.where("id").is(StockShard.id(bookId, 0))),
+                new Update().inc("quantity", swept.getStockQuantity()), StockShard.class);
+        }
+        return findWithDerivedStock(bookId);
+    }
+    
+    /**
+     * Move a sharded book's stock back onto the book document. The book's
+     * stale stock copy is zeroed first and the collected shards are added
+     * with $inc, so stock released onto the book meanwhile is kept.
+     * @param bookId Book id
+     * @return The book with its stock, or empty if it does not exist
+     */
+    public Optional<Book> unshard(String bookId) {
+        Book previous = mongoTemplate.findAndModify(
+            Query.query(Criteria.where("id").is(bookId).and(SHARDS).ne(null)), Update.update(STOCK, 0), Book.class);
+        if (previous == null) {
+            return Optional.ofNullable(mongoTemplate.findById(bookId, Book.class));
+        }
+        int stock = collectShards(bookId);
+        Book book = mongoTemplate.findAndModify(Query.query(Criteria.where("id").is(bookId)),
+            new Update().inc(STOCK, stock).unset(SHARDS).set("updatedAt", LocalDateTime.now()),
+            FindAndModifyOptions.options().returnNew(true), Book.class);
+        if (book != null) {
+            boolean inStock = book.getStockQuantity() != null && book.getStockQuantity() > 0;
+            mongoTemplate.updateFirst(Query.query(Criteria.where("id").is(bookId)), Update.update(IN_STOCK, inStock), Book.class);
+            book.setInStock(inStock);
+        }
+        return Optional.ofNullable(book);
+    }
+    
+    /**
+     * Remove every shard of a book, one at a time so no concurrent decrement is lost
+     * @return Sum of the removed shard quantities
+     */
+    private int collectShards(String bookId) {
+        int stock = 0;
+        for (StockShard shard : mongoTemplate.find(Query.query(Criteria.where("bookId").is(bookId)), StockShard.class)) {
+            StockShard removed = mongoTemplate.findAndRemove(Query.query(Criteria.where("id").is(shard.getId())), StockShard.class);
+            if (removed != null && removed.getQuantity() != null) {
+                stock += removed.getQuantity();
+            }
+        }
+        return stock;
+    }
+    
+    private void writeShards(String bookId, int stock, int shards) {
+        mongoTemplate.remove(Query.query(Criteria.where("bookId").is(bookId).and("shard").gte(shards)), StockShard.class);
+        BulkOperations writes = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, StockShard.class);
+        for (int i = 0; i < shards; i++) {
+            // Remainder goes to the first shards
+            int quantity = stock / shards + (i < stock % shards ? 1 : 0);
+            writes.upsert(Query.query(Criteria.where("id").is(StockShard.id(bookId, i))),
+                new Update().set("bookId", bookId).set("shard", i).set("quantity", quantity));
+        }
+        writes.execute();
+    }
+    
+    /**
+     * Replace stockQuantity and inStock of sharded books with the sum of their shards
+     * Time Complexity: one aggregation for any number of books, none if no book is sharded
+     * @param books Loaded books; projections must include stockShards for sharded
+     *              books to be recognised. Unsharded ones are left untouched
+     */
+    public void deriveStock(Collection<Book> books) {
+        List<String> ids = new ArrayList<>();
+        for (Book book : books) {
+            if (book != null && book.getStockShards() != null) {
+                ids.add(book.getId());
+            }
+        }
+        if (ids.isEmpty()) {
+            return;
+        }
+        Map<String, Integer> stock = shardedStock(ids);
+        for (Book book : books) {
+            if (book != null && book.getStockShards() != null) {
+                int quantity = stock.getOrDefault(book.getId(), 0);
+                book.setStockQuantity(quantity);
+                book.setInStock(quantity > 0);
+            }
+        }
+    }
+    
+    private Optional<Book> findWithDerivedStock(String bookId) {
+        Book book = mongoTemplate.findById(bookId, Book.class);
+        if (book != null) {
+            deriveStock(List.of(book));
+        }
+        return Optional.ofNullable(book);
+    }
+    
+    private Map<String, Integer> shardedStock(List<String> bookIds) {
+        Aggregation aggregation = Aggregation.newAggregation(
+            Aggregation.match(Criteria.where("bookId").in(bookIds)),
+            Aggregation.group("bookId").sum("quantity").as("quantity"));
+        Map<String, Integer> stock = new HashMap<>();
+        for (Document row : mongoTemplate.aggregate(aggregation, StockShard.class, Document.class).getMappedResults()) {
+            stock.put(row.getString("_id"), ((Number) row.get("quantity")).intValue());
+        }
+        return stock;
+    }
+    
+    private static void validate(Map<String, Integer> quantities) {
+        for (Map.Entry<String, Integer> entry : quantities.entrySet()) {
+            if (entry.getKey() == null || entry.getValue() == null || entry.getValue() <= 0) {
+                throw new IllegalArgumentException("Stock quantities must be positive");
+            }
+        }
+    }
+}
@@ -0,0 +1,309 @@
+package com.bookstore.service;
+
+import com.bookstore.datastructures.SortedColumnIndex;
+import com.bookstore.model.Book;
+import com.bookstore.repository.BookRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * In-memory column indexes over the book catalog.
+ * Every book gets a row id into a row table; each indexed numeric field keeps
+ * a {@link SortedColumnIndex} of (value, row id) pairs, so range filters are
+ * answered in O(log n + k) without scanning the collection.
+ *
+ * Rows hold only the book id and its indexed values, never the Book itself:
+ * stock and sales change on order paths that never touch this index, so
+ * callers load the matching ids fresh from the repository.
+ *
+ * The indexes are loaded once in the background after startup and then kept
+ * current by BookService on every save/update/delete. Until the first load
+ * finishes (or if it fails) the index reports itself cold and callers fall
+ * back to the repository.
+ */
+@Service
+public class BookColumnIndex {
+    
+    public static final String PRICE = "price";
+    public static final String RATING = "rating";
+    public static final String YEAR = "year";
+    public static final String PAGES = "pages";
+    
+    private static final Map<String, Function<Book, Number>> COLUMNS = new LinkedHashMap<>();
+    
+    static {
+        COLUMNS.put(PRICE, Book::getPrice);
+        COLUMNS.put(RATING, Book::getRating);
+        COLUMNS.put(YEAR, Book::getYear);
+        COLUMNS.put(PAGES, Book::getPages);
+    }
+    
+    @Autowired
+    private BookRepository bookRepository;
+    
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final List<String> rows = new ArrayList<>(); // book id per row, null = free
+    private final List<double[]> rowValues = new ArrayList<>(); // indexed values as of insertion, NaN = absent
+    private final Map<String, Integer> rowById = new HashMap<>();
+    private final ArrayDeque<Integer> freeRows = new ArrayDeque<>();
+    private final Map<String, SortedColumnIndex> columns = new HashMap<>();
+    private final Map<String, double[]> pendingWhileCold = new LinkedHashMap<>(); // null value = deleted
+    private volatile boolean warm;
+    private volatile boolean warmUpFailed;
+    
+    public BookColumnIndex() {
+        for (String column : COLUMNS.keySet()) {
+            columns.put(column, new SortedColumnIndex());
+        }
+    }
+    
+    /**
+     * Load the catalog in the background once the application is up
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUpAsync() {
+        CompletableFuture.runAsync(() -> {
+            try {
+                rebuild(bookRepository.findAll());
+            } catch (Exception e) {
+                warmUpFailed = true;
+                lock.writeLock().lock();
+                try {
+                    pendingWhileCold.clear();
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                System.err.println("Book column index warm-up failed: " + e.getMessage());
+            }
+        });
+    }
+    
+    /**
+     * Replace the whole index with the given catalog and mark it warm.
+     * Writes that arrived while the catalog was being read are replayed on top.
+     * Time Complexity: O(n log n)
+     * @param books Complete catalog
+     */
+    public void rebuild(List<Book> books) {
+        lock.writeLock().lock();
+        try {
+            rows.clear();
+            rowValues.clear();
+            rowById.clear();
+            freeRows.clear();
+            for (Book book : books) {
+                if (book.getId() != null) {
+                    rowById.put(book.getId(), rows.size());
+                    rows.add(book.getId());
+                    rowValues.add(extractValues(book));
+                }
+            }
+            
+            double[] values = new double[rows.size()];
+            int[] rowIds = new int[rows.size()];
+            int columnIndex = 0;
+            for (String column : COLUMNS.keySet()) {
+                int count = 0;
+                for (int row = 0; row < rows.size(); row++) {
+                    double value = rowValues.get(row)[columnIndex];
+                    if (!Double.isNaN(value)) {
+                        values[count] = value;
+                        rowIds[count] = row;
+                        count++;
+                    }
+                }
+                columns.get(column).load(values, rowIds, count);
+                columnIndex++;
+            }
+            
+            for (Map.Entry<String, double[]> pending : pendingWhileCold.entrySet()) {
+                if (pending.getValue() != null) {
+                    applyUpsert(pending.getKey(), pending.getValue());
+                } else {
+                    applyRemove(pending.getKey());
+                }
+            }
+            pendingWhileCold.clear();
+            warm = true;
+            warmUpFailed = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Insert or replace a book after it has been persisted
+     * Time Complexity: O(n) per indexed column (array shift)
+     * @param book Saved book
+     */
+    public void upsert(Book book) {
+        if (book == null || book.getId() == null || warmUpFailed) {
+            return;
+        }
+        double[] values = extractValues(book);
+        lock.writeLock().lock();
+        try {
+            if (warm) {
+                applyUpsert(book.getId(), values);
+            } else {
+                pendingWhileCold.put(book.getId(), values);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Drop a deleted book from every column
+     * @param id Book id
+     */
+    public void remove(String id) {
+        if (id == null || warmUpFailed) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (warm) {
+                applyRemove(id);
+            } else {
+                pendingWhileCold.put(id, null);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    private void applyUpsert(String id, double[] values) {
+        Integer row = rowById.get(id);
+        if (row != null) {
+            unindex(row);
+        } else {
+            row = freeRows.isEmpty() ? rows.size() : freeRows.pop();
+            if (row == rows.size()) {
+                rows.add(null);
+                rowValues.add(null);
+            }
+            rowById.put(id, row);
+        }
+        
+        rows.set(row, id);
+        rowValues.set(row, values);
+        int columnIndex = 0;
+        for (String column : COLUMNS.keySet()) {
+            if (!Double.isNaN(values[columnIndex])) {
+                columns.get(column).insert(values[columnIndex], row);
+            }
+            columnIndex++;
+        }
+    }
+    
+    private void applyRemove(String id) {
+        Integer row = rowById.remove(id);
+        if (row != null) {
+            unindex(row);
+            rows.set(row, null);
+            rowValues.set(row, null);
+            freeRows.push(row);
+        }
+    }
+    
+    /**
+     * Remove a row from every column using the values it was indexed under
+     */
+    private void unindex(int row) {
+        double[] values = rowValues.get(row);
+        int columnIndex = 0;
+        for (String column : COLUMNS.keySet()) {
+            if (!Double.isNaN(values[columnIndex])) {
+                columns.get(column).remove(values[columnIndex], row);
+            }
+            columnIndex++;
+        }
+    }
+    
+    private static double[] extractValues(Book book) {
+        double[] values = new double[COLUMNS.size()];
+        int columnIndex = 0;
+        for (Function<Book, Number> extractor : COLUMNS.values()) {
+            Number value = extractor.apply(book);
+            values[columnIndex++] = value != null ? value.doubleValue() : Double.NaN;
+        }
+        return values;
+    }
+    
+    /**
+     * Ids of books whose column value lies strictly between min and max,
+     * matching the semantics of the repository's findBy...Between queries
+     * Time Complexity: O(log n + k)
+     * @param column One of PRICE, RATING, YEAR, PAGES
+     * @param min Lower bound (exclusive)
+     * @param max Upper bound (exclusive)
+     * @return Matching book ids in ascending column order, or empty if the index is cold
+     */
+    public Optional<List<String>> findBetween(String column, double min, double max) {
+        if (!warm) {
+            return Optional.empty();
+        }
+        SortedColumnIndex index = columns.get(column);
+        if (index == null) {
+            throw new IllegalArgumentException("Unknown indexed column: " + column);
+        }
+        lock.readLock().lock();
+        try {
+            int[] matches = index.rowsBetween(min, max);
+            List<String> ids = new ArrayList<>(matches.length);
+            for (int row : matches) {
+                ids.add(rows.get(row));
+            }
+            return Optional.of(ids);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Whether the initial load has completed
+     */
+    public boolean isWarm() {
+        return warm;
+    }
+    
+    /**
+     * Index statistics for monitoring
+     * @return Row count and per-column entry counts and value bounds
+     */
+    public Map<String, Object> getIndexStats() {
+        Map<String, Object> stats = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            stats.put("warm", warm);
+            stats.put("rows", rowById.size());
+            Map<String, Object> columnStats = new LinkedHashMap<>();
+            for (String column : COLUMNS.keySet()) {
+                SortedColumnIndex index = columns.get(column);
+                Map<String, Object> entry = new HashMap<>();
+                entry.put("entries", index.size());
+                entry.put("min", index.size() > 0 ? index.min() : null);
+                entry.put("max", index.size() > 0 ? index.max() : null);
+                columnStats.put(column, entry);
+            }
+            stats.put("columns", columnStats);
+        } finally {
+            lock.readLock().unlock();
+        }
+        return stats;
+    }
+}
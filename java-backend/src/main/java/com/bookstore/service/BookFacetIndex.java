@@ -0,0 +1,406 @@
+package com.bookstore.service;
+
+import com.bookstore.model.Book;
+import com.bookstore.repository.BookRepository;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * In-memory facet counts for the book catalog.
+ * Keeps a value -> book count map per facet field (genre, author, publisher,
+ * language) so distinct-value lists and counts are answered without reading
+ * the collection. The facet values each book was counted under are kept
+ * by id, which lets an update move a book from one value to another.
+ *
+ * Loaded at startup from a single aggregation that groups book ids by their
+ * combination of facet values, then kept current by BookService on every
+ * write. Until that load succeeds the index reports cold and callers fall
+ * back to the repository, as with {@link BookSearchIndex}.
+ */
+@Service
+public class BookFacetIndex {
+    
+    public static final String GENRE = "genre";
+    public static final String AUTHOR = "author";
+    public static final String PUBLISHER = "publisher";
+    public static final String LANGUAGE = "language";
+    
+    // Facet field name -> accessor, in response order
+    public static final Map<String, Function<Book, String>> FACETS = new LinkedHashMap<>();
+    
+    static {
+        FACETS.put(GENRE, Book::getGenre);
+        FACETS.put(AUTHOR, Book::getAuthor);
+        FACETS.put(PUBLISHER, Book::getPublisher);
+        FACETS.put(LANGUAGE, Book::getLanguage);
+    }
+    
+    private static final String[] FACET_NAMES = FACETS.keySet().toArray(new String[0]);
+    
+    @Autowired
+    private BookRepository bookRepository;
+    
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final List<TreeMap<String, Integer>> counts = new ArrayList<>(); // one per facet, sorted by value
+    private final Map<String, String[]> valuesById = new HashMap<>();        // facet values each book is counted under
+    private final Map<String, Book> pendingWhileCold = new LinkedHashMap<>(); // null value = deleted
+    private volatile boolean warm;
+    private volatile boolean warmUpFailed;
+    
+    public BookFacetIndex() {
+        for (int f = 0; f < FACET_NAMES.length; f++) {
+            counts.add(new TreeMap<>());
+        }
+    }
+    
+    /**
+     * Load the counts in the background once the application is up
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUpAsync() {
+        CompletableFuture.runAsync(() -> {
+            try {
+                rebuild(bookRepository.groupIdsByFields(List.of(FACET_NAMES)));
+            } catch (Exception e) {
+                warmUpFailed = true;
+                lock.writeLock().lock();
+                try {
+                    pendingWhileCold.clear();
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                System.err.println("Book facet index warm-up failed: " + e.getMessage());
+            }
+        });
+    }
+    
+    /**
+     * Replace all counts from grouped aggregation output and mark the index warm.
+     * Writes that arrived while the aggregation ran are replayed on top.
+     * Time Complexity: O(n log v) for n books and v distinct values per facet
+     * @param groups Documents of the form {_id: {facet: value, ...}, ids: [bookId, ...]}
+     */
+    public void rebuild(List<Document> groups) {
+        lock.writeLock().lock();
+        try {
+            for (TreeMap<String, Integer> facet : counts) {
+                facet.clear();
+            }
+            valuesById.clear();
+            for (Document group : groups) {
+                Object key = group.get("_id");
+                String[] values = new String[FACET_NAMES.length];
+                for (int f = 0; f < FACET_NAMES.length; f++) {
+                    Object value = key instanceof Document ? ((Document) key).get(FACET_NAMES[f]) : null;
+                    values[f] = normalize(value instanceof String ? (String) value : null);
+                }
+                List<?> ids = group.getList("ids", Object.class);
+                if (ids == null || ids.isEmpty()) {
+                    continue;
+                }
+                // Books sharing a combination share one values array
+                for (Object id : ids) {
+                    valuesById.put(String.valueOf(id), values);
+                }
+                adjust(values, ids.size());
+            }
+            
+            for (Map.Entry<String, Book> pending : pendingWhileCold.entrySet()) {
+                if (pending.getValue() != null) {
+                    applyUpsert(pending.getValue());
+                } else {
+                    applyRemove(pending.getKey());
+                }
+            }
+            pendingWhileCold.clear();
+            warm = true;
+            warmUpFailed = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Count a book under its current facet values after it has been persisted
+     * @param book Saved book
+     */
+    public void upsert(Book book) {
+        if (book == null || book.getId() == null || warmUpFailed) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (warm) {
+                applyUpsert(book);
+            } else {
+                pendingWhileCold.put(book.getId(), book);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Stop counting a deleted book
+     * @param id Book id
+     */
+    public void remove(String id) {
+        if (id == null || warmUpFailed) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (warm) {
+                applyRemove(id);
+            } else {
+                pendingWhileCold.put(id, null);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    private void applyUpsert(Book book) {
+        String[] values = extractValues(book);
+        String[] previous = valuesById.put(book.getId(), values);
+        if (previous != null) {
+            adjust(previous, -1);
+        }
+        adjust(values, 1);
+    }
+    
+    private void applyRemove(String id) {
+        String[] previous = valuesById.remove(id);
+        if (previous != null) {
+            adjust(previous, -1);
+        }
+    }
+    
+    private void adjust(String[] values, int delta) {
+        for (int f = 0; f < values.length; f++) {
+            if (values[f] != null && counts.get(f).merge(values[f], delta, Integer::sum) <= 0) {
+                counts.get(f).remove(values[f]);
+            }
+        }
+    }
+    
+    private static String[] extractValues(Book book) {
+        String[] values = new String[FACET_NAMES.length];
+        int f = 0;
+        for (Function<Book, String> accessor : FACETS.values()) {
+            values[f++] = normalize(accessor.apply(book));
+        }
+        return values;
+    }
+    
+    /**
+     * Empty strings count as missing, matching the repository fallback
+     */
+    private static String normalize(String value) {
+        return value == null || value.isEmpty() ? null : value;
+    }
+    
+    private static int facetIndex(String facet) {
+        for (int f = 0; f < FACET_NAMES.length; f++) {
+            if (FACET_NAMES[f].equals(facet)) {
+                return f;
+            }
+        }
+        throw new IllegalArgumentException("Unknown facet: " + facet);
+    }
+    
+    /**
+     * Distinct values of a facet
+     * Time Complexity: O(v)
+     * @param facet Facet field name
+     * @return Values in ascending order, or empty if the index is cold
+     */
+    public Optional<List<String>> distinctValues(String facet) {
+        int f = facetIndex(facet);
+        if (!warm) {
+            return Optional.empty();
+        }
+        lock.readLock().lock();
+        try {
+            return Optional.of(new ArrayList<>(counts.get(f).keySet()));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Most frequent values of every facet over the whole catalog
+     * Time Complexity: O(v log limit) per facet
+     * @param limit Maximum buckets per facet
+     * @return Facet name to {value, count} buckets, or empty if the index is cold
+     */
+    public Optional<Map<String, List<Map<String, Object>>>> getFacetCounts(int limit) {
+        if (!warm) {
+            return Optional.empty();
+        }
+        lock.readLock().lock();
+        try {
+            Map<String, List<Map<String, Object>>> facets = new LinkedHashMap<>();
+            for (int f = 0; f < FACET_NAMES.length; f++) {
+                facets.put(FACET_NAMES[f], topBuckets(counts.get(f), limit));
+            }
+            return Optional.of(facets);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Most frequent values of one facet over the whole catalog
+     * Time Complexity: O(v log limit)
+     * @param facet Facet field name
+     * @param limit Maximum buckets
+     * @return {value, count} buckets, or empty if the index is cold
+     */
+    public Optional<List<Map<String, Object>>> getFacetCounts(String facet, int limit) {
+        int f = facetIndex(facet);
+        if (!warm) {
+            return Optional.empty();
+        }
+        lock.readLock().lock();
+        try {
+            return Optional.of(topBuckets(counts.get(f), limit));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Facet counts over the books with the given ids, e.g. the hits of the
+     * search index, from the values held here rather than the documents
+     * Time Complexity: O(n + v log limit) for n ids
+     * @param ids Book ids to count; ids not indexed are skipped
+     * @param limit Maximum buckets per facet
+     * @return Facet name to {value, count} buckets, or empty if the index is cold
+     */
+    public Optional<Map<String, List<Map<String, Object>>>> countFacetsById(Collection<String> ids, int limit) {
+        if (!warm) {
+            return Optional.empty();
+        }
+        List<String[]> rows = new ArrayList<>(ids.size());
+        lock.readLock().lock();
+        try {
+            for (String id : ids) {
+                String[] values = valuesById.get(id);
+                if (values != null) {
+                    rows.add(values);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        // Value arrays are replaced, never mutated, so they can be counted outside the lock
+        return Optional.of(countRows(rows, limit));
+    }
+    
+    /**
+     * Facet counts over a subset of the catalog, e.g. the results of a search
+     * Time Complexity: O(n + v log limit) for n books
+     * @param books Books to count
+     * @param limit Maximum buckets per facet
+     * @return Facet name to {value, count} buckets
+     */
+    public static Map<String, List<Map<String, Object>>> countFacets(Collection<Book> books, int limit) {
+        List<String[]> rows = new ArrayList<>(books.size());
+        for (Book book : books) {
+            rows.add(extractValues(book));
+        }
+        return countRows(rows, limit);
+    }
+    
+    private static Map<String, List<Map<String, Object>>> countRows(List<String[]> rows, int limit) {
+        List<Map<String, Integer>> subsetCounts = new ArrayList<>();
+        for (int f = 0; f < FACET_NAMES.length; f++) {
+            subsetCounts.add(new HashMap<>());
+        }
+        for (String[] values : rows) {
+            for (int f = 0; f < values.length; f++) {
+                if (values[f] != null) {
+                    subsetCounts.get(f).merge(values[f], 1, Integer::sum);
+                }
+            }
+        }
+        Map<String, List<Map<String, Object>>> facets = new LinkedHashMap<>();
+        for (int f = 0; f < FACET_NAMES.length; f++) {
+            facets.put(FACET_NAMES[f], topBuckets(subsetCounts.get(f), limit));
+        }
+        return facets;
+    }
+    
+    /**
+     * Highest counts first, ties by value; a bounded min-heap keeps
+     * only limit candidates instead of sorting every value
+     */
+    private static List<Map<String, Object>> topBuckets(Map<String, Integer> valueCounts, int limit) {
+        PriorityQueue<Map.Entry<String, Integer>> heap = new PriorityQueue<>(
+            (a, b) -> !a.getValue().equals(b.getValue())
+                ? Integer.compare(a.getValue(), b.getValue())
+                : b.getKey().compareTo(a.getKey()));
+        for (Map.Entry<String, Integer> entry : valueCounts.entrySet()) {
+            heap.offer(entry);
+            if (heap.size() > limit) {
+                heap.poll();
+            }
+        }
+        List<Map<String, Object>> buckets = new ArrayList<>(heap.size());
+        while (!heap.isEmpty()) {
+            Map.Entry<String, Integer> entry = heap.poll();
+            Map<String, Object> bucket = new LinkedHashMap<>();
+            bucket.put("value", entry.getKey());
+            bucket.put("count", entry.getValue());
+            buckets.add(bucket);
+        }
+        Collections.reverse(buckets);
+        return buckets;
+    }
+    
+    /**
+     * Whether the initial load has completed
+     */
+    public boolean isWarm() {
+        return warm;
+    }
+    
+    /**
+     * Index statistics for monitoring
+     * @return Book count and distinct values per facet
+     */
+    public Map<String, Object> getIndexStats() {
+        Map<String, Object> stats = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            stats.put("warm", warm);
+            stats.put("books", valuesById.size());
+            Map<String, Integer> distinct = new LinkedHashMap<>();
+            for (int f = 0; f < FACET_NAMES.length; f++) {
+                distinct.put(FACET_NAMES[f], counts.get(f).size());
+            }
+            stats.put("distinctValues", distinct);
+        } finally {
+            lock.readLock().unlock();
+        }
+        return stats;
+    }
+}
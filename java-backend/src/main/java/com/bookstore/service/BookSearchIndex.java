@@ -0,0 +1,366 @@
+package com.bookstore.service;
+
+import com.bookstore.datastructures.InvertedIndex;
+import com.bookstore.datastructures.SuggestionTrie;
+import com.bookstore.model.Book;
+import com.bookstore.repository.BookRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory full-text search over the book catalog.
+ * Title, author, genre, ISBN and tags are tokenized into an
+ * {@link InvertedIndex} and queries are ranked with BM25, replacing the
+ * unanchored case-insensitive regex scan of the repository search queries.
+ *
+ * Rows keep only the book id and the indexed text: searches return ids in
+ * rank order and callers load the books fresh, since stock changes on order
+ * paths that never pass through this index.
+ *
+ * The same rows feed a {@link SuggestionTrie} for typeahead: one entry per
+ * title and one per author, ranked by totalSales with rating as tie-break
+ * (authors by the sum over their books). The ranking is a snapshot of
+ * totalSales as of warm-up or the book's last write through BookService;
+ * it is not refreshed by orders and only orders suggestions, never results.
+ *
+ * Lifecycle mirrors {@link BookColumnIndex}: loaded in the background after
+ * startup, kept current by BookService on every write, and reported cold
+ * (callers fall back to the repository) until the first load succeeds.
+ */
+@Service
+public class BookSearchIndex {
+    
+    private static final Map<String, Double> FIELD_WEIGHTS = new LinkedHashMap<>();
+    
+    static {
+        FIELD_WEIGHTS.put("title", 3.0);
+        FIELD_WEIGHTS.put("author", 2.0);
+        FIELD_WEIGHTS.put("genre", 1.5);
+        FIELD_WEIGHTS.put("tags", 1.5);
+        FIELD_WEIGHTS.put("isbn", 1.0);
+    }
+    
+    public static final int MAX_SUGGESTIONS = 10;
+    
+    @Autowired
+    private BookRepository bookRepository;
+    
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final InvertedIndex index = new InvertedIndex(FIELD_WEIGHTS);
+    private final List<String> rows = new ArrayList<>(); // book id per row, null = free
+    private final List<Map<String, String>> rowFields = new ArrayList<>(); // indexed text as of insertion
+    private final SuggestionTrie suggestions = new SuggestionTrie(MAX_SUGGESTIONS);
+    private final List<String> rowAuthors = new ArrayList<>(); // author key each row counts towards
+    private final List<Double> rowScores = new ArrayList<>();
+    private final Map<String, Double> authorScores = new HashMap<>();
+    private final Map<String, Integer> authorBooks = new HashMap<>();
+    private final Map<String, Integer> rowById = new HashMap<>();
+    private final ArrayDeque<Integer> freeRows = new ArrayDeque<>();
+    private final Map<String, Book> pendingWhileCold = new LinkedHashMap<>(); // null value = deleted
+    private volatile boolean warm;
+    private volatile boolean warmUpFailed;
+    
+    /**
+     * Load the catalog in the background once the application is up
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUpAsync() {
+        CompletableFuture.runAsync(() -> {
+            try {
+                rebuild(bookRepository.findAll());
+            } catch (Exception e) {
+                warmUpFailed = true;
+                lock.writeLock().lock();
+                try {
+                    pendingWhileCold.clear();
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                System.err.println("Book search index warm-up failed: " + e.getMessage());
+            }
+        });
+    }
+    
+    /**
+     * Replace the whole index with the given catalog and mark it warm.
+     * Writes that arrived while the catalog was being read are replayed on top.
+     * Time Complexity: O(total terms)
+     * @param books Complete catalog
+     */
+    public void rebuild(List<Book> books) {
+        lock.writeLock().lock();
+        try {
+            index.clear();
+            suggestions.clear();
+            rows.clear();
+            rowFields.clear();
+            rowAuthors.clear();
+            rowScores.clear();
+            authorScores.clear();
+            authorBooks.clear();
+            rowById.clear();
+            freeRows.clear();
+            for (Book book : books) {
+                if (book.getId() != null) {
+                    applyUpsert(book);
+                }
+            }
+            
+            for (Map.Entry<String, Book> pending : pendingWhileCold.entrySet()) {
+                if (pending.getValue() != null) {
+                    applyUpsert(pending.getValue());
+                } else {
+                    applyRemove(pending.getKey());
+                }
+            }
+            pendingWhileCold.clear();
+            warm = true;
+            warmUpFailed = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Insert or replace a book after it has been persisted
+     * @param book Saved book
+     */
+    public void upsert(Book book) {
+        if (book == null || book.getId() == null || warmUpFailed) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (warm) {
+                applyUpsert(book);
+            } else {
+                pendingWhileCold.put(book.getId(), book);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Drop a deleted book from the index
+     * @param id Book id
+     */
+    public void remove(String id) {
+        if (id == null || warmUpFailed) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (warm) {
+                applyRemove(id);
+            } else {
+                pendingWhileCold.put(id, null);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    private void applyUpsert(Book book) {
+        Map<String, String> fields = extractFields(book);
+        Integer row = rowById.get(book.getId());
+        if (row == null) {
+            row = freeRows.isEmpty() ? rows.size() : freeRows.pop();
+            if (row == rows.size()) {
+                rows.add(null);
+                rowFields.add(null);
+                rowAuthors.add(null);
+                rowScores.add(null);
+            }
+            rowById.put(book.getId(), row);
+        }
+        
+        rows.set(row, book.getId());
+        // Stock, rating and review updates leave the text alone; only swap the row then
+        if (!Objects.equals(rowFields.get(row), fields)) {
+            rowFields.set(row, fields);
+            index.index(row, fields);
+        }
+        
+        double score = suggestionScore(book);
+        if (book.getTitle() != null) {
+            suggestions.put("title:" + book.getId(), book.getTitle(), score);
+        } else {
+            suggestions.remove("title:" + book.getId());
+        }
+        if (rowAuthors.get(row) != null) {
+            adjustAuthor(rowAuthors.get(row), null, -rowScores.get(row), -1);
+        }
+        String author = book.getAuthor() != null ? book.getAuthor().trim().toLowerCase(Locale.ROOT) : null;
+        if (author != null && !author.isEmpty()) {
+            adjustAuthor(author, book.getAuthor().trim(), score, 1);
+            rowAuthors.set(row, author);
+        } else {
+            rowAuthors.set(row, null);
+        }
+        rowScores.set(row, score);
+    }
+    
+    /**
+     * Add or subtract one book's contribution to an author suggestion
+     * @param displayName Author as written on the book, or null to keep the current one
+     */
+    private void adjustAuthor(String author, String displayName, double scoreDelta, int bookDelta) {
+        int books = authorBooks.merge(author, bookDelta, Integer::sum);
+        if (books <= 0) {
+            authorBooks.remove(author);
+            authorScores.remove(author);
+            suggestions.remove("author:" + author);
+            return;
+        }
+        double score = authorScores.merge(author, scoreDelta, Double::sum);
+        if (displayName == null) {
+            displayName = suggestions.getText("author:" + author);
+        }
+        suggestions.put("author:" + author, displayName != null ? displayName : author, score);
+    }
+    
+    private static double suggestionScore(Book book) {
+        double sales = book.getTotalSales() != null ? book.getTotalSales() : 0;
+        double rating = book.getRating() != null ? book.getRating() : 0;
+        return sales + rating / 10; // rating (0-5) only breaks ties between equal sales
+    }
+    
+    private void applyRemove(String id) {
+        Integer row = rowById.remove(id);
+        if (row != null) {
+            index.remove(row);
+            suggestions.remove("title:" + id);
+            if (rowAuthors.get(row) != null) {
+                adjustAuthor(rowAuthors.get(row), null, -rowScores.get(row), -1);
+            }
+            rows.set(row, null);
+            rowFields.set(row, null);
+            rowAuthors.set(row, null);
+            rowScores.set(row, null);
+            freeRows.push(row);
+        }
+    }
+    
+    private static Map<String, String> extractFields(Book book) {
+        Map<String, String> fields = new HashMap<>();
+        fields.put("title", book.getTitle());
+        fields.put("author", book.getAuthor());
+        fields.put("genre", book.getGenre());
+        if (book.getTags() != null) {
+            fields.put("tags", String.join(" ", book.getTags()));
+        }
+        if (book.getIsbn() != null) {
+            // Hyphenated groups plus the compact form, so "978-0-74" and "978074" both match
+            fields.put("isbn", book.getIsbn() + " " + book.getIsbn().replaceAll("[^0-9Xx]", ""));
+        }
+        return fields;
+    }
+    
+    /**
+     * Ids of books matching every query term, best match first
+     * Time Complexity: O(m + r log r) for m scanned postings and r results
+     * @param query Free-text query; the last word may be partial
+     * @return Ranked book ids, or empty if the index is cold
+     */
+    public Optional<List<String>> search(String query) {
+        return search(query, false);
+    }
+    
+    /**
+     * Ids of books matching every query term, optionally tolerating typos
+     * @param query Free-text query; the last word may be partial
+     * @param fuzzy Whether terms may match within one or two edits
+     * @return Ranked book ids, or empty if the index is cold
+     */
+    public Optional<List<String>> search(String query, boolean fuzzy) {
+        if (!warm) {
+            return Optional.empty();
+        }
+        lock.readLock().lock();
+        try {
+            List<InvertedIndex.SearchHit> hits = index.search(query, Integer.MAX_VALUE, fuzzy);
+            List<String> ids = new ArrayList<>(hits.size());
+            for (InvertedIndex.SearchHit hit : hits) {
+                ids.add(rows.get(hit.getDocumentId()));
+            }
+            return Optional.of(ids);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Typeahead completions over titles and authors
+     * Time Complexity: O(prefix length + limit)
+     * @param prefix Typed prefix; matches the start of any word
+     * @param limit Maximum suggestions (capped at MAX_SUGGESTIONS)
+     * @return Suggestions with type, text, score and bookId (titles only), or empty if cold
+     */
+    public Optional<List<Map<String, Object>>> suggest(String prefix, int limit) {
+        if (!warm) {
+            return Optional.empty();
+        }
+        lock.readLock().lock();
+        try {
+            List<Map<String, Object>> results = new ArrayList<>();
+            for (SuggestionTrie.Suggestion suggestion : suggestions.suggest(prefix, Math.min(limit, MAX_SUGGESTIONS))) {
+                Map<String, Object> result = new LinkedHashMap<>();
+                boolean title = suggestion.getId().startsWith("title:");
+                result.put("type", title ? "title" : "author");
+                result.put("text", suggestion.getText());
+                result.put("score", suggestion.getScore());
+                if (title) {
+                    result.put("bookId", suggestion.getId().substring("title:".length()));
+                }
+                results.add(result);
+            }
+            return Optional.of(results);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Whether the initial load has completed
+     */
+    public boolean isWarm() {
+        return warm;
+    }
+    
+    /**
+     * Index statistics for monitoring
+     * @return Document, term and posting counts
+     */
+    public Map<String, Object> getIndexStats() {
+        Map<String, Object> stats = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            stats.put("warm", warm);
+            stats.put("documents", index.getDocumentCount());
+            stats.put("terms", index.getTermCount());
+            stats.put("postings", index.getPostingCount());
+            stats.put("averageDocumentLength", index.getAverageDocumentLength());
+            stats.put("fieldWeights", FIELD_WEIGHTS);
+            stats.put("suggestionEntries", suggestions.size());
+            stats.put("suggestionNodes", suggestions.nodeCount());
+        } finally {
+            lock.readLock().unlock();
+        }
+        return stats;
+    }
+}
@@ -1,136 +1,425 @@
 package com.bookstore.service;
 
+import com.bookstore.algorithms.MergeSort;
 import com.bookstore.model.Book;
+import com.bookstore.model.BookReview;
 import com.bookstore.repository.BookRepository;
+import com.bookstore.repository.BookRepositoryImpl;
+import com.bookstore.repository.BookReviewRepository;
+import com.bookstore.repository.StockUpdates;
+import com.bookstore.repository.FieldProjection;
+import com.bookstore.repository.KeysetPagination;
+import org.bson.Document;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class BookService {
 
+    // In-memory sort keys, named after the document fields used by Sort.by
+    private static final Map<String, MergeSort.SortKey<Book>> SORT_KEYS = Map.ofEntries(
+        Map.entry("title", MergeSort.SortKey.text(Book::getTitle)),
+        Map.entry("author", MergeSort.SortKey.text(Book::getAuthor)),
+        Map.entry("genre", MergeSort.SortKey.text(Book::getGenre)),
+        Map.entry("publisher", MergeSort.SortKey.text(Book::getPublisher)),
+        Map.entry("language", MergeSort.SortKey.text(Book::getLanguage)),
+        Map.entry("isbn", MergeSort.SortKey.text(Book::getIsbn)),
+        Map.entry("price", MergeSort.SortKey.numeric(Book::getPrice)),
+        Map.entry("rating", MergeSort.SortKey.numeric(Book::getRating)),
+        Map.entry("averageRating", MergeSort.SortKey.numeric(Book::getAverageRating)),
+        Map.entry("year", MergeSort.SortKey.numeric(Book::getYear)),
+        Map.entry("pages", MergeSort.SortKey.numeric(Book::getPages)),
+        Map.entry("stockQuantity", MergeSort.SortKey.numeric(Book::getStockQuantity)),
+        Map.entry("totalSales", MergeSort.SortKey.numeric(Book::getTotalSales)),
+        Map.entry("createdAt", MergeSort.SortKey.numeric(book -> 
+            book.getCreatedAt() != null ? book.getCreatedAt().toEpochSecond(ZoneOffset.UTC) : null))
+    );
+
+    // Default list fieldset: what a catalog card shows, without reviews, description, tags and other detail fields
+    public static final List<String> LIST_FIELDS = List.of(
+        "id", "title", "author", "isbn", "genre", "price", "rating", "averageRating", "year",
+        "publisher", "language", "pages", "inStock", "stockQuantity", "coverImage", "format",
+        "totalReviews", "totalSales", "featured");
+
     @Autowired
     private BookRepository bookRepository;
 
+    @Autowired
+    private BookReviewRepository bookReviewRepository;
+
+    @Autowired
+    private StockUpdates stockUpdates;
+
+    @Autowired
+    private BookColumnIndex columnIndex;
+
+    @Autowired
+    private BookSearchIndex searchIndex;
+
+    @Autowired
+    private BookFacetIndex facetIndex;
+
+    @Autowired
+    private KeysetPagination keysetPagination;
+
+    @Autowired
+    private FieldProjection fieldProjection;
+
     public List<Book> getAllBooks() {
-        return bookRepository.findAll();
+        return withDerivedStock(bookRepository.findAll());
+    }
+
+    public List<Book> getAllBooks(Set<String> fields) {
+        return withDerivedStock(fieldProjection.findAll(Book.class, stockFields(fields)));
     }
 
     public Page<Book> getAllBooks(int page, int size, String sortBy, String sortDir) {
+        return getAllBooks(page, size, sortBy, sortDir, null);
+    }
+
+    /**
+     * @param fields Properties to load (see resolveListFields), or null for whole documents
+     */
+    public Page<Book> getAllBooks(int page, int size, String sortBy, String sortDir, Set<String> fields) {
         Sort sort = sortDir.equalsIgnoreCase("desc") ? 
             Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
         Pageable pageable = PageRequest.of(page, size, sort);
-        return bookRepository.findAll(pageable);
+        Page<Book> books = fieldProjection.findPage(Book.class, pageable, stockFields(fields));
+        stockUpdates.deriveStock(books.getContent());
+        return books;
+    }
+
+    /**
+     * Keyset page ordered by (sortBy, id), continuing after the given cursor.
+     * Unlike the offset overload this costs the same at any depth and runs no count query.
+     */
+    public KeysetPagination.CursorPage<Book> getAllBooks(String cursor, int size, String sortBy, String sortDir,
+                                                        boolean estimateTotal, Set<String> fields) {
+        Sort.Direction direction = sortDir.equalsIgnoreCase("desc") ? Sort.Direction.DESC : Sort.Direction.ASC;
+        KeysetPagination.CursorPage<Book> books =
+            keysetPagination.findPage(Book.class, sortBy, direction, cursor, size, estimateTotal, stockFields(fields));
+        stockUpdates.deriveStock(books.getContent());
+        return books;
+    }
+
+    /**
+     * Fieldset for list responses from a fields= parameter: a comma-separated
+     * list of properties, "all" for whole documents, or LIST_FIELDS when absent
+     */
+    public Set<String> resolveListFields(String fields) {
+        return fieldProjection.resolve(Book.class, fields, LIST_FIELDS);
+    }
+
+    /**
+     * Fields to load for a projected list: sharded books are only recognised
+     * by stockShards, so it is loaded (not rendered) whenever stock is selected
+     */
+    private static Set<String> stockFields(Set<String> fields) {
+        if (fields == null || fields.contains("stockShards")
+                || (!fields.contains("stockQuantity") && !fields.contains("inStock"))) {
+            return fields;
+        }
+        Set<String> loaded = new LinkedHashSet<>(fields);
+        loaded.add("stockShards");
+        return loaded;
+    }
+
+    /**
+     * Replace the stored stock of sharded books with their shard totals
+     */
+    private List<Book> withDerivedStock(List<Book> books) {
+        stockUpdates.deriveStock(books);
+        return books;
+    }
+
+    /**
+     * Load books by id in the given order, e.g. the order an in-memory index
+     * matched them in; ids deleted since are skipped
+     * Time Complexity: one findAllById round trip plus O(n)
+     */
+    private List<Book> findAllInOrder(List<String> ids) {
+        Map<String, Book> byId = new HashMap<>();
+        for (Book book : bookRepository.findAllById(ids)) {
+            byId.put(book.getId(), book);
+        }
+        List<Book> books = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            Book book = byId.get(id);
+            if (book != null) {
+                books.add(book);
+            }
+        }
+        return withDerivedStock(books);
+    }
+
+    public List<?> toListView(List<Book> books, Set<String> fields) {
+        return fieldProjection.toView(Book.class, books, fields);
+    }
+
+    public Map<String, Object> measureListProjection(String fields, int size) throws Exception {
+        return fieldProjection.measure(Book.class, resolveListFields(fields), size);
+    }
+
+    /**
+     * Sort an already loaded list of books in memory.
+     * sortBy is a comma-separated list of fields (e.g. "genre,year,-price");
+     * a leading '-' flips that field relative to sortDir. Unknown fields are ignored.
+     */
+    public List<Book> sortBooks(List<Book> books, String sortBy, String sortDir) {
+        return MergeSort.sortBySpec(books, sortBy, sortDir, SORT_KEYS);
     }
 
     public Optional<Book> getBookById(String id) {
-        return bookRepository.findById(id);
+        Optional<Book> book = bookRepository.findById(id);
+        book.ifPresent(found -> stockUpdates.deriveStock(List.of(found)));
+        return book;
     }
 
     public Optional<Book> getBookByIsbn(String isbn) {
-        return bookRepository.findByIsbn(isbn);
+        Optional<Book> book = bookRepository.findByIsbn(isbn);
+        book.ifPresent(found -> stockUpdates.deriveStock(List.of(found)));
+        return book;
     }
 
+    /**
+     * Full-text search ranked by relevance; falls back to the repository's
+     * $text search (or ISBN prefix lookup) while the search index is cold
+     */
     public List<Book> searchBooks(String query) {
-        return bookRepository.searchBooks(query);
+        return searchBooks(query, false);
+    }
+
+    /**
+     * @param fuzzy Tolerate typos (one or two edits per word); only the
+     *              in-memory index supports it, the cold fallback is exact
+     */
+    public List<Book> searchBooks(String query, boolean fuzzy) {
+        Optional<List<String>> indexed = searchIndex.search(query, fuzzy);
+        if (indexed.isPresent()) {
+            return findAllInOrder(indexed.get());
+        }
+        return withDerivedStock(bookRepository.searchByText(query));
     }
 
     public Page<Book> searchBooks(String query, int page, int size) {
+        return searchBooks(query, page, size, false);
+    }
+
+    public Page<Book> searchBooks(String query, int page, int size, boolean fuzzy) {
         Pageable pageable = PageRequest.of(page, size);
-        return bookRepository.searchBooksWithPagination(query, pageable);
+        Optional<List<String>> indexed = searchIndex.search(query, fuzzy);
+        if (indexed.isEmpty()) {
+            Page<Book> books = bookRepository.searchByText(query, pageable);
+            stockUpdates.deriveStock(books.getContent());
+            return books;
+        }
+        // Only the requested page is loaded from the database
+        List<String> ranked = indexed.get();
+        int from = (int) Math.min(pageable.getOffset(), ranked.size());
+        int to = Math.min(from + size, ranked.size());
+        return new PageImpl<>(findAllInOrder(ranked.subList(from, to)), pageable, ranked.size());
     }
 
     public List<Book> searchBooksNoPagination(String query) {
-        return bookRepository.searchBooks(query);
+        return searchBooks(query);
+    }
+
+    public List<Book> searchBooksNoPagination(String query, boolean fuzzy) {
+        return searchBooks(query, fuzzy);
+    }
+
+    /**
+     * Query plan summary for the repository search path: the winning plan's
+     * stages from the root down and whether any of them is a COLLSCAN
+     */
+    public Map<String, Object> explainRepositorySearch(String query) {
+        Document explain = bookRepository.explainSearch(query);
+        Document queryPlanner = explain.get("queryPlanner", Document.class);
+        Document winningPlan = queryPlanner != null ? queryPlanner.get("winningPlan", Document.class) : null;
+        
+        List<String> stages = new ArrayList<>();
+        collectStages(winningPlan, stages);
+        
+        Map<String, Object> summary = new HashMap<>();
+        summary.put("query", query);
+        summary.put("isbnPrefix", BookRepositoryImpl.isIsbnFragment(query));
+        summary.put("stages", stages);
+        summary.put("collectionScan", stages.contains("COLLSCAN"));
+        summary.put("winningPlan", winningPlan);
+        return summary;
+    }
+
+    private static void collectStages(Document plan, List<String> stages) {
+        if (plan == null) {
+            return;
+        }
+        if (plan.getString("stage") != null) {
+            stages.add(plan.getString("stage"));
+        }
+        // Classic plans nest via inputStage(s); slot-based plans wrap them in queryPlan
+        collectStages(plan.get("queryPlan", Document.class), stages);
+        collectStages(plan.get("inputStage", Document.class), stages);
+        List<Document> inputs = plan.getList("inputStages", Document.class);
+        if (inputs != null) {
+            for (Document input : inputs) {
+                collectStages(input, stages);
+            }
+        }
+    }
+
+    public List<Map<String, Object>> suggestBooks(String prefix, int limit) {
+        return searchIndex.suggest(prefix, limit).orElseGet(ArrayList::new);
+    }
+
+    public Map<String, Object> getSearchIndexStats() {
+        return searchIndex.getIndexStats();
     }
 
     public List<Book> getBooksByGenre(String genre) {
-        return bookRepository.findByGenreIgnoreCase(genre);
+        return withDerivedStock(bookRepository.findByGenreIgnoreCase(genre));
     }
 
     public List<Book> getBooksByAuthor(String author) {
-        return bookRepository.findByAuthorContainingIgnoreCase(author);
+        return withDerivedStock(bookRepository.findByAuthorContainingIgnoreCase(author));
     }
 
     public List<Book> getBooksByPriceRange(Double minPrice, Double maxPrice) {
-        return bookRepository.findByPriceBetween(minPrice, maxPrice);
+        if (minPrice != null && maxPrice != null) {
+            Optional<List<String>> indexed = columnIndex.findBetween(BookColumnIndex.PRICE, minPrice, maxPrice);
+            if (indexed.isPresent()) {
+                return findAllInOrder(indexed.get());
+            }
+        }
+        return withDerivedStock(bookRepository.findByPriceBetween(minPrice, maxPrice));
     }
 
     public List<Book> getBooksByRatingRange(Double minRating, Double maxRating) {
-        return bookRepository.findByRatingBetween(minRating, maxRating);
+        if (minRating != null && maxRating != null) {
+            Optional<List<String>> indexed = columnIndex.findBetween(BookColumnIndex.RATING, minRating, maxRating);
+            if (indexed.isPresent()) {
+                return findAllInOrder(indexed.get());
+            }
+        }
+        return withDerivedStock(bookRepository.findByRatingBetween(minRating, maxRating));
+    }
+
+    public List<Book> getBooksByYearRange(Integer startYear, Integer endYear) {
+        if (startYear != null && endYear != null) {
+            Optional<List<String>> indexed = columnIndex.findBetween(BookColumnIndex.YEAR, startYear, endYear);
+            if (indexed.isPresent()) {
+                return findAllInOrder(indexed.get());
+            }
+        }
+        return withDerivedStock(bookRepository.findByYearBetween(startYear, endYear));
+    }
+
+    public List<Book> getBooksByPagesRange(Integer minPages, Integer maxPages) {
+        if (minPages != null && maxPages != null) {
+            Optional<List<String>> indexed = columnIndex.findBetween(BookColumnIndex.PAGES, minPages, maxPages);
+            if (indexed.isPresent()) {
+                return findAllInOrder(indexed.get());
+            }
+        }
+        return withDerivedStock(bookRepository.findByPagesBetween(minPages, maxPages));
+    }
+
+    public Map<String, Object> getColumnIndexStats() {
+        return columnIndex.getIndexStats();
     }
 
     public List<Book> getTopRatedBooks(int limit) {
         Pageable pageable = PageRequest.of(0, limit);
-        return bookRepository.findTopRatedBooks(pageable);
+        return withDerivedStock(bookRepository.findTopRatedBooks(pageable));
     }
 
     public List<Book> getBestSellingBooks(int limit) {
         Pageable pageable = PageRequest.of(0, limit);
-        return bookRepository.findBestSellingBooks(pageable);
+        return withDerivedStock(bookRepository.findBestSellingBooks(pageable));
     }
 
     public List<Book> getNewestBooks(int limit) {
         Pageable pageable = PageRequest.of(0, limit);
-        return bookRepository.findNewestBooks(pageable);
+        return withDerivedStock(bookRepository.findNewestBooks(pageable));
     }
 
     public List<Book> getFeaturedBooks() {
-        return bookRepository.findByFeaturedTrue();
+        return withDerivedStock(bookRepository.findByFeaturedTrue());
     }
 
+    /**
+     * The stored inStock flag of a sharded book can lag its shards, so the
+     * flag only preselects and books are kept by their derived stock
+     */
     public List<Book> getInStockBooks() {
-        return bookRepository.findByInStockTrue();
+        List<Book> books = withDerivedStock(bookRepository.findByInStockTrue());
+        books.removeIf(book -> !Boolean.TRUE.equals(book.getInStock()));
+        return books;
     }
 
+    /**
+     * Sharded books are checked against their shard totals, since their stored
+     * stockQuantity is only written back when they sell out or are restocked
+     */
     public List<Book> getLowStockBooks(int threshold) {
-        return bookRepository.findLowStockBooks(threshold);
+        Map<String, Book> books = new LinkedHashMap<>();
+        for (Book book : bookRepository.findLowStockBooks(threshold)) {
+            books.put(book.getId(), book);
+        }
+        for (Book book : bookRepository.findByStockShardsNotNull()) {
+            books.putIfAbsent(book.getId(), book);
+        }
+        List<Book> lowStock = withDerivedStock(new ArrayList<>(books.values()));
+        lowStock.removeIf(book -> book.getStockQuantity() == null || book.getStockQuantity() > threshold);
+        return lowStock;
     }
 
     public Book saveBook(Book book) {
         book.setCreatedAt(LocalDateTime.now());
         book.setUpdatedAt(LocalDateTime.now());
-        return bookRepository.save(book);
+        Book saved = bookRepository.save(book);
+        columnIndex.upsert(saved);
+        searchIndex.upsert(saved);
+        facetIndex.upsert(saved);
+        return saved;
     }
 
     public Book updateBook(String id, Book bookDetails) {
-        Optional<Book> optionalBook = bookRepository.findById(id);
-        if (optionalBook.isPresent()) {
-            Book book = optionalBook.get();
-            
-            // Update fields
-            if (bookDetails.getTitle() != null) book.setTitle(bookDetails.getTitle());
-            if (bookDetails.getAuthor() != null) book.setAuthor(bookDetails.getAuthor());
-            if (bookDetails.getIsbn() != null) book.setIsbn(bookDetails.getIsbn());
-            if (bookDetails.getGenre() != null) book.setGenre(bookDetails.getGenre());
-            if (bookDetails.getPrice() != null) book.setPrice(bookDetails.getPrice());
-            if (bookDetails.getDescription() != null) book.setDescription(bookDetails.getDescription());
-            if (bookDetails.getYear() != null) book.setYear(bookDetails.getYear());
-            if (bookDetails.getPublisher() != null) book.setPublisher(bookDetails.getPublisher());
-            if (bookDetails.getPages() != null) book.setPages(bookDetails.getPages());
-            if (bookDetails.getLanguage() != null) book.setLanguage(bookDetails.getLanguage());
-            if (bookDetails.getStockQuantity() != null) {
-                book.setStockQuantity(bookDetails.getStockQuantity());
-                book.setInStock(bookDetails.getStockQuantity() > 0);
-            }
-            if (bookDetails.getTags() != null) book.setTags(bookDetails.getTags());
-            if (bookDetails.getCoverImage() != null) book.setCoverImage(bookDetails.getCoverImage());
-            if (bookDetails.getFormat() != null) book.setFormat(bookDetails.getFormat());
-            if (bookDetails.getCondition() != null) book.setCondition(bookDetails.getCondition());
-            if (bookDetails.getWeight() != null) book.setWeight(bookDetails.getWeight());
-            if (bookDetails.getDimensions() != null) book.setDimensions(bookDetails.getDimensions());
-            
-            book.setUpdatedAt(LocalDateTime.now());
-            return bookRepository.save(book);
+        Integer stock = bookDetails.getStockQuantity();
+        if (stock != null && stock < 0) {
+            throw new IllegalArgumentException("Stock quantity must be non-negative");
+        }
+        // Partial $set of the supplied fields; stock, holds, reviews and rating
+        // counters are left to their own atomic writes
+        Optional<Book> updated = bookRepository.updateDetails(id, bookDetails);
+        if (updated.isPresent() && stock != null) {
+            updated = stockUpdates.set(id, stock);
+        }
+        if (updated.isPresent()) {
+            Book saved = updated.get();
+            columnIndex.upsert(saved);
+            searchIndex.upsert(saved);
+            facetIndex.upsert(saved);
+            return saved;
         }
         return null;
     }
@@ -138,6 +427,11 @@ public class BookService {
     public boolean deleteBook(String id) {
         if (bookRepository.existsById(id)) {
             bookRepository.deleteById(id);
+            columnIndex.remove(id);
+            searchIndex.remove(id);
+            facetIndex.remove(id);
+            bookReviewRepository.deleteByBookId(id);
+            stockUpdates.unshard(id);
             return true;
         }
         return false;
@@ -148,26 +442,18 @@ public class BookService {
         Map<String, Object> response = new HashMap<>();
         
         try {
-            Optional<Book> optionalBook = bookRepository.findById(bookId);
-            if (optionalBook.isEmpty()) {
+            if (rating == null || rating < 1 || rating > 5) {
                 response.put("success", false);
-                response.put("message", "Book not found");
+                response.put("message", "Rating must be between 1 and 5");
                 return response;
             }
-            
-            Book book = optionalBook.get();
-            
-            // Check if customer already reviewed this book
-            boolean alreadyReviewed = book.getReviews().stream()
-                .anyMatch(review -> review.getUserId().equals(customerId));
-            
-            if (alreadyReviewed) {
+            // Migrate legacy embedded reviews first, so the unique index also sees this customer's old review
+            if (!bookRepository.migrateEmbeddedReviews(bookId)) {
                 response.put("success", false);
-                response.put("message", "You have already reviewed this book");
+                response.put("message", "Book not found");
                 return response;
             }
             
-            // Add new review
             Book.Review review = new Book.Review();
             review.setUserId(customerId);
             review.setUserName(customerName);
@@ -175,13 +461,29 @@ public class BookService {
             review.setComment(comment);
             review.setDate(LocalDateTime.now());
             
-            book.getReviews().add(review);
+            // The unique (bookId, userId) index rejects a second review by the same customer
+            BookReview entry;
+            try {
+                entry = bookReviewRepository.insert(new BookReview(bookId, review));
+            } catch (DuplicateKeyException e) {
+                response.put("success", false);
+                response.put("message", "You have already reviewed this book");
+                return response;
+            }
             
-            // Update book rating
-            book.updateRating();
-            book.setUpdatedAt(LocalDateTime.now());
+            Optional<Book> updated = bookRepository.appendReview(bookId, review);
+            if (updated.isEmpty()) {
+                // Deleted in the meantime
+                bookReviewRepository.delete(entry);
+                response.put("success", false);
+                response.put("message", "Book not found");
+                return response;
+            }
             
-            bookRepository.save(book);
+            Book book = updated.get();
+            columnIndex.upsert(book);
+            searchIndex.upsert(book);
+            facetIndex.upsert(book);
             
             response.put("success", true);
             response.put("message", "Review added successfully");
@@ -195,11 +497,43 @@ public class BookService {
         return response;
     }
 
+    /**
+     * Reviews of a book, newest first; the book document only embeds the latest few
+     */
+    public Page<BookReview> getReviews(String bookId, int page, int size) {
+        return bookReviewRepository.findByBookIdOrderByDateDesc(bookId, PageRequest.of(page, size));
+    }
+
+    /**
+     * Move reviews embedded before running rating sums existed into book_reviews
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrateEmbeddedReviewsAsync() {
+        CompletableFuture.runAsync(() -> {
+            try {
+                for (Book book : bookRepository.migrateEmbeddedReviews()) {
+                    columnIndex.upsert(book);
+                    searchIndex.upsert(book);
+                    facetIndex.upsert(book);
+                }
+            } catch (Exception e) {
+                System.err.println("Review migration failed: " + e.getMessage());
+            }
+        });
+    }
+
     public Map<String, Object> updateStock(String bookId, Integer quantity) {
         Map<String, Object> response = new HashMap<>();
         
         try {
-            Optional<Book> optionalBook = bookRepository.findById(bookId);
+            if (quantity == null || quantity < 0) {
+                response.put("success", false);
+                response.put("message", "Stock quantity must be non-negative");
+                return response;
+            }
+            
+            // Single findAndModify, so concurrent order decrements are not overwritten
+            Optional<Book> optionalBook = stockUpdates.set(bookId, quantity);
             if (optionalBook.isEmpty()) {
                 response.put("success", false);
                 response.put("message", "Book not found");
@@ -207,11 +541,9 @@ public class BookService {
             }
             
             Book book = optionalBook.get();
-            book.setStockQuantity(quantity);
-            book.setInStock(quantity > 0);
-            book.setUpdatedAt(LocalDateTime.now());
-            
-            bookRepository.save(book);
+            columnIndex.upsert(book);
+            searchIndex.upsert(book);
+            facetIndex.upsert(book);
             
             response.put("success", true);
             response.put("message", "Stock updated successfully");
@@ -225,6 +557,37 @@ public class BookService {
         return response;
     }
 
+    /**
+     * Spread a hot book's stock over several shard documents, or back onto the book with 0 shards
+     */
+    public Map<String, Object> updateStockShards(String bookId, int shards) {
+        Map<String, Object> response = new HashMap<>();
+        
+        try {
+            Optional<Book> optionalBook = shards == 0 ? stockUpdates.unshard(bookId) : stockUpdates.shard(bookId, shards);
+            if (optionalBook.isEmpty()) {
+                response.put("success", false);
+                response.put("message", "Book not found");
+                return response;
+            }
+            
+            Book book = optionalBook.get();
+            columnIndex.upsert(book);
+            searchIndex.upsert(book);
+            facetIndex.upsert(book);
+            
+            response.put("success", true);
+            response.put("message", shards == 0 ? "Stock sharding disabled" : "Stock sharded into " + shards);
+            response.put("book", book);
+            
+        } catch (IllegalArgumentException e) {
+            response.put("success", false);
+            response.put("message", e.getMessage());
+        }
+        
+        return response;
+    }
+
     public Map<String, Object> getBookStatistics() {
         Map<String, Object> stats = new HashMap<>();
         
@@ -239,12 +602,10 @@ public class BookService {
             stats.put("stockPercentage", totalBooks > 0 ? (double) inStockBooks / totalBooks * 100 : 0);
             
             // Get genre distribution
-            List<Object> genreStats = bookRepository.countBooksByGenre();
-            stats.put("genreDistribution", genreStats);
+            stats.put("genreDistribution", getFacetCounts(BookFacetIndex.GENRE, Integer.MAX_VALUE));
             
             // Get author statistics
-            List<Object> authorStats = bookRepository.countBooksByAuthor();
-            stats.put("topAuthors", authorStats);
+            stats.put("topAuthors", getFacetCounts(BookFacetIndex.AUTHOR, 10));
             
         } catch (Exception e) {
             stats.put("error", "Failed to get statistics: " + e.getMessage());
@@ -254,18 +615,68 @@ public class BookService {
     }
 
     public List<String> getAllGenres() {
-        return bookRepository.findDistinctGenres();
+        return getDistinctValues(BookFacetIndex.GENRE);
     }
 
     public List<String> getAllAuthors() {
-        return bookRepository.findDistinctAuthors();
+        return getDistinctValues(BookFacetIndex.AUTHOR);
     }
 
     public List<String> getAllPublishers() {
-        return bookRepository.findDistinctPublishers();
+        return getDistinctValues(BookFacetIndex.PUBLISHER);
     }
 
     public List<String> getAllLanguages() {
-        return bookRepository.findDistinctLanguages();
+        return getDistinctValues(BookFacetIndex.LANGUAGE);
+    }
+
+    private List<String> getDistinctValues(String facet) {
+        return facetIndex.distinctValues(facet).orElseGet(() -> bookRepository.findDistinctValues(facet));
+    }
+
+    /**
+     * Facet counts for the whole catalog, or for the books matching a search
+     * @param query Search filter; null or blank counts the whole catalog
+     * @param fuzzy Whether the search tolerates typos
+     * @param limit Maximum values per facet, most frequent first
+     */
+    public Map<String, Object> getFacets(String query, boolean fuzzy, int limit) {
+        limit = Math.max(1, limit);
+        Map<String, Object> result = new HashMap<>();
+        if (query == null || query.isBlank()) {
+            Map<String, List<Map<String, Object>>> facets = facetIndex.getFacetCounts(limit).orElse(null);
+            if (facets == null) {
+                facets = new LinkedHashMap<>();
+                for (String facet : BookFacetIndex.FACETS.keySet()) {
+                    facets.put(facet, new ArrayList<>(bookRepository.countByField(facet, limit)));
+                }
+            }
+            result.put("facets", facets);
+        } else {
+            // Count from the facet index's values by id; load documents only while an index is cold
+            Optional<List<String>> ids = searchIndex.search(query, fuzzy);
+            Optional<Map<String, List<Map<String, Object>>>> indexed =
+                ids.isPresent() ? facetIndex.countFacetsById(ids.get(), limit) : Optional.empty();
+            if (indexed.isPresent()) {
+                result.put("facets", indexed.get());
+                result.put("matchingBooks", ids.get().size());
+            } else {
+                List<Book> matches = ids.isPresent() ? findAllInOrder(ids.get()) : bookRepository.searchByText(query);
+                result.put("facets", BookFacetIndex.countFacets(matches, limit));
+                result.put("matchingBooks", matches.size());
+            }
+            result.put("query", query);
+            result.put("fuzzy", fuzzy);
+        }
+        return result;
+    }
+
+    private List<Map<String, Object>> getFacetCounts(String facet, int limit) {
+        return facetIndex.getFacetCounts(facet, limit)
+            .orElseGet(() -> new ArrayList<>(bookRepository.countByField(facet, limit)));
+    }
+
+    public Map<String, Object> getFacetIndexStats() {
+        return facetIndex.getIndexStats();
     }
 }
\ No newline at end of file
@@ -1,7 +1,11 @@
 package com.bookstore.service;
 
+import com.bookstore.datastructures.TtlCache;
 import com.bookstore.model.Customer;
 import com.bookstore.repository.CustomerRepository;
+import com.bookstore.repository.FieldProjection;
+import com.bookstore.repository.KeysetPagination;
+import com.bookstore.util.PriorityUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -11,18 +15,38 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 public class CustomerService {
 
+    // Default list fieldset: account summary, without cart, wishlist, searchHistory and preferences
+    public static final List<String> LIST_FIELDS = List.of(
+        "id", "fullName", "email", "phone", "membershipLevel", "loyaltyPoints", "totalSpent",
+        "orderCount", "lastLogin", "registrationDate", "role", "isActive");
+
     @Autowired
     private CustomerRepository customerRepository;
 
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private KeysetPagination keysetPagination;
+
+    @Autowired
+    private FieldProjection fieldProjection;
+
+    // customerId -> membership priority, read on every order; invalidated when the level can change
+    private static final int PRIORITY_CACHE_SIZE = 10_000;
+    private static final long PRIORITY_CACHE_TTL_MILLIS = 5 * 60 * 1000;
+    private final TtlCache<String, Integer> priorityCache =
+        new TtlCache<>(PRIORITY_CACHE_SIZE, PRIORITY_CACHE_TTL_MILLIS);
+
     /**
      * Create a new customer
      */
@@ -65,11 +89,48 @@ public class CustomerService {
         return customerRepository.findAll();
     }
 
+    public List<Customer> getAllCustomers(Set<String> fields) {
+        return fieldProjection.findAll(Customer.class, fields);
+    }
+
     public Page<Customer> getAllCustomers(int page, int size, String sortBy, String sortDirection) {
+        return getAllCustomers(page, size, sortBy, sortDirection, null);
+    }
+
+    /**
+     * @param fields Properties to load (see resolveListFields), or null for whole documents
+     */
+    public Page<Customer> getAllCustomers(int page, int size, String sortBy, String sortDirection, Set<String> fields) {
         Sort sort = sortDirection.equalsIgnoreCase("desc") ? 
             Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
         Pageable pageable = PageRequest.of(page, size, sort);
-        return customerRepository.findAll(pageable);
+        return fieldProjection.findPage(Customer.class, pageable, fields);
+    }
+
+    /**
+     * Keyset page ordered by (sortBy, id), continuing after the given cursor.
+     * Unlike the offset overload this costs the same at any depth and runs no count query.
+     */
+    public KeysetPagination.CursorPage<Customer> getAllCustomers(String cursor, int size, String sortBy,
+                                                                String sortDirection, boolean estimateTotal, Set<String> fields) {
+        Sort.Direction direction = sortDirection.equalsIgnoreCase("desc") ? Sort.Direction.DESC : Sort.Direction.ASC;
+        return keysetPagination.findPage(Customer.class, sortBy, direction, cursor, size, estimateTotal, fields);
+    }
+
+    /**
+     * Fieldset for list responses from a fields= parameter: a comma-separated
+     * list of properties, "all" for whole documents, or LIST_FIELDS when absent
+     */
+    public Set<String> resolveListFields(String fields) {
+        return fieldProjection.resolve(Customer.class, fields, LIST_FIELDS);
+    }
+
+    public List<?> toListView(List<Customer> customers, Set<String> fields) {
+        return fieldProjection.toView(Customer.class, customers, fields);
+    }
+
+    public Map<String, Object> measureListProjection(String fields, int size) throws Exception {
+        return fieldProjection.measure(Customer.class, resolveListFields(fields), size);
     }
 
     /**
@@ -79,6 +140,36 @@ public class CustomerService {
         return customerRepository.findById(id);
     }
 
+    /**
+     * Get the order priority of a customer's membership level (see PriorityUtils).
+     * Cached for a few minutes; a miss loads only the membershipLevel field.
+     * @return Priority 1-4, or 1 for unknown customers
+     */
+    public int getMembershipPriority(String customerId) {
+        if (customerId == null) {
+            return 1;
+        }
+        return priorityCache.get(customerId, id -> customerRepository.findMembershipLevelById(id)
+            .map(customer -> PriorityUtils.getMembershipPriority(customer.getMembershipLevel()))
+            .orElse(1));
+    }
+
+    /**
+     * Hit/miss counters of the membership priority cache
+     */
+    public Map<String, Object> getPriorityCacheStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", priorityCache.size());
+        stats.put("capacity", priorityCache.getCapacity());
+        stats.put("ttlSeconds", priorityCache.getTtlMillis() / 1000);
+        stats.put("hits", priorityCache.getHits());
+        stats.put("misses", priorityCache.getMisses());
+        stats.put("hitRatio", priorityCache.getHitRatio());
+        stats.put("expirations", priorityCache.getExpirations());
+        stats.put("evictions", priorityCache.getEvictions());
+        return stats;
+    }
+
     /**
      * Get customer by email
      */
@@ -115,7 +206,9 @@ public class CustomerService {
             customer.setMembershipLevel(customerDetails.getMembershipLevel());
         }
 
-        return customerRepository.save(customer);
+        Customer saved = customerRepository.save(customer);
+        priorityCache.invalidate(id);
+        return saved;
     }
 
     /**
@@ -141,7 +234,9 @@ public class CustomerService {
         // Update membership level based on loyalty points
         updateMembershipLevel(customer);
         
-        return customerRepository.save(customer);
+        Customer saved = customerRepository.save(customer);
+        priorityCache.invalidate(customerId);
+        return saved;
     }
 
     /**
@@ -156,7 +251,9 @@ public class CustomerService {
         // Update membership level based on total spent
         updateMembershipLevel(customer);
         
-        return customerRepository.save(customer);
+        Customer saved = customerRepository.save(customer);
+        priorityCache.invalidate(customerId);
+        return saved;
     }
 
     /**
@@ -200,6 +297,7 @@ public class CustomerService {
             throw new RuntimeException("Customer not found with id: " + id);
         }
         customerRepository.deleteById(id);
+        priorityCache.invalidate(id);
     }
 
     /**
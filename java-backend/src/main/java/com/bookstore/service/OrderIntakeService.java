@@ -0,0 +1,520 @@
+package com.bookstore.service;
+
+import com.bookstore.datastructures.CircularQueue;
+import com.bookstore.model.Book;
+import com.bookstore.model.Order;
+import com.bookstore.repository.StockUpdates;
+import com.bookstore.util.PriorityUtils;
+import com.mongodb.bulk.BulkWriteError;
+import jakarta.annotation.PreDestroy;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Asynchronous order intake with group commit.
+ *
+ * Submitting validates an order, numbers it and looks up its membership
+ * priority on the request thread, then parks it in a bounded in-process
+ * queue (one {@link CircularQueue} per {@link PriorityUtils} level) so the
+ * caller gets the order number without waiting on any write. Worker
+ * threads take everything that queued up while they were busy, highest
+ * priority first, and commit it as one batch: one query loads the books
+ * of every order, one conditional bulk write takes the stock of all
+ * orders together and one unordered bulk insert writes them. When the
+ * batch as a whole is short of stock its orders take stock one by one in
+ * priority order, so the higher tiers get the last copies.
+ *
+ * The outcome of recent submissions can be looked up by order number.
+ * Queued orders live only in memory and are lost if the process dies
+ * before their batch commits. Draining is strictly by priority, so a
+ * steady stream of higher-tier orders delays the lower tiers; each level
+ * has its own capacity, so a full level never blocks the others.
+ */
+@Service
+public class OrderIntakeService {
+    
+    public static final String QUEUED = "Queued";
+    public static final String CREATED = "Created";
+    public static final String REJECTED = "Rejected";
+    
+    private static final int LEVELS = 4;
+    private static final int QUEUE_CAPACITY = 1000; // per priority level
+    private static final int MAX_BATCH_SIZE = 100;
+    private static final int WORKERS = 2;
+    private static final int OUTCOMES_KEPT = 10_000;
+    private static final int LATENCY_SAMPLES = 1024;
+    
+    @Autowired
+    private OrderService orderService;
+    
+    @Autowired
+    private StockUpdates stockUpdates;
+    
+    @Autowired
+    private MongoTemplate mongoTemplate;
+    
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final List<CircularQueue<Job>> queues = new ArrayList<>(); // index = priority - 1
+    private int queued;
+    private volatile boolean running;
+    private final List<Thread> workers = new ArrayList<>();
+    
+    // Recent outcomes by order number, oldest evicted first; guarded by itself
+    private final Map<String, Outcome> outcomes = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Outcome> eldest) {
+            return size() > OUTCOMES_KEPT;
+        }
+    };
+    
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong batchedOrders = new AtomicLong();
+    private final AtomicLong stockFallbacks = new AtomicLong();
+    private final AtomicLong commitNanos = new AtomicLong();
+    private volatile int lastBatchSize;
+    private volatile int largestBatchSize;
+    
+    // Ring of the most recent submit-to-commit latencies; guarded by itself
+    private final long[] latencies = new long[LATENCY_SAMPLES];
+    private long latencyCount;
+    
+    private static final class Job {
+        final Order order;
+        final long submittedNanos = System.nanoTime();
+        
+        Job(Order order) {
+            this.order = order;
+        }
+    }
+    
+    public OrderIntakeService() {
+        for (int i = 0; i < LEVELS; i++) {
+            queues.add(new CircularQueue<>(QUEUE_CAPACITY));
+        }
+    }
+    
+    /**
+     * Start the workers once the application is up
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        running = true;
+        for (int i = 0; i < WORKERS; i++) {
+            Thread worker = new Thread(this::work, "order-intake-" + i);
+            worker.setDaemon(true);
+            workers.add(worker);
+            worker.start();
+        }
+    }
+    
+    /**
+     * Stop accepting orders and give the workers a chance to commit what is queued
+     */
+    @PreDestroy
+    public void stop() {
+        lock.lock();
+        try {
+            running = false;
+            notEmpty.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        for (Thread worker : workers) {
+            try {
+                worker.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+    
+    /**
+     * Validate and queue an order for the next batch
+     * Time Complexity: O(n) for n items, plus the customer lookup for the priority
+     * @return The order with its order number, tracking number and priority set
+     * @throws IllegalArgumentException if the order is malformed
+     * @throws RejectedExecutionException if intake is stopped or the order's priority level is full
+     */
+    public Order submit(Order order) {
+        if (order.getCustomerId() == null || order.getCustomerId().isBlank()) {
+            throw new IllegalArgumentException("Customer ID is required");
+        }
+        if (order.getItems() == null || order.getItems().isEmpty()) {
+            throw new IllegalArgumentException("Order items cannot be empty");
+        }
+        for (Order.OrderItem item : order.getItems()) {
+            if (item.getBookId() == null || item.getQuantity() == null || item.getQuantity() <= 0) {
+                throw new IllegalArgumentException("Every item needs a book ID and a positive quantity");
+            }
+        }
+        if (order.getReservationId() != null) {
+            throw new IllegalArgumentException("Orders placed from a reservation cannot be queued");
+        }
+        
+        orderService.prepareOrder(order);
+        int priority = order.getPriority() != null && PriorityUtils.isValidPriority(order.getPriority())
+            ? order.getPriority() : 1;
+        
+        Job job = new Job(order);
+        record(new Outcome(order.getOrderNumber(), QUEUED, null, null, null));
+        lock.lock();
+        try {
+            if (!running) {
+                forget(order.getOrderNumber());
+                throw new RejectedExecutionException("Order intake is not accepting orders");
+            }
+            if (!queues.get(priority - 1).enqueue(job)) {
+                forget(order.getOrderNumber());
+                throw new RejectedExecutionException("Order intake queue is full, try again shortly");
+            }
+            queued++;
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+        submitted.incrementAndGet();
+        return order;
+    }
+    
+    /**
+     * Get what became of a submitted order
+     * @param orderNumber Number returned by submit
+     * @return Outcome, or empty if unknown or evicted
+     */
+    public Optional<Outcome> getOutcome(String orderNumber) {
+        synchronized (outcomes) {
+            return Optional.ofNullable(outcomes.get(orderNumber));
+        }
+    }
+    
+    /**
+     * Queue depth, batch sizes and submit-to-commit latency
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        Map<String, Integer> depthByPriority = new LinkedHashMap<>();
+        int depth;
+        lock.lock();
+        try {
+            for (int level = LEVELS; level >= 1; level--) {
+                depthByPriority.put(PriorityUtils.getPriorityDescription(level), queues.get(level - 1).size());
+            }
+            depth = queued;
+        } finally {
+            lock.unlock();
+        }
+        stats.put("running", running);
+        stats.put("workers", WORKERS);
+        stats.put("queueDepth", depth);
+        stats.put("queueDepthByPriority", depthByPriority);
+        stats.put("queueCapacityPerPriority", QUEUE_CAPACITY);
+        stats.put("submitted", submitted.get());
+        stats.put("created", created.get());
+        stats.put("rejected", rejected.get());
+        
+        long batchCount = batches.get();
+        Map<String, Object> batchStats = new LinkedHashMap<>();
+        batchStats.put("count", batchCount);
+        batchStats.put("maxSize", MAX_BATCH_SIZE);
+        batchStats.put("averageSize", batchCount == 0 ? 0.0 : (double) batchedOrders.get() / batchCount);
+        batchStats.put("lastSize", lastBatchSize);
+        batchStats.put("largestSize", largestBatchSize);
+        batchStats.put("averageCommitMs", batchCount == 0 ? 0.0 : commitNanos.get() / 1_000_000.0 / batchCount);
+        batchStats.put("stockFallbacks", stockFallbacks.get());
+        stats.put("batches", batchStats);
+        
+        long[] samples;
+        synchronized (latencies) {
+            samples = Arrays.copyOf(latencies, (int) Math.min(latencyCount, LATENCY_SAMPLES));
+        }
+        Arrays.sort(samples);
+        Map<String, Object> latency = new LinkedHashMap<>();
+        latency.put("samples", samples.length);
+        latency.put("p50Ms", percentileMillis(samples, 0.50));
+        latency.put("p95Ms", percentileMillis(samples, 0.95));
+        latency.put("p99Ms", percentileMillis(samples, 0.99));
+        latency.put("maxMs", samples.length == 0 ? 0.0 : samples[samples.length - 1] / 1_000_000.0);
+        stats.put("endToEndLatency", latency);
+        return stats;
+    }
+    
+    private void work() {
+        while (true) {
+            List<Job> batch;
+            try {
+                batch = takeBatch();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+            try {
+                commit(batch);
+            } catch (RuntimeException e) {
+                System.err.println("Order intake batch failed: " + e.getMessage());
+                for (Job job : batch) {
+                    Optional<Outcome> outcome = getOutcome(job.order.getOrderNumber());
+                    if (outcome.isPresent() && QUEUED.equals(outcome.get().getStatus())) {
+                        reject(job, "Order could not be processed");
+                    }
+                }
+            }
+        }
+    }
+    
+    /**
+     * Wait for work, then take up to MAX_BATCH_SIZE orders, highest priority first
+     * @return The batch, or an empty list once stopped and drained
+     */
+    private List<Job> takeBatch() throws InterruptedException {
+        lock.lock();
+        try {
+            while (queued == 0) {
+                if (!running) {
+                    return List.of();
+                }
+                notEmpty.await();
+            }
+            List<Job> batch = new ArrayList<>();
+            for (int level = LEVELS - 1; level >= 0 && batch.size() < MAX_BATCH_SIZE; level--) {
+                CircularQueue<Job> queue = queues.get(level);
+                while (!queue.isEmpty() && batch.size() < MAX_BATCH_SIZE) {
+                    batch.add(queue.dequeue());
+                }
+            }
+            queued -= batch.size();
+            return batch;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Price, take stock for and insert a batch with one round trip each
+     * (plus one per order when the batch is short of stock)
+     */
+    private void commit(List<Job> batch) {
+        long start = System.nanoTime();
+        List<Order> orders = new ArrayList<>();
+        for (Job job : batch) {
+            orders.add(job.order);
+        }
+        
+        Map<String, Book> books;
+        try {
+            books = orderService.findOrderBooks(orders);
+        } catch (RuntimeException e) {
+            for (Job job : batch) {
+                reject(job, "Failed to load books: " + e.getMessage());
+            }
+            return;
+        }
+        
+        List<Job> priced = new ArrayList<>();
+        for (Job job : batch) {
+            try {
+                orderService.priceItems(job.order, books);
+                orderService.calculateOrderTotals(job.order);
+                priced.add(job);
+            } catch (RuntimeException e) {
+                reject(job, e.getMessage());
+            }
+        }
+        
+        insert(takeStock(priced, books));
+        
+        batches.incrementAndGet();
+        batchedOrders.addAndGet(batch.size());
+        commitNanos.addAndGet(System.nanoTime() - start);
+        lastBatchSize = batch.size();
+        if (batch.size() > largestBatchSize) {
+            largestBatchSize = batch.size();
+        }
+    }
+    
+    /**
+     * Take the stock of the whole batch in one conditional bulk write; if any
+     * book falls short, nothing was taken and orders go one by one in batch
+     * (priority) order
+     * @return Jobs whose stock was taken
+     */
+    private List<Job> takeStock(List<Job> priced, Map<String, Book> books) {
+        if (priced.isEmpty()) {
+            return priced;
+        }
+        Map<String, Integer> total = new LinkedHashMap<>();
+        for (Job job : priced) {
+            OrderService.stockQuantities(job.order).forEach((bookId, quantity) -> total.merge(bookId, quantity, Integer::sum));
+        }
+        try {
+            if (stockUpdates.take(total).isEmpty()) {
+                return priced;
+            }
+        } catch (RuntimeException e) {
+            for (Job job : priced) {
+                reject(job, "Failed to update stock: " + e.getMessage());
+            }
+            return List.of();
+        }
+        
+        stockFallbacks.incrementAndGet();
+        List<Job> stocked = new ArrayList<>();
+        for (Job job : priced) {
+            Map<String, Integer> quantities = OrderService.stockQuantities(job.order);
+            try {
+                Map<String, Integer> shortfalls = stockUpdates.take(quantities);
+                if (shortfalls.isEmpty()) {
+                    stocked.add(job);
+                } else {
+                    reject(job, OrderService.insufficientStock(books, quantities, shortfalls).getMessage());
+                }
+            } catch (RuntimeException e) {
+                reject(job, "Failed to update stock: " + e.getMessage());
+            }
+        }
+        return stocked;
+    }
+    
+    /**
+     * Insert the orders in one unordered bulk write; orders that fail give their stock back
+     */
+    private void insert(List<Job> stocked) {
+        if (stocked.isEmpty()) {
+            return;
+        }
+        Map<String, Integer> restock = new LinkedHashMap<>();
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Order.class);
+        List<Job> prepared = new ArrayList<>();
+        for (Job job : stocked) {
+            try {
+                // Ids are assigned here because bulk inserts do not write generated ids back
+                job.order.setId(new ObjectId().toHexString());
+                orderService.addInitialStatus(job.order);
+                bulk.insert(job.order);
+                prepared.add(job);
+            } catch (RuntimeException e) {
+                OrderService.stockQuantities(job.order).forEach((bookId, quantity) -> restock.merge(bookId, quantity, Integer::sum));
+                reject(job, "Failed to prepare order: " + e.getMessage());
+            }
+        }
+        
+        Set<Integer> failed = new HashSet<>();
+        String error = null;
+        if (!prepared.isEmpty()) {
+            try {
+                bulk.execute();
+            } catch (BulkOperationException e) {
+                for (BulkWriteError writeError : e.getErrors()) {
+                    failed.add(writeError.getIndex());
+                }
+                error = e.getMessage();
+            } catch (RuntimeException e) {
+                for (int i = 0; i < prepared.size(); i++) {
+                    failed.add(i);
+                }
+                error = e.getMessage();
+            }
+        }
+        
+        long now = System.nanoTime();
+        for (int i = 0; i < prepared.size(); i++) {
+            Job job = prepared.get(i);
+            if (failed.contains(i)) {
+                OrderService.stockQuantities(job.order).forEach((bookId, quantity) -> restock.merge(bookId, quantity, Integer::sum));
+                reject(job, "Failed to save order: " + error);
+            } else {
+                long latency = now - job.submittedNanos;
+                synchronized (latencies) {
+                    latencies[(int) (latencyCount++ % LATENCY_SAMPLES)] = latency;
+                }
+                record(new Outcome(job.order.getOrderNumber(), CREATED, job.order.getId(), null, latency / 1_000_000.0));
+                created.incrementAndGet();
+            }
+        }
+        if (!restock.isEmpty()) {
+            try {
+                stockUpdates.release(restock);
+            } catch (RuntimeException e) {
+                System.err.println("Failed to restore stock for rejected orders: " + e.getMessage());
+            }
+        }
+    }
+    
+    private void reject(Job job, String message) {
+        record(new Outcome(job.order.getOrderNumber(), REJECTED, null, message,
+            (System.nanoTime() - job.submittedNanos) / 1_000_000.0));
+        rejected.incrementAndGet();
+    }
+    
+    private void record(Outcome outcome) {
+        synchronized (outcomes) {
+            outcomes.put(outcome.getOrderNumber(), outcome);
+        }
+    }
+    
+    private void forget(String orderNumber) {
+        synchronized (outcomes) {
+            outcomes.remove(orderNumber);
+        }
+    }
+    
+    private static double percentileMillis(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0.0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1_000_000.0;
+    }
+    
+    /**
+     * What became of a submitted order
+     */
+    public static final class Outcome {
+        private final String orderNumber;
+        private final String status;
+        private final String orderId;
+        private final String message;
+        private final Double latencyMs;
+        
+        public Outcome(String orderNumber, String status, String orderId, String message, Double latencyMs) {
+            this.orderNumber = orderNumber;
+            this.status = status;
+            this.orderId = orderId;
+            this.message = message;
+            this.latencyMs = latencyMs;
+        }
+        
+        public String getOrderNumber() { return orderNumber; }
+        public String getStatus() { return status; }
+        public String getOrderId() { return orderId; }
+        public String getMessage() { return message; }
+        public Double getLatencyMs() { return latencyMs; }
+    }
+}
@@ -1,27 +1,69 @@
 package com.bookstore.service;
 
+import com.bookstore.algorithms.ExternalMergeSort;
+import com.bookstore.algorithms.MergeSort;
 import com.bookstore.model.Order;
 import com.bookstore.model.Book;
-import com.bookstore.model.Customer;
+import com.bookstore.model.Reservation;
 import com.bookstore.repository.OrderRepository;
 import com.bookstore.repository.BookRepository;
+import com.bookstore.repository.FieldProjection;
+import com.bookstore.repository.KeysetPagination;
+import com.bookstore.repository.StockUpdates;
 import com.bookstore.service.CustomerService;
-import com.bookstore.util.PriorityUtils;
+import com.mongodb.client.MongoCursor;
+import org.bson.BsonValue;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.DocumentCodec;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.stereotype.Service;
 
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 @Service
 public class OrderService {
 
+    // In-memory sort keys, named after the document fields used by Sort.by
+    private static final Map<String, MergeSort.SortKey<Order>> SORT_KEYS = Map.of(
+        "orderDate", MergeSort.SortKey.numeric(order -> 
+            order.getOrderDate() != null ? order.getOrderDate().toEpochSecond(ZoneOffset.UTC) : null),
+        "total", MergeSort.SortKey.numeric(Order::getTotal),
+        "subtotal", MergeSort.SortKey.numeric(Order::getSubtotal),
+        "priority", MergeSort.SortKey.numeric(Order::getPriority),
+        "status", MergeSort.SortKey.text(Order::getStatus),
+        "paymentStatus", MergeSort.SortKey.text(Order::getPaymentStatus),
+        "customerId", MergeSort.SortKey.text(Order::getCustomerId),
+        "orderNumber", MergeSort.SortKey.text(Order::getOrderNumber)
+    );
+
+    // Default list fieldset: order summary with items and addresses, without statusHistory and notes
+    public static final List<String> LIST_FIELDS = List.of(
+        "id", "customerId", "orderNumber", "items", "shippingAddress", "paymentInfo", "subtotal",
+        "tax", "shippingCost", "discount", "total", "status", "paymentStatus", "trackingNumber",
+        "estimatedDelivery", "orderDate", "priority");
+
     @Autowired
     private OrderRepository orderRepository;
 
@@ -31,10 +73,81 @@ public class OrderService {
     @Autowired
     private CustomerService customerService;
 
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private KeysetPagination keysetPagination;
+
+    @Autowired
+    private FieldProjection fieldProjection;
+    
+    @Autowired
+    private StockUpdates stockUpdates;
+    
+    @Autowired
+    private ReservationService reservationService;
+
     /**
      * Create a new order
      */
     public Order createOrder(Order order) {
+        prepareOrder(order);
+        
+        // An order placed from a reservation takes its items, prices and stock from the hold
+        Reservation reservation = null;
+        if (order.getReservationId() != null) {
+            reservation = reservationService.consume(order.getReservationId(), order.getCustomerId());
+        }
+        
+        // From here on a consumed hold or taken stock must be given back on failure
+        boolean stockTaken = false;
+        try {
+            Map<String, Book> books = Collections.emptyMap();
+            if (reservation != null) {
+                List<Order.OrderItem> items = new ArrayList<>();
+                for (Order.OrderItem held : reservation.getItems()) {
+                    items.add(new Order.OrderItem(held.getBookId(), held.getTitle(), held.getAuthor(),
+                        held.getIsbn(), held.getPrice(), held.getQuantity()));
+                }
+                order.setItems(items);
+            } else {
+                // Load every referenced book in one query and price the items from it
+                books = findOrderBooks(List.of(order));
+                priceItems(order, books);
+            }
+            
+            // Calculate totals
+            calculateOrderTotals(order);
+            
+            // Validate and update book stock
+            if (reservation == null) {
+                validateAndUpdateStock(order, books);
+                stockTaken = true;
+            }
+            
+            addInitialStatus(order);
+            
+            Order saved = orderRepository.save(order);
+            if (reservation != null) {
+                reservationService.confirm(reservation, saved.getId());
+            }
+            return saved;
+        } catch (RuntimeException e) {
+            if (reservation != null) {
+                reservationService.cancel(reservation);
+            } else if (stockTaken) {
+                stockUpdates.release(stockQuantities(order));
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Assign order and tracking numbers, default statuses and the
+     * membership-based priority of a new order
+     */
+    void prepareOrder(Order order) {
         // Generate order number
         order.setOrderNumber(generateOrderNumber());
         
@@ -52,26 +165,18 @@ public class OrderService {
         
         // Calculate and set priority based on customer membership level
         try {
-            Optional<Customer> customerOpt = customerService.getCustomerById(order.getCustomerId());
-            if (customerOpt.isPresent()) {
-                Customer customer = customerOpt.get();
-                int priority = PriorityUtils.getMembershipPriority(customer.getMembershipLevel());
-                order.setPriority(priority);
-            } else {
-                // Default to lowest priority if customer not found
-                order.setPriority(1);
-            }
+            // Cached; unknown customers get the lowest priority
+            order.setPriority(customerService.getMembershipPriority(order.getCustomerId()));
         } catch (Exception e) {
             // Default to lowest priority if there's an error
             order.setPriority(1);
         }
-        
-        // Calculate totals
-        calculateOrderTotals(order);
-        
-        // Validate and update book stock
-        validateAndUpdateStock(order);
-        
+    }
+
+    /**
+     * Stamp the order date (if not provided) and the first status history entry
+     */
+    void addInitialStatus(Order order) {
         // Set order date if not provided
         if (order.getOrderDate() == null) {
             order.setOrderDate(LocalDateTime.now());
@@ -83,8 +188,6 @@ public class OrderService {
         initialStatus.setTimestamp(LocalDateTime.now());
         initialStatus.setNotes("Order created");
         order.getStatusHistory().add(initialStatus);
-        
-        return orderRepository.save(order);
     }
 
     /**
@@ -94,11 +197,119 @@ public class OrderService {
         return orderRepository.findAll();
     }
 
+    public List<Order> getAllOrders(Set<String> fields) {
+        return fieldProjection.findAll(Order.class, fields);
+    }
+
     public Page<Order> getAllOrders(int page, int size, String sortBy, String sortDir) {
+        return getAllOrders(page, size, sortBy, sortDir, null);
+    }
+
+    /**
+     * @param fields Properties to load (see resolveListFields), or null for whole documents
+     */
+    public Page<Order> getAllOrders(int page, int size, String sortBy, String sortDir, Set<String> fields) {
         Sort sort = sortDir.equalsIgnoreCase("desc") ? 
             Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
         Pageable pageable = PageRequest.of(page, size, sort);
-        return orderRepository.findAll(pageable);
+        return fieldProjection.findPage(Order.class, pageable, fields);
+    }
+
+    /**
+     * Keyset page ordered by (sortBy, id), continuing after the given cursor.
+     * Unlike the offset overload this costs the same at any depth and runs no count query.
+     */
+    public KeysetPagination.CursorPage<Order> getAllOrders(String cursor, int size, String sortBy, String sortDir,
+                                                          boolean estimateTotal, Set<String> fields) {
+        Sort.Direction direction = sortDir.equalsIgnoreCase("desc") ? Sort.Direction.DESC : Sort.Direction.ASC;
+        return keysetPagination.findPage(Order.class, sortBy, direction, cursor, size, estimateTotal, fields);
+    }
+
+    /**
+     * Fieldset for list responses from a fields= parameter: a comma-separated
+     * list of properties, "all" for whole documents, or LIST_FIELDS when absent
+     */
+    public Set<String> resolveListFields(String fields) {
+        return fieldProjection.resolve(Order.class, fields, LIST_FIELDS);
+    }
+
+    public List<?> toListView(List<Order> orders, Set<String> fields) {
+        return fieldProjection.toView(Order.class, orders, fields);
+    }
+
+    public Map<String, Object> measureListProjection(String fields, int size) throws Exception {
+        return fieldProjection.measure(Order.class, resolveListFields(fields), size);
+    }
+
+    /**
+     * Sort an already loaded list of orders in memory.
+     * sortBy is a comma-separated list of fields (e.g. "priority,-orderDate");
+     * a leading '-' flips that field relative to sortDir. Unknown fields are ignored.
+     */
+    public List<Order> sortOrders(List<Order> orders, String sortBy, String sortDir) {
+        return MergeSort.sortBySpec(orders, sortBy, sortDir, SORT_KEYS);
+    }
+
+    // Bounds on the orders held in memory per external sort run: small runs mean many
+    // open run files, large ones defeat the point of spilling to disk
+    public static final int MIN_SORT_RUN_SIZE = 1_000;
+    public static final int MAX_SORT_RUN_SIZE = 500_000;
+
+    /**
+     * Check the arguments of streamOrdersSorted without touching the database,
+     * so callers can reject a request before they start streaming a response
+     * @throws IllegalArgumentException if sortBy or runSize is not supported
+     */
+    public static void validateSortedStream(String sortBy, int runSize) {
+        if (!"orderDate".equals(sortBy) && !"total".equals(sortBy)) {
+            throw new IllegalArgumentException("External sort supports orderDate or total, not: " + sortBy);
+        }
+        if (runSize < MIN_SORT_RUN_SIZE || runSize > MAX_SORT_RUN_SIZE) {
+            throw new IllegalArgumentException("Run size must be between " + MIN_SORT_RUN_SIZE + 
+                " and " + MAX_SORT_RUN_SIZE);
+        }
+    }
+
+    /**
+     * Stream every order sorted by orderDate or total using the external merge sort.
+     * Orders are read with a cursor as raw BSON, spilled to disk in sorted runs and
+     * merged back lazily, so the heap only ever holds runSize orders.
+     * Missing keys sort first ascending and last descending. The iterator must be closed.
+     */
+    public ExternalMergeSort.SortedIterator<Order> streamOrdersSorted(String sortBy, String sortDir, int runSize) 
+            throws IOException {
+        validateSortedStream(sortBy, runSize);
+        
+        Comparator<SortableOrder> comparator = Comparator.comparingDouble(order -> order.key);
+        if ("desc".equalsIgnoreCase(sortDir)) {
+            comparator = comparator.reversed();
+        }
+        ExternalMergeSort<SortableOrder> sorter = 
+            new ExternalMergeSort<>(SortableOrder.CODEC, comparator, runSize);
+        
+        ExternalMergeSort.SortedIterator<SortableOrder> sorted;
+        try (MongoCursor<RawBsonDocument> cursor = mongoTemplate
+                .getCollection(mongoTemplate.getCollectionName(Order.class))
+                .withDocumentClass(RawBsonDocument.class)
+                .find()
+                .batchSize(1000)
+                .iterator()) {
+            sorted = sorter.sort(new Iterator<SortableOrder>() {
+                @Override
+                public boolean hasNext() {
+                    return cursor.hasNext();
+                }
+                
+                @Override
+                public SortableOrder next() {
+                    return SortableOrder.of(cursor.next(), sortBy);
+                }
+            });
+        }
+        
+        DocumentCodec documentCodec = new DocumentCodec();
+        return sorted.map(order -> mongoTemplate.getConverter().read(Order.class, 
+            new RawBsonDocument(order.bson).decode(documentCodec)));
     }
 
     /**
@@ -279,7 +490,7 @@ public class OrderService {
         return "TRK-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
     }
 
-    private void calculateOrderTotals(Order order) {
+    void calculateOrderTotals(Order order) {
         double subtotal = order.getItems().stream()
             .mapToDouble(item -> item.getPrice() * item.getQuantity())
             .sum();
@@ -312,41 +523,118 @@ public class OrderService {
         });
     }
 
-    private void validateAndUpdateStock(Order order) {
+    /**
+     * Fetch the books of all line items of the given orders with a single $in query
+     * Time Complexity: O(n) for n items, one round trip
+     */
+    Map<String, Book> findOrderBooks(Collection<Order> orders) {
+        Set<String> bookIds = new LinkedHashSet<>();
+        for (Order order : orders) {
+            for (Order.OrderItem item : order.getItems()) {
+                bookIds.add(item.getBookId());
+            }
+        }
+        Map<String, Book> books = new HashMap<>();
+        for (Book book : bookRepository.findAllById(bookIds)) {
+            books.put(book.getId(), book);
+        }
+        return books;
+    }
+
+    /**
+     * Copy book details (and price, unless given) onto the order's items
+     * @throws RuntimeException if an item's book is missing from books
+     */
+    void priceItems(Order order, Map<String, Book> books) {
         for (Order.OrderItem item : order.getItems()) {
-            Optional<Book> bookOpt = bookRepository.findById(item.getBookId());
-            if (bookOpt.isPresent()) {
-                Book book = bookOpt.get();
-                if (book.getStockQuantity() < item.getQuantity()) {
-                    throw new RuntimeException("Insufficient stock for book: " + book.getTitle() + 
-                        ". Available: " + book.getStockQuantity() + ", Requested: " + item.getQuantity());
-                }
-                
-                // Update stock
-                book.updateStock(-item.getQuantity());
-                bookRepository.save(book);
-                
-                // Update item details from book
-                item.setTitle(book.getTitle());
-                item.setAuthor(book.getAuthor());
-                item.setIsbn(book.getIsbn());
-                if (item.getPrice() == null) {
-                    item.setPrice(book.getPrice());
-                }
-            } else {
+            Book book = books.get(item.getBookId());
+            if (book == null) {
                 throw new RuntimeException("Book not found with id: " + item.getBookId());
             }
+            
+            // Update item details from book
+            item.setTitle(book.getTitle());
+            item.setAuthor(book.getAuthor());
+            item.setIsbn(book.getIsbn());
+            if (item.getPrice() == null) {
+                item.setPrice(book.getPrice());
+            }
         }
     }
 
+    private void validateAndUpdateStock(Order order, Map<String, Book> books) {
+        // Conditional decrements in one bulk write; nothing is taken unless every book has enough
+        Map<String, Integer> quantities = stockQuantities(order);
+        Map<String, Integer> shortfalls = stockUpdates.take(quantities);
+        if (!shortfalls.isEmpty()) {
+            throw insufficientStock(books, quantities, shortfalls);
+        }
+    }
+
+    static RuntimeException insufficientStock(Map<String, Book> books, Map<String, Integer> quantities,
+                                              Map<String, Integer> shortfalls) {
+        Map.Entry<String, Integer> shortfall = shortfalls.entrySet().iterator().next();
+        return new RuntimeException("Insufficient stock for book: " + books.get(shortfall.getKey()).getTitle() + 
+            ". Available: " + shortfall.getValue() + ", Requested: " + quantities.get(shortfall.getKey()));
+    }
+
     private void restoreBookStock(Order order) {
+        stockUpdates.release(stockQuantities(order));
+    }
+
+    /**
+     * Total quantity per book, for orders listing a book more than once
+     */
+    static Map<String, Integer> stockQuantities(Order order) {
+        Map<String, Integer> quantities = new LinkedHashMap<>();
         for (Order.OrderItem item : order.getItems()) {
-            Optional<Book> bookOpt = bookRepository.findById(item.getBookId());
-            if (bookOpt.isPresent()) {
-                Book book = bookOpt.get();
-                book.updateStock(item.getQuantity());
-                bookRepository.save(book);
+            quantities.merge(item.getBookId(), item.getQuantity(), Integer::sum);
+        }
+        return quantities;
+    }
+
+    /**
+     * Sort key plus the raw BSON of an order, the record format of external sort runs
+     */
+    private static final class SortableOrder {
+        static final ExternalMergeSort.RecordCodec<SortableOrder> CODEC = 
+            new ExternalMergeSort.RecordCodec<>() {
+                @Override
+                public void write(SortableOrder order, DataOutput out) throws IOException {
+                    out.writeDouble(order.key);
+                    out.write(order.bson);
+                }
+                
+                @Override
+                public SortableOrder read(ByteBuffer in) {
+                    double key = in.getDouble();
+                    byte[] bson = new byte[in.remaining()];
+                    in.get(bson);
+                    return new SortableOrder(key, bson);
+                }
+            };
+        
+        final double key;
+        final byte[] bson;
+        
+        SortableOrder(double key, byte[] bson) {
+            this.key = key;
+            this.bson = bson;
+        }
+        
+        static SortableOrder of(RawBsonDocument document, String sortBy) {
+            BsonValue value = document.get(sortBy);
+            double key = Double.NEGATIVE_INFINITY;
+            if (value != null && value.isDateTime()) {
+                key = value.asDateTime().getValue();
+            } else if (value != null && value.isNumber()) {
+                key = value.asNumber().doubleValue();
             }
+            
+            ByteBuffer buffer = document.getByteBuffer().asNIO();
+            byte[] bson = new byte[buffer.remaining()];
+            buffer.get(bson);
+            return new SortableOrder(key, bson);
         }
     }
 
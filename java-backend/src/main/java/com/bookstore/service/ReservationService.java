@@ -0,0 +1,449 @@
+package com.bookstore.service;
+
+import com.bookstore.datastructures.TimerWheel;
+import com.bookstore.model.Book;
+import com.bookstore.model.Order;
+import com.bookstore.model.Reservation;
+import com.bookstore.repository.BookRepository;
+import com.bookstore.repository.StockUpdates;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Time-limited stock reservations for checkout.
+ *
+ * Reserving takes the cart's stock right away (see {@link StockUpdates})
+ * and records the hold in an in-memory ledger, with its expiry on a
+ * {@link TimerWheel}. A single background tick advances the wheel once a
+ * second, gives back the stock of every hold that ran out in one bulk
+ * write, and persists all reservations created or changed since the
+ * previous tick in one bulk write. Nothing polls the database per
+ * reservation. Confirming an order consumes its hold from the ledger, so
+ * the order is priced from the reservation without reading any book.
+ *
+ * Holds still open after a restart are reloaded from the reservations
+ * collection at startup; those whose order was already placed are closed
+ * and those that expired meanwhile are released. A hold created less than
+ * one tick before a crash is not yet persisted, and its stock stays taken
+ * until it is corrected by hand.
+ */
+@Service
+public class ReservationService {
+    
+    public static final int DEFAULT_TTL_SECONDS = 15 * 60;
+    public static final int MAX_TTL_SECONDS = 60 * 60;
+    private static final long TICK_MILLIS = 1000;
+    private static final int WHEEL_SLOTS = 512;
+    
+    @Autowired
+    private BookRepository bookRepository;
+    
+    @Autowired
+    private StockUpdates stockUpdates;
+    
+    @Autowired
+    private MongoTemplate mongoTemplate;
+    
+    private final ReentrantLock lock = new ReentrantLock();
+    private final TimerWheel<String> wheel = new TimerWheel<>(WHEEL_SLOTS, TICK_MILLIS, System.currentTimeMillis());
+    private final Map<String, Hold> ledger = new HashMap<>();              // open holds by reservation id
+    private final Map<String, Reservation> unsaved = new LinkedHashMap<>(); // changed since the last flush
+    private ScheduledExecutorService ticker;
+    
+    private final AtomicLong reserved = new AtomicLong();
+    private final AtomicLong confirmed = new AtomicLong();
+    private final AtomicLong released = new AtomicLong();
+    private final AtomicLong expired = new AtomicLong();
+    private final AtomicLong flushes = new AtomicLong();
+    private final AtomicLong persisted = new AtomicLong();
+    private volatile int lastFlushSize;
+    
+    private static final class Hold {
+        final Reservation reservation;
+        final TimerWheel.Timeout<String> timeout;
+        
+        Hold(Reservation reservation, TimerWheel.Timeout<String> timeout) {
+            this.reservation = reservation;
+            this.timeout = timeout;
+        }
+    }
+    
+    /**
+     * Reload open holds and start ticking once the application is up
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        try {
+            recover();
+        } catch (Exception e) {
+            System.err.println("Reservation recovery failed: " + e.getMessage());
+        }
+        ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "reservation-wheel");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleAtFixedRate(this::tick, TICK_MILLIS, TICK_MILLIS, TimeUnit.MILLISECONDS);
+    }
+    
+    @PreDestroy
+    public void stop() {
+        if (ticker != null) {
+            ticker.shutdown();
+        }
+        flush();
+    }
+    
+    private void recover() {
+        List<Reservation> open = mongoTemplate.find(
+            Query.query(Criteria.where("status").is(Reservation.HELD)), Reservation.class);
+        if (open.isEmpty()) {
+            return;
+        }
+        // Orders placed just before a restart may not have had their reservation marked yet
+        Set<String> ordered = new HashSet<>();
+        Query placed = Query.query(Criteria.where("reservationId").in(open.stream().map(Reservation::getId).toList()));
+        placed.fields().include("reservationId");
+        for (Order order : mongoTemplate.find(placed, Order.class)) {
+            ordered.add(order.getReservationId());
+        }
+        
+        LocalDateTime now = LocalDateTime.now();
+        List<Reservation> lapsed = new ArrayList<>();
+        lock.lock();
+        try {
+            for (Reservation reservation : open) {
+                if (ordered.contains(reservation.getId())) {
+                    mark(reservation, Reservation.CONFIRMED);
+                } else if (!reservation.getExpiresAt().isAfter(now)) {
+                    lapsed.add(reservation);
+                } else {
+                    ledger.put(reservation.getId(), new Hold(reservation,
+                        wheel.schedule(reservation.getId(), toMillis(reservation.getExpiresAt()))));
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        expire(lapsed);
+        flush();
+    }
+    
+    /**
+     * Take stock for a cart and hold it for a while
+     * @param customerId Customer placing the cart
+     * @param items Cart lines; only bookId and quantity are read
+     * @param ttlSeconds How long to hold the stock, or null for DEFAULT_TTL_SECONDS
+     * @return The held reservation, priced from the current books
+     */
+    public Reservation reserve(String customerId, List<Order.OrderItem> items, Integer ttlSeconds) {
+        int ttl = ttlSeconds != null ? ttlSeconds : DEFAULT_TTL_SECONDS;
+        if (ttl <= 0 || ttl > MAX_TTL_SECONDS) {
+            throw new IllegalArgumentException("TTL must be between 1 and " + MAX_TTL_SECONDS + " seconds");
+        }
+        if (customerId == null || customerId.isBlank()) {
+            throw new IllegalArgumentException("Customer ID is required");
+        }
+        if (items == null || items.isEmpty()) {
+            throw new IllegalArgumentException("Reservation items cannot be empty");
+        }
+        Map<String, Integer> quantities = new LinkedHashMap<>();
+        for (Order.OrderItem item : items) {
+            if (item.getBookId() == null || item.getQuantity() == null || item.getQuantity() <= 0) {
+                throw new IllegalArgumentException("Every item needs a book ID and a positive quantity");
+            }
+            quantities.merge(item.getBookId(), item.getQuantity(), Integer::sum);
+        }
+        
+        Map<String, Book> books = new HashMap<>();
+        for (Book book : bookRepository.findAllById(quantities.keySet())) {
+            books.put(book.getId(), book);
+        }
+        for (String bookId : quantities.keySet()) {
+            if (!books.containsKey(bookId)) {
+                throw new RuntimeException("Book not found with id: " + bookId);
+            }
+        }
+        Map<String, Integer> shortfalls = stockUpdates.take(quantities);
+        if (!shortfalls.isEmpty()) {
+            Map.Entry<String, Integer> shortfall = shortfalls.entrySet().iterator().next();
+            throw new RuntimeException("Insufficient stock for book: " + books.get(shortfall.getKey()).getTitle() +
+                ". Available: " + shortfall.getValue() + ", Requested: " + quantities.get(shortfall.getKey()));
+        }
+        
+        List<Order.OrderItem> lines = new ArrayList<>();
+        for (Map.Entry<String, Integer> entry : quantities.entrySet()) {
+            Book book = books.get(entry.getKey());
+            lines.add(new Order.OrderItem(book.getId(), book.getTitle(), book.getAuthor(), book.getIsbn(),
+                book.getPrice(), entry.getValue()));
+        }
+        LocalDateTime now = LocalDateTime.now();
+        Reservation reservation = new Reservation(UUID.randomUUID().toString(), customerId, lines,
+            now, now.plusSeconds(ttl));
+        
+        lock.lock();
+        try {
+            ledger.put(reservation.getId(), new Hold(reservation,
+                wheel.schedule(reservation.getId(), toMillis(reservation.getExpiresAt()))));
+            unsaved.put(reservation.getId(), reservation);
+        } finally {
+            lock.unlock();
+        }
+        reserved.incrementAndGet();
+        return reservation;
+    }
+    
+    /**
+     * Take an open hold out of the ledger for an order. The stock stays taken;
+     * follow up with confirm once the order is saved, or cancel if it is not.
+     * @param reservationId Reservation id
+     * @param customerId Customer placing the order; must own the reservation
+     * @return The reservation with the held items
+     */
+    public Reservation consume(String reservationId, String customerId) {
+        if (customerId == null) {
+            throw new RuntimeException("Customer id is required to use a reservation");
+        }
+        lock.lock();
+        try {
+            Hold hold = ledger.get(reservationId);
+            if (hold == null) {
+                throw new RuntimeException("Reservation not found or expired: " + reservationId);
+            }
+            if (!customerId.equals(hold.reservation.getCustomerId())) {
+                throw new RuntimeException("Reservation belongs to another customer");
+            }
+            ledger.remove(reservationId);
+            wheel.cancel(hold.timeout);
+            return hold.reservation;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Record that a consumed reservation became an order
+     */
+    public void confirm(Reservation reservation, String orderId) {
+        lock.lock();
+        try {
+            reservation.setOrderId(orderId);
+            mark(reservation, Reservation.CONFIRMED);
+        } finally {
+            lock.unlock();
+        }
+        confirmed.incrementAndGet();
+    }
+    
+    /**
+     * Give back the stock of a consumed reservation whose order failed
+     */
+    public void cancel(Reservation reservation) {
+        stockUpdates.release(quantities(List.of(reservation)));
+        lock.lock();
+        try {
+            mark(reservation, Reservation.RELEASED);
+        } finally {
+            lock.unlock();
+        }
+        released.incrementAndGet();
+    }
+    
+    /**
+     * Abandon a hold before it expires, e.g. when the customer leaves checkout
+     * @return The released reservation
+     */
+    public Reservation release(String reservationId, String customerId) {
+        Reservation reservation = consume(reservationId, customerId);
+        cancel(reservation);
+        return reservation;
+    }
+    
+    /**
+     * Look up a reservation, open or settled
+     */
+    public Reservation getReservation(String reservationId) {
+        lock.lock();
+        try {
+            Hold hold = ledger.get(reservationId);
+            if (hold != null) {
+                return hold.reservation;
+            }
+            if (unsaved.containsKey(reservationId)) {
+                return unsaved.get(reservationId);
+            }
+        } finally {
+            lock.unlock();
+        }
+        return mongoTemplate.findById(reservationId, Reservation.class);
+    }
+    
+    /**
+     * Expire due holds and persist pending changes; runs once per tick
+     */
+    void tick() {
+        try {
+            List<Reservation> due = new ArrayList<>();
+            lock.lock();
+            try {
+                for (String reservationId : wheel.advance(System.currentTimeMillis())) {
+                    Hold hold = ledger.remove(reservationId);
+                    if (hold != null) {
+                        due.add(hold.reservation);
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+            expire(due);
+            flush();
+        } catch (Exception e) {
+            System.err.println("Reservation tick failed: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Release the stock of lapsed holds in one bulk write; on failure they
+     * go back on the wheel to be retried next tick
+     */
+    private void expire(List<Reservation> due) {
+        if (due.isEmpty()) {
+            return;
+        }
+        try {
+            stockUpdates.release(quantities(due));
+        } catch (RuntimeException e) {
+            lock.lock();
+            try {
+                for (Reservation reservation : due) {
+                    ledger.put(reservation.getId(), new Hold(reservation,
+                        wheel.schedule(reservation.getId(), System.currentTimeMillis())));
+                }
+            } finally {
+                lock.unlock();
+            }
+            throw e;
+        }
+        lock.lock();
+        try {
+            for (Reservation reservation : due) {
+                mark(reservation, Reservation.EXPIRED);
+            }
+        } finally {
+            lock.unlock();
+        }
+        expired.addAndGet(due.size());
+    }
+    
+    /**
+     * Write every reservation changed since the last flush in one unordered bulk upsert
+     */
+    private void flush() {
+        List<Reservation> batch;
+        lock.lock();
+        try {
+            if (unsaved.isEmpty()) {
+                return;
+            }
+            batch = new ArrayList<>(unsaved.values());
+            unsaved.clear();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            BulkOperations writes = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Reservation.class);
+            for (Reservation reservation : batch) {
+                writes.replaceOne(Query.query(Criteria.where("id").is(reservation.getId())), reservation,
+                    FindAndReplaceOptions.options().upsert());
+            }
+            writes.execute();
+            flushes.incrementAndGet();
+            persisted.addAndGet(batch.size());
+            lastFlushSize = batch.size();
+        } catch (RuntimeException e) {
+            // Keep anything that changed again in the meantime, retry the rest next tick
+            lock.lock();
+            try {
+                for (Reservation reservation : batch) {
+                    unsaved.putIfAbsent(reservation.getId(), reservation);
+                }
+            } finally {
+                lock.unlock();
+            }
+            throw e;
+        }
+    }
+    
+    /**
+     * Set a reservation's status and queue it for the next flush; caller holds the lock
+     */
+    private void mark(Reservation reservation, String status) {
+        reservation.setStatus(status);
+        reservation.setUpdatedAt(LocalDateTime.now());
+        unsaved.put(reservation.getId(), reservation);
+    }
+    
+    private static Map<String, Integer> quantities(List<Reservation> reservations) {
+        Map<String, Integer> quantities = new LinkedHashMap<>();
+        for (Reservation reservation : reservations) {
+            for (Order.OrderItem item : reservation.getItems()) {
+                quantities.merge(item.getBookId(), item.getQuantity(), Integer::sum);
+            }
+        }
+        return quantities;
+    }
+    
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+    
+    /**
+     * Ledger statistics for monitoring
+     * @return Open holds, pending writes and lifetime counters
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        lock.lock();
+        try {
+            stats.put("held", ledger.size());
+            stats.put("scheduledTimers", wheel.size());
+            stats.put("pendingWrites", unsaved.size());
+        } finally {
+            lock.unlock();
+        }
+        stats.put("reserved", reserved.get());
+        stats.put("confirmed", confirmed.get());
+        stats.put("released", released.get());
+        stats.put("expired", expired.get());
+        stats.put("flushes", flushes.get());
+        stats.put("persisted", persisted.get());
+        stats.put("lastFlushSize", lastFlushSize);
+        stats.put("tickMillis", wheel.getTickMillis());
+        stats.put("wheelSlots", wheel.getSlotCount());
+        return stats;
+    }
+}
@@ -0,0 +1,157 @@
+package com.bookstore.utils;
+
+import com.bookstore.algorithms.ConcurrentHashSearch;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * HashContentionBenchmark runs the same mixed read/write workload against
+ * {@link ConcurrentHashSearch} and {@link ConcurrentHashMap} from several
+ * threads at once and reports throughput for each.
+ *
+ * Both tables are pre-populated with the same ISBN-like keys; every thread
+ * then performs opsPerThread random operations, a writeRatio fraction of
+ * them puts and the rest gets. Both implementations run an untimed warm-up
+ * round before either is measured, so neither pays for JIT compilation of
+ * the shared harness.
+ *
+ * @author Bookstore Team
+ * @version 1.0
+ */
+public class HashContentionBenchmark {
+    
+    /**
+     * Minimal common surface of the two tables
+     */
+    private interface Table {
+        void put(String key, Integer value);
+        Integer get(String key);
+    }
+    
+    private final int threads;
+    private final int keyCount;
+    private final int opsPerThread;
+    private final double writeRatio;
+    
+    public HashContentionBenchmark(int threads, int keyCount, int opsPerThread, double writeRatio) {
+        if (threads <= 0 || keyCount <= 0 || opsPerThread <= 0) {
+            throw new IllegalArgumentException("Threads, keys and operations must be positive");
+        }
+        if (writeRatio < 0 || writeRatio > 1) {
+            throw new IllegalArgumentException("Write ratio must be between 0 and 1");
+        }
+        this.threads = threads;
+        this.keyCount = keyCount;
+        this.opsPerThread = opsPerThread;
+        this.writeRatio = writeRatio;
+    }
+    
+    /**
+     * Runs the workload on both implementations
+     * @return Configuration plus one result map per implementation
+     */
+    public Map<String, Object> run() throws InterruptedException {
+        String[] keys = new String[keyCount];
+        for (int i = 0; i < keyCount; i++) {
+            keys[i] = String.format("978-%09d", i);
+        }
+        
+        Map<String, Object> results = new LinkedHashMap<>();
+        results.put("threads", threads);
+        results.put("keyCount", keyCount);
+        results.put("opsPerThread", opsPerThread);
+        results.put("writeRatio", writeRatio);
+        
+        Supplier<Table> hashSearchFactory = () -> {
+            ConcurrentHashSearch<String, Integer> table = new ConcurrentHashSearch<>();
+            return new Table() {
+                public void put(String key, Integer value) { table.put(key, value); }
+                public Integer get(String key) { return table.get(key); }
+            };
+        };
+        Supplier<Table> concurrentHashMapFactory = () -> {
+            ConcurrentHashMap<String, Integer> table = new ConcurrentHashMap<>();
+            return new Table() {
+                public void put(String key, Integer value) { table.put(key, value); }
+                public Integer get(String key) { return table.get(key); }
+            };
+        };
+        
+        // Warm-up
+        runRound(keys, hashSearchFactory.get());
+        runRound(keys, concurrentHashMapFactory.get());
+        
+        Map<String, Object> hashSearch = measure(keys, hashSearchFactory.get());
+        Map<String, Object> concurrentHashMap = measure(keys, concurrentHashMapFactory.get());
+        
+        results.put("concurrentHashSearch", hashSearch);
+        results.put("concurrentHashMap", concurrentHashMap);
+        results.put("throughputRatio",
+            (double) hashSearch.get("opsPerSecond") / (double) concurrentHashMap.get("opsPerSecond"));
+        return results;
+    }
+    
+    private Map<String, Object> measure(String[] keys, Table table) throws InterruptedException {
+        long elapsedNanos = runRound(keys, table);
+        long totalOps = (long) threads * opsPerThread;
+        
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("elapsedMs", elapsedNanos / 1_000_000.0);
+        result.put("opsPerSecond", totalOps * 1_000_000_000.0 / elapsedNanos);
+        result.put("nanosPerOp", (double) elapsedNanos * threads / totalOps);
+        return result;
+    }
+    
+    /**
+     * Pre-populates the table, releases all workers together and waits for them
+     * @return Wall-clock nanoseconds from release to the last worker finishing
+     */
+    private long runRound(String[] keys, Table table) throws InterruptedException {
+        for (int i = 0; i < keys.length; i++) {
+            table.put(keys[i], i);
+        }
+        
+        CountDownLatch ready = new CountDownLatch(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        long[] sink = new long[threads];
+        
+        for (int t = 0; t < threads; t++) {
+            int worker = t;
+            Thread thread = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                long checksum = 0;
+                ready.countDown();
+                try {
+                    start.await();
+                    for (int op = 0; op < opsPerThread; op++) {
+                        String key = keys[random.nextInt(keys.length)];
+                        if (random.nextDouble() < writeRatio) {
+                            table.put(key, op);
+                        } else {
+                            Integer value = table.get(key);
+                            checksum += value != null ? value : 0;
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    sink[worker] = checksum;
+                    done.countDown();
+                }
+            }, "hash-benchmark-" + t);
+            thread.setDaemon(true);
+            thread.start();
+        }
+        
+        ready.await();
+        long startTime = System.nanoTime();
+        start.countDown();
+        done.await();
+        return System.nanoTime() - startTime;
+    }
+}
@@ -0,0 +1,251 @@
+package com.bookstore.utils;
+
+import com.bookstore.model.Book;
+import com.bookstore.model.StockShard;
+import com.bookstore.repository.StockUpdates;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * StockContentionBenchmark places concurrent orders against a small set of
+ * hot books and compares two ways of taking their stock: the per-item
+ * findById/check/save loop orders used before, and the conditional $inc
+ * bulk write of {@link StockUpdates}.
+ *
+ * Each run gets fresh books in a scratch collection, which is dropped
+ * afterwards, so the catalog is never touched. Besides orders per second
+ * the result reports lost updates: units that were sold but are still on
+ * the shelf because a concurrent save overwrote the decrement.
+ *
+ * A second workload sends every order to a single hot book whose stock is
+ * split over an increasing number of shards, showing how checkout
+ * throughput scales with the shard count.
+ *
+ * @author Bookstore Team
+ * @version 1.0
+ */
+public class StockContentionBenchmark {
+    
+    private static final String COLLECTION = "stock_benchmark";
+    private static final String SHARD_COLLECTION = "stock_benchmark_shards";
+    private static final String HOT_BOOK = "hot-book";
+    
+    /**
+     * One way of taking stock for an order
+     */
+    private interface Strategy {
+        /**
+         * @return Units actually decremented (the old loop can stop halfway)
+         */
+        int placeOrder(Map<String, Integer> quantities);
+    }
+    
+    private final MongoTemplate mongoTemplate;
+    private final StockUpdates stockUpdates;
+    private final int threads;
+    private final int ordersPerThread;
+    private final int bookCount;
+    private final int itemsPerOrder;
+    private final int initialStock;
+    
+    public StockContentionBenchmark(MongoTemplate mongoTemplate, StockUpdates stockUpdates,
+                                    int threads, int ordersPerThread, int bookCount, int itemsPerOrder, int initialStock) {
+        if (threads <= 0 || ordersPerThread <= 0 || bookCount <= 0 || itemsPerOrder <= 0) {
+            throw new IllegalArgumentException("Threads, orders, books and items per order must be positive");
+        }
+        if (itemsPerOrder > bookCount) {
+            throw new IllegalArgumentException("Items per order cannot exceed the number of books");
+        }
+        if (initialStock < 0) {
+            throw new IllegalArgumentException("Initial stock must be non-negative");
+        }
+        this.mongoTemplate = mongoTemplate;
+        this.stockUpdates = stockUpdates;
+        this.threads = threads;
+        this.ordersPerThread = ordersPerThread;
+        this.bookCount = bookCount;
+        this.itemsPerOrder = itemsPerOrder;
+        this.initialStock = initialStock;
+    }
+    
+    /**
+     * Runs the workload with both strategies
+     * @return Configuration plus one result map per strategy
+     */
+    public Map<String, Object> run() throws InterruptedException {
+        Map<String, Object> results = new LinkedHashMap<>();
+        results.put("threads", threads);
+        results.put("ordersPerThread", ordersPerThread);
+        results.put("books", bookCount);
+        results.put("itemsPerOrder", itemsPerOrder);
+        results.put("initialStock", initialStock);
+        
+        Strategy readModifyWrite = quantities -> {
+            int taken = 0;
+            for (Map.Entry<String, Integer> item : quantities.entrySet()) {
+                Book book = mongoTemplate.findById(item.getKey(), Book.class, COLLECTION);
+                if (book == null || book.getStockQuantity() < item.getValue()) {
+                    return taken;
+                }
+                book.updateStock(-item.getValue());
+                mongoTemplate.save(book, COLLECTION);
+                taken += item.getValue();
+            }
+            return taken;
+        };
+        Strategy bulkConditional = quantities -> stockUpdates.take(quantities, COLLECTION).isEmpty()
+            ? quantities.values().stream().mapToInt(Integer::intValue).sum()
+            : 0;
+        
+        try {
+            Map<String, Object> before = measure(readModifyWrite);
+            Map<String, Object> after = measure(bulkConditional);
+            results.put("readModifyWrite", before);
+            results.put("bulkConditional", after);
+            results.put("throughputRatio",
+                (double) after.get("ordersPerSecond") / (double) before.get("ordersPerSecond"));
+        } finally {
+            mongoTemplate.dropCollection(COLLECTION);
+        }
+        return results;
+    }
+    
+    /**
+     * Runs single-book orders against one hot book sharded each of the given ways
+     * @param shardCounts Shard counts to compare, e.g. 1, 2, 4, 8
+     * @return Configuration plus one result map per shard count
+     */
+    public Map<String, Object> runShardScaling(List<Integer> shardCounts) throws InterruptedException {
+        Map<String, Object> results = new LinkedHashMap<>();
+        results.put("threads", threads);
+        results.put("ordersPerThread", ordersPerThread);
+        results.put("initialStock", initialStock);
+        
+        List<Map<String, Object>> runs = new ArrayList<>();
+        try {
+            for (int shards : shardCounts) {
+                if (shards < 1 || shards > StockUpdates.MAX_SHARDS) {
+                    throw new IllegalArgumentException("Shard count must be between 1 and " + StockUpdates.MAX_SHARDS);
+                }
+                mongoTemplate.dropCollection(SHARD_COLLECTION);
+                List<StockShard> documents = new ArrayList<>();
+                for (int i = 0; i < shards; i++) {
+                    documents.add(new StockShard(HOT_BOOK, i, initialStock / shards + (i < initialStock % shards ? 1 : 0)));
+                }
+                mongoTemplate.insert(documents, SHARD_COLLECTION);
+                
+                Map<String, Object> run = new LinkedHashMap<>();
+                run.put("shards", shards);
+                run.putAll(runOrders(quantities -> stockUpdates.takeFromShards(HOT_BOOK, 1, shards, SHARD_COLLECTION) ? 1 : 0,
+                    new String[] { HOT_BOOK }, 1));
+                long remaining = 0;
+                for (StockShard shard : mongoTemplate.findAll(StockShard.class, SHARD_COLLECTION)) {
+                    remaining += shard.getQuantity();
+                }
+                run.put("remainingStock", remaining);
+                run.put("lostUpdates", remaining - (initialStock - (long) run.get("unitsTaken")));
+                runs.add(run);
+            }
+        } finally {
+            mongoTemplate.dropCollection(SHARD_COLLECTION);
+        }
+        results.put("runs", runs);
+        if (!runs.isEmpty()) {
+            double baseline = (double) runs.get(0).get("ordersPerSecond");
+            for (Map<String, Object> run : runs) {
+                run.put("speedup", (double) run.get("ordersPerSecond") / baseline);
+            }
+        }
+        return results;
+    }
+    
+    private Map<String, Object> measure(Strategy strategy) throws InterruptedException {
+        mongoTemplate.dropCollection(COLLECTION);
+        List<Book> books = new ArrayList<>();
+        for (int i = 0; i < bookCount; i++) {
+            Book book = new Book();
+            book.setTitle("Stock benchmark " + i);
+            book.setIsbn(String.format("000-%09d", i));
+            book.setStockQuantity(initialStock);
+            book.setInStock(initialStock > 0);
+            books.add(book);
+        }
+        String[] ids = mongoTemplate.insert(books, COLLECTION).stream().map(Book::getId).toArray(String[]::new);
+        
+        Map<String, Object> result = runOrders(strategy, ids, itemsPerOrder);
+        long remaining = 0;
+        for (Book book : mongoTemplate.findAll(Book.class, COLLECTION)) {
+            remaining += book.getStockQuantity();
+        }
+        long expectedRemaining = (long) initialStock * bookCount - (long) result.get("unitsTaken");
+        result.put("remainingStock", remaining);
+        result.put("lostUpdates", remaining - expectedRemaining);
+        return result;
+    }
+    
+    /**
+     * Releases all workers together, each placing ordersPerThread orders of
+     * itemsPerOrder distinct random books, and waits for them
+     * @return Timing, throughput, accepted/rejected orders and units taken
+     */
+    private Map<String, Object> runOrders(Strategy strategy, String[] ids, int itemsPerOrder) throws InterruptedException {
+        AtomicLong accepted = new AtomicLong();
+        AtomicLong unitsTaken = new AtomicLong();
+        CountDownLatch ready = new CountDownLatch(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        List<Throwable> failures = Collections.synchronizedList(new ArrayList<>());
+        
+        for (int t = 0; t < threads; t++) {
+            Thread thread = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                ready.countDown();
+                try {
+                    start.await();
+                    for (int order = 0; order < ordersPerThread; order++) {
+                        Map<String, Integer> quantities = new LinkedHashMap<>();
+                        while (quantities.size() < itemsPerOrder) {
+                            quantities.put(ids[random.nextInt(ids.length)], 1);
+                        }
+                        int taken = strategy.placeOrder(quantities);
+                        unitsTaken.addAndGet(taken);
+                        if (taken == itemsPerOrder) {
+                            accepted.incrementAndGet();
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (RuntimeException e) {
+                    failures.add(e);
+                } finally {
+                    done.countDown();
+                }
+            }, "stock-benchmark-" + t);
+            thread.setDaemon(true);
+            thread.start();
+        }
+        
+        ready.await();
+        long startTime = System.nanoTime();
+        start.countDown();
+        done.await();
+        long elapsedNanos = System.nanoTime() - startTime;
+        if (!failures.isEmpty()) {
+            throw new IllegalStateException("Benchmark worker failed: " + failures.get(0).getMessage(), failures.get(0));
+        }
+        
+        long totalOrders = (long) threads * ordersPerThread;
+        
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("elapsedMs", elapsedNanos / 1_000_000.0);
+        result.put("ordersPerSecond", totalOrders * 1_000_000_000.0 / elapsedNanos);
+        result.put("acceptedOrders", accepted.get());
+        result.put("rejectedOrders", totalOrders - accepted.get());
+        result.put("unitsTaken", unitsTaken.get());
+        return result;
+    }
+}